@@ -0,0 +1,101 @@
+#!/bin/bash
+#
+# Copyright 2026 Google LLC
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     https://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+
+# Measures the cold-start time of the schema diff tool: the wall time from
+# starting a new JVM until the first ALTER statement of a one-table diff has
+# been written to the output file and the JVM has exited, and for comparison
+# the wall time to print the --help text, which does not parse any DDL.
+#
+# Each configuration is run several times, and the minimum, median and maximum
+# times in milliseconds are reported:
+#   no-cds:  without any class-data sharing (-Xshare:off)
+#   jdk-cds: with the default class-data sharing archive of the JDK
+#   app-cds: with the application archive created by the appcds Maven profile
+#
+# Usage: cold-start-benchmark.sh [RUNS] [TARGET_DIR]
+#   RUNS defaults to 10, TARGET_DIR to the Maven target directory.
+
+set -e
+
+RUNS="${1:-10}"
+DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+TARGET_DIR="${2:-${DIR}/../../target}"
+JARS=("${TARGET_DIR}"/spanner-ddl-diff-*-jar-with-dependencies.jar)
+ARCHIVE="${TARGET_DIR}/spanner-ddl-diff.jsa"
+JDK_FILE="${TARGET_DIR}/spanner-ddl-diff.jdk"
+if [[ ! -f "${JARS[0]}" || ! -f "${ARCHIVE}" || ! -f "${JDK_FILE}" ]]; then
+  echo "Build the jar and archive first with: mvn -Pappcds -DskipTests verify" >&2
+  exit 1
+fi
+# The archive can only be used by the JDK which created it, so every
+# configuration runs on that JDK.
+JAVA="$(cat "${JDK_FILE}")/bin/java"
+
+WORK_DIR="$(mktemp -d)"
+trap 'rm -rf "${WORK_DIR}"' EXIT
+echo "CREATE TABLE t1 (c1 INT64) PRIMARY KEY (c1)" >"${WORK_DIR}/original.ddl"
+echo "CREATE TABLE t1 (c1 INT64, c2 STRING(MAX)) PRIMARY KEY (c1)" >"${WORK_DIR}/new.ddl"
+
+# Prints the help text once with the given JVM options, printing the time in ms.
+run_help_once() {
+  local start end
+  start=$(date +%s%N)
+  "${JAVA}" "$@" -jar "${JARS[0]}" --help >/dev/null 2>&1 || true
+  end=$(date +%s%N)
+  echo $(((end - start) / 1000000))
+}
+
+# Runs the diff once with the given JVM options, printing the time in ms.
+run_once() {
+  rm -f "${WORK_DIR}/output.ddl"
+  local start end
+  start=$(date +%s%N)
+  "${JAVA}" "$@" -jar "${JARS[0]}" \
+    --originalDdlFile "${WORK_DIR}/original.ddl" \
+    --newDdlFile "${WORK_DIR}/new.ddl" \
+    --outputDdlFile "${WORK_DIR}/output.ddl" >/dev/null 2>&1
+  end=$(date +%s%N)
+  if ! grep -q "ALTER TABLE" "${WORK_DIR}/output.ddl"; then
+    echo "No statement was generated with options: $*" >&2
+    exit 1
+  fi
+  echo $(((end - start) / 1000000))
+}
+
+# Runs the function RUNS times with the given JVM options, printing the summary.
+benchmark() {
+  local name="$1"
+  local run="$2"
+  shift 2
+  local times=()
+  for ((i = 0; i < RUNS; i++)); do
+    times+=("$("${run}" "$@")")
+  done
+  local sorted
+  mapfile -t sorted < <(printf '%s\n' "${times[@]}" | sort -n)
+  printf '%-13s min %5d ms   median %5d ms   max %5d ms\n' "${name}" \
+    "${sorted[0]}" "${sorted[$((RUNS / 2))]}" "${sorted[$((RUNS - 1))]}"
+}
+
+APP_CDS=(-XX:SharedArchiveFile="${ARCHIVE}" -Xlog:cds=off -Xlog:cds+dynamic=off)
+
+echo "Cold start time over ${RUNS} runs, $("${JAVA}" -version 2>&1 | head -1)"
+benchmark "help no-cds" run_help_once -Xshare:off
+benchmark "help jdk-cds" run_help_once -Xshare:auto
+benchmark "help app-cds" run_help_once "${APP_CDS[@]}"
+benchmark "diff no-cds" run_once -Xshare:off
+benchmark "diff jdk-cds" run_once -Xshare:auto
+benchmark "diff app-cds" run_once "${APP_CDS[@]}"
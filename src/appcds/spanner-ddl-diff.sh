@@ -0,0 +1,48 @@
+#!/bin/bash
+#
+# Copyright 2026 Google LLC
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     https://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+
+# Runs the schema diff tool from the jar with dependencies in the same
+# directory as this script, using the application class-data sharing archive
+# spanner-ddl-diff.jsa when it exists.
+#
+# The archive is created by the appcds Maven profile, and can only be used by
+# the same JDK that created it, so the launcher runs the JDK recorded in
+# spanner-ddl-diff.jdk. Without the archive, or when that JDK is missing, the
+# JDK in JAVA_HOME or on the PATH is used without the archive.
+# Extra JVM options can be passed in JAVA_OPTS.
+
+DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+JAVA="${JAVA_HOME:+${JAVA_HOME}/bin/}java"
+
+JARS=("${DIR}"/spanner-ddl-diff-*-jar-with-dependencies.jar)
+if [[ ! -f "${JARS[0]}" ]]; then
+  echo "No spanner-ddl-diff-*-jar-with-dependencies.jar in ${DIR}" >&2
+  exit 1
+fi
+
+ARCHIVE="${DIR}/spanner-ddl-diff.jsa"
+ARCHIVE_JAVA="$(cat "${DIR}/spanner-ddl-diff.jdk" 2>/dev/null)/bin/java"
+CDS_OPTS=()
+if [[ -f "${ARCHIVE}" && -x "${ARCHIVE_JAVA}" ]]; then
+  JAVA="${ARCHIVE_JAVA}"
+  # Do not log the classes which were not archived.
+  CDS_OPTS=(-XX:SharedArchiveFile="${ARCHIVE}" -Xlog:cds=off -Xlog:cds+dynamic=off)
+elif [[ -f "${ARCHIVE}" ]]; then
+  echo "The JDK which created ${ARCHIVE} was not found, starting without it" >&2
+fi
+
+# shellcheck disable=SC2086 # JAVA_OPTS is split into separate options.
+exec "${JAVA}" "${CDS_OPTS[@]}" ${JAVA_OPTS} -jar "${JARS[0]}" "$@"
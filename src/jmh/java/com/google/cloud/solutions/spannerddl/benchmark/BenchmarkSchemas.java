@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.benchmark;
+
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STATEMENTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.IGNORE_PROTO_BUNDLES_OPT;
+
+import com.google.cloud.solutions.spannerddl.testUtils.SchemaGenerator;
+import com.google.common.collect.ImmutableMap;
+
+/** Builds DDL schemas and individual DDL statements of a given size for the benchmarks. */
+public final class BenchmarkSchemas {
+
+  /** Options allowing all kinds of changes, so that every difference generates statements. */
+  public static final ImmutableMap<String, Boolean> OPTIONS =
+      ImmutableMap.of(
+          ALLOW_DROP_STATEMENTS_OPT, true,
+          ALLOW_RECREATE_INDEXES_OPT, true,
+          ALLOW_RECREATE_CONSTRAINTS_OPT, true,
+          IGNORE_PROTO_BUNDLES_OPT, false);
+
+  /** The kinds of statement which can be generated by {@link #statement}. */
+  public enum StatementType {
+    CREATE_TABLE,
+    CREATE_INDEX,
+    CREATE_SEARCH_INDEX,
+    ALTER_TABLE_ADD_FOREIGN_KEY,
+    CREATE_CHANGE_STREAM,
+    CREATE_LOCALITY_GROUP,
+    ALTER_DATABASE
+  }
+
+  private BenchmarkSchemas() {}
+
+  /**
+   * Returns a generator for a schema with the given number of tables, with the number of every
+   * other kind of schema object scaled to match, where one object in ten is changed in the new DDL.
+   */
+  public static SchemaGenerator schemaGenerator(int tables) {
+    return new SchemaGenerator()
+        .seed(tables)
+        .tables(tables)
+        .columnsPerTable(10)
+        .interleaveDepth(3)
+        .indexes(tables)
+        .searchIndexes(Math.max(1, tables / 10))
+        .foreignKeys(tables / 2)
+        .checkConstraints(tables / 2)
+        .changeStreams(Math.max(1, tables / 20))
+        .localityGroups(Math.max(1, tables / 50))
+        .databaseOptions(2)
+        .changePercent(10);
+  }
+
+  /**
+   * Returns a single statement of the given type, where size is the number of columns, key parts,
+   * tracked tables or options in the statement.
+   */
+  public static String statement(StatementType type, int size) {
+    StringBuilder ddl = new StringBuilder();
+    switch (type) {
+      case CREATE_TABLE:
+        ddl.append("CREATE TABLE test (");
+        for (int i = 0; i < size; i++) {
+          ddl.append("col").append(i).append(i % 2 == 0 ? " INT64 NOT NULL, " : " STRING(MAX), ");
+        }
+        return ddl.append(") PRIMARY KEY (col0)").toString();
+      case CREATE_INDEX:
+        ddl.append("CREATE UNIQUE NULL_FILTERED INDEX test_idx ON test (");
+        appendList(ddl, "col", " DESC", size);
+        return ddl.append(") STORING (stored)").toString();
+      case CREATE_SEARCH_INDEX:
+        ddl.append("CREATE SEARCH INDEX test_idx ON test (");
+        appendList(ddl, "tokens", "", size);
+        return ddl.append(") OPTIONS (sort_order_sharding=true)").toString();
+      case ALTER_TABLE_ADD_FOREIGN_KEY:
+        ddl.append("ALTER TABLE test ADD CONSTRAINT test_fk FOREIGN KEY (");
+        appendList(ddl, "col", "", size);
+        ddl.append(") REFERENCES other (");
+        appendList(ddl, "col", "", size);
+        return ddl.append(") ON DELETE CASCADE").toString();
+      case CREATE_CHANGE_STREAM:
+        ddl.append("CREATE CHANGE STREAM test_stream FOR ");
+        appendList(ddl, "table", "", size);
+        return ddl.append(" OPTIONS (retention_period='7d')").toString();
+      case CREATE_LOCALITY_GROUP:
+        ddl.append("CREATE LOCALITY GROUP test_group OPTIONS (");
+        appendOptions(ddl, size);
+        return ddl.append(")").toString();
+      case ALTER_DATABASE:
+        ddl.append("ALTER DATABASE test SET OPTIONS (");
+        appendOptions(ddl, size);
+        return ddl.append(")").toString();
+    }
+    throw new IllegalArgumentException("Unknown statement type: " + type);
+  }
+
+  private static void appendList(StringBuilder ddl, String prefix, String suffix, int size) {
+    for (int i = 0; i < size; i++) {
+      ddl.append(i == 0 ? "" : ", ").append(prefix).append(i).append(suffix);
+    }
+  }
+
+  private static void appendOptions(StringBuilder ddl, int size) {
+    for (int i = 0; i < size; i++) {
+      ddl.append(i == 0 ? "" : ", ").append("option").append(i).append("='value").append(i);
+      ddl.append('\'');
+    }
+  }
+}
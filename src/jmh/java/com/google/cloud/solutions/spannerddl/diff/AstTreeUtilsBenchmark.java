@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import com.google.cloud.solutions.spannerddl.benchmark.BenchmarkSchemas;
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures rendering parsed statements back to DDL text, which is also how AST nodes are compared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AstTreeUtilsBenchmark {
+
+  /** Number of tables in the schema generated by {@link BenchmarkSchemas#schemaGenerator}. */
+  @Param({"10", "100", "1000"})
+  public int tables;
+
+  private List<ASTddl_statement> statements;
+
+  @Setup
+  public void setUp() throws DdlDiffException {
+    statements = DdlDiff.parseDdl(BenchmarkSchemas.schemaGenerator(tables).generateOriginalDdl());
+  }
+
+  @Benchmark
+  public void tokensToString(Blackhole blackhole) {
+    for (ASTddl_statement statement : statements) {
+      blackhole.consume(AstTreeUtils.tokensToString(statement));
+    }
+  }
+
+  @Benchmark
+  public void tokensToStringWithoutUpperCasing(Blackhole blackhole) {
+    for (ASTddl_statement statement : statements) {
+      blackhole.consume(AstTreeUtils.tokensToString(statement, false));
+    }
+  }
+}
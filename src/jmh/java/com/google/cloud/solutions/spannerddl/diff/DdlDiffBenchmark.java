@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import com.google.cloud.solutions.spannerddl.benchmark.BenchmarkSchemas;
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.cloud.solutions.spannerddl.testUtils.SchemaGenerator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each phase of generating a diff separately, at several schema sizes.
+ *
+ * <p>Each benchmark starts from the output of the previous phase, prepared in {@link #setUp}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DdlDiffBenchmark {
+
+  /** Number of tables in the schema generated by {@link BenchmarkSchemas#schemaGenerator}. */
+  @Param({"10", "100", "1000"})
+  public int tables;
+
+  private String originalDdl;
+  private List<ASTddl_statement> originalStatements;
+  private DatabaseDefinition originalDb;
+  private DatabaseDefinition newDb;
+  private DdlDiff ddlDiff;
+
+  @Setup
+  public void setUp() throws DdlDiffException {
+    SchemaGenerator generator = BenchmarkSchemas.schemaGenerator(tables);
+    originalDdl = generator.generateOriginalDdl();
+    originalStatements = DdlDiff.parseDdl(originalDdl);
+    List<ASTddl_statement> newStatements = DdlDiff.parseDdl(generator.generateNewDdl());
+    originalDb = DatabaseDefinition.create(originalStatements, BenchmarkSchemas.OPTIONS);
+    newDb = DatabaseDefinition.create(newStatements, BenchmarkSchemas.OPTIONS);
+    ddlDiff = new DdlDiff(originalDb, newDb, null);
+    // Fail fast if the generated schemas cannot be diffed.
+    ddlDiff.generateDifferenceStatements(BenchmarkSchemas.OPTIONS);
+  }
+
+  /** Comment removal, splitting and parsing of a whole DDL file. */
+  @Benchmark
+  public List<ASTddl_statement> parseDdl() throws DdlDiffException {
+    return DdlDiff.parseDdl(originalDdl);
+  }
+
+  @Benchmark
+  public DatabaseDefinition createDatabaseDefinition() {
+    return DatabaseDefinition.create(originalStatements, BenchmarkSchemas.OPTIONS);
+  }
+
+  /** Construction runs all the Maps.difference() comparisons of the two schemas. */
+  @Benchmark
+  public DdlDiff constructDdlDiff() throws DdlDiffException {
+    return new DdlDiff(originalDb, newDb, null);
+  }
+
+  @Benchmark
+  public List<String> generateDifferenceStatements() throws DdlDiffException {
+    return ddlDiff.generateDifferenceStatements(BenchmarkSchemas.OPTIONS);
+  }
+}
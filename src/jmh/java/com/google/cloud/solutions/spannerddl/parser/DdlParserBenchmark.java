@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.parser;
+
+import com.google.cloud.solutions.spannerddl.benchmark.BenchmarkSchemas;
+import com.google.cloud.solutions.spannerddl.benchmark.BenchmarkSchemas.StatementType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures parsing a single DDL statement of each type, at several statement sizes. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DdlParserBenchmark {
+
+  @Param public StatementType statementType;
+
+  /** Number of columns, key parts, tracked tables or options in the statement. */
+  @Param({"1", "10", "100"})
+  public int size;
+
+  private String statement;
+
+  @Setup
+  public void setUp() throws ParseException {
+    statement = BenchmarkSchemas.statement(statementType, size);
+    // Fail fast if the generated statement is not valid.
+    DdlParser.parseDdlStatement(statement);
+    DdlFastParser.parseDdlStatement(statement);
+  }
+
+  @Benchmark
+  public ASTddl_statement parseDdlStatement() throws ParseException {
+    return DdlParser.parseDdlStatement(statement);
+  }
+
+  @Benchmark
+  public ASTddl_statement parseDdlStatementFastPath() throws ParseException {
+    return DdlFastParser.parseDdlStatement(statement);
+  }
+}
@@ -22,6 +22,7 @@ import com.google.cloud.solutions.spannerddl.parser.SimpleNode;
 import com.google.cloud.solutions.spannerddl.parser.Token;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
@@ -77,15 +78,27 @@ public class AstTreeUtils {
     return child;
   }
 
-  private static final Set<String> reservedWords =
-      Arrays.stream(DdlParserConstants.tokenImage)
-          .filter(s -> s.charAt(0) == '"')
-          .map(s -> s.substring(1, s.length() - 1))
-          .collect(Collectors.toSet());
+  /**
+   * The reserved words, in a holder class so that they are only built from the parser's token
+   * images when first used, rather than whenever this class is loaded.
+   */
+  private static final class ReservedWords {
+    static final Set<String> WORDS = build();
+
+    private static Set<String> build() {
+      Set<String> words = new HashSet<>(DdlParserConstants.tokenImage.length * 2);
+      for (String image : DdlParserConstants.tokenImage) {
+        if (image.charAt(0) == '"') {
+          words.add(image.substring(1, image.length() - 1));
+        }
+      }
+      return words;
+    }
+  }
 
   /** Checks if the word is a reserved word/known token. */
   public static boolean isReservedWord(String word) {
-    return reservedWords.contains(word);
+    return ReservedWords.WORDS.contains(word);
   }
 
   /**
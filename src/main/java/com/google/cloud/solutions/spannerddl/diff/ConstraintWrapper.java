@@ -20,6 +20,7 @@ import com.google.auto.value.AutoValue;
 import com.google.cloud.solutions.spannerddl.parser.ASTcheck_constraint;
 import com.google.cloud.solutions.spannerddl.parser.ASTforeign_key;
 import com.google.cloud.solutions.spannerddl.parser.SimpleNode;
+import com.google.common.base.Equivalence;
 
 /**
  * Wrapper class for Check and Foreign Key constraints to include the table name for when they are
@@ -29,6 +30,10 @@ import com.google.cloud.solutions.spannerddl.parser.SimpleNode;
 @AutoValue
 abstract class ConstraintWrapper {
 
+  /** Compares constraints by their table and definition, ignoring the case of identifiers. */
+  static final Equivalence<ConstraintWrapper> EQUIVALENCE =
+      Equivalence.equals().onResultOf(ConstraintWrapper::comparisonKey);
+
   static ConstraintWrapper create(String tableName, SimpleNode constraint) {
     if (!(constraint instanceof ASTforeign_key) && !(constraint instanceof ASTcheck_constraint)) {
       throw new IllegalArgumentException("not a valid constraint type : " + constraint.toString());
@@ -49,4 +54,12 @@ abstract class ConstraintWrapper {
     }
     throw new IllegalArgumentException("not a valid constraint type : " + constraint().toString());
   }
+
+  private String comparisonKey() {
+    String definition =
+        constraint() instanceof ASTcheck_constraint
+            ? ((ASTcheck_constraint) constraint()).toNormalizedString()
+            : Identifiers.canonical(constraint().toString());
+    return Identifiers.canonical(tableName()) + " " + definition;
+  }
 }
@@ -27,17 +27,29 @@ import com.google.cloud.solutions.spannerddl.parser.ASTcreate_locality_group_sta
 import com.google.cloud.solutions.spannerddl.parser.ASTcreate_or_replace_statement;
 import com.google.cloud.solutions.spannerddl.parser.ASTcreate_schema_statement;
 import com.google.cloud.solutions.spannerddl.parser.ASTcreate_search_index_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_sequence_statement;
 import com.google.cloud.solutions.spannerddl.parser.ASTcreate_table_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_vector_index_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_view_statement;
 import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
 import com.google.cloud.solutions.spannerddl.parser.ASTforeign_key;
 import com.google.cloud.solutions.spannerddl.parser.ASTrow_deletion_policy_clause;
 import com.google.cloud.solutions.spannerddl.parser.DdlParserTreeConstants;
 import com.google.cloud.solutions.spannerddl.parser.SimpleNode;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Separates the different DDL creation statements into separate maps.
@@ -47,6 +59,9 @@ import java.util.Optional;
  *
  * <p>This allows the diff tool to handle these objects which are created inline with the table in
  * the same way as if they were created separately with ALTER statements.
+ *
+ * <p>As Spanner identifiers are case-insensitive, each map is keyed by the canonical name of the
+ * object (see {@link Identifiers#canonical}), while the statements keep the original spelling.
  */
 @AutoValue
 public abstract class DatabaseDefinition {
@@ -58,123 +73,357 @@ public abstract class DatabaseDefinition {
    */
   public static DatabaseDefinition create(
       List<ASTddl_statement> statements, Map<String, Boolean> options) {
+    Object event = DiffEvents.beginCreateDatabaseDefinition();
+    DatabaseDefinition db = createDefinition(statements, options);
+    DiffEvents.endCreateDatabaseDefinition(event, statements.size(), db);
+    return db;
+  }
+
+  /**
+   * Create a database definition from a new version of the statements of {@code previous}, given
+   * the {@link #entriesOf entries} of each statement of both versions.
+   *
+   * <p>Entries are compared by identity, so unchanged statements must keep the same list of
+   * entries. Only the maps of the kinds of objects which an added or removed statement defines are
+   * rebuilt, from the entries of the statements. The maps of all other kinds are reused from {@code
+   * previous}, so that a {@link DifferenceCache} can reuse their differences as well. If the
+   * unchanged statements have been reordered, all maps are rebuilt.
+   *
+   * @param previous the definition created from {@code previousEntries}
+   * @param previousEntries the entries of each statement of the previous version, in order
+   * @param entries the entries of each statement of the new version, in order
+   * @return DatabaseDefinition instance
+   */
+  static DatabaseDefinition update(
+      DatabaseDefinition previous,
+      List<ImmutableList<Entry>> previousEntries,
+      List<ImmutableList<Entry>> entries) {
+    Object event = DiffEvents.beginCreateDatabaseDefinition();
+    DatabaseDefinition db = previous;
+    Set<ObjectKind> changedKinds = changedKinds(previousEntries, entries);
+    if (!changedKinds.isEmpty()) {
+      db = build(entries, changedKinds, previous);
+    }
+    DiffEvents.endCreateDatabaseDefinition(event, entries.size(), db);
+    return db;
+  }
+
+  private static DatabaseDefinition createDefinition(
+      List<ASTddl_statement> statements, Map<String, Boolean> options) {
+    List<ImmutableList<Entry>> entries = new ArrayList<>(statements.size());
+    for (ASTddl_statement statement : statements) {
+      entries.add(entriesOf(statement, options));
+    }
+    return build(entries, EnumSet.allOf(ObjectKind.class), null);
+  }
+
+  /**
+   * Returns the kinds of objects defined by the statements which were added or removed, or all
+   * kinds if the remaining statements are no longer in the same order.
+   */
+  private static Set<ObjectKind> changedKinds(
+      List<ImmutableList<Entry>> previousEntries, List<ImmutableList<Entry>> entries) {
+    Set<ObjectKind> changedKinds = EnumSet.noneOf(ObjectKind.class);
+    IdentityHashMap<List<Entry>, Integer> unmatched = new IdentityHashMap<>();
+    for (List<Entry> statementEntries : previousEntries) {
+      unmatched.merge(statementEntries, 1, Integer::sum);
+    }
+    List<List<Entry>> unchanged = new ArrayList<>();
+    for (List<Entry> statementEntries : entries) {
+      Integer count = unmatched.get(statementEntries);
+      if (count == null) {
+        statementEntries.forEach(entry -> changedKinds.add(entry.kind()));
+      } else {
+        if (count == 1) {
+          unmatched.remove(statementEntries);
+        } else {
+          unmatched.put(statementEntries, count - 1);
+        }
+        unchanged.add(statementEntries);
+      }
+    }
+    unmatched.keySet().forEach(removed -> removed.forEach(entry -> changedKinds.add(entry.kind())));
+
+    // The unchanged statements must appear in the same order in the previous version.
+    IdentityHashMap<List<Entry>, Integer> remaining = new IdentityHashMap<>();
+    for (List<Entry> statementEntries : unchanged) {
+      remaining.merge(statementEntries, 1, Integer::sum);
+    }
+    Iterator<List<Entry>> inNewOrder = unchanged.iterator();
+    for (List<Entry> statementEntries : previousEntries) {
+      Integer count = remaining.get(statementEntries);
+      if (count != null && count > 0) {
+        remaining.put(statementEntries, count - 1);
+        if (inNewOrder.next() != statementEntries) {
+          return EnumSet.allOf(ObjectKind.class);
+        }
+      }
+    }
+    return changedKinds;
+  }
+
+  /**
+   * Builds the maps of {@code kinds} from the entries of each statement, taking the maps of the
+   * other kinds from {@code previous}.
+   */
+  private static DatabaseDefinition build(
+      List<ImmutableList<Entry>> entries,
+      Set<ObjectKind> kinds,
+      @Nullable DatabaseDefinition previous) {
     // Use LinkedHashMap to preserve creation order in original DDL.
-    LinkedHashMap<String, ASTcreate_table_statement> tablesInCreationOrder = new LinkedHashMap<>();
-    LinkedHashMap<String, ASTcreate_index_statement> indexes = new LinkedHashMap<>();
-    LinkedHashMap<String, ASTcreate_search_index_statement> searchIndexes = new LinkedHashMap<>();
-    LinkedHashMap<String, ConstraintWrapper> constraints = new LinkedHashMap<>();
-    LinkedHashMap<String, ASTrow_deletion_policy_clause> ttls = new LinkedHashMap<>();
-    LinkedHashMap<String, ASTcreate_change_stream_statement> changeStreams = new LinkedHashMap<>();
-    LinkedHashMap<String, String> alterDatabaseOptions = new LinkedHashMap<>();
-    LinkedHashMap<String, ASTcreate_schema_statement> schemas = new LinkedHashMap<>();
-    LinkedHashMap<String, ASTcreate_locality_group_statement> localityGroups =
-        new LinkedHashMap<>();
-
-    for (ASTddl_statement ddlStatement : statements) {
-      final SimpleNode statement = (SimpleNode) ddlStatement.jjtGetChild(0);
-
-      switch (statement.getId()) {
-        case DdlParserTreeConstants.JJTCREATE_TABLE_STATEMENT:
-          ASTcreate_table_statement createTable = (ASTcreate_table_statement) statement;
-          // Remove embedded constraint statements from the CreateTable node
-          // as they are taken into account via `constraints`
-          tablesInCreationOrder.put(createTable.getTableName(), createTable.clearConstraints());
-
-          // convert embedded constraint statements into wrapper object with table name
-          // use a single map for all foreign keys, constraints and row deletion polcies whether
-          // created in table or externally
-          createTable.getConstraints().values().stream()
-              .map(c -> ConstraintWrapper.create(createTable.getTableName(), c))
-              .forEach(c -> constraints.put(c.getName(), c));
-
-          // Move embedded Row Deletion Policies
-          final Optional<ASTrow_deletion_policy_clause> rowDeletionPolicyClause =
-              createTable.getRowDeletionPolicyClause();
-          rowDeletionPolicyClause.ifPresent(rdp -> ttls.put(createTable.getTableName(), rdp));
-          break;
-        case DdlParserTreeConstants.JJTCREATE_SEARCH_INDEX_STATEMENT:
-          searchIndexes.put(
-              ((ASTcreate_search_index_statement) statement).getName(),
-              (ASTcreate_search_index_statement) statement);
-          break;
-        case DdlParserTreeConstants.JJTCREATE_LOCALITY_GROUP_STATEMENT:
-          ASTcreate_locality_group_statement lg = (ASTcreate_locality_group_statement) statement;
-          localityGroups.put(lg.getNameOrDefault(), lg);
-          break;
-        case DdlParserTreeConstants.JJTCREATE_INDEX_STATEMENT:
-          indexes.put(
-              ((ASTcreate_index_statement) statement).getIndexName(),
-              (ASTcreate_index_statement) statement);
-          break;
-        case DdlParserTreeConstants.JJTALTER_TABLE_STATEMENT:
-          // Alter table can be adding Index, Constraint or Row Deletion Policy
-          ASTalter_table_statement alterTable = (ASTalter_table_statement) statement;
-          final String tableName = alterTable.jjtGetChild(0).toString();
-
-          if (alterTable.jjtGetChild(1) instanceof ASTforeign_key
-              || alterTable.jjtGetChild(1) instanceof ASTcheck_constraint) {
-            ConstraintWrapper constraint =
-                ConstraintWrapper.create(tableName, (SimpleNode) alterTable.jjtGetChild(1));
-            constraints.put(constraint.getName(), constraint);
-
-          } else if (statement.jjtGetChild(1) instanceof ASTadd_row_deletion_policy) {
-            ttls.put(
-                tableName,
-                (ASTrow_deletion_policy_clause) alterTable.jjtGetChild(1).jjtGetChild(0));
-          } else {
-            // other ALTER statements are not supported.
-            throw new IllegalArgumentException(
-                "Unsupported ALTER TABLE statement: " + AstTreeUtils.tokensToString(ddlStatement));
-          }
-          break;
-        case DdlParserTreeConstants.JJTALTER_DATABASE_STATEMENT:
-          alterDatabaseOptions.putAll(
-              ((ASTalter_database_statement) statement).getOptionsClause().getKeyValueMap());
-          break;
-        case DdlParserTreeConstants.JJTCREATE_CHANGE_STREAM_STATEMENT:
-          changeStreams.put(
-              ((ASTcreate_change_stream_statement) statement).getName(),
-              (ASTcreate_change_stream_statement) statement);
-          break;
-
-        case DdlParserTreeConstants.JJTCREATE_PROTO_BUNDLE_STATEMENT:
-        case DdlParserTreeConstants.JJTALTER_PROTO_BUNDLE_STATEMENT:
-          if (!options.get(DdlDiff.IGNORE_PROTO_BUNDLES_OPT)) {
-            throw new UnsupportedOperationException("Not Implemented");
-          }
-          break;
-
-        case DdlParserTreeConstants.JJTCREATE_OR_REPLACE_STATEMENT:
-          // can be one of several types.
-          switch (((ASTcreate_or_replace_statement) statement).getSchemaObject().getId()) {
-            case DdlParserTreeConstants.JJTCREATE_SCHEMA_STATEMENT:
-              schemas.put(
-                  ((ASTcreate_schema_statement)
-                          ((ASTcreate_or_replace_statement) statement).getSchemaObject())
-                      .getName(),
-                  (ASTcreate_schema_statement)
-                      ((ASTcreate_or_replace_statement) statement).getSchemaObject());
-              break;
-            default:
-              throw new IllegalArgumentException(
-                  "Unsupported statement: " + AstTreeUtils.tokensToString(ddlStatement));
-          }
-          break;
-        default:
-          throw new IllegalArgumentException(
-              "Unsupported statement: " + AstTreeUtils.tokensToString(ddlStatement));
+    Map<ObjectKind, Map<String, Object>> maps = new EnumMap<>(ObjectKind.class);
+    for (ObjectKind kind : kinds) {
+      maps.put(kind, new LinkedHashMap<>());
+    }
+    for (List<Entry> statementEntries : entries) {
+      for (Entry entry : statementEntries) {
+        Map<String, Object> map = maps.get(entry.kind());
+        if (map != null) {
+          map.put(entry.key(), entry.value());
+        }
       }
     }
     return new AutoValue_DatabaseDefinition(
-        ImmutableMap.copyOf(tablesInCreationOrder),
-        ImmutableMap.copyOf(searchIndexes),
-        ImmutableMap.copyOf(indexes),
-        ImmutableMap.copyOf(constraints),
-        ImmutableMap.copyOf(ttls),
-        ImmutableMap.copyOf(changeStreams),
-        ImmutableMap.copyOf(alterDatabaseOptions),
-        ImmutableMap.copyOf(schemas),
-        ImmutableMap.copyOf(localityGroups));
+        map(ObjectKind.TABLES, maps, previous),
+        map(ObjectKind.SEARCH_INDEXES, maps, previous),
+        map(ObjectKind.INDEXES, maps, previous),
+        map(ObjectKind.VECTOR_INDEXES, maps, previous),
+        map(ObjectKind.CONSTRAINTS, maps, previous),
+        map(ObjectKind.TTLS, maps, previous),
+        map(ObjectKind.CHANGE_STREAMS, maps, previous),
+        map(ObjectKind.DATABASE_OPTIONS, maps, previous),
+        map(ObjectKind.SCHEMAS, maps, previous),
+        map(ObjectKind.LOCALITY_GROUPS, maps, previous),
+        map(ObjectKind.SEQUENCES, maps, previous),
+        map(ObjectKind.VIEWS, maps, previous));
+  }
+
+  /** Returns the map of one kind, either newly built or from the previous definition. */
+  @SuppressWarnings("unchecked")
+  private static <V> ImmutableMap<String, V> map(
+      ObjectKind kind,
+      Map<ObjectKind, Map<String, Object>> maps,
+      @Nullable DatabaseDefinition previous) {
+    Map<String, Object> map = maps.get(kind);
+    if (map == null) {
+      return (ImmutableMap<String, V>) Preconditions.checkNotNull(previous).mapOf(kind);
+    }
+    return (ImmutableMap<String, V>) ImmutableMap.copyOf(map);
+  }
+
+  /**
+   * Returns the entries which a statement adds to the maps of a database definition, in the order
+   * in which they are added.
+   *
+   * @throws IllegalArgumentException if the statement is not supported
+   */
+  static ImmutableList<Entry> entriesOf(
+      ASTddl_statement ddlStatement, Map<String, Boolean> options) {
+    ImmutableList.Builder<Entry> entries = ImmutableList.builder();
+    final SimpleNode statement = (SimpleNode) ddlStatement.jjtGetChild(0);
+
+    switch (statement.getId()) {
+      case DdlParserTreeConstants.JJTCREATE_TABLE_STATEMENT:
+        ASTcreate_table_statement createTable = (ASTcreate_table_statement) statement;
+        // Remove embedded constraint statements from the CreateTable node
+        // as they are taken into account via `constraints`
+        entries.add(
+            Entry.create(
+                ObjectKind.TABLES,
+                Identifiers.canonical(createTable.getTableName()),
+                createTable.clearConstraints()));
+
+        // convert embedded constraint statements into wrapper object with table name
+        // use a single map for all foreign keys, constraints and row deletion polcies whether
+        // created in table or externally
+        createTable.getConstraints().values().stream()
+            .map(c -> ConstraintWrapper.create(createTable.getTableName(), c))
+            .forEach(
+                c ->
+                    entries.add(
+                        Entry.create(
+                            ObjectKind.CONSTRAINTS, Identifiers.canonical(c.getName()), c)));
+
+        // Move embedded Row Deletion Policies
+        final Optional<ASTrow_deletion_policy_clause> rowDeletionPolicyClause =
+            createTable.getRowDeletionPolicyClause();
+        rowDeletionPolicyClause.ifPresent(
+            rdp ->
+                entries.add(
+                    Entry.create(
+                        ObjectKind.TTLS, Identifiers.canonical(createTable.getTableName()), rdp)));
+        break;
+      case DdlParserTreeConstants.JJTCREATE_SEARCH_INDEX_STATEMENT:
+        entries.add(
+            Entry.create(
+                ObjectKind.SEARCH_INDEXES,
+                Identifiers.canonical(((ASTcreate_search_index_statement) statement).getName()),
+                statement));
+        break;
+      case DdlParserTreeConstants.JJTCREATE_LOCALITY_GROUP_STATEMENT:
+        ASTcreate_locality_group_statement lg = (ASTcreate_locality_group_statement) statement;
+        entries.add(
+            Entry.create(
+                ObjectKind.LOCALITY_GROUPS, Identifiers.canonical(lg.getNameOrDefault()), lg));
+        break;
+      case DdlParserTreeConstants.JJTCREATE_INDEX_STATEMENT:
+        entries.add(
+            Entry.create(
+                ObjectKind.INDEXES,
+                Identifiers.canonical(((ASTcreate_index_statement) statement).getIndexName()),
+                statement));
+        break;
+      case DdlParserTreeConstants.JJTCREATE_VECTOR_INDEX_STATEMENT:
+        entries.add(
+            Entry.create(
+                ObjectKind.VECTOR_INDEXES,
+                Identifiers.canonical(((ASTcreate_vector_index_statement) statement).getName()),
+                statement));
+        break;
+      case DdlParserTreeConstants.JJTALTER_TABLE_STATEMENT:
+        // Alter table can be adding Index, Constraint or Row Deletion Policy
+        ASTalter_table_statement alterTable = (ASTalter_table_statement) statement;
+        final String tableName = alterTable.jjtGetChild(0).toString();
+
+        if (alterTable.jjtGetChild(1) instanceof ASTforeign_key
+            || alterTable.jjtGetChild(1) instanceof ASTcheck_constraint) {
+          ConstraintWrapper constraint =
+              ConstraintWrapper.create(tableName, (SimpleNode) alterTable.jjtGetChild(1));
+          entries.add(
+              Entry.create(
+                  ObjectKind.CONSTRAINTS, Identifiers.canonical(constraint.getName()), constraint));
+
+        } else if (statement.jjtGetChild(1) instanceof ASTadd_row_deletion_policy) {
+          entries.add(
+              Entry.create(
+                  ObjectKind.TTLS,
+                  Identifiers.canonical(tableName),
+                  alterTable.jjtGetChild(1).jjtGetChild(0)));
+        } else {
+          // other ALTER statements are not supported.
+          throw new IllegalArgumentException(
+              "Unsupported ALTER TABLE statement: " + AstTreeUtils.tokensToString(ddlStatement));
+        }
+        break;
+      case DdlParserTreeConstants.JJTALTER_DATABASE_STATEMENT:
+        ((ASTalter_database_statement) statement)
+            .getOptionsClause()
+            .getKeyValueMap()
+            .forEach(
+                (key, value) -> entries.add(Entry.create(ObjectKind.DATABASE_OPTIONS, key, value)));
+        break;
+      case DdlParserTreeConstants.JJTCREATE_CHANGE_STREAM_STATEMENT:
+        entries.add(
+            Entry.create(
+                ObjectKind.CHANGE_STREAMS,
+                Identifiers.canonical(((ASTcreate_change_stream_statement) statement).getName()),
+                statement));
+        break;
+      case DdlParserTreeConstants.JJTCREATE_SEQUENCE_STATEMENT:
+        entries.add(
+            Entry.create(
+                ObjectKind.SEQUENCES,
+                Identifiers.canonical(((ASTcreate_sequence_statement) statement).getName()),
+                statement));
+        break;
+
+      case DdlParserTreeConstants.JJTCREATE_PROTO_BUNDLE_STATEMENT:
+      case DdlParserTreeConstants.JJTALTER_PROTO_BUNDLE_STATEMENT:
+        if (!options.get(DdlDiff.IGNORE_PROTO_BUNDLES_OPT)) {
+          throw new UnsupportedOperationException("Not Implemented");
+        }
+        break;
+
+      case DdlParserTreeConstants.JJTCREATE_OR_REPLACE_STATEMENT:
+        // can be one of several types.
+        SimpleNode schemaObject = ((ASTcreate_or_replace_statement) statement).getSchemaObject();
+        switch (schemaObject.getId()) {
+          case DdlParserTreeConstants.JJTCREATE_SCHEMA_STATEMENT:
+            entries.add(
+                Entry.create(
+                    ObjectKind.SCHEMAS,
+                    Identifiers.canonical(((ASTcreate_schema_statement) schemaObject).getName()),
+                    schemaObject));
+            break;
+          case DdlParserTreeConstants.JJTCREATE_VIEW_STATEMENT:
+            entries.add(
+                Entry.create(
+                    ObjectKind.VIEWS,
+                    Identifiers.canonical(((ASTcreate_view_statement) schemaObject).getName()),
+                    schemaObject));
+            break;
+          default:
+            throw new IllegalArgumentException(
+                "Unsupported statement: " + AstTreeUtils.tokensToString(ddlStatement));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException(
+            "Unsupported statement: " + AstTreeUtils.tokensToString(ddlStatement));
+    }
+    return entries.build();
+  }
+
+  /** Returns the map of one kind of object. */
+  private ImmutableMap<String, ?> mapOf(ObjectKind kind) {
+    switch (kind) {
+      case TABLES:
+        return tablesInCreationOrder();
+      case SEARCH_INDEXES:
+        return searchIndexes();
+      case INDEXES:
+        return indexes();
+      case VECTOR_INDEXES:
+        return vectorIndexes();
+      case CONSTRAINTS:
+        return constraints();
+      case TTLS:
+        return ttls();
+      case CHANGE_STREAMS:
+        return changeStreams();
+      case DATABASE_OPTIONS:
+        return alterDatabaseOptions();
+      case SCHEMAS:
+        return schemas();
+      case LOCALITY_GROUPS:
+        return localityGroups();
+      case SEQUENCES:
+        return sequences();
+      case VIEWS:
+        return views();
+      default:
+        throw new IllegalArgumentException("Unknown object kind: " + kind);
+    }
+  }
+
+  /** The kinds of objects, each of which is kept in its own map. */
+  enum ObjectKind {
+    TABLES,
+    SEARCH_INDEXES,
+    INDEXES,
+    VECTOR_INDEXES,
+    CONSTRAINTS,
+    TTLS,
+    CHANGE_STREAMS,
+    DATABASE_OPTIONS,
+    SCHEMAS,
+    LOCALITY_GROUPS,
+    SEQUENCES,
+    VIEWS
+  }
+
+  /** An object which a statement adds to the map of its kind, under its canonical name. */
+  @AutoValue
+  abstract static class Entry {
+    static Entry create(ObjectKind kind, String key, Object value) {
+      return new AutoValue_DatabaseDefinition_Entry(kind, key, value);
+    }
+
+    abstract ObjectKind kind();
+
+    abstract String key();
+
+    abstract Object value();
   }
 
   public abstract ImmutableMap<String, ASTcreate_table_statement> tablesInCreationOrder();
@@ -183,6 +432,8 @@ public abstract class DatabaseDefinition {
 
   public abstract ImmutableMap<String, ASTcreate_index_statement> indexes();
 
+  public abstract ImmutableMap<String, ASTcreate_vector_index_statement> vectorIndexes();
+
   abstract ImmutableMap<String, ConstraintWrapper> constraints();
 
   abstract ImmutableMap<String, ASTrow_deletion_policy_clause> ttls();
@@ -194,4 +445,9 @@ public abstract class DatabaseDefinition {
   abstract ImmutableMap<String, ASTcreate_schema_statement> schemas();
 
   abstract ImmutableMap<String, ASTcreate_locality_group_statement> localityGroups();
+
+  abstract ImmutableMap<String, ASTcreate_sequence_statement> sequences();
+
+  /** Views, in the order in which they were created. */
+  abstract ImmutableMap<String, ASTcreate_view_statement> views();
 }
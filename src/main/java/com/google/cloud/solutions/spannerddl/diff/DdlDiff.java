@@ -18,6 +18,8 @@ package com.google.cloud.solutions.spannerddl.diff;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import com.google.cloud.solutions.spannerddl.diff.RenameDetector.RenameCandidate;
+import com.google.cloud.solutions.spannerddl.diff.SchemaChangeCostEstimator.Cost;
 import com.google.cloud.solutions.spannerddl.parser.ASTadd_row_deletion_policy;
 import com.google.cloud.solutions.spannerddl.parser.ASTalter_database_statement;
 import com.google.cloud.solutions.spannerddl.parser.ASTalter_table_statement;
@@ -32,17 +34,23 @@ import com.google.cloud.solutions.spannerddl.parser.ASTcreate_locality_group_sta
 import com.google.cloud.solutions.spannerddl.parser.ASTcreate_or_replace_statement;
 import com.google.cloud.solutions.spannerddl.parser.ASTcreate_schema_statement;
 import com.google.cloud.solutions.spannerddl.parser.ASTcreate_search_index_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_sequence_statement;
 import com.google.cloud.solutions.spannerddl.parser.ASTcreate_table_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_vector_index_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_view_statement;
 import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
 import com.google.cloud.solutions.spannerddl.parser.ASTforeign_key;
 import com.google.cloud.solutions.spannerddl.parser.ASTkey_part;
 import com.google.cloud.solutions.spannerddl.parser.ASToptions_clause;
 import com.google.cloud.solutions.spannerddl.parser.ASTrow_deletion_policy_clause;
 import com.google.cloud.solutions.spannerddl.parser.ASTtable;
+import com.google.cloud.solutions.spannerddl.parser.DdlFastParser;
 import com.google.cloud.solutions.spannerddl.parser.DdlParser;
 import com.google.cloud.solutions.spannerddl.parser.DdlParserTreeConstants;
 import com.google.cloud.solutions.spannerddl.parser.ParseException;
+import com.google.cloud.solutions.spannerddl.parser.TokenMgrException;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Equivalence;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
@@ -52,8 +60,12 @@ import com.google.common.collect.MapDifference.ValueDifference;
 import com.google.common.collect.Maps;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -63,6 +75,7 @@ import java.util.TreeMap;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -95,6 +108,17 @@ public class DdlDiff {
   public static final String ALLOW_RECREATE_CONSTRAINTS_OPT = "allowRecreateConstraints";
   public static final String ALLOW_DROP_STATEMENTS_OPT = "allowDropStatements";
   public static final String IGNORE_PROTO_BUNDLES_OPT = "ignoreProtoBundles";
+  public static final String WATCH_OPT = "watch";
+  public static final String STATS_OPT = "stats";
+  public static final String BATCH_PLAN_FILE_OPT = "batchPlanFile";
+  public static final String MAX_STATEMENTS_PER_BATCH_OPT = "maxStatementsPerBatch";
+  public static final String MAX_BACKFILLS_PER_BATCH_OPT = "maxBackfillsPerBatch";
+  public static final String WAVE_PLAN_FILE_OPT = "wavePlanFile";
+  public static final String TABLE_SIZES_FILE_OPT = "tableSizesFile";
+  public static final String MAX_BACKFILL_ROWS_OPT = "maxBackfillRows";
+  public static final String DETECT_RENAMES_OPT = "detectRenames";
+  public static final String RENAME_THRESHOLD_OPT = "renameThreshold";
+  public static final String RENAME_REPORT_FILE_OPT = "renameReportFile";
   public static final String HELP_OPT = "help";
 
   private final DatabaseDefinition originalDb;
@@ -106,30 +130,120 @@ public class DdlDiff {
   private final MapDifference<String, String> alterDatabaseOptionsDifferences;
   private final MapDifference<String, ASTcreate_change_stream_statement> changeStreamDifferences;
   private final MapDifference<String, ASTcreate_search_index_statement> searchIndexDifferences;
+  private final MapDifference<String, ASTcreate_vector_index_statement> vectorIndexDifferences;
   private final String databaseName; // for alter Database
   private final MapDifference<String, ASTcreate_schema_statement> schemaDifferences;
   private final MapDifference<String, ASTcreate_locality_group_statement> localityGroupDifferences;
+  private final MapDifference<String, ASTcreate_sequence_statement> sequenceDifferences;
+  private final MapDifference<String, ASTcreate_view_statement> viewDifferences;
+  private final DiffStats stats;
 
-  private DdlDiff(DatabaseDefinition originalDb, DatabaseDefinition newDb, String databaseName)
+  DdlDiff(DatabaseDefinition originalDb, DatabaseDefinition newDb, String databaseName)
+      throws DdlDiffException {
+    this(originalDb, newDb, databaseName, new DiffStats());
+  }
+
+  DdlDiff(
+      DatabaseDefinition originalDb, DatabaseDefinition newDb, String databaseName, DiffStats stats)
+      throws DdlDiffException {
+    this(originalDb, newDb, databaseName, stats, null);
+  }
+
+  /**
+   * Creates a diff of two database definitions, reusing the differences of each kind of object from
+   * the previous diff which used {@code differenceCache}, if any.
+   */
+  DdlDiff(
+      DatabaseDefinition originalDb,
+      DatabaseDefinition newDb,
+      String databaseName,
+      DiffStats stats,
+      @Nullable DifferenceCache differenceCache)
       throws DdlDiffException {
     this.originalDb = originalDb;
     this.newDb = newDb;
     this.databaseName = databaseName;
+    this.stats = stats;
 
     this.tableDifferences =
-        Maps.difference(originalDb.tablesInCreationOrder(), newDb.tablesInCreationOrder());
-    this.indexDifferences = Maps.difference(originalDb.indexes(), newDb.indexes());
-    this.constraintDifferences = Maps.difference(originalDb.constraints(), newDb.constraints());
-    this.ttlDifferences = Maps.difference(originalDb.ttls(), newDb.ttls());
+        difference(
+            "tables",
+            originalDb.tablesInCreationOrder(),
+            newDb.tablesInCreationOrder(),
+            stats,
+            differenceCache);
+    this.indexDifferences =
+        difference(
+            "indexes",
+            originalDb.indexes(),
+            newDb.indexes(),
+            IndexSemanticKey.EQUIVALENCE,
+            stats,
+            differenceCache);
+    this.constraintDifferences =
+        difference(
+            "constraints",
+            originalDb.constraints(),
+            newDb.constraints(),
+            ConstraintWrapper.EQUIVALENCE,
+            stats,
+            differenceCache);
+    this.ttlDifferences =
+        difference(
+            "ttls",
+            originalDb.ttls(),
+            newDb.ttls(),
+            Equivalence.equals().onResultOf(ttl -> Identifiers.canonical(ttl.toString())),
+            stats,
+            differenceCache);
     this.alterDatabaseOptionsDifferences =
-        Maps.difference(originalDb.alterDatabaseOptions(), newDb.alterDatabaseOptions());
+        difference(
+            "databaseOptions",
+            originalDb.alterDatabaseOptions(),
+            newDb.alterDatabaseOptions(),
+            stats,
+            differenceCache);
     this.changeStreamDifferences =
-        Maps.difference(originalDb.changeStreams(), newDb.changeStreams());
+        difference(
+            "changeStreams",
+            originalDb.changeStreams(),
+            newDb.changeStreams(),
+            stats,
+            differenceCache);
     this.searchIndexDifferences =
-        Maps.difference(originalDb.searchIndexes(), newDb.searchIndexes());
-    this.schemaDifferences = Maps.difference(originalDb.schemas(), newDb.schemas());
+        difference(
+            "searchIndexes",
+            originalDb.searchIndexes(),
+            newDb.searchIndexes(),
+            stats,
+            differenceCache);
+    this.vectorIndexDifferences =
+        difference(
+            "vectorIndexes",
+            originalDb.vectorIndexes(),
+            newDb.vectorIndexes(),
+            VectorIndexSemanticKey.EQUIVALENCE,
+            stats,
+            differenceCache);
+    this.schemaDifferences =
+        difference("schemas", originalDb.schemas(), newDb.schemas(), stats, differenceCache);
     this.localityGroupDifferences =
-        Maps.difference(originalDb.localityGroups(), newDb.localityGroups());
+        difference(
+            "localityGroups",
+            originalDb.localityGroups(),
+            newDb.localityGroups(),
+            stats,
+            differenceCache);
+    this.sequenceDifferences =
+        difference(
+            "sequences",
+            originalDb.sequences(),
+            newDb.sequences(),
+            Equivalence.equals().onResultOf(ASTcreate_sequence_statement::getOptions),
+            stats,
+            differenceCache);
+    this.viewDifferences =
+        difference("views", originalDb.views(), newDb.views(), stats, differenceCache);
 
     if (!alterDatabaseOptionsDifferences.areEqual() && Strings.isNullOrEmpty(databaseName)) {
       // should never happen, but...
@@ -137,10 +251,125 @@ public class DdlDiff {
     }
   }
 
+  /** Compares one kind of schema object, recording the time taken in the stats. */
+  private static <V> MapDifference<String, V> difference(
+      String kind,
+      Map<String, V> left,
+      Map<String, V> right,
+      DiffStats stats,
+      @Nullable DifferenceCache differenceCache) {
+    return difference(kind, left, right, Equivalence.equals(), stats, differenceCache);
+  }
+
+  /**
+   * Compares one kind of schema object using the given equivalence, recording the time taken in the
+   * stats.
+   */
+  private static <V> MapDifference<String, V> difference(
+      String kind,
+      Map<String, V> left,
+      Map<String, V> right,
+      Equivalence<? super V> equivalence,
+      DiffStats stats,
+      @Nullable DifferenceCache differenceCache) {
+    long start = System.nanoTime();
+    Object event = DiffEvents.beginDiffObjects();
+    MapDifference<String, V> difference =
+        differenceCache == null
+            ? Maps.difference(left, right, equivalence)
+            : differenceCache.difference(kind, left, right, equivalence);
+    DiffEvents.endDiffObjects(event, kind, difference);
+    stats.record(
+        DiffStats.DIFFERENCE_PREFIX + kind,
+        start,
+        difference.entriesOnlyOnLeft().size()
+            + difference.entriesOnlyOnRight().size()
+            + difference.entriesDiffering().size());
+    return difference;
+  }
+
+  /**
+   * Returns the time taken and counts of each phase of building this diff and generating its
+   * statements so far, including parsing the DDL when it was built from DDL text.
+   */
+  public DiffStats getStats() {
+    return stats;
+  }
+
+  /**
+   * Sorts the statements returned by {@link #generateDifferenceStatements} into waves, using the
+   * dependencies between the schema objects in the original and new DDL. The statements in each
+   * wave only depend on statements in earlier waves, so they can be applied in any order, or
+   * concurrently.
+   *
+   * @param differenceStatements the statements generated by this diff
+   * @return the statements grouped into waves, in the order in which the waves must be applied
+   */
+  public ImmutableList<ImmutableList<String>> sortIntoWaves(List<String> differenceStatements) {
+    return SchemaChangeWaves.sortIntoWaves(differenceStatements, originalDb, newDb);
+  }
+
+  /**
+   * Estimates the cost of applying each of the statements returned by {@link
+   * #generateDifferenceStatements}, using the number of rows in each table.
+   *
+   * @param differenceStatements the statements generated by this diff
+   * @param tableRows the number of rows in each table, keyed by table name
+   * @return the cost of each statement, in the same order as the statements
+   */
+  public ImmutableList<Cost> estimateCosts(
+      List<String> differenceStatements, Map<String, Long> tableRows) {
+    return new SchemaChangeCostEstimator(originalDb, newDb, tableRows)
+        .estimate(differenceStatements);
+  }
+
+  /**
+   * Finds the tables and columns which may have been renamed between the original and new DDL. Only
+   * the candidates which are {@link RenameCandidate#accepted() accepted} are used by {@link
+   * #generateDifferenceStatements(Map, List)}.
+   *
+   * @param threshold the minimum confidence of an accepted rename
+   * @return all candidate renames, accepted or not
+   */
+  public ImmutableList<RenameCandidate> detectRenames(double threshold) {
+    return new RenameDetector(threshold).detect(originalDb, newDb);
+  }
+
   /** Generate statements to convert the original to the new DB DDL. */
   public List<String> generateDifferenceStatements(Map<String, Boolean> options)
       throws DdlDiffException {
-    ImmutableList.Builder<String> output = ImmutableList.builder();
+    return generateDifferenceStatements(options, ImmutableList.of());
+  }
+
+  /**
+   * Generate statements to convert the original to the new DB DDL, renaming the tables of the
+   * accepted rename candidates rather than dropping and re-creating them. Spanner DDL cannot rename
+   * columns, so column candidates are never accepted and those columns are dropped and added.
+   *
+   * @param renames the candidates returned by {@link #detectRenames}
+   */
+  public List<String> generateDifferenceStatements(
+      Map<String, Boolean> options, List<RenameCandidate> renames) throws DdlDiffException {
+    Map<String, String> tableRenames = new LinkedHashMap<>();
+    for (RenameCandidate rename : renames) {
+      if (rename.accepted() && rename.kind() == RenameDetector.Kind.TABLE) {
+        tableRenames.put(
+            Identifiers.canonical(rename.oldName()), Identifiers.canonical(rename.newName()));
+      } else if (rename
+          .rejectedReason()
+          .filter(RenameDetector.COLUMN_RENAME_UNSUPPORTED::equals)
+          .isPresent()) {
+        LOG.warn(
+            "Column {}.{} may have been renamed to {}, but it will be dropped and added as"
+                + " Spanner cannot rename columns",
+            rename.tableName().get(),
+            rename.oldName(),
+            rename.newName());
+      }
+    }
+
+    List<String> output = new ArrayList<>();
+    final DiffStats.SectionTimer sections = stats.newSectionTimer(output);
 
     if (!indexDifferences.entriesDiffering().isEmpty()
         && !options.get(ALLOW_RECREATE_INDEXES_OPT)) {
@@ -159,7 +388,26 @@ public class DdlDiff {
                 + ALLOW_RECREATE_INDEXES_OPT
                 + " is not set.\n"
                 + "Indexes: "
-                + Joiner.on(", ").join(indexDifferences.entriesDiffering().keySet()));
+                + indexDifferences.entriesDiffering().values().stream()
+                    .map(diff -> diff.rightValue().getIndexName())
+                    .collect(Collectors.joining(", ")));
+      }
+    }
+
+    if (!vectorIndexDifferences.entriesDiffering().isEmpty()
+        && !options.get(ALLOW_RECREATE_INDEXES_OPT)) {
+      String rebuiltVectorIndexes =
+          vectorIndexDifferences.entriesDiffering().values().stream()
+              .filter(DdlDiff::vectorIndexRequiresRebuild)
+              .map(diff -> diff.rightValue().getName())
+              .collect(Collectors.joining(", "));
+      if (!rebuiltVectorIndexes.isEmpty()) {
+        throw new DdlDiffException(
+            "At least one Vector Index needs to be rebuilt, and "
+                + ALLOW_RECREATE_INDEXES_OPT
+                + " is not set.\n"
+                + "Vector Indexes: "
+                + rebuiltVectorIndexes);
       }
     }
 
@@ -169,15 +417,21 @@ public class DdlDiff {
           "At least one constraint differs, and "
               + ALLOW_RECREATE_CONSTRAINTS_OPT
               + " is not set.\n"
-              + Joiner.on(", ").join(constraintDifferences.entriesDiffering().keySet()));
+              + constraintDifferences.entriesDiffering().values().stream()
+                  .map(diff -> diff.rightValue().getName())
+                  .collect(Collectors.joining(", ")));
     }
 
     if (!schemaDifferences.entriesDiffering().isEmpty()) {
       throw new DdlDiffException(
           "At least one schema differs but ALTER SCHEMA is not supported"
-              + Joiner.on(", ").join(schemaDifferences.entriesDiffering().keySet()));
+              + schemaDifferences.entriesDiffering().values().stream()
+                  .map(diff -> diff.rightValue().getName())
+                  .collect(Collectors.joining(", ")));
     }
 
+    sections.end("checkOptions");
+
     // check for modified Alter Database statements
     if (!alterDatabaseOptionsDifferences.areEqual()) {
       String optionsUpdates = generateOptionsUpdates(alterDatabaseOptionsDifferences);
@@ -187,32 +441,83 @@ public class DdlDiff {
       }
     }
 
+    sections.end("alterDatabase");
+
+    Set<String> viewsAfterTables = viewsAfterTables();
+
+    // Drop deleted views, in reverse creation order.
+    if (options.get(ALLOW_DROP_STATEMENTS_OPT)) {
+      List<ASTcreate_view_statement> originalViews = new ArrayList<>(originalDb.views().values());
+      Collections.reverse(originalViews);
+      for (ASTcreate_view_statement view : originalViews) {
+        if (viewDifferences
+            .entriesOnlyOnLeft()
+            .containsKey(Identifiers.canonical(view.getName()))) {
+          LOG.info("Dropping deleted view: {}", view.getName());
+          output.add("DROP VIEW " + view.getName());
+        }
+      }
+    }
+
+    sections.end("dropViews");
+
+    // Replace modified views which only use existing objects, before dropping any tables or columns
+    // that they no longer use.
+    for (Entry<String, ASTcreate_view_statement> view : newDb.views().entrySet()) {
+      if (viewDifferences.entriesDiffering().containsKey(view.getKey())
+          && !viewsAfterTables.contains(view.getKey())) {
+        LOG.info("Replacing modified view: {}", view.getValue().getName());
+        output.add(view.getValue().toStringOptionalOrReplace(true));
+      }
+    }
+
+    sections.end("replaceViews");
+
     // Drop deleted indexes.
     if (options.get(ALLOW_DROP_STATEMENTS_OPT)) {
       // Drop deleted indexes.
-      for (String indexName : indexDifferences.entriesOnlyOnLeft().keySet()) {
-        LOG.info("Dropping deleted index: {}", indexName);
-        output.add("DROP INDEX " + indexName);
+      for (ASTcreate_index_statement index : indexDifferences.entriesOnlyOnLeft().values()) {
+        LOG.info("Dropping deleted index: {}", index.getIndexName());
+        output.add("DROP INDEX " + index.getIndexName());
       }
     }
 
+    sections.end("dropIndexes");
+
     // Drop deleted change streams.
     if (options.get(ALLOW_DROP_STATEMENTS_OPT)) {
       // Drop deleted indexes.
-      for (String changeStreamName : changeStreamDifferences.entriesOnlyOnLeft().keySet()) {
-        LOG.info("Dropping deleted change stream: {}", changeStreamName);
-        output.add("DROP CHANGE STREAM " + changeStreamName);
+      for (ASTcreate_change_stream_statement changeStream :
+          changeStreamDifferences.entriesOnlyOnLeft().values()) {
+        LOG.info("Dropping deleted change stream: {}", changeStream.getName());
+        output.add("DROP CHANGE STREAM " + changeStream.getName());
       }
     }
 
+    sections.end("dropChangeStreams");
+
     // drop deleted search indexes.
     if (options.get(ALLOW_DROP_STATEMENTS_OPT)) {
-      for (String searchIndexName : searchIndexDifferences.entriesOnlyOnLeft().keySet()) {
-        LOG.info("Dropping deleted search index: {}", searchIndexName);
-        output.add("DROP SEARCH INDEX " + searchIndexName);
+      for (ASTcreate_search_index_statement searchIndex :
+          searchIndexDifferences.entriesOnlyOnLeft().values()) {
+        LOG.info("Dropping deleted search index: {}", searchIndex.getName());
+        output.add("DROP SEARCH INDEX " + searchIndex.getName());
+      }
+    }
+
+    sections.end("dropSearchIndexes");
+
+    // drop deleted vector indexes.
+    if (options.get(ALLOW_DROP_STATEMENTS_OPT)) {
+      for (ASTcreate_vector_index_statement vectorIndex :
+          vectorIndexDifferences.entriesOnlyOnLeft().values()) {
+        LOG.info("Dropping deleted vector index: {}", vectorIndex.getName());
+        output.add("DROP VECTOR INDEX " + vectorIndex.getName());
       }
     }
 
+    sections.end("dropVectorIndexes");
+
     // Drop modified indexes that need to be re-created...
     for (ValueDifference<ASTcreate_index_statement> difference :
         indexDifferences.entriesDiffering().values()) {
@@ -223,12 +528,38 @@ public class DdlDiff {
       }
     }
 
+    sections.end("dropChangedIndexes");
+
+    // Drop vector indexes that need to be rebuilt, and stored columns removed from the others,
+    // before any columns are dropped.
+    for (ValueDifference<ASTcreate_vector_index_statement> difference :
+        vectorIndexDifferences.entriesDiffering().values()) {
+      ASTcreate_vector_index_statement vectorIndex = difference.leftValue();
+      if (vectorIndexRequiresRebuild(difference)) {
+        LOG.info("Dropping changed vector index for rebuild: {}", vectorIndex.getName());
+        output.add("DROP VECTOR INDEX " + vectorIndex.getName());
+      } else {
+        for (String storedColumn :
+            storedColumnDifferences(difference).entriesOnlyOnLeft().values()) {
+          output.add(
+              "ALTER VECTOR INDEX "
+                  + vectorIndex.getName()
+                  + " DROP STORED COLUMN "
+                  + storedColumn);
+        }
+      }
+    }
+
+    sections.end("dropChangedVectorIndexes");
+
     // Drop deleted constraints
     for (ConstraintWrapper fk : constraintDifferences.entriesOnlyOnLeft().values()) {
       LOG.info("Dropping constraint: {}", fk.getName());
       output.add("ALTER TABLE " + fk.tableName() + " DROP CONSTRAINT " + fk.getName());
     }
 
+    sections.end("dropConstraints");
+
     // Drop modified constraints that need to be re-created...
     for (ValueDifference<ConstraintWrapper> fkDiff :
         constraintDifferences.entriesDiffering().values()) {
@@ -240,31 +571,56 @@ public class DdlDiff {
               + fkDiff.leftValue().getName());
     }
 
+    sections.end("dropChangedConstraints");
+
     // Drop deleted TTLs
     for (String tableName : ttlDifferences.entriesOnlyOnLeft().keySet()) {
-      LOG.info("Dropping row deletion policy for : {}", tableName);
-      output.add("ALTER TABLE " + tableName + " DROP ROW DELETION POLICY");
+      if (isUnchangedRenamedTtl(tableName, tableRenames)) {
+        continue;
+      }
+      String originalTableName = originalTableName(tableName);
+      LOG.info("Dropping row deletion policy for : {}", originalTableName);
+      output.add("ALTER TABLE " + originalTableName + " DROP ROW DELETION POLICY");
     }
 
+    sections.end("dropRowDeletionPolicies");
+
     // For each changed search index, apply the drop column statements
     SchemaUpdateStatements searchIndexUpdateStatements =
         ASTcreate_search_index_statement.generateAlterStatementsFor(
             searchIndexDifferences.entriesDiffering(), options.get(ALLOW_DROP_STATEMENTS_OPT));
     output.addAll(searchIndexUpdateStatements.dropStatements());
 
-    if (options.get(ALLOW_DROP_STATEMENTS_OPT)) {
+    sections.end("alterSearchIndexesDropColumns");
+
+    Map<String, ASTcreate_table_statement> deletedTables = tableDifferences.entriesOnlyOnLeft();
+    if (options.get(ALLOW_DROP_STATEMENTS_OPT) && !deletedTables.isEmpty()) {
       // Drop tables that have been deleted -- need to do it in reverse creation order.
       List<String> reverseOrderedTableNames =
           new ArrayList<>(originalDb.tablesInCreationOrder().keySet());
       Collections.reverse(reverseOrderedTableNames);
       for (String tableName : reverseOrderedTableNames) {
-        if (tableDifferences.entriesOnlyOnLeft().containsKey(tableName)) {
-          LOG.info("Dropping deleted table: {}", tableName);
-          output.add("DROP TABLE " + tableName);
+        if (deletedTables.containsKey(tableName) && !tableRenames.containsKey(tableName)) {
+          String originalTableName = deletedTables.get(tableName).getTableName();
+          LOG.info("Dropping deleted table: {}", originalTableName);
+          output.add("DROP TABLE " + originalTableName);
         }
       }
     }
 
+    sections.end("dropTables");
+
+    // Drop deleted sequences, after the tables which may use them.
+    if (options.get(ALLOW_DROP_STATEMENTS_OPT)) {
+      for (ASTcreate_sequence_statement sequence :
+          sequenceDifferences.entriesOnlyOnLeft().values()) {
+        LOG.info("Dropping deleted sequence: {}", sequence.getName());
+        output.add("DROP SEQUENCE " + sequence.getName());
+      }
+    }
+
+    sections.end("dropSequences");
+
     // Drop schemas
     if (options.get(ALLOW_DROP_STATEMENTS_OPT)) {
       for (ASTcreate_schema_statement schema : schemaDifferences.entriesOnlyOnLeft().values()) {
@@ -273,6 +629,8 @@ public class DdlDiff {
       }
     }
 
+    sections.end("dropSchemas");
+
     // Create new locality groups
     for (ASTcreate_locality_group_statement lg :
         localityGroupDifferences.entriesOnlyOnRight().values()) {
@@ -280,14 +638,63 @@ public class DdlDiff {
       output.add(lg.toString());
     }
 
+    sections.end("createLocalityGroups");
+
+    // Create new sequences, before the tables which may use them.
+    for (ASTcreate_sequence_statement sequence :
+        sequenceDifferences.entriesOnlyOnRight().values()) {
+      LOG.info("Creating new sequence: {}", sequence.getName());
+      output.add(sequence.toStringOptionalExistClause(false));
+    }
+
+    sections.end("createSequences");
+
+    // Alter the options of existing sequences. Sequences are never recreated, as that would reset
+    // their counter.
+    for (ValueDifference<ASTcreate_sequence_statement> sequenceDiff :
+        sequenceDifferences.entriesDiffering().values()) {
+      LOG.info("Updating sequence: {}", sequenceDiff.rightValue().getName());
+      String optionsUpdates =
+          generateOptionsUpdates(
+              Maps.difference(
+                  sequenceDiff.leftValue().getOptions(), sequenceDiff.rightValue().getOptions()));
+      output.add(
+          "ALTER SEQUENCE "
+              + sequenceDiff.rightValue().getName()
+              + " SET OPTIONS ("
+              + optionsUpdates
+              + ")");
+    }
+
+    sections.end("alterSequences");
+
+    // Rename tables, and alter them if they also changed.
+    for (Entry<String, String> rename : tableRenames.entrySet()) {
+      ASTcreate_table_statement oldTable = originalDb.tablesInCreationOrder().get(rename.getKey());
+      ASTcreate_table_statement newTable = newDb.tablesInCreationOrder().get(rename.getValue());
+      LOG.info("Renaming table: {} to {}", oldTable.getTableName(), newTable.getTableName());
+      output.add(
+          "ALTER TABLE " + oldTable.getTableName() + " RENAME TO " + newTable.getTableName());
+      output.addAll(generateAlterTableStatements(oldTable, newTable, options));
+    }
+
     // Alter existing tables, or error if not possible.
     for (ValueDifference<ASTcreate_table_statement> difference :
         tableDifferences.entriesDiffering().values()) {
       LOG.info("Altering modified table: {}", difference.leftValue().getTableName());
-      output.addAll(
-          generateAlterTableStatements(difference.leftValue(), difference.rightValue(), options));
+      Object event = DiffEvents.beginGenerateAlterTable();
+      List<String> alterStatements =
+          generateAlterTableStatements(difference.leftValue(), difference.rightValue(), options);
+      DiffEvents.endGenerateAlterTable(
+          event,
+          difference.rightValue().getTableName(),
+          difference.rightValue().getColumns().size(),
+          alterStatements.size());
+      output.addAll(alterStatements);
     }
 
+    sections.end("alterTables");
+
     // Drop deleted locality groups.
     if (options.get(ALLOW_DROP_STATEMENTS_OPT)) {
       for (ASTcreate_locality_group_statement lg :
@@ -297,6 +704,8 @@ public class DdlDiff {
       }
     }
 
+    sections.end("dropLocalityGroups");
+
     // update existing locality groups (options only)
     for (ValueDifference<ASTcreate_locality_group_statement> lgDiff :
         localityGroupDifferences.entriesDiffering().values()) {
@@ -316,45 +725,78 @@ public class DdlDiff {
       }
     }
 
+    sections.end("alterLocalityGroups");
+
     // create schemas
     for (ASTcreate_schema_statement schema : schemaDifferences.entriesOnlyOnRight().values()) {
       LOG.info("creating schema: {}", schema.getName());
       output.add(schema.toString());
     }
 
+    sections.end("createSchemas");
+
     // Create new tables. Must be done in the order of creation in the new DDL.
     for (Map.Entry<String, ASTcreate_table_statement> newTableEntry :
         newDb.tablesInCreationOrder().entrySet()) {
-      if (tableDifferences.entriesOnlyOnRight().containsKey(newTableEntry.getKey())) {
-        LOG.info("Creating new table: {}", newTableEntry.getKey());
+      if (tableDifferences.entriesOnlyOnRight().containsKey(newTableEntry.getKey())
+          && !tableRenames.containsValue(newTableEntry.getKey())) {
+        LOG.info("Creating new table: {}", newTableEntry.getValue().getTableName());
         output.add(newTableEntry.getValue().toStringOptionalExistClause(false));
       }
     }
 
+    sections.end("createTables");
+
+    // Create new views, and replace modified views which use new tables, columns or views. Must be
+    // done in the order of creation in the new DDL.
+    for (Entry<String, ASTcreate_view_statement> view : newDb.views().entrySet()) {
+      if (viewDifferences.entriesOnlyOnRight().containsKey(view.getKey())) {
+        LOG.info("Creating new view: {}", view.getValue().getName());
+        output.add(view.getValue().toStringOptionalOrReplace(false));
+      } else if (viewsAfterTables.contains(view.getKey())) {
+        LOG.info("Replacing modified view: {}", view.getValue().getName());
+        output.add(view.getValue().toStringOptionalOrReplace(true));
+      }
+    }
+
+    sections.end("createViews");
+
     // Create new TTLs
     for (Map.Entry<String, ASTrow_deletion_policy_clause> newTtl :
         ttlDifferences.entriesOnlyOnRight().entrySet()) {
-      LOG.info("Adding new row deletion policy for : {}", newTtl.getKey());
-      output.add("ALTER TABLE " + newTtl.getKey() + " ADD " + newTtl.getValue());
+      if (tableRenames.entrySet().stream()
+          .anyMatch(
+              rename ->
+                  rename.getValue().equals(newTtl.getKey())
+                      && isUnchangedRenamedTtl(rename.getKey(), tableRenames))) {
+        continue;
+      }
+      String newTableName = newTableName(newTtl.getKey());
+      LOG.info("Adding new row deletion policy for : {}", newTableName);
+      output.add("ALTER TABLE " + newTableName + " ADD " + newTtl.getValue());
     }
 
+    sections.end("createRowDeletionPolicies");
+
     // update existing TTLs
     for (Entry<String, ValueDifference<ASTrow_deletion_policy_clause>> differentTtl :
         ttlDifferences.entriesDiffering().entrySet()) {
-      LOG.info("Updating row deletion policy for : {}", differentTtl.getKey());
+      String newTableName = newTableName(differentTtl.getKey());
+      LOG.info("Updating row deletion policy for : {}", newTableName);
       output.add(
-          "ALTER TABLE "
-              + differentTtl.getKey()
-              + " REPLACE "
-              + differentTtl.getValue().rightValue());
+          "ALTER TABLE " + newTableName + " REPLACE " + differentTtl.getValue().rightValue());
     }
 
+    sections.end("replaceRowDeletionPolicies");
+
     // Create new indexes
     for (ASTcreate_index_statement index : indexDifferences.entriesOnlyOnRight().values()) {
       LOG.info("Creating new index: {}", index.getIndexName());
       output.add(index.toStringOptionalExistClause(false));
     }
 
+    sections.end("createIndexes");
+
     // Re-create modified indexes...
     for (ValueDifference<ASTcreate_index_statement> difference :
         indexDifferences.entriesDiffering().values()) {
@@ -363,10 +805,10 @@ public class DdlDiff {
         LOG.info("Updating STORING clause on index: {}", difference.leftValue().getIndexName());
         Map<String, String> originalStoredCols =
             difference.leftValue().getStoredColumnNames().stream()
-                .collect(Collectors.toMap(Function.identity(), Function.identity()));
+                .collect(Collectors.toMap(Identifiers::canonical, Function.identity()));
         Map<String, String> newStoredCols =
             difference.rightValue().getStoredColumnNames().stream()
-                .collect(Collectors.toMap(Function.identity(), Function.identity()));
+                .collect(Collectors.toMap(Identifiers::canonical, Function.identity()));
 
         MapDifference<String, String> colDiff = Maps.difference(originalStoredCols, newStoredCols);
 
@@ -390,12 +832,16 @@ public class DdlDiff {
       }
     }
 
+    sections.end("alterIndexes");
+
     // Create new constraints.
     for (ConstraintWrapper fk : constraintDifferences.entriesOnlyOnRight().values()) {
       LOG.info("Creating new constraint: {}", fk.getName());
       output.add("ALTER TABLE " + fk.tableName() + " ADD " + fk.constraint());
     }
 
+    sections.end("createConstraints");
+
     // Re-create modified constraints.
     for (ValueDifference<ConstraintWrapper> constraintDiff :
         constraintDifferences.entriesDiffering().values()) {
@@ -407,6 +853,8 @@ public class DdlDiff {
               + constraintDiff.rightValue().constraint().toString());
     }
 
+    sections.end("recreateConstraints");
+
     // Create new change streams
     for (ASTcreate_change_stream_statement newChangeStream :
         changeStreamDifferences.entriesOnlyOnRight().values()) {
@@ -414,6 +862,8 @@ public class DdlDiff {
       output.add(newChangeStream.toString());
     }
 
+    sections.end("createChangeStreams");
+
     // Alter existing change streams
     for (ValueDifference<ASTcreate_change_stream_statement> changedChangeStream :
         changeStreamDifferences.entriesDiffering().values()) {
@@ -424,7 +874,8 @@ public class DdlDiff {
       String oldOptions = Objects.toString(changedChangeStream.leftValue().getOptionsClause(), "");
       String newOptions = Objects.toString(changedChangeStream.rightValue().getOptionsClause(), "");
 
-      if (!oldForClause.equals(newForClause)) {
+      // The FOR clause only contains table and column names besides keywords.
+      if (!Identifiers.canonical(oldForClause).equals(Identifiers.canonical(newForClause))) {
         output.add(
             "ALTER CHANGE STREAM "
                 + changedChangeStream.rightValue().getName()
@@ -449,35 +900,164 @@ public class DdlDiff {
       }
     }
 
+    sections.end("alterChangeStreams");
+
     for (ASTcreate_search_index_statement searchIndex :
         searchIndexDifferences.entriesOnlyOnRight().values()) {
       LOG.info("Creating new search index: {}", searchIndex.getName());
       output.add(searchIndex.toString());
     }
 
+    sections.end("createSearchIndexes");
+
     // For each changed search index, apply the add column statements
     output.addAll(searchIndexUpdateStatements.createStatements());
+    sections.end("alterSearchIndexesAddColumns");
+
+    for (ASTcreate_vector_index_statement vectorIndex :
+        vectorIndexDifferences.entriesOnlyOnRight().values()) {
+      LOG.info("Creating new vector index: {}", vectorIndex.getName());
+      output.add(vectorIndex.toStringOptionalExistClause(false));
+    }
+
+    sections.end("createVectorIndexes");
+
+    // Rebuild changed vector indexes, or alter their stored columns and options in place.
+    for (ValueDifference<ASTcreate_vector_index_statement> difference :
+        vectorIndexDifferences.entriesDiffering().values()) {
+      ASTcreate_vector_index_statement vectorIndex = difference.rightValue();
+      if (vectorIndexRequiresRebuild(difference)) {
+        LOG.info("Rebuilding changed vector index: {}", vectorIndex.getName());
+        output.add(vectorIndex.toStringOptionalExistClause(false));
+        continue;
+      }
+      LOG.info("Altering vector index: {}", vectorIndex.getName());
+      for (String storedColumn :
+          storedColumnDifferences(difference).entriesOnlyOnRight().values()) {
+        output.add(
+            "ALTER VECTOR INDEX " + vectorIndex.getName() + " ADD STORED COLUMN " + storedColumn);
+      }
+      String optionsUpdates =
+          generateOptionsUpdates(
+              Maps.difference(
+                  VectorIndexSemanticKey.of(difference.leftValue()).alterableOptions(),
+                  VectorIndexSemanticKey.of(vectorIndex).alterableOptions()));
+      if (!Strings.isNullOrEmpty(optionsUpdates)) {
+        output.add(
+            "ALTER VECTOR INDEX "
+                + vectorIndex.getName()
+                + " SET OPTIONS ("
+                + optionsUpdates
+                + ")");
+      }
+    }
+
+    sections.end("alterVectorIndexes");
+    stats.recordEmitted(output);
+
+    return ImmutableList.copyOf(output);
+  }
+
+  /**
+   * Returns the canonical names of the new and modified views which need to be created after the
+   * tables have been created and altered, as they use a new table, column or view, or another such
+   * view.
+   *
+   * <p>As the queries of views are not parsed, any identifier in the query which has the name of a
+   * new table or column is taken to refer to it.
+   */
+  private Set<String> viewsAfterTables() {
+    Set<String> newNames = new HashSet<>(tableDifferences.entriesOnlyOnRight().keySet());
+    for (ValueDifference<ASTcreate_table_statement> table :
+        tableDifferences.entriesDiffering().values()) {
+      Map<String, ASTcolumn_def> originalColumns = columnsByCanonicalName(table.leftValue());
+      for (String column : columnsByCanonicalName(table.rightValue()).keySet()) {
+        if (!originalColumns.containsKey(column)) {
+          newNames.add(column);
+        }
+      }
+    }
+
+    Set<String> viewsAfterTables = new HashSet<>(viewDifferences.entriesOnlyOnRight().keySet());
+    // Views can only use views created before them, so a single pass in creation order is enough.
+    for (Entry<String, ASTcreate_view_statement> view : newDb.views().entrySet()) {
+      if (viewDifferences.entriesDiffering().containsKey(view.getKey())
+          && DdlStatementSorter.getViewReferences(view.getValue()).stream()
+              .anyMatch(
+                  name ->
+                      newNames.contains(name)
+                          // a qualified column, as in table.column or alias.column
+                          || newNames.contains(name.substring(name.lastIndexOf('.') + 1))
+                          || viewsAfterTables.contains(name))) {
+        viewsAfterTables.add(view.getKey());
+      }
+    }
+    return viewsAfterTables;
+  }
 
-    // Add all new search indexes
+  /**
+   * Returns true if the vector index cannot be changed in place, as its key, table, partitioning,
+   * filter, distance type or tree structure changed.
+   */
+  private static boolean vectorIndexRequiresRebuild(
+      ValueDifference<ASTcreate_vector_index_statement> difference) {
+    return VectorIndexSemanticKey.of(difference.leftValue())
+        .requiresRebuild(VectorIndexSemanticKey.of(difference.rightValue()));
+  }
+
+  /** Compares the stored columns of the vector indexes, keyed by their canonical names. */
+  private static MapDifference<String, String> storedColumnDifferences(
+      ValueDifference<ASTcreate_vector_index_statement> difference) {
+    return Maps.difference(
+        difference.leftValue().getStoredColumnNames().stream()
+            .collect(Collectors.toMap(Identifiers::canonical, Function.identity())),
+        difference.rightValue().getStoredColumnNames().stream()
+            .collect(Collectors.toMap(Identifiers::canonical, Function.identity())));
+  }
 
-    return output.build();
+  /** Returns the original spelling of the name of a table in the original DDL. */
+  private String originalTableName(String canonicalName) {
+    ASTcreate_table_statement table = originalDb.tablesInCreationOrder().get(canonicalName);
+    return table == null ? canonicalName : table.getTableName();
   }
 
-  /** Verify that different indexes are only different in STORING clause. */
+  /** Returns the original spelling of the name of a table in the new DDL. */
+  private String newTableName(String canonicalName) {
+    ASTcreate_table_statement table = newDb.tablesInCreationOrder().get(canonicalName);
+    return table == null ? canonicalName : table.getTableName();
+  }
+
+  /** Returns true if the table is renamed, and its row deletion policy is unchanged. */
+  private boolean isUnchangedRenamedTtl(String oldTableName, Map<String, String> tableRenames) {
+    String newTableName = tableRenames.get(oldTableName);
+    return newTableName != null
+        && Objects.equals(
+            Identifiers.canonical(Objects.toString(originalDb.ttls().get(oldTableName))),
+            Identifiers.canonical(Objects.toString(newDb.ttls().get(newTableName))));
+  }
+
+  /**
+   * Verify that different indexes are only different in STORING clause, ignoring differences that
+   * do not change the index, such as identifier case or an explicit ASC.
+   */
   private static boolean checkIndexDiffOnlyStoring(
       ValueDifference<ASTcreate_index_statement> indexDifference) {
 
-    return indexDifference
-        .leftValue()
-        .getDefinitionWithoutStoring()
-        .equals(indexDifference.rightValue().getDefinitionWithoutStoring());
+    return IndexSemanticKey.of(indexDifference.leftValue())
+        .withoutStoredColumns()
+        .equals(IndexSemanticKey.of(indexDifference.rightValue()).withoutStoredColumns());
   }
 
+  /**
+   * Generates the statements to alter the left table to the right table, using the name of the
+   * right table, which differs when the table is renamed.
+   */
   @VisibleForTesting
   static List<String> generateAlterTableStatements(
       ASTcreate_table_statement left, ASTcreate_table_statement right, Map<String, Boolean> options)
       throws DdlDiffException {
     ArrayList<String> alterStatements = new ArrayList<>();
+    String tableName = right.getTableName();
 
     // Alter Table can:
     //   - Add constraints
@@ -497,16 +1077,16 @@ public class DdlDiff {
     }
 
     if (left.getInterleaveClause().isPresent()
-        && !left.getInterleaveClause()
-            .get()
-            .getParentTableName()
-            .equals(right.getInterleaveClause().get().getParentTableName())) {
+        && !Identifiers.canonical(left.getInterleaveClause().get().getParentTableName())
+            .equals(
+                Identifiers.canonical(right.getInterleaveClause().get().getParentTableName()))) {
       throw new DdlDiffException(
           "Cannot change interleaved parent of table " + left.getTableName());
     }
 
     // Check Key is same
-    if (!left.getPrimaryKey().toString().equals(right.getPrimaryKey().toString())) {
+    if (!Identifiers.canonical(left.getPrimaryKey().toString())
+        .equals(Identifiers.canonical(right.getPrimaryKey().toString()))) {
       throw new DdlDiffException("Cannot change primary key of table " + left.getTableName());
     }
 
@@ -517,61 +1097,65 @@ public class DdlDiff {
             .getOnDelete()
             .equals(right.getInterleaveClause().get().getOnDelete())) {
       alterStatements.add(
-          "ALTER TABLE "
-              + left.getTableName()
-              + " SET "
-              + right.getInterleaveClause().get().getOnDelete());
+          "ALTER TABLE " + tableName + " SET " + right.getInterleaveClause().get().getOnDelete());
     }
 
     // compare columns.
     MapDifference<String, ASTcolumn_def> columnDifferences =
-        Maps.difference(left.getColumns(), right.getColumns());
+        Maps.difference(columnsByCanonicalName(left), columnsByCanonicalName(right));
 
     if (options.get(ALLOW_DROP_STATEMENTS_OPT)) {
-      for (String columnName : columnDifferences.entriesOnlyOnLeft().keySet()) {
-        alterStatements.add("ALTER TABLE " + left.getTableName() + " DROP COLUMN " + columnName);
+      for (ASTcolumn_def column : columnDifferences.entriesOnlyOnLeft().values()) {
+        alterStatements.add("ALTER TABLE " + tableName + " DROP COLUMN " + column.getColumnName());
       }
     }
 
     for (ASTcolumn_def column : columnDifferences.entriesOnlyOnRight().values()) {
-      alterStatements.add(
-          "ALTER TABLE " + left.getTableName() + " ADD COLUMN " + column.toString());
+      alterStatements.add("ALTER TABLE " + tableName + " ADD COLUMN " + column.toString());
     }
 
     for (ValueDifference<ASTcolumn_def> columnDiff :
         columnDifferences.entriesDiffering().values()) {
-      addColumnDiffs(left.getTableName(), alterStatements, columnDiff);
+      addColumnDiffs(tableName, alterStatements, columnDiff.leftValue(), columnDiff.rightValue());
     }
 
     // Table Options clause changes
     String updateText = generateOptionsClauseUpdates(left.getOptions(), right.getOptions());
     if (!Strings.isNullOrEmpty(updateText)) {
-      alterStatements.add(
-          "ALTER TABLE " + left.getTableName() + " SET OPTIONS (" + updateText + ")");
+      alterStatements.add("ALTER TABLE " + tableName + " SET OPTIONS (" + updateText + ")");
     }
 
     return alterStatements;
   }
 
+  /** Returns the columns of the table, keyed by the canonical form of their names. */
+  static Map<String, ASTcolumn_def> columnsByCanonicalName(ASTcreate_table_statement table) {
+    Map<String, ASTcolumn_def> columns = new LinkedHashMap<>();
+    for (ASTcolumn_def column : table.getColumns().values()) {
+      columns.put(Identifiers.canonical(column.getColumnName()), column);
+    }
+    return columns;
+  }
+
   private static void addColumnDiffs(
-      String tableName, List<String> alterStatements, ValueDifference<ASTcolumn_def> columnDiff)
+      String tableName,
+      List<String> alterStatements,
+      ASTcolumn_def leftColumn,
+      ASTcolumn_def rightColumn)
       throws DdlDiffException {
 
     // check for compatible type changes.
-    if (!columnDiff
-        .leftValue()
-        .getColumnTypeString()
-        .equals(columnDiff.rightValue().getColumnTypeString())) {
+    if (!leftColumn.getColumnTypeString().equals(rightColumn.getColumnTypeString())) {
 
       // check for changing lengths of Strings or Arrays - for arrays we need the 'root' type and
       // the depth.
-      ASTcolumn_type leftRootType = columnDiff.leftValue().getColumnType();
+      ASTcolumn_type leftRootType = leftColumn.getColumnType();
       int leftArrayDepth = 0;
       while (leftRootType.isArray()) {
         leftRootType = leftRootType.getArraySubType();
         leftArrayDepth++;
       }
-      ASTcolumn_type rightRootType = columnDiff.rightValue().getColumnType();
+      ASTcolumn_type rightRootType = rightColumn.getColumnType();
       int rightArrayDepth = 0;
       while (rightRootType.isArray()) {
         rightRootType = rightRootType.getArraySubType();
@@ -586,36 +1170,31 @@ public class DdlDiff {
             "Cannot change type of table "
                 + tableName
                 + " column "
-                + columnDiff.leftValue().getColumnName()
+                + leftColumn.getColumnName()
                 + " from "
-                + columnDiff.leftValue().getColumnTypeString()
+                + leftColumn.getColumnTypeString()
                 + " to "
-                + columnDiff.rightValue().getColumnTypeString());
+                + rightColumn.getColumnTypeString());
       }
     }
 
     // check generated column diffs
     // check for compatible type changes.
-    if (!Objects.equals(
-        Objects.toString(columnDiff.leftValue().getGenerationClause()),
-        Objects.toString(columnDiff.rightValue().getGenerationClause()))) {
+    if (!Objects.equals(leftColumn.getGenerationClause(), rightColumn.getGenerationClause())) {
       throw new DdlDiffException(
           "Cannot change generation clause of table "
               + tableName
               + " column "
-              + columnDiff.leftValue().getColumnName()
+              + leftColumn.getColumnName()
               + " from "
-              + columnDiff.leftValue().getGenerationClause()
+              + leftColumn.getGenerationClause()
               + " to "
-              + columnDiff.rightValue().getGenerationClause());
+              + rightColumn.getGenerationClause());
     }
 
     // Not null or type length limit change.
-    if (columnDiff.leftValue().isNotNull() != columnDiff.rightValue().isNotNull()
-        || !columnDiff
-            .leftValue()
-            .getColumnTypeString()
-            .equals(columnDiff.rightValue().getColumnTypeString())) {
+    if (leftColumn.isNotNull() != rightColumn.isNotNull()
+        || !leftColumn.getColumnTypeString().equals(rightColumn.getColumnTypeString())) {
       alterStatements.add(
           Joiner.on(" ")
               .skipNulls()
@@ -623,21 +1202,20 @@ public class DdlDiff {
                   "ALTER TABLE",
                   tableName,
                   "ALTER COLUMN",
-                  columnDiff.rightValue().getColumnName(),
-                  columnDiff.rightValue().getColumnTypeString(),
-                  (columnDiff.rightValue().isNotNull() ? "NOT NULL" : null)));
+                  rightColumn.getColumnName(),
+                  rightColumn.getColumnTypeString(),
+                  (rightColumn.isNotNull() ? "NOT NULL" : null)));
     }
 
     // Update options.
     String updateText =
-        generateOptionsClauseUpdates(
-            columnDiff.leftValue().getOptionsClause(), columnDiff.rightValue().getOptionsClause());
+        generateOptionsClauseUpdates(leftColumn.getOptionsClause(), rightColumn.getOptionsClause());
     if (!Strings.isNullOrEmpty(updateText)) {
       alterStatements.add(
           "ALTER TABLE "
               + tableName
               + " ALTER COLUMN "
-              + columnDiff.rightValue().getColumnName()
+              + rightColumn.getColumnName()
               + " SET OPTIONS ("
               + updateText
               + ")");
@@ -645,17 +1223,15 @@ public class DdlDiff {
 
     // Update default values
 
-    final ASTcolumn_default_clause oldDefaultValue =
-        columnDiff.leftValue().getColumnDefaultClause();
-    final ASTcolumn_default_clause newDefaultValue =
-        columnDiff.rightValue().getColumnDefaultClause();
+    final ASTcolumn_default_clause oldDefaultValue = leftColumn.getColumnDefaultClause();
+    final ASTcolumn_default_clause newDefaultValue = rightColumn.getColumnDefaultClause();
     if (!Objects.equals(oldDefaultValue, newDefaultValue)) {
       if (newDefaultValue == null) {
         alterStatements.add(
             "ALTER TABLE "
                 + tableName
                 + " ALTER COLUMN "
-                + columnDiff.rightValue().getColumnName()
+                + rightColumn.getColumnName()
                 + " DROP DEFAULT");
       } else {
         // add or change default value
@@ -663,7 +1239,7 @@ public class DdlDiff {
             "ALTER TABLE "
                 + tableName
                 + " ALTER COLUMN "
-                + columnDiff.rightValue().getColumnName()
+                + rightColumn.getColumnName()
                 + " SET "
                 + newDefaultValue);
       }
@@ -714,27 +1290,107 @@ public class DdlDiff {
    */
   public static DdlDiff build(String originalDdl, String newDdl, Map<String, Boolean> options)
       throws DdlDiffException {
+    return build(originalDdl, newDdl, options, new DiffStats());
+  }
+
+  /**
+   * Build a DdlDiff instance that can compares two Cloud Spanner Schema (DDL) strings, reporting
+   * metrics of parsing the DDL and generating the diff to the given implementation.
+   *
+   * @param originalDdl Original DDL
+   * @param newDdl New DDL
+   * @param metrics Metrics implementation to report to
+   * @return DdlDiff instance
+   * @throws DdlDiffException if there is an error in paring the DDL
+   */
+  public static DdlDiff build(
+      String originalDdl, String newDdl, Map<String, Boolean> options, DiffMetrics metrics)
+      throws DdlDiffException {
+    return build(originalDdl, newDdl, options, new DiffStats(metrics));
+  }
+
+  /** Builds a DdlDiff instance, recording the time taken to parse the DDL in the stats. */
+  static DdlDiff build(
+      String originalDdl, String newDdl, Map<String, Boolean> options, DiffStats stats)
+      throws DdlDiffException {
     List<ASTddl_statement> originalStatements;
     List<ASTddl_statement> newStatements;
     try {
-      originalStatements = parseDdl(Strings.nullToEmpty(originalDdl));
+      originalStatements = parseDdl(Strings.nullToEmpty(originalDdl), false, stats);
     } catch (DdlDiffException e) {
       throw new DdlDiffException("Failed parsing ORIGINAL DDL: " + e.getMessage(), e);
     }
     try {
-      newStatements = parseDdl(Strings.nullToEmpty(newDdl));
+      newStatements = parseDdl(Strings.nullToEmpty(newDdl), false, stats);
     } catch (DdlDiffException e) {
       throw new DdlDiffException("Failed parsing NEW DDL: " + e.getMessage(), e);
     }
+    return build(originalStatements, newStatements, options, stats);
+  }
 
-    DatabaseDefinition originalDb = DatabaseDefinition.create(originalStatements, options);
-    DatabaseDefinition newDb = DatabaseDefinition.create(newStatements, options);
+  /**
+   * Build a DdlDiff instance that can compares two lists of parsed Cloud Spanner Schema (DDL)
+   * statements. generateDifferenceStatements can be invoked to generate the ALTER statements
+   *
+   * @param originalStatements Original DDL statements, in creation order
+   * @param newStatements New DDL statements, in creation order
+   * @return DdlDiff instance
+   * @throws DdlDiffException if the DDL statements are inconsistent
+   */
+  public static DdlDiff build(
+      List<ASTddl_statement> originalStatements,
+      List<ASTddl_statement> newStatements,
+      Map<String, Boolean> options)
+      throws DdlDiffException {
+    return build(originalStatements, newStatements, options, new DiffStats());
+  }
+
+  /**
+   * Build a DdlDiff instance that can compares two lists of parsed Cloud Spanner Schema (DDL)
+   * statements, reporting metrics of generating the diff to the given implementation.
+   *
+   * @param originalStatements Original DDL statements, in creation order
+   * @param newStatements New DDL statements, in creation order
+   * @param metrics Metrics implementation to report to
+   * @return DdlDiff instance
+   * @throws DdlDiffException if the DDL statements are inconsistent
+   */
+  public static DdlDiff build(
+      List<ASTddl_statement> originalStatements,
+      List<ASTddl_statement> newStatements,
+      Map<String, Boolean> options,
+      DiffMetrics metrics)
+      throws DdlDiffException {
+    return build(originalStatements, newStatements, options, new DiffStats(metrics));
+  }
+
+  /** Builds a DdlDiff instance, recording the time taken to build it in the stats. */
+  static DdlDiff build(
+      List<ASTddl_statement> originalStatements,
+      List<ASTddl_statement> newStatements,
+      Map<String, Boolean> options,
+      DiffStats stats)
+      throws DdlDiffException {
+    DatabaseDefinition originalDb = createDatabaseDefinition(originalStatements, options, stats);
+    DatabaseDefinition newDb = createDatabaseDefinition(newStatements, options, stats);
 
     return new DdlDiff(
-        originalDb, newDb, getDatabaseNameFromAlterDatabase(originalStatements, newStatements));
+        originalDb,
+        newDb,
+        getDatabaseNameFromAlterDatabase(originalStatements, newStatements),
+        stats);
   }
 
-  private static String getDatabaseNameFromAlterDatabase(
+  /** Creates a DatabaseDefinition, recording the time taken in the stats. */
+  static DatabaseDefinition createDatabaseDefinition(
+      List<ASTddl_statement> statements, Map<String, Boolean> options, DiffStats stats) {
+    long start = System.nanoTime();
+    DatabaseDefinition db = DatabaseDefinition.create(statements, options);
+    stats.record(DiffStats.CREATE_DATABASE_DEFINITION, start, statements.size());
+    return db;
+  }
+
+  static String getDatabaseNameFromAlterDatabase(
       List<ASTddl_statement> originalStatements, List<ASTddl_statement> newStatements)
       throws DdlDiffException {
     String originalName = getDatabaseNameFromAlterDatabase(originalStatements);
@@ -791,6 +1447,36 @@ public class DdlDiff {
    */
   public static List<ASTddl_statement> parseDdl(String original, boolean parseAnnotationInComments)
       throws DdlDiffException {
+    return parseDdl(original, parseAnnotationInComments, new DiffStats());
+  }
+
+  /**
+   * Parses the Cloud Spanner Schema (DDL) string to a list of AST DDL statements, recording the
+   * time taken to split and parse the statements in the stats.
+   */
+  static List<ASTddl_statement> parseDdl(
+      String original, boolean parseAnnotationInComments, DiffStats stats) throws DdlDiffException {
+    stats.recordBytes(original);
+    long start = System.nanoTime();
+    List<String> statements = splitStatements(original, parseAnnotationInComments);
+    stats.record(DiffStats.SPLIT, start, statements.size());
+    ArrayList<ASTddl_statement> ddlStatements = new ArrayList<>(statements.size());
+    for (String statement : statements) {
+      ddlStatements.add(parseDdlStatement(statement, stats));
+    }
+    return ddlStatements;
+  }
+
+  /**
+   * Removes comments from the DDL string and splits it into individual trimmed, non-empty
+   * statements.
+   *
+   * @param original DDL to split
+   * @param parseAnnotationInComments If true then the annotations that appear as comments
+   *     "-- @ANNOTATION annotation" will be retained
+   * @return List of statement texts
+   */
+  static List<String> splitStatements(String original, boolean parseAnnotationInComments) {
     // the annotations are prefixed with "--" so that SQL file remains valid.
     // strip the comment prefix before so that annotations can be parsed.
     // otherwise they will be ignored as comment lines
@@ -801,97 +1487,139 @@ public class DdlDiff {
 
     // Remove "--" comments and split by ";"
     List<String> statements = Splitter.on(';').splitToList(original.replaceAll("--.*(\n|$)", ""));
-    ArrayList<ASTddl_statement> ddlStatements = new ArrayList<>(statements.size());
-
+    ArrayList<String> trimmedStatements = new ArrayList<>(statements.size());
     for (String statement : statements) {
       statement = statement.trim();
-      if (statement.isEmpty()) {
-        continue;
+      if (!statement.isEmpty()) {
+        trimmedStatements.add(statement);
       }
+    }
+    return trimmedStatements;
+  }
+
+  /**
+   * Parses a single DDL statement, verifying that it is a statement that can be used for creating
+   * diffs.
+   *
+   * @param statement trimmed DDL statement text without comments or trailing semicolon
+   * @return parsed DDL statement
+   * @throws DdlDiffException if there is an error in parsing the DDL
+   */
+  static ASTddl_statement parseDdlStatement(String statement) throws DdlDiffException {
+    return parseDdlStatement(statement, new DiffStats());
+  }
+
+  /**
+   * Parses and verifies a single DDL statement, recording the time taken to parse it in the stats.
+   */
+  static ASTddl_statement parseDdlStatement(String statement, DiffStats stats)
+      throws DdlDiffException {
+    try {
+      long start = System.nanoTime();
+      Object event = DiffEvents.beginParse();
+      ASTddl_statement ddlStatement = null;
       try {
-        ASTddl_statement ddlStatement = DdlParser.parseDdlStatement(statement);
-        int statementType = ddlStatement.jjtGetChild(0).getId();
-
-        switch (statementType) {
-          case DdlParserTreeConstants.JJTALTER_TABLE_STATEMENT:
-            ASTalter_table_statement alterTableStatement =
-                (ASTalter_table_statement) ddlStatement.jjtGetChild(0);
-            // child 0 = table name
-            // child 1 = alter statement. Only ASTforeign_key is supported
-            if (!(alterTableStatement.jjtGetChild(1) instanceof ASTforeign_key)
-                && !(alterTableStatement.jjtGetChild(1) instanceof ASTcheck_constraint)
-                && !(alterTableStatement.jjtGetChild(1) instanceof ASTadd_row_deletion_policy)) {
-              throw new IllegalArgumentException(
-                  "Unsupported statement:\n"
-                      + statement
-                      + "\n"
-                      + "ALTER TABLE statements only support 'ADD [constraint|row deletion"
-                      + " policy]'");
-            }
-            if (alterTableStatement.jjtGetChild(1) instanceof ASTforeign_key
-                && ((ASTforeign_key) alterTableStatement.jjtGetChild(1))
-                    .getName()
-                    .equals(ASTcreate_table_statement.ANONYMOUS_NAME)) {
-              throw new IllegalArgumentException(
-                  "Unsupported statement:\n"
-                      + statement
-                      + "\nCan not create diffs when anonymous constraints are used.");
-            }
-            if (alterTableStatement.jjtGetChild(1) instanceof ASTcheck_constraint
-                && ((ASTcheck_constraint) alterTableStatement.jjtGetChild(1))
-                    .getName()
-                    .equals(ASTcreate_table_statement.ANONYMOUS_NAME)) {
-              throw new IllegalArgumentException(
-                  "Unsupported statement:\n"
-                      + statement
-                      + "\nCan not create diffs when anonymous constraints are used.");
-            }
-            break;
-          case DdlParserTreeConstants.JJTCREATE_TABLE_STATEMENT:
-            if (((ASTcreate_table_statement) ddlStatement.jjtGetChild(0))
-                .getConstraints()
-                .containsKey(ASTcreate_table_statement.ANONYMOUS_NAME)) {
-              throw new IllegalArgumentException(
-                  "Unsupported statement:\n"
-                      + statement
-                      + "\nCan not create diffs when anonymous constraints are used.");
-            }
-            break;
-          case DdlParserTreeConstants.JJTCREATE_INDEX_STATEMENT:
-          case DdlParserTreeConstants.JJTALTER_DATABASE_STATEMENT:
-          case DdlParserTreeConstants.JJTCREATE_CHANGE_STREAM_STATEMENT:
-          case DdlParserTreeConstants.JJTCREATE_SEARCH_INDEX_STATEMENT:
-          case DdlParserTreeConstants.JJTCREATE_LOCALITY_GROUP_STATEMENT:
-          case DdlParserTreeConstants.JJTCREATE_PROTO_BUNDLE_STATEMENT:
-          case DdlParserTreeConstants.JJTALTER_PROTO_BUNDLE_STATEMENT:
-            // no-op - allowed
-            break;
-          case DdlParserTreeConstants.JJTCREATE_OR_REPLACE_STATEMENT:
-            // can be one of several types.
-            switch (((ASTcreate_or_replace_statement) ddlStatement.jjtGetChild(0))
-                .getSchemaObject()
-                .getId()) {
-              case DdlParserTreeConstants.JJTCREATE_SCHEMA_STATEMENT:
-                // no-op - allowed
-                break;
-              default:
-                throw new IllegalArgumentException(
-                    "Unsupported statement for creating diffs:\n" + statement);
-            }
-            break;
-          default:
+        ddlStatement = parseWithFastPath(statement);
+      } finally {
+        DiffEvents.endParse(event, statement, ddlStatement);
+      }
+      stats.recordParse(statement, ddlStatement, start);
+      int statementType = ddlStatement.jjtGetChild(0).getId();
+
+      switch (statementType) {
+        case DdlParserTreeConstants.JJTALTER_TABLE_STATEMENT:
+          ASTalter_table_statement alterTableStatement =
+              (ASTalter_table_statement) ddlStatement.jjtGetChild(0);
+          // child 0 = table name
+          // child 1 = alter statement. Only ASTforeign_key is supported
+          if (!(alterTableStatement.jjtGetChild(1) instanceof ASTforeign_key)
+              && !(alterTableStatement.jjtGetChild(1) instanceof ASTcheck_constraint)
+              && !(alterTableStatement.jjtGetChild(1) instanceof ASTadd_row_deletion_policy)) {
             throw new IllegalArgumentException(
-                "Unsupported statement for creating diffs:\n" + statement);
-        }
-        ddlStatements.add(ddlStatement);
-      } catch (ParseException e) {
-        throw new DdlDiffException(
-            String.format(
-                "Unable to parse statement:\n'%s'\nFailure: %s", statement, e.getMessage()),
-            e);
+                "Unsupported statement:\n"
+                    + statement
+                    + "\n"
+                    + "ALTER TABLE statements only support 'ADD [constraint|row deletion"
+                    + " policy]'");
+          }
+          if (alterTableStatement.jjtGetChild(1) instanceof ASTforeign_key
+              && ((ASTforeign_key) alterTableStatement.jjtGetChild(1))
+                  .getName()
+                  .equals(ASTcreate_table_statement.ANONYMOUS_NAME)) {
+            throw new IllegalArgumentException(
+                "Unsupported statement:\n"
+                    + statement
+                    + "\nCan not create diffs when anonymous constraints are used.");
+          }
+          if (alterTableStatement.jjtGetChild(1) instanceof ASTcheck_constraint
+              && ((ASTcheck_constraint) alterTableStatement.jjtGetChild(1))
+                  .getName()
+                  .equals(ASTcreate_table_statement.ANONYMOUS_NAME)) {
+            throw new IllegalArgumentException(
+                "Unsupported statement:\n"
+                    + statement
+                    + "\nCan not create diffs when anonymous constraints are used.");
+          }
+          break;
+        case DdlParserTreeConstants.JJTCREATE_TABLE_STATEMENT:
+          if (((ASTcreate_table_statement) ddlStatement.jjtGetChild(0))
+              .getConstraints()
+              .containsKey(ASTcreate_table_statement.ANONYMOUS_NAME)) {
+            throw new IllegalArgumentException(
+                "Unsupported statement:\n"
+                    + statement
+                    + "\nCan not create diffs when anonymous constraints are used.");
+          }
+          break;
+        case DdlParserTreeConstants.JJTCREATE_INDEX_STATEMENT:
+        case DdlParserTreeConstants.JJTALTER_DATABASE_STATEMENT:
+        case DdlParserTreeConstants.JJTCREATE_CHANGE_STREAM_STATEMENT:
+        case DdlParserTreeConstants.JJTCREATE_SEARCH_INDEX_STATEMENT:
+        case DdlParserTreeConstants.JJTCREATE_VECTOR_INDEX_STATEMENT:
+        case DdlParserTreeConstants.JJTCREATE_LOCALITY_GROUP_STATEMENT:
+        case DdlParserTreeConstants.JJTCREATE_SEQUENCE_STATEMENT:
+        case DdlParserTreeConstants.JJTCREATE_PROTO_BUNDLE_STATEMENT:
+        case DdlParserTreeConstants.JJTALTER_PROTO_BUNDLE_STATEMENT:
+          // no-op - allowed
+          break;
+        case DdlParserTreeConstants.JJTCREATE_OR_REPLACE_STATEMENT:
+          // can be one of several types.
+          switch (((ASTcreate_or_replace_statement) ddlStatement.jjtGetChild(0))
+              .getSchemaObject()
+              .getId()) {
+            case DdlParserTreeConstants.JJTCREATE_SCHEMA_STATEMENT:
+            case DdlParserTreeConstants.JJTCREATE_VIEW_STATEMENT:
+              // no-op - allowed
+              break;
+            default:
+              throw new IllegalArgumentException(
+                  "Unsupported statement for creating diffs:\n" + statement);
+          }
+          break;
+        default:
+          throw new IllegalArgumentException(
+              "Unsupported statement for creating diffs:\n" + statement);
       }
+      return ddlStatement;
+    } catch (ParseException e) {
+      stats.recordParseFailure(statement);
+      throw new DdlDiffException(
+          String.format("Unable to parse statement:\n'%s'\nFailure: %s", statement, e.getMessage()),
+          e);
+    }
+  }
+
+  /**
+   * Parses the statement with {@link DdlFastParser}, which does not record the tokens expected at
+   * each choice point. If that fails, the statement is parsed again with {@link DdlParser} so that
+   * the exception has the full error message, with the expected tokens.
+   */
+  static ASTddl_statement parseWithFastPath(String statement) throws ParseException {
+    try {
+      return DdlFastParser.parseDdlStatement(statement);
+    } catch (ParseException | TokenMgrException e) {
+      return DdlParser.parseDdlStatement(statement);
     }
-    return ddlStatements;
   }
 
   /**
@@ -902,23 +1630,61 @@ public class DdlDiff {
   public static void main(String[] args) {
     DdlDiffOptions options = DdlDiffOptions.parseCommandLine(args);
 
-    try {
-      String originalDdl = new String(Files.readAllBytes(options.originalDdlPath()), UTF_8);
-      String newDdl = new String(Files.readAllBytes(options.newDdlPath()), UTF_8);
+    if (options.args().get(WATCH_OPT)) {
+      try {
+        new DdlDiffWatcher(options).watch();
+      } catch (IOException e) {
+        System.err.println("Cannot watch DDL files: " + e);
+        System.exit(1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      System.exit(0);
+    }
+    if (options.isMultiTarget()) {
+      System.exit(MultiTargetDdlDiff.writeDifferenceStatements(options) ? 0 : 1);
+    }
 
-      validateDdl(newDdl, options.args());
+    try {
+      DiffStats stats = new DiffStats();
+      List<ASTddl_statement> originalStatements;
+      List<ASTddl_statement> newStatements;
+      try {
+        originalStatements = DdlFileReader.readStatements(options.originalDdlPath(), stats);
+      } catch (DdlDiffException e) {
+        throw new DdlDiffException("Failed parsing ORIGINAL DDL: " + e.getMessage(), e);
+      }
+      try {
+        newStatements = DdlFileReader.readStatements(options.newDdlPath(), stats);
+      } catch (DdlDiffException e) {
+        throw new DdlDiffException("Failed parsing NEW DDL: " + e.getMessage(), e);
+      }
 
-      DdlDiff ddlDiff = DdlDiff.build(originalDdl, newDdl, options.args());
+      DdlDiff ddlDiff = DdlDiff.build(originalStatements, newStatements, options.args(), stats);
 
-      List<String> alterStatements = ddlDiff.generateDifferenceStatements(options.args());
+      ddlDiff.validateNewDdl();
 
-      StringBuilder output = new StringBuilder();
-      for (String statement : alterStatements) {
-        output.append(statement);
-        output.append(";\n\n");
+      List<RenameCandidate> renames = ImmutableList.of();
+      if (options.args().get(DETECT_RENAMES_OPT)) {
+        renames = ddlDiff.detectRenames(options.renameThreshold());
+        if (options.renameReportPath().isPresent()) {
+          RenameDetector.writeReport(options.renameReportPath().get(), renames);
+        }
       }
 
-      Files.write(options.outputDdlPath(), output.toString().getBytes(UTF_8));
+      List<String> alterStatements = ddlDiff.generateDifferenceStatements(options.args(), renames);
+
+      if (options.tableSizesPath().isPresent()) {
+        writeAnnotatedStatements(options, ddlDiff, alterStatements);
+      } else {
+        writeStatements(options.outputDdlPath(), alterStatements);
+      }
+      writeBatchPlan(options, alterStatements);
+      if (options.wavePlanPath().isPresent()) {
+        SchemaChangeWaves.writeWaves(
+            options.wavePlanPath().get(), ddlDiff.sortIntoWaves(alterStatements));
+      }
+      writeStats(options, stats);
 
       System.exit(0);
     } catch (IOException e) {
@@ -930,6 +1696,54 @@ public class DdlDiff {
     }
   }
 
+  /** Writes the stats as JSON to the stats file, if one was given in the options. */
+  static void writeStats(DdlDiffOptions options, DiffStats stats) throws IOException {
+    if (options.statsPath().isPresent()) {
+      Files.write(options.statsPath().get(), stats.toJson().getBytes(UTF_8));
+    }
+  }
+
+  /** Writes the statements grouped into batches to the batch plan file, if one was given. */
+  static void writeBatchPlan(DdlDiffOptions options, List<String> statements) throws IOException {
+    if (options.batchPlanPath().isPresent()) {
+      SchemaChangeBatchPlanner planner =
+          new SchemaChangeBatchPlanner(
+              options.maxStatementsPerBatch(), options.maxBackfillsPerBatch());
+      SchemaChangeBatchPlanner.writePlan(options.batchPlanPath().get(), planner.plan(statements));
+    }
+  }
+
+  /**
+   * Writes the statements to the output DDL file, each preceded by a comment with its estimated
+   * cost using the table sizes file.
+   *
+   * @throws DdlDiffException if the estimated rows read exceed the maximum given in the options
+   */
+  static void writeAnnotatedStatements(
+      DdlDiffOptions options, DdlDiff ddlDiff, List<String> statements)
+      throws IOException, DdlDiffException {
+    ImmutableList<Cost> costs =
+        ddlDiff.estimateCosts(
+            statements, SchemaChangeCostEstimator.readTableSizes(options.tableSizesPath().get()));
+    if (options.maxBackfillRows().isPresent()) {
+      SchemaChangeCostEstimator.checkBudget(costs, options.maxBackfillRows().get());
+    }
+    Files.write(
+        options.outputDdlPath(),
+        SchemaChangeCostEstimator.formatAnnotated(statements, costs).getBytes(UTF_8));
+  }
+
+  /** Writes the statements to the output DDL file, separating them with semicolons. */
+  static void writeStatements(Path path, List<String> statements) throws IOException {
+    StringBuilder output = new StringBuilder();
+    for (String statement : statements) {
+      output.append(statement);
+      output.append(";\n\n");
+    }
+
+    Files.write(path, output.toString().getBytes(UTF_8));
+  }
+
   /**
    * Parses and validates the new DDL for missing references.
    *
@@ -943,11 +1757,45 @@ public class DdlDiff {
     } catch (DdlDiffException e) {
       throw new DdlDiffException("Failed parsing DDL: " + e.getMessage(), e);
     }
+    validateDdl(statements, options);
+  }
+
+  /**
+   * Validates the parsed new DDL statements for missing references.
+   *
+   * @param statements new DDL statements
+   * @throws DdlDiffException if a missing reference is found
+   */
+  public static void validateDdl(List<ASTddl_statement> statements, Map<String, Boolean> options)
+      throws DdlDiffException {
     DatabaseDefinition db = DatabaseDefinition.create(statements, options);
     validateReferences(db);
   }
 
+  /**
+   * Validates the new DDL of this diff for missing references.
+   *
+   * @throws DdlDiffException if a missing reference is found
+   */
+  void validateNewDdl() throws DdlDiffException {
+    long start = System.nanoTime();
+    validateReferences(newDb);
+    stats.record(DiffStats.VALIDATE, start, 1);
+  }
+
   private static void validateReferences(DatabaseDefinition db) throws DdlDiffException {
+    // getColumns() builds a new map on each call, so look up each table's columns only once.
+    // Tables and columns are looked up by their canonical names, as Spanner does.
+    Map<String, Set<String>> columnNamesByTable = new HashMap<>();
+    Function<String, Set<String>> columnNames =
+        tableName ->
+            columnNamesByTable.computeIfAbsent(
+                Identifiers.canonical(tableName),
+                name ->
+                    db.tablesInCreationOrder().get(name).getColumns().keySet().stream()
+                        .map(Identifiers::canonical)
+                        .collect(Collectors.toSet()));
+
     // Validate foreign keys
     for (ConstraintWrapper constraint : db.constraints().values()) {
       if (constraint.constraint() instanceof ASTforeign_key) {
@@ -955,7 +1803,7 @@ public class DdlDiff {
         String tableName = constraint.tableName();
         String referencedTable = fk.getReferencedTableName();
 
-        if (!db.tablesInCreationOrder().containsKey(referencedTable)) {
+        if (!db.tablesInCreationOrder().containsKey(Identifiers.canonical(referencedTable))) {
           throw new DdlDiffException(
               String.format(
                   "Table '%s' contains foreign key '%s' which references "
@@ -963,11 +1811,9 @@ public class DdlDiff {
                   tableName, constraint.getName(), referencedTable));
         }
 
-        List<String> referencedColumns = fk.getReferencedColumnNames();
-        ASTcreate_table_statement referencedTableDef =
-            db.tablesInCreationOrder().get(referencedTable);
-        for (String col : referencedColumns) {
-          if (!referencedTableDef.getColumns().containsKey(col)) {
+        Set<String> referencedTableColumns = columnNames.apply(referencedTable);
+        for (String col : fk.getReferencedColumnNames()) {
+          if (!referencedTableColumns.contains(Identifiers.canonical(col))) {
             throw new DdlDiffException(
                 String.format(
                     "Table '%s' contains foreign key '%s' which references "
@@ -976,10 +1822,9 @@ public class DdlDiff {
           }
         }
 
-        List<String> referencingColumns = fk.getConstrainedColumnNames();
-        ASTcreate_table_statement referencingTableDef = db.tablesInCreationOrder().get(tableName);
-        for (String col : referencingColumns) {
-          if (!referencingTableDef.getColumns().containsKey(col)) {
+        Set<String> referencingTableColumns = columnNames.apply(tableName);
+        for (String col : fk.getConstrainedColumnNames()) {
+          if (!referencingTableColumns.contains(Identifiers.canonical(col))) {
             throw new DdlDiffException(
                 String.format(
                     "Table '%s' contains foreign key '%s' with column '%s' "
@@ -993,19 +1838,19 @@ public class DdlDiff {
     // Validate Indexes
     for (ASTcreate_index_statement index : db.indexes().values()) {
       String tableName = AstTreeUtils.getChildByType(index, ASTtable.class).toString();
-      if (!db.tablesInCreationOrder().containsKey(tableName)) {
+      if (!db.tablesInCreationOrder().containsKey(Identifiers.canonical(tableName))) {
         throw new DdlDiffException(
             String.format(
                 "Index '%s' is on table '%s' which does not exist.",
                 index.getIndexName(), tableName));
       }
 
-      ASTcreate_table_statement tableDef = db.tablesInCreationOrder().get(tableName);
+      Set<String> tableColumns = columnNames.apply(tableName);
       ASTcolumns columns = AstTreeUtils.getChildByType(index, ASTcolumns.class);
       for (int i = 0; i < columns.jjtGetNumChildren(); i++) {
         ASTkey_part keyPart = (ASTkey_part) columns.jjtGetChild(i);
         String colName = keyPart.getKeyPath();
-        if (!tableDef.getColumns().containsKey(colName)) {
+        if (!tableColumns.contains(Identifiers.canonical(colName))) {
           throw new DdlDiffException(
               String.format(
                   "Index '%s' on table '%s' includes column '%s' which does "
@@ -1015,7 +1860,7 @@ public class DdlDiff {
       }
       // also check stored columns
       for (String colName : index.getStoredColumnNames()) {
-        if (!tableDef.getColumns().containsKey(colName)) {
+        if (!tableColumns.contains(Identifiers.canonical(colName))) {
           throw new DdlDiffException(
               String.format(
                   "Index '%s' on table '%s' stores column '%s' which does not exist in the table.",
@@ -20,6 +20,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.auto.value.AutoValue;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.io.BufferedWriter;
 import java.io.File;
@@ -27,6 +28,9 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
@@ -40,10 +44,56 @@ public abstract class DdlDiffOptions {
 
   public abstract Path originalDdlPath();
 
-  public abstract Path newDdlPath();
+  /** The new DDL paths. There is more than one when diffing the original DDL with many targets. */
+  public abstract ImmutableList<Path> newDdlPaths();
+
+  /** The first new DDL path, which is the only one unless there are multiple targets. */
+  public Path newDdlPath() {
+    return newDdlPaths().get(0);
+  }
+
+  /** Returns true when the original DDL is diffed with more than one new DDL. */
+  public boolean isMultiTarget() {
+    return newDdlPaths().size() > 1;
+  }
 
   public abstract Path outputDdlPath();
 
+  /**
+   * Returns the output DDL path for one of the new DDL paths. When there are multiple targets, the
+   * output DDL path is a directory, and each output file is named after its new DDL path.
+   */
+  public Path outputDdlPath(Path newDdlPath) {
+    return isMultiTarget() ? outputDdlPath().resolve(newDdlPath.getFileName()) : outputDdlPath();
+  }
+
+  /** The file to write the {@link DiffStats} to as JSON, if any. */
+  public abstract Optional<Path> statsPath();
+
+  /** The file to write the statements grouped into batches to, if any. */
+  public abstract Optional<Path> batchPlanPath();
+
+  /** The maximum number of statements in each batch of the batch plan. */
+  public abstract int maxStatementsPerBatch();
+
+  /** The maximum number of statements needing an index backfill in each batch of the plan. */
+  public abstract int maxBackfillsPerBatch();
+
+  /** The file to write the statements sorted into waves of independent changes to, if any. */
+  public abstract Optional<Path> wavePlanPath();
+
+  /** The file to read the number of rows in each table from, to estimate statement costs. */
+  public abstract Optional<Path> tableSizesPath();
+
+  /** The maximum estimated number of rows read by backfills and validations, if any. */
+  public abstract Optional<Long> maxBackfillRows();
+
+  /** The minimum confidence of a detected rename of a table or column. */
+  public abstract double renameThreshold();
+
+  /** The file to write the candidate renames to, if any. */
+  public abstract Optional<Path> renameReportPath();
+
   public abstract ImmutableMap<String, Boolean> args();
 
   @VisibleForTesting
@@ -52,7 +102,9 @@ public abstract class DdlDiffOptions {
     options.addOption(
         Option.builder()
             .longOpt(DdlDiff.ORIGINAL_DDL_FILE_OPT)
-            .desc("File path to the original DDL definition.")
+            .desc(
+                "File path to the original DDL definition. May also be a directory of .ddl and .sql"
+                    + " files, or a glob pattern matching multiple DDL files.")
             .hasArg()
             .argName("FILE")
             .type(File.class)
@@ -61,8 +113,13 @@ public abstract class DdlDiffOptions {
     options.addOption(
         Option.builder()
             .longOpt(DdlDiff.NEW_DDL_FILE_OPT)
-            .desc("File path to the new DDL definition.")
-            .hasArg()
+            .desc(
+                "File path to the new DDL definition. May also be a directory of .ddl and .sql"
+                    + " files, or a glob pattern matching multiple DDL files. Can be repeated to"
+                    + " compare the original DDL with multiple new DDLs, in which case the output"
+                    + " is a directory and each output DDL file is named after its new DDL"
+                    + " file or directory.")
+            .hasArgs()
             .argName("FILE")
             .type(File.class)
             .required()
@@ -97,6 +154,107 @@ public abstract class DdlDiffOptions {
             .longOpt(DdlDiff.IGNORE_PROTO_BUNDLES_OPT)
             .desc("Ignores proto bundle definitions when parsing DDLs and generating diffs.")
             .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(DdlDiff.WATCH_OPT)
+            .desc(
+                "Keeps running, watching the original and new DDL files for changes and"
+                    + " regenerating the output DDL file when they change.")
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(DdlDiff.STATS_OPT)
+            .desc(
+                "File path to write the time taken and counts of each phase of generating the"
+                    + " diff to, as JSON.")
+            .hasArg()
+            .argName("FILE")
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(DdlDiff.BATCH_PLAN_FILE_OPT)
+            .desc(
+                "File path to also write the output DDL statements to, grouped into batches where"
+                    + " each batch can be applied as one schema update operation.")
+            .hasArg()
+            .argName("FILE")
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(DdlDiff.MAX_STATEMENTS_PER_BATCH_OPT)
+            .desc(
+                "Maximum number of statements in each batch of the batch plan. Default: "
+                    + SchemaChangeBatchPlanner.DEFAULT_MAX_STATEMENTS_PER_BATCH)
+            .hasArg()
+            .argName("COUNT")
+            .type(Number.class)
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(DdlDiff.MAX_BACKFILLS_PER_BATCH_OPT)
+            .desc(
+                "Maximum number of statements needing an index backfill in each batch of the batch"
+                    + " plan. Default: "
+                    + SchemaChangeBatchPlanner.DEFAULT_MAX_BACKFILLS_PER_BATCH)
+            .hasArg()
+            .argName("COUNT")
+            .type(Number.class)
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(DdlDiff.WAVE_PLAN_FILE_OPT)
+            .desc(
+                "File path to also write the output DDL statements to, sorted into waves where the"
+                    + " statements in each wave only depend on statements in earlier waves.")
+            .hasArg()
+            .argName("FILE")
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(DdlDiff.TABLE_SIZES_FILE_OPT)
+            .desc(
+                "File path to read the number of rows in each table from, as lines of"
+                    + " <table>,<rows>. Each statement in the output DDL file is then preceded by a"
+                    + " comment with its cost class and estimated rows read.")
+            .hasArg()
+            .argName("FILE")
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(DdlDiff.MAX_BACKFILL_ROWS_OPT)
+            .desc(
+                "Fails if the total estimated number of rows read by index backfills and"
+                    + " validations is more than COUNT. Requires --"
+                    + DdlDiff.TABLE_SIZES_FILE_OPT)
+            .hasArg()
+            .argName("COUNT")
+            .type(Number.class)
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(DdlDiff.DETECT_RENAMES_OPT)
+            .desc(
+                "Detects tables which were renamed, by comparing their structure, and renames them"
+                    + " rather than dropping and re-creating them. Renamed columns are only"
+                    + " reported.")
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(DdlDiff.RENAME_THRESHOLD_OPT)
+            .desc(
+                "Minimum confidence, greater than 0 and at most 1, of a detected rename. Default: "
+                    + RenameDetector.DEFAULT_THRESHOLD)
+            .hasArg()
+            .argName("CONFIDENCE")
+            .type(Number.class)
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(DdlDiff.RENAME_REPORT_FILE_OPT)
+            .desc("File path to write the candidate renames to, with their confidence.")
+            .hasArg()
+            .argName("FILE")
+            .build());
     options.addOption(Option.builder().longOpt(DdlDiff.HELP_OPT).desc("Show help").build());
     return options;
   }
@@ -149,9 +307,43 @@ public abstract class DdlDiffOptions {
 
       Path originalDdlPath =
           new File(commandLine.getOptionValue(DdlDiff.ORIGINAL_DDL_FILE_OPT)).toPath();
-      Path newDdlPath = new File(commandLine.getOptionValue(DdlDiff.NEW_DDL_FILE_OPT)).toPath();
+      ImmutableList.Builder<Path> newDdlPaths = ImmutableList.builder();
+      Set<Path> outputFileNames = new HashSet<>();
+      for (String newDdlFile : commandLine.getOptionValues(DdlDiff.NEW_DDL_FILE_OPT)) {
+        Path newDdlPath = new File(newDdlFile).toPath();
+        newDdlPaths.add(newDdlPath);
+        outputFileNames.add(newDdlPath.getFileName());
+      }
       Path outputDdlPath =
           new File(commandLine.getOptionValue(DdlDiff.OUTPUT_DDL_FILE_OPT)).toPath();
+      Optional<Path> statsPath =
+          Optional.ofNullable(commandLine.getOptionValue(DdlDiff.STATS_OPT))
+              .map(file -> new File(file).toPath());
+      Optional<Path> batchPlanPath =
+          Optional.ofNullable(commandLine.getOptionValue(DdlDiff.BATCH_PLAN_FILE_OPT))
+              .map(file -> new File(file).toPath());
+      Optional<Path> wavePlanPath =
+          Optional.ofNullable(commandLine.getOptionValue(DdlDiff.WAVE_PLAN_FILE_OPT))
+              .map(file -> new File(file).toPath());
+      int maxStatementsPerBatch =
+          getPositiveInt(
+              commandLine,
+              DdlDiff.MAX_STATEMENTS_PER_BATCH_OPT,
+              SchemaChangeBatchPlanner.DEFAULT_MAX_STATEMENTS_PER_BATCH);
+      int maxBackfillsPerBatch =
+          getPositiveInt(
+              commandLine,
+              DdlDiff.MAX_BACKFILLS_PER_BATCH_OPT,
+              SchemaChangeBatchPlanner.DEFAULT_MAX_BACKFILLS_PER_BATCH);
+      Optional<Path> tableSizesPath =
+          Optional.ofNullable(commandLine.getOptionValue(DdlDiff.TABLE_SIZES_FILE_OPT))
+              .map(file -> new File(file).toPath());
+      Optional<Long> maxBackfillRows =
+          getNonNegativeLong(commandLine, DdlDiff.MAX_BACKFILL_ROWS_OPT);
+      double renameThreshold = getRenameThreshold(commandLine);
+      Optional<Path> renameReportPath =
+          Optional.ofNullable(commandLine.getOptionValue(DdlDiff.RENAME_REPORT_FILE_OPT))
+              .map(file -> new File(file).toPath());
 
       ImmutableMap<String, Boolean> argsMap =
           ImmutableMap.of(
@@ -162,9 +354,89 @@ public abstract class DdlDiffOptions {
               DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT,
                   commandLine.hasOption(DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT),
               DdlDiff.IGNORE_PROTO_BUNDLES_OPT,
-                  commandLine.hasOption(DdlDiff.IGNORE_PROTO_BUNDLES_OPT));
+                  commandLine.hasOption(DdlDiff.IGNORE_PROTO_BUNDLES_OPT),
+              DdlDiff.WATCH_OPT, commandLine.hasOption(DdlDiff.WATCH_OPT),
+              DdlDiff.DETECT_RENAMES_OPT, commandLine.hasOption(DdlDiff.DETECT_RENAMES_OPT));
 
-      return new AutoValue_DdlDiffOptions(originalDdlPath, newDdlPath, outputDdlPath, argsMap);
+      DdlDiffOptions options =
+          new AutoValue_DdlDiffOptions(
+              originalDdlPath,
+              newDdlPaths.build(),
+              outputDdlPath,
+              statsPath,
+              batchPlanPath,
+              maxStatementsPerBatch,
+              maxBackfillsPerBatch,
+              wavePlanPath,
+              tableSizesPath,
+              maxBackfillRows,
+              renameThreshold,
+              renameReportPath,
+              argsMap);
+      if (options.args().get(DdlDiff.WATCH_OPT) && statsPath.isPresent()) {
+        System.err.println(
+            "--" + DdlDiff.STATS_OPT + " is not supported with --" + DdlDiff.WATCH_OPT);
+        printHelpAndExit(0);
+      }
+      if ((batchPlanPath.isPresent() || wavePlanPath.isPresent())
+          && (options.args().get(DdlDiff.WATCH_OPT) || options.isMultiTarget())) {
+        System.err.println(
+            "--"
+                + DdlDiff.BATCH_PLAN_FILE_OPT
+                + " and --"
+                + DdlDiff.WAVE_PLAN_FILE_OPT
+                + " only support a single new DDL file, and are not supported with --"
+                + DdlDiff.WATCH_OPT);
+        printHelpAndExit(0);
+      }
+      if (tableSizesPath.isPresent()
+          && (options.args().get(DdlDiff.WATCH_OPT) || options.isMultiTarget())) {
+        System.err.println(
+            "--"
+                + DdlDiff.TABLE_SIZES_FILE_OPT
+                + " only supports a single new DDL file, and is not supported with --"
+                + DdlDiff.WATCH_OPT);
+        printHelpAndExit(0);
+      }
+      if (maxBackfillRows.isPresent() && !tableSizesPath.isPresent()) {
+        System.err.println(
+            "--" + DdlDiff.MAX_BACKFILL_ROWS_OPT + " requires --" + DdlDiff.TABLE_SIZES_FILE_OPT);
+        printHelpAndExit(0);
+      }
+      if (options.args().get(DdlDiff.DETECT_RENAMES_OPT)
+          && (options.args().get(DdlDiff.WATCH_OPT) || options.isMultiTarget())) {
+        System.err.println(
+            "--"
+                + DdlDiff.DETECT_RENAMES_OPT
+                + " only supports a single new DDL file, and is not supported with --"
+                + DdlDiff.WATCH_OPT);
+        printHelpAndExit(0);
+      }
+      if ((commandLine.hasOption(DdlDiff.RENAME_THRESHOLD_OPT) || renameReportPath.isPresent())
+          && !options.args().get(DdlDiff.DETECT_RENAMES_OPT)) {
+        System.err.println(
+            "--"
+                + DdlDiff.RENAME_THRESHOLD_OPT
+                + " and --"
+                + DdlDiff.RENAME_REPORT_FILE_OPT
+                + " require --"
+                + DdlDiff.DETECT_RENAMES_OPT);
+        printHelpAndExit(0);
+      }
+      if (options.isMultiTarget()) {
+        if (options.args().get(DdlDiff.WATCH_OPT)) {
+          System.err.println("--" + DdlDiff.WATCH_OPT + " only supports a single new DDL file");
+          printHelpAndExit(0);
+        }
+        if (outputFileNames.size() != options.newDdlPaths().size()
+            || options.newDdlPaths().stream().anyMatch(DdlFileReader::isGlob)) {
+          System.err.println(
+              "When comparing with multiple new DDLs, they must have different file names, and"
+                  + " cannot be glob patterns");
+          printHelpAndExit(0);
+        }
+      }
+      return options;
     } catch (InvalidPathException e) {
       System.err.println("Invalid file path: " + e.getInput() + "\n" + e.getReason());
       printHelpAndExit(0);
@@ -175,4 +447,57 @@ public abstract class DdlDiffOptions {
     // unreachable
     return null;
   }
+
+  /**
+   * Returns the value of an integer option, or the default value if the option is not given.
+   *
+   * @throws ParseException if the value is not a positive integer
+   */
+  private static int getPositiveInt(CommandLine commandLine, String option, int defaultValue)
+      throws ParseException {
+    Number value = commandLine.getParsedOptionValue(option);
+    if (value == null) {
+      return defaultValue;
+    }
+    if (!(value instanceof Long)
+        || value.longValue() <= 0
+        || value.longValue() > Integer.MAX_VALUE) {
+      throw new ParseException("--" + option + " must be a positive integer: " + value);
+    }
+    return value.intValue();
+  }
+
+  /**
+   * Returns the value of an integer option, or empty if the option is not given.
+   *
+   * @throws ParseException if the value is not a non-negative integer
+   */
+  private static Optional<Long> getNonNegativeLong(CommandLine commandLine, String option)
+      throws ParseException {
+    Number value = commandLine.getParsedOptionValue(option);
+    if (value == null) {
+      return Optional.empty();
+    }
+    if (!(value instanceof Long) || value.longValue() < 0) {
+      throw new ParseException("--" + option + " must be a non-negative integer: " + value);
+    }
+    return Optional.of(value.longValue());
+  }
+
+  /**
+   * Returns the rename threshold, or the default if the option is not given.
+   *
+   * @throws ParseException if the value is not greater than 0 and at most 1
+   */
+  private static double getRenameThreshold(CommandLine commandLine) throws ParseException {
+    Number value = commandLine.getParsedOptionValue(DdlDiff.RENAME_THRESHOLD_OPT);
+    if (value == null) {
+      return RenameDetector.DEFAULT_THRESHOLD;
+    }
+    if (value.doubleValue() <= 0 || value.doubleValue() > 1) {
+      throw new ParseException(
+          "--" + DdlDiff.RENAME_THRESHOLD_OPT + " must be greater than 0 and at most 1: " + value);
+    }
+    return value.doubleValue();
+  }
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the original and new DDL files for changes, and regenerates the output DDL file when they
+ * change.
+ *
+ * <p>Parsed statements and the differences between the schemas are kept between regenerations using
+ * an {@link IncrementalDdlDiff}, so only the statements that were edited need to be parsed and
+ * compared again.
+ */
+class DdlDiffWatcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DdlDiffWatcher.class);
+
+  /** Time to wait for a burst of file system events to finish before regenerating the output. */
+  static final long DEBOUNCE_MILLIS = 250;
+
+  private final DdlDiffOptions options;
+  private final IncrementalDdlDiff incrementalDiff;
+  private final ImmutableSet<Path> inputPaths;
+  private final Path outputPath;
+  private List<String> lastStatements = null;
+
+  DdlDiffWatcher(DdlDiffOptions options) {
+    this.options = options;
+    this.incrementalDiff =
+        new IncrementalDdlDiff(
+            options.args(),
+            DdlFileReader.isMultiFileInput(options.originalDdlPath())
+                || DdlFileReader.isMultiFileInput(options.newDdlPath()));
+    this.inputPaths =
+        ImmutableSet.of(
+            options.originalDdlPath().toAbsolutePath().normalize(),
+            options.newDdlPath().toAbsolutePath().normalize());
+    this.outputPath = options.outputDdlPath().toAbsolutePath().normalize();
+  }
+
+  /**
+   * Generates the output DDL file, then regenerates it each time the input DDL files change. Only
+   * returns when interrupted.
+   */
+  void watch() throws IOException, InterruptedException {
+    try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+      Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+      for (Path inputPath : inputPaths) {
+        Path directory = getWatchedDirectory(inputPath);
+        if (DdlFileReader.isMultiFileInput(inputPath)) {
+          registerTree(directory, watchService, watchedDirectories);
+        } else {
+          register(directory, watchService, watchedDirectories);
+        }
+      }
+      LOG.info("Watching {} for changes", inputPaths);
+
+      regenerate();
+      while (!watchedDirectories.isEmpty()) {
+        WatchKey key = watchService.take();
+        boolean changed = processEvents(key, watchService, watchedDirectories);
+
+        // Debounce bursts of writes: wait until no more events arrive.
+        while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          changed |= processEvents(key, watchService, watchedDirectories);
+        }
+        if (changed) {
+          regenerate();
+        }
+      }
+      LOG.warn("No watched directories remain, exiting");
+    }
+  }
+
+  /**
+   * Returns the directory to watch for an input file, directory or glob pattern.
+   *
+   * <p>Only directories can be watched, so for files the containing directory is watched, and for
+   * glob patterns the directory containing the first path element with a wildcard. Directory and
+   * glob inputs are read recursively, so the subdirectories of their watched directory are watched
+   * too.
+   */
+  private static Path getWatchedDirectory(Path inputPath) {
+    if (Files.isDirectory(inputPath)) {
+      return inputPath;
+    }
+    Path directory = inputPath.getParent();
+    while (directory != null
+        && DdlFileReader.isMultiFileInput(directory)
+        && !Files.isDirectory(directory)) {
+      directory = directory.getParent();
+    }
+    return directory;
+  }
+
+  private static void register(
+      Path directory, WatchService watchService, Map<WatchKey, Path> watchedDirectories)
+      throws IOException {
+    watchedDirectories.put(
+        directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), directory);
+  }
+
+  /**
+   * Registers the directory and all of its subdirectories, as directory and glob inputs are read
+   * recursively, but a {@link WatchService} only reports changes directly inside a directory.
+   */
+  private static void registerTree(
+      Path directory, WatchService watchService, Map<WatchKey, Path> watchedDirectories)
+      throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path subdirectory : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+        register(subdirectory, watchService, watchedDirectories);
+      }
+    }
+  }
+
+  /**
+   * Checks the events of the key for changes to the input DDL files, and resets the key.
+   * Directories created inside a directory or glob input are also watched, and their files are
+   * checked, as they may have been written before the directory was registered.
+   */
+  private boolean processEvents(
+      WatchKey key, WatchService watchService, Map<WatchKey, Path> watchedDirectories) {
+    Path directory = watchedDirectories.get(key);
+    boolean changed = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW) {
+        changed = true;
+      } else if (directory != null) {
+        Path changedPath = directory.resolve((Path) event.context());
+        if (event.kind() == ENTRY_CREATE
+            && Files.isDirectory(changedPath)
+            && isInsideMultiFileInput(changedPath)) {
+          changed |= watchNewDirectory(changedPath, watchService, watchedDirectories);
+        } else {
+          changed |= isInputFile(changedPath);
+        }
+      }
+    }
+    if (!key.reset()) {
+      LOG.warn("Directory {} can no longer be watched", directory);
+      watchedDirectories.remove(key);
+    }
+    return changed;
+  }
+
+  /**
+   * Watches a new directory and its subdirectories.
+   *
+   * @return true if the directory contains any input DDL files
+   */
+  private boolean watchNewDirectory(
+      Path directory, WatchService watchService, Map<WatchKey, Path> watchedDirectories) {
+    try {
+      registerTree(directory, watchService, watchedDirectories);
+      try (Stream<Path> paths = Files.walk(directory)) {
+        return paths.anyMatch(this::isInputFile);
+      }
+    } catch (IOException e) {
+      LOG.warn("Cannot watch new directory {}: {}", directory, e.getMessage());
+      return true;
+    }
+  }
+
+  private boolean isInsideMultiFileInput(Path path) {
+    return inputPaths.stream()
+        .anyMatch(
+            p -> DdlFileReader.isMultiFileInput(p) && path.startsWith(getWatchedDirectory(p)));
+  }
+
+  private boolean isInputFile(Path path) {
+    return !path.equals(outputPath)
+        && inputPaths.stream().anyMatch(p -> DdlFileReader.isInputFile(p, path));
+  }
+
+  /**
+   * Regenerates the output DDL file from the current contents of the input DDL files. Failures are
+   * reported, but do not stop the watcher.
+   *
+   * @return true if the output DDL file was written
+   */
+  @VisibleForTesting
+  boolean regenerate() {
+    try {
+      DdlDiff ddlDiff =
+          incrementalDiff.update(
+              DdlFileReader.readDdl(options.originalDdlPath()),
+              DdlFileReader.readDdl(options.newDdlPath()));
+      ddlDiff.validateNewDdl();
+      List<String> statements = ddlDiff.generateDifferenceStatements(options.args());
+      LOG.info(
+          "Diff generated, {} statements parsed",
+          incrementalDiff.getStatementsParsedByLastUpdate());
+
+      if (statements.equals(lastStatements)) {
+        return false;
+      }
+      DdlDiff.writeStatements(options.outputDdlPath(), statements);
+      lastStatements = statements;
+      LOG.info("Wrote {} statements to {}", statements.size(), options.outputDdlPath());
+      return true;
+    } catch (IOException e) {
+      System.err.println("Cannot read DDL file: " + e);
+    } catch (DdlDiffException e) {
+      System.err.println("Failed to generate a diff: " + e.getMessage());
+    } catch (RuntimeException e) {
+      // The parser and AST classes report unsupported statements with runtime exceptions.
+      System.err.println("Failed to generate a diff: " + e);
+    }
+    return false;
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads DDL from a single file, from all the DDL files in a directory, or from all the files
+ * matching a glob pattern.
+ *
+ * <p>Directories are searched recursively for files with a {@code .ddl} or {@code .sql} extension.
+ * Glob patterns use the syntax of {@link java.nio.file.FileSystem#getPathMatcher(String)}, for
+ * example {@code schema/**.sql}.
+ *
+ * <p>When there is more than one file, the files are read and parsed in parallel, and the
+ * statements are ordered by their dependencies using {@link DdlStatementSorter} rather than by the
+ * order of the files.
+ */
+final class DdlFileReader {
+
+  private static final String GLOB_CHARS = "*?[{";
+
+  private DdlFileReader() {}
+
+  /**
+   * Returns the sorted list of files for a file, directory or glob pattern.
+   *
+   * @throws IOException if no DDL files are found
+   */
+  static ImmutableList<Path> resolveFiles(Path input) throws IOException {
+    List<Path> files;
+    if (isGlob(input)) {
+      PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + input);
+      try (Stream<Path> paths = Files.walk(getGlobBaseDirectory(input))) {
+        files =
+            paths
+                .filter(Files::isRegularFile)
+                .filter(matcher::matches)
+                .collect(Collectors.toList());
+      }
+    } else if (Files.isDirectory(input)) {
+      try (Stream<Path> paths = Files.walk(input)) {
+        files =
+            paths
+                .filter(Files::isRegularFile)
+                .filter(DdlFileReader::hasDdlExtension)
+                .collect(Collectors.toList());
+      }
+    } else {
+      return ImmutableList.of(input);
+    }
+    if (files.isEmpty()) {
+      throw new IOException("No DDL files found in: " + input);
+    }
+    return ImmutableList.sortedCopyOf(files);
+  }
+
+  /** Returns true if the input is a directory or a glob pattern, and so may match many files. */
+  static boolean isMultiFileInput(Path input) {
+    return isGlob(input) || Files.isDirectory(input);
+  }
+
+  /** Returns true if the file is, or would be, one of the files read for the input. */
+  static boolean isInputFile(Path input, Path file) {
+    if (isGlob(input)) {
+      return FileSystems.getDefault().getPathMatcher("glob:" + input).matches(file);
+    } else if (Files.isDirectory(input)) {
+      return file.startsWith(input) && hasDdlExtension(file);
+    }
+    return file.equals(input);
+  }
+
+  /**
+   * Reads the DDL text of all the files of the input, concatenating multiple files in file name
+   * order.
+   */
+  static String readDdl(Path input) throws IOException {
+    ImmutableList<Path> files = resolveFiles(input);
+    if (files.size() == 1) {
+      return new String(Files.readAllBytes(files.get(0)), UTF_8);
+    }
+    StringBuilder ddl = new StringBuilder();
+    for (Path file : files) {
+      // Separate files with a semicolon in case the last statement of a file has none.
+      ddl.append(new String(Files.readAllBytes(file), UTF_8)).append("\n;\n");
+    }
+    return ddl.toString();
+  }
+
+  /**
+   * Reads and parses the DDL statements from the files of the input.
+   *
+   * <p>Each file is streamed through a {@link DdlStatementReader}, so only one statement of each
+   * file is held in memory as text. When there are multiple files, they are read and parsed in
+   * parallel, and the statements are sorted by their dependencies.
+   *
+   * @throws IOException if a file cannot be read
+   * @throws DdlDiffException if a statement cannot be parsed
+   */
+  static List<ASTddl_statement> readStatements(Path input) throws IOException, DdlDiffException {
+    return readStatements(input, new DiffStats());
+  }
+
+  /**
+   * Reads and parses the DDL statements from the files of the input, recording the time taken to
+   * read and parse each file in the stats.
+   *
+   * @throws IOException if a file cannot be read
+   * @throws DdlDiffException if a statement cannot be parsed
+   */
+  static List<ASTddl_statement> readStatements(Path input, DiffStats stats)
+      throws IOException, DdlDiffException {
+    ImmutableList<Path> files = resolveFiles(input);
+    if (files.size() == 1) {
+      return DdlStatementReader.parseDdl(files.get(0), stats);
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(files.size(), Runtime.getRuntime().availableProcessors()));
+    try {
+      List<Future<List<ASTddl_statement>>> futures = new ArrayList<>(files.size());
+      for (Path file : files) {
+        futures.add(executor.submit(() -> DdlStatementReader.parseDdl(file, stats)));
+      }
+
+      List<ASTddl_statement> statements = new ArrayList<>();
+      for (int i = 0; i < files.size(); i++) {
+        statements.addAll(getFileStatements(files.get(i), futures.get(i)));
+      }
+      return DdlStatementSorter.sortByDependencies(statements);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static List<ASTddl_statement> getFileStatements(
+      Path file, Future<List<ASTddl_statement>> future) throws IOException, DdlDiffException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading " + file, e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof DdlDiffException) {
+        throw new DdlDiffException("In file " + file + ": " + cause.getMessage(), cause);
+      }
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException("Failed reading " + file, cause);
+    }
+  }
+
+  /** Returns true if the input path contains glob pattern characters. */
+  static boolean isGlob(Path input) {
+    String path = input.toString();
+    for (int i = 0; i < GLOB_CHARS.length(); i++) {
+      if (path.indexOf(GLOB_CHARS.charAt(i)) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns the directory made of the leading path elements which do not contain globs. */
+  private static Path getGlobBaseDirectory(Path glob) {
+    Path base = glob.getRoot();
+    for (Path element : glob) {
+      if (isGlob(element)) {
+        break;
+      }
+      base = base == null ? element : base.resolve(element);
+    }
+    return base == null ? Paths.get("") : base;
+  }
+
+  private static boolean hasDdlExtension(Path file) {
+    String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+    return name.endsWith(".ddl") || name.endsWith(".sql");
+  }
+}
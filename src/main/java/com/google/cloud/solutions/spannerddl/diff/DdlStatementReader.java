@@ -0,0 +1,288 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Reads DDL statements one at a time from a UTF-8 file, without reading the whole file into memory.
+ *
+ * <p>The file is memory-mapped in windows and decoded incrementally, and each statement is returned
+ * as soon as its terminating semicolon is read. The text of the file is therefore never held as a
+ * single string: the reader only buffers the current statement (or comment line), which matters for
+ * generated schema dumps with large OPTIONS or proto descriptors. {@link #parseDdl} still keeps the
+ * parse tree of every statement, as the whole schema is needed to diff it, so its heap use grows
+ * with the number of statements.
+ *
+ * <p>Comments are removed and statements are split exactly as {@link DdlDiff#splitStatements} does
+ * without annotation parsing, so the statements are identical to those from {@link
+ * DdlDiff#parseDdl(String)}.
+ */
+class DdlStatementReader implements Closeable {
+
+  /** Size of the memory-mapped window of the file. */
+  private static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+  private static final int CHAR_BUFFER_SIZE = 8192;
+  private static final int EOF = -1;
+
+  private final FileChannel channel;
+  private final long fileSize;
+  private final int windowSize;
+  private final CharsetDecoder decoder =
+      UTF_8
+          .newDecoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private final CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+
+  private MappedByteBuffer window;
+  private long windowStart = 0;
+  private boolean decoderFlushed = false;
+
+  /** Characters read ahead and pushed back, most recent last. */
+  private final int[] pushedBack = new int[3];
+
+  private int pushedBackCount = 0;
+
+  private final StringBuilder statement = new StringBuilder();
+  private final Deque<String> completedStatements = new ArrayDeque<>();
+  private boolean endOfInput = false;
+
+  DdlStatementReader(Path file) throws IOException {
+    this(file, DEFAULT_WINDOW_SIZE);
+  }
+
+  @VisibleForTesting
+  DdlStatementReader(Path file, int windowSize) throws IOException {
+    if (windowSize < 4) {
+      // A window must be able to hold the longest UTF-8 sequence.
+      throw new IllegalArgumentException("windowSize must be at least 4 bytes");
+    }
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.fileSize = channel.size();
+    this.windowSize = windowSize;
+    chars.flip();
+  }
+
+  /**
+   * Reads and parses all the statements of the file. Only one statement is held as text at a time,
+   * but the parse trees of all the statements are returned.
+   *
+   * @throws IOException if the file cannot be read
+   * @throws DdlDiffException if a statement cannot be parsed
+   */
+  static List<ASTddl_statement> parseDdl(Path file) throws IOException, DdlDiffException {
+    return parseDdl(file, new DiffStats());
+  }
+
+  /**
+   * Reads and parses all the statements of the file, recording the time taken in the stats. As
+   * reading and splitting the statements are interleaved, they are both recorded as {@link
+   * DiffStats#READ}.
+   *
+   * @throws IOException if the file cannot be read
+   * @throws DdlDiffException if a statement cannot be parsed
+   */
+  static List<ASTddl_statement> parseDdl(Path file, DiffStats stats)
+      throws IOException, DdlDiffException {
+    stats.recordBytes(Files.size(file));
+    long readNanos = 0;
+    long start = System.nanoTime();
+    try (DdlStatementReader reader = new DdlStatementReader(file)) {
+      List<ASTddl_statement> statements = new ArrayList<>();
+      String statement;
+      while ((statement = reader.nextStatement()) != null) {
+        readNanos += System.nanoTime() - start;
+        statements.add(DdlDiff.parseDdlStatement(statement, stats));
+        start = System.nanoTime();
+      }
+      readNanos += System.nanoTime() - start;
+      return statements;
+    } finally {
+      stats.recordElapsed(DiffStats.READ, readNanos, 1);
+    }
+  }
+
+  /**
+   * Returns the next trimmed, non-empty statement without comments or trailing semicolon, or null
+   * when there are no more statements.
+   */
+  String nextStatement() throws IOException {
+    while (completedStatements.isEmpty() && !endOfInput) {
+      readNext();
+    }
+    return completedStatements.poll();
+  }
+
+  @Override
+  public void close() throws IOException {
+    window = null;
+    channel.close();
+  }
+
+  /**
+   * Reads the next character or comment from the input.
+   *
+   * <p>This mirrors {@code replaceAll("--.*(\n|$)", "")}: a comment runs from {@code --} to the
+   * next line terminator, and is only removed if that terminator is a {@code \n}, or if it is the
+   * end of the input or a final line terminator. Otherwise the comment text is kept.
+   */
+  private void readNext() throws IOException {
+    int c = read();
+    if (c == EOF) {
+      endOfInput = true;
+      completeStatement();
+      return;
+    }
+    if (c != '-' || peek() != '-') {
+      append((char) c);
+      return;
+    }
+    read(); // second '-'
+
+    StringBuilder comment = new StringBuilder("--");
+    int terminator;
+    while ((terminator = read()) != EOF && !isLineTerminator(terminator)) {
+      comment.append((char) terminator);
+    }
+    if (terminator == EOF || terminator == '\n') {
+      // Comment removed, including the trailing newline.
+      return;
+    }
+    // A terminator other than '\n' only ends a comment if it is the last one in the input.
+    int next = read();
+    boolean isFinalTerminator;
+    if (terminator == '\r' && next == '\n') {
+      int afterNext = read();
+      isFinalTerminator = afterNext == EOF;
+      unread(afterNext);
+    } else {
+      isFinalTerminator = next == EOF;
+    }
+    unread(next);
+    if (!isFinalTerminator) {
+      for (int i = 0; i < comment.length(); i++) {
+        append(comment.charAt(i));
+      }
+    }
+    append((char) terminator);
+  }
+
+  private void append(char c) {
+    if (c == ';') {
+      completeStatement();
+    } else {
+      statement.append(c);
+    }
+  }
+
+  private void completeStatement() {
+    String trimmed = statement.toString().trim();
+    statement.setLength(0);
+    if (!trimmed.isEmpty()) {
+      completedStatements.add(trimmed);
+    }
+  }
+
+  /** Line terminators as matched by the regex {@code .} character class. */
+  private static boolean isLineTerminator(int c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+
+  private int peek() throws IOException {
+    int c = read();
+    unread(c);
+    return c;
+  }
+
+  private void unread(int c) {
+    pushedBack[pushedBackCount++] = c;
+  }
+
+  private int read() throws IOException {
+    if (pushedBackCount > 0) {
+      return pushedBack[--pushedBackCount];
+    }
+    if (!chars.hasRemaining() && !fillChars()) {
+      return EOF;
+    }
+    return chars.get();
+  }
+
+  /**
+   * Decodes the next chunk of characters from the mapped window, mapping the next window when the
+   * current one is consumed.
+   *
+   * @return false when the end of the file has been reached
+   */
+  private boolean fillChars() throws IOException {
+    chars.clear();
+    try {
+      while (chars.position() == 0 && !decoderFlushed) {
+        if (window == null) {
+          mapNextWindow();
+        }
+        boolean lastWindow = windowStart + window.limit() >= fileSize;
+        CoderResult result = decoder.decode(window, chars, lastWindow);
+        if (result.isError()) {
+          result.throwException();
+        }
+        if (result.isUnderflow()) {
+          if (lastWindow) {
+            decoder.flush(chars);
+            decoderFlushed = true;
+          } else {
+            // Window consumed, apart from any incomplete UTF-8 sequence at its end.
+            mapNextWindow();
+          }
+        }
+      }
+    } catch (CharacterCodingException e) {
+      throw new IOException("Failed decoding DDL file as UTF-8", e);
+    }
+    chars.flip();
+    return chars.hasRemaining();
+  }
+
+  /** Maps the next window, starting at the first byte not yet decoded. */
+  private void mapNextWindow() throws IOException {
+    windowStart = window == null ? 0 : windowStart + window.position();
+    window =
+        channel.map(MapMode.READ_ONLY, windowStart, Math.min(windowSize, fileSize - windowStart));
+  }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import com.google.cloud.solutions.spannerddl.parser.ASTalter_table_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_change_stream_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_index_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_locality_group_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_or_replace_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_schema_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_search_index_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_sequence_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_table_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_vector_index_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_view_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTforeign_key;
+import com.google.cloud.solutions.spannerddl.parser.SimpleNode;
+import com.google.cloud.solutions.spannerddl.parser.Token;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Orders DDL statements so that each statement comes after the statements creating the objects it
+ * depends on.
+ *
+ * <p>This is used when a schema is split across multiple files, where the order in which the files
+ * are read says nothing about the order in which the objects need to be created. Dependencies are:
+ *
+ * <ul>
+ *   <li>Tables depend on their interleave parent, the tables referenced by their foreign keys,
+ *       their named schema, their locality group and the sequences used by their column defaults.
+ *   <li>Indexes and search indexes depend on their table and any table they are interleaved in.
+ *   <li>{@code ALTER TABLE} statements depend on the table, and any table referenced by a foreign
+ *       key.
+ *   <li>Change streams depend on the tables they track.
+ *   <li>Sequences depend on their named schema.
+ *   <li>Views depend on the tables and views named in their query.
+ * </ul>
+ *
+ * <p>The sort is stable: statements with no dependency between them keep their relative order.
+ * Dependencies on objects which are not created by any statement are ignored.
+ */
+final class DdlStatementSorter {
+
+  private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*|`[^`]+`");
+
+  private DdlStatementSorter() {}
+
+  /** Returns the statements sorted so that dependencies are created first. */
+  static List<ASTddl_statement> sortByDependencies(List<ASTddl_statement> statements) {
+    // Map of object key => index of statement creating it.
+    Map<String, Integer> creators = new HashMap<>();
+    for (int i = 0; i < statements.size(); i++) {
+      String created = getCreatedObject((SimpleNode) statements.get(i).jjtGetChild(0));
+      if (created != null) {
+        creators.putIfAbsent(created, i);
+      }
+    }
+
+    // Build the dependency edges.
+    List<List<Integer>> dependents = new ArrayList<>(statements.size());
+    int[] dependencyCounts = new int[statements.size()];
+    for (int i = 0; i < statements.size(); i++) {
+      dependents.add(new ArrayList<>());
+    }
+    for (int i = 0; i < statements.size(); i++) {
+      for (String dependency : getDependencies((SimpleNode) statements.get(i).jjtGetChild(0))) {
+        Integer creator = creators.get(dependency);
+        if (creator != null && creator != i) {
+          dependents.get(creator).add(i);
+          dependencyCounts[i]++;
+        }
+      }
+    }
+
+    // Kahn's algorithm, always choosing the earliest available statement to keep the sort stable.
+    PriorityQueue<Integer> available = new PriorityQueue<>();
+    for (int i = 0; i < statements.size(); i++) {
+      if (dependencyCounts[i] == 0) {
+        available.add(i);
+      }
+    }
+    List<ASTddl_statement> sorted = new ArrayList<>(statements.size());
+    boolean[] added = new boolean[statements.size()];
+    while (sorted.size() < statements.size()) {
+      if (available.isEmpty()) {
+        // Dependency cycle: add the earliest remaining statement and continue.
+        for (int i = 0; i < statements.size(); i++) {
+          if (!added[i]) {
+            available.add(i);
+            dependencyCounts[i] = 0;
+            break;
+          }
+        }
+      }
+      int next = available.poll();
+      sorted.add(statements.get(next));
+      added[next] = true;
+      for (int dependent : dependents.get(next)) {
+        if (!added[dependent] && --dependencyCounts[dependent] == 0) {
+          available.add(dependent);
+        }
+      }
+    }
+    return sorted;
+  }
+
+  private static String getCreatedObject(SimpleNode statement) {
+    if (statement instanceof ASTcreate_table_statement) {
+      return tableKey(((ASTcreate_table_statement) statement).getTableName());
+    }
+    if (statement instanceof ASTcreate_sequence_statement) {
+      return sequenceKey(((ASTcreate_sequence_statement) statement).getName());
+    }
+    if (statement instanceof ASTcreate_locality_group_statement) {
+      return localityGroupKey(((ASTcreate_locality_group_statement) statement).getNameOrDefault());
+    }
+    if (statement instanceof ASTcreate_or_replace_statement) {
+      SimpleNode schemaObject = ((ASTcreate_or_replace_statement) statement).getSchemaObject();
+      if (schemaObject instanceof ASTcreate_schema_statement) {
+        return schemaKey(((ASTcreate_schema_statement) schemaObject).getName());
+      }
+      if (schemaObject instanceof ASTcreate_view_statement) {
+        return viewKey(((ASTcreate_view_statement) schemaObject).getName());
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the keys of the objects which the created object depends on. For a table, this includes
+   * the table itself.
+   */
+  static Set<String> getDependencies(SimpleNode statement) {
+    if (statement instanceof ASTcreate_or_replace_statement) {
+      statement = ((ASTcreate_or_replace_statement) statement).getSchemaObject();
+    }
+    Set<String> dependencies = new LinkedHashSet<>();
+    if (statement instanceof ASTcreate_table_statement) {
+      ASTcreate_table_statement table = (ASTcreate_table_statement) statement;
+      // Depends on its own named schema. The self-dependency on the table itself is ignored.
+      addTableDependency(dependencies, table.getTableName());
+      table
+          .getInterleaveClause()
+          .ifPresent(i -> addTableDependency(dependencies, i.getInterleavedInTableName()));
+      for (SimpleNode constraint : table.getConstraints().values()) {
+        if (constraint instanceof ASTforeign_key) {
+          addTableDependency(dependencies, ((ASTforeign_key) constraint).getReferencedTableName());
+        }
+      }
+      if (table.getOptions() != null) {
+        String localityGroup = table.getOptions().getKeyValueMap().get("locality_group");
+        if (localityGroup != null) {
+          dependencies.add(localityGroupKey(unquote(localityGroup)));
+        }
+      }
+      addSequenceDependencies(dependencies, table);
+    } else if (statement instanceof ASTcreate_index_statement) {
+      ASTcreate_index_statement index = (ASTcreate_index_statement) statement;
+      addTableDependency(dependencies, index.getTableName());
+      index.getInterleavedInTableName().ifPresent(t -> addTableDependency(dependencies, t));
+    } else if (statement instanceof ASTcreate_search_index_statement) {
+      ASTcreate_search_index_statement index = (ASTcreate_search_index_statement) statement;
+      addTableDependency(dependencies, index.getTableName());
+      index.getInterleavedInTableName().ifPresent(t -> addTableDependency(dependencies, t));
+    } else if (statement instanceof ASTcreate_vector_index_statement) {
+      addTableDependency(
+          dependencies, ((ASTcreate_vector_index_statement) statement).getTableName());
+    } else if (statement instanceof ASTalter_table_statement) {
+      addTableDependency(dependencies, statement.jjtGetChild(0).toString());
+      if (statement.jjtGetChild(1) instanceof ASTforeign_key) {
+        addTableDependency(
+            dependencies, ((ASTforeign_key) statement.jjtGetChild(1)).getReferencedTableName());
+      }
+    } else if (statement instanceof ASTcreate_view_statement) {
+      for (String name : getViewReferences((ASTcreate_view_statement) statement)) {
+        addTableDependency(dependencies, name);
+        dependencies.add(viewKey(name));
+      }
+    } else if (statement instanceof ASTcreate_sequence_statement) {
+      addSchemaDependency(dependencies, ((ASTcreate_sequence_statement) statement).getName());
+    } else if (statement instanceof ASTcreate_change_stream_statement) {
+      ASTcreate_change_stream_statement changeStream =
+          (ASTcreate_change_stream_statement) statement;
+      if (changeStream.getForClause() != null) {
+        for (String table : changeStream.getForClause().getTrackedTableNames()) {
+          addTableDependency(dependencies, table);
+        }
+      }
+    }
+    return dependencies;
+  }
+
+  /** Adds a dependency on the table, and on its named schema if it has one. */
+  static void addTableDependency(Set<String> dependencies, String tableName) {
+    dependencies.add(tableKey(tableName));
+    addSchemaDependency(dependencies, tableName);
+  }
+
+  /** Adds a dependency on the named schema of the object, if it has one. */
+  private static void addSchemaDependency(Set<String> dependencies, String objectName) {
+    int schemaSeparator = objectName.lastIndexOf('.');
+    if (schemaSeparator > 0) {
+      dependencies.add(schemaKey(objectName.substring(0, schemaSeparator)));
+    }
+  }
+
+  /**
+   * Adds a dependency on each sequence used in the statement, as in {@code
+   * GET_NEXT_SEQUENCE_VALUE(SEQUENCE name)}.
+   */
+  private static void addSequenceDependencies(Set<String> dependencies, SimpleNode statement) {
+    Token last = statement.jjtGetLastToken();
+    for (Token t = statement.jjtGetFirstToken(); t != null && t != last; t = t.next) {
+      if (t.image.equals("(") && t.next.image.equalsIgnoreCase("SEQUENCE")) {
+        StringBuilder name = new StringBuilder();
+        for (Token n = t.next.next; n != null && !n.image.equals(")"); n = n.next) {
+          name.append(n.image);
+          if (n == last) {
+            break;
+          }
+        }
+        dependencies.add(sequenceKey(name.toString()));
+        addSchemaDependency(dependencies, name.toString());
+      }
+    }
+  }
+
+  /**
+   * Returns the canonical names which may refer to a table, view or column in the query of the
+   * view: each identifier, and each dotted path of identifiers and its prefixes. As the query is
+   * not parsed, this includes names which do not refer to schema objects, such as aliases.
+   */
+  static Set<String> getViewReferences(ASTcreate_view_statement view) {
+    Set<String> names = new LinkedHashSet<>();
+    SimpleNode definition = view.getDefinition();
+    Token last = definition.jjtGetLastToken();
+    StringBuilder path = new StringBuilder();
+    boolean afterDot = false;
+    for (Token t = definition.jjtGetFirstToken(); t != null; t = t.next) {
+      if (IDENTIFIER.matcher(t.image).matches()) {
+        if (!afterDot) {
+          path.setLength(0);
+        }
+        path.append(Identifiers.canonical(t.image));
+        names.add(path.toString());
+        afterDot = false;
+      } else if (t.image.equals(".") && path.length() > 0) {
+        path.append('.');
+        afterDot = true;
+      } else {
+        path.setLength(0);
+        afterDot = false;
+      }
+      if (t == last) {
+        break;
+      }
+    }
+    return names;
+  }
+
+  private static String unquote(String value) {
+    if (value.length() >= 2
+        && (value.charAt(0) == '\'' || value.charAt(0) == '"')
+        && value.charAt(value.length() - 1) == value.charAt(0)) {
+      return value.substring(1, value.length() - 1);
+    }
+    return value;
+  }
+
+  static String tableKey(String name) {
+    return "TABLE:" + Identifiers.canonical(name);
+  }
+
+  static String schemaKey(String name) {
+    return "SCHEMA:" + Identifiers.canonical(name);
+  }
+
+  static String viewKey(String name) {
+    return "VIEW:" + Identifiers.canonical(name);
+  }
+
+  static String sequenceKey(String name) {
+    return "SEQUENCE:" + Identifiers.canonical(name);
+  }
+
+  static String localityGroupKey(String name) {
+    return "LOCALITY_GROUP:" + Identifiers.canonical(name);
+  }
+}
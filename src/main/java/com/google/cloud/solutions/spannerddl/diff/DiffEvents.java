@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.common.collect.MapDifference;
+
+/**
+ * Emits Java Flight Recorder events around parsing, building the database definitions, comparing
+ * each kind of schema object and generating ALTER TABLE statements, so that flight recordings show
+ * which schema objects are expensive.
+ *
+ * <p>The events are defined in {@link JfrDiffEvents}, which is only loaded when the {@code jdk.jfr}
+ * module is available, so this class can be used on Java 8 runtimes without JFR.
+ *
+ * <p>Each {@code begin} method returns an opaque event to pass to the matching {@code end} method,
+ * or null when the event is not enabled, in which case the {@code end} method does nothing. This
+ * keeps the overhead to a check of whether the event is enabled when no recording is running.
+ */
+final class DiffEvents {
+
+  private static final boolean JFR_AVAILABLE = isJfrAvailable();
+
+  private DiffEvents() {}
+
+  private static boolean isJfrAvailable() {
+    try {
+      Class.forName("jdk.jfr.Event", false, DiffEvents.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  static Object beginParse() {
+    return JFR_AVAILABLE ? JfrDiffEvents.beginParse() : null;
+  }
+
+  /**
+   * Ends the event for parsing a statement.
+   *
+   * @param statement the parsed statement, or null if parsing failed
+   */
+  static void endParse(Object event, String statementText, ASTddl_statement statement) {
+    if (event != null) {
+      JfrDiffEvents.endParse(event, statementText, statement);
+    }
+  }
+
+  static Object beginCreateDatabaseDefinition() {
+    return JFR_AVAILABLE ? JfrDiffEvents.beginCreateDatabaseDefinition() : null;
+  }
+
+  static void endCreateDatabaseDefinition(Object event, int statements, DatabaseDefinition db) {
+    if (event != null) {
+      JfrDiffEvents.endCreateDatabaseDefinition(event, statements, db);
+    }
+  }
+
+  static Object beginDiffObjects() {
+    return JFR_AVAILABLE ? JfrDiffEvents.beginDiffObjects() : null;
+  }
+
+  static void endDiffObjects(Object event, String kind, MapDifference<String, ?> difference) {
+    if (event != null) {
+      JfrDiffEvents.endDiffObjects(event, kind, difference);
+    }
+  }
+
+  static Object beginGenerateAlterTable() {
+    return JFR_AVAILABLE ? JfrDiffEvents.beginGenerateAlterTable() : null;
+  }
+
+  static void endGenerateAlterTable(
+      Object event, String tableName, int columns, int generatedStatements) {
+    if (event != null) {
+      JfrDiffEvents.endGenerateAlterTable(event, tableName, columns, generatedStatements);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+/**
+ * Receives metrics from parsing DDL and generating diffs, for reporting to an external metrics
+ * system.
+ *
+ * <p>An implementation can be passed to {@link DdlDiff#build(String, String, java.util.Map,
+ * DiffMetrics)}, or registered as a {@link java.util.ServiceLoader} provider in {@code
+ * META-INF/services/com.google.cloud.solutions.spannerddl.diff.DiffMetrics}, in which case it is
+ * used for all diffs which are not given an implementation. By default, metrics are discarded.
+ *
+ * <p>Each metric has a name, one of the constants of this interface, and a label which
+ * distinguishes the values of the metric, such as the statement type, or which is empty. All the
+ * methods do nothing by default, so implementations only need to override the kinds of metric they
+ * report. Implementations must be thread-safe.
+ */
+public interface DiffMetrics {
+
+  /**
+   * Counter of statements parsed, labelled by statement type, eg {@code create_table_statement}.
+   */
+  String STATEMENTS_PARSED = "statementsParsed";
+
+  /** Counter of DDL bytes read and parsed. */
+  String BYTES_PROCESSED = "bytesProcessed";
+
+  /**
+   * Counter of statements which failed to parse, labelled by the leading keywords of the statement,
+   * eg {@code CREATE TABLE}.
+   */
+  String PARSE_FAILURES = "parseFailures";
+
+  /** Counter of statements generated, labelled by their leading keywords, eg {@code DROP INDEX}. */
+  String STATEMENTS_EMITTED = "statementsEmitted";
+
+  /** Timer of each phase of generating a diff, labelled by the {@link DiffStats} phase name. */
+  String PHASE_LATENCY = "phaseLatency";
+
+  /** Timer of parsing each statement, labelled by statement type. */
+  String PARSE_LATENCY = "parseLatency";
+
+  /** Histogram of the length in characters of the statements parsed, labelled by statement type. */
+  String STATEMENT_LENGTH = "statementLength";
+
+  /** Metrics implementation which discards all metrics. */
+  DiffMetrics NO_OP = new DiffMetrics() {};
+
+  /** Adds an amount to a counter. */
+  default void incrementCounter(String name, String label, long amount) {}
+
+  /** Records one timing of an operation. */
+  default void recordTimer(String name, String label, long elapsedNanos) {}
+
+  /** Records one value in a histogram. */
+  default void recordHistogram(String name, String label, long value) {}
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import com.google.auto.value.AutoValue;
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.cloud.solutions.spannerddl.parser.DdlParserTreeConstants;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.base.Utf8;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Wall time and counts for each phase of generating a diff, to find where a slow diff spends its
+ * time.
+ *
+ * <p>The phases are listed in the order in which they are first recorded:
+ *
+ * <ul>
+ *   <li>{@value #READ}: reading the DDL files. When a file is streamed through a {@link
+ *       DdlStatementReader}, this includes removing comments and splitting the statements. The
+ *       count is the number of files.
+ *   <li>{@value #SPLIT}: removing comments and splitting DDL text into statements. The count is the
+ *       number of statements.
+ *   <li>{@value #PARSE}: parsing the statements, with the count and time of each statement type in
+ *       {@link #statementTypes()}.
+ *   <li>{@value #CREATE_DATABASE_DEFINITION}: building the {@link DatabaseDefinition} of each DDL.
+ *       The count is the number of statements.
+ *   <li>{@value #VALIDATE}: checking the new DDL for missing references.
+ *   <li>{@value #DIFFERENCE_PREFIX}{@code <kind>}: comparing one kind of schema object, such as
+ *       {@code difference.tables}. The count is the number of objects added, removed or changed.
+ *   <li>{@value #GENERATE_PREFIX}{@code <section>}: generating one section of the output
+ *       statements, such as {@code generate.dropIndexes}. The count is the number of statements
+ *       generated.
+ * </ul>
+ *
+ * <p>When the same phase runs more than once, for example when parsing both the original and the
+ * new DDL, the times and counts are added together.
+ *
+ * <p>Everything recorded is also reported to a {@link DiffMetrics} implementation.
+ *
+ * <p>Instances are thread-safe, so that DDL files read in parallel can record to the same instance.
+ */
+public final class DiffStats {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DiffStats.class);
+
+  public static final String READ = "read";
+  public static final String SPLIT = "split";
+  public static final String PARSE = "parse";
+  public static final String CREATE_DATABASE_DEFINITION = "createDatabaseDefinition";
+  public static final String VALIDATE = "validate";
+  public static final String DIFFERENCE_PREFIX = "difference.";
+  public static final String GENERATE_PREFIX = "generate.";
+
+  /** Statement modifiers skipped when finding the leading keywords of a statement. */
+  private static final ImmutableSet<String> MODIFIERS =
+      ImmutableSet.of("OR", "REPLACE", "UNIQUE", "NULL_FILTERED", "IF", "NOT", "EXISTS");
+
+  private static final Splitter WORD_SPLITTER =
+      Splitter.on(CharMatcher.whitespace().or(CharMatcher.anyOf("(;"))).omitEmptyStrings();
+
+  private final Map<String, Phase> phases = new LinkedHashMap<>();
+  private final Map<String, Phase> statementTypes = new TreeMap<>();
+  private final DiffMetrics metrics;
+
+  /**
+   * Creates an instance reporting to the {@link DiffMetrics} implementation registered with {@link
+   * ServiceLoader}, if any.
+   */
+  public DiffStats() {
+    this(DefaultMetrics.INSTANCE);
+  }
+
+  /** Creates an instance reporting to the metrics implementation. */
+  public DiffStats(DiffMetrics metrics) {
+    this.metrics = Preconditions.checkNotNull(metrics);
+  }
+
+  /**
+   * The registered metrics implementation, in a holder class so that the class path is only
+   * searched for it when an instance is created without a metrics implementation.
+   */
+  private static final class DefaultMetrics {
+    static final DiffMetrics INSTANCE = loadMetrics(DiffStats.class.getClassLoader());
+  }
+
+  /**
+   * Loads the {@link DiffMetrics} implementation registered with {@link ServiceLoader}, or returns
+   * {@link DiffMetrics#NO_OP} if there is none.
+   */
+  @VisibleForTesting
+  static DiffMetrics loadMetrics(ClassLoader classLoader) {
+    Iterator<DiffMetrics> providers = ServiceLoader.load(DiffMetrics.class, classLoader).iterator();
+    if (!providers.hasNext()) {
+      return DiffMetrics.NO_OP;
+    }
+    DiffMetrics metrics = providers.next();
+    if (providers.hasNext()) {
+      LOG.warn(
+          "Multiple DiffMetrics implementations found, using {}", metrics.getClass().getName());
+    }
+    return metrics;
+  }
+
+  /** The wall time and count of one phase. */
+  @AutoValue
+  public abstract static class Phase {
+
+    static Phase create(long count, long elapsedNanos) {
+      return new AutoValue_DiffStats_Phase(count, elapsedNanos);
+    }
+
+    /** The number of items processed by the phase. */
+    public abstract long count();
+
+    public abstract long elapsedNanos();
+
+    Phase add(long count, long elapsedNanos) {
+      return create(count() + count, elapsedNanos() + elapsedNanos);
+    }
+  }
+
+  /**
+   * Records a run of a phase which started at {@code startNanos}, as returned by {@link
+   * System#nanoTime()}.
+   */
+  public void record(String phase, long startNanos, long count) {
+    recordElapsed(phase, System.nanoTime() - startNanos, count);
+  }
+
+  /** Records a run of a phase which took {@code elapsedNanos}. */
+  public void recordElapsed(String phase, long elapsedNanos, long count) {
+    synchronized (this) {
+      phases.merge(phase, Phase.create(count, elapsedNanos), DiffStats::sum);
+    }
+    metrics.recordTimer(DiffMetrics.PHASE_LATENCY, phase, elapsedNanos);
+  }
+
+  /**
+   * Records the parsing of one statement which started at {@code startNanos}, as returned by {@link
+   * System#nanoTime()}.
+   */
+  void recordParse(String statementText, ASTddl_statement statement, long startNanos) {
+    long elapsedNanos = System.nanoTime() - startNanos;
+    String type = DdlParserTreeConstants.jjtNodeName[statement.jjtGetChild(0).getId()];
+    Phase parse = Phase.create(1, elapsedNanos);
+    synchronized (this) {
+      phases.merge(PARSE, parse, DiffStats::sum);
+      statementTypes.merge(type, parse, DiffStats::sum);
+    }
+    metrics.incrementCounter(DiffMetrics.STATEMENTS_PARSED, type, 1);
+    metrics.recordTimer(DiffMetrics.PARSE_LATENCY, type, elapsedNanos);
+    metrics.recordHistogram(DiffMetrics.STATEMENT_LENGTH, type, statementText.length());
+  }
+
+  /** Records a statement which could not be parsed. */
+  void recordParseFailure(String statementText) {
+    metrics.incrementCounter(DiffMetrics.PARSE_FAILURES, leadingKeywords(statementText), 1);
+  }
+
+  /** Records the number of bytes of DDL read. */
+  void recordBytes(long bytes) {
+    metrics.incrementCounter(DiffMetrics.BYTES_PROCESSED, "", bytes);
+  }
+
+  /**
+   * Records the number of bytes of DDL text when encoded as UTF-8. This is only calculated when
+   * metrics are being reported.
+   */
+  void recordBytes(String ddl) {
+    if (metrics != DiffMetrics.NO_OP) {
+      long bytes;
+      try {
+        bytes = Utf8.encodedLength(ddl);
+      } catch (IllegalArgumentException e) {
+        // Unpaired surrogate characters.
+        bytes = ddl.length();
+      }
+      recordBytes(bytes);
+    }
+  }
+
+  /** Records the generated statements. */
+  void recordEmitted(List<String> statements) {
+    if (metrics != DiffMetrics.NO_OP) {
+      for (String statement : statements) {
+        metrics.incrementCounter(DiffMetrics.STATEMENTS_EMITTED, leadingKeywords(statement), 1);
+      }
+    }
+  }
+
+  /**
+   * Returns the leading keywords of a statement which identify its kind, eg {@code CREATE TABLE} or
+   * {@code ALTER TABLE}, skipping modifiers such as {@code UNIQUE} or {@code OR REPLACE}.
+   */
+  @VisibleForTesting
+  static String leadingKeywords(String statement) {
+    List<String> words = new ArrayList<>(2);
+    for (String word : WORD_SPLITTER.split(statement)) {
+      String keyword = word.toUpperCase(Locale.ROOT);
+      if (words.isEmpty() || !MODIFIERS.contains(keyword)) {
+        words.add(keyword);
+      }
+      if (words.size() == 2) {
+        break;
+      }
+    }
+    return String.join(" ", words);
+  }
+
+  /** Records the phase of generating one section of the output, see {@link SectionTimer}. */
+  SectionTimer newSectionTimer(List<String> output) {
+    return new SectionTimer(output);
+  }
+
+  /** Returns the stats of each phase, in the order in which they were first recorded. */
+  public synchronized ImmutableMap<String, Phase> phases() {
+    return ImmutableMap.copyOf(phases);
+  }
+
+  /** Returns the number of statements of each type parsed, and the time taken to parse them. */
+  public synchronized ImmutableMap<String, Phase> statementTypes() {
+    return ImmutableMap.copyOf(statementTypes);
+  }
+
+  /** Adds the stats of another instance to this one. */
+  public void add(DiffStats other) {
+    ImmutableMap<String, Phase> otherPhases = other.phases();
+    ImmutableMap<String, Phase> otherStatementTypes = other.statementTypes();
+    synchronized (this) {
+      otherPhases.forEach((name, phase) -> phases.merge(name, phase, DiffStats::sum));
+      otherStatementTypes.forEach(
+          (name, phase) -> statementTypes.merge(name, phase, DiffStats::sum));
+    }
+  }
+
+  private static Phase sum(Phase a, Phase b) {
+    return a.add(b.count(), b.elapsedNanos());
+  }
+
+  /**
+   * Returns the stats as a JSON object, with the count and elapsed time in milliseconds of each
+   * phase and statement type.
+   *
+   * <p>eg:
+   *
+   * <pre>
+   * {
+   *   "phases": {
+   *     "read": {"count": 1, "millis": 1.234},
+   *     ...
+   *   },
+   *   "statementTypes": {
+   *     "create_table_statement": {"count": 10, "millis": 2.345},
+   *     ...
+   *   }
+   * }
+   * </pre>
+   */
+  public String toJson() {
+    StringBuilder json = new StringBuilder("{\n");
+    appendJson(json, "phases", phases());
+    json.append(",\n");
+    appendJson(json, "statementTypes", statementTypes());
+    return json.append("\n}\n").toString();
+  }
+
+  private static void appendJson(StringBuilder json, String name, Map<String, Phase> phases) {
+    json.append("  \"").append(name).append("\": {");
+    String separator = "\n";
+    for (Map.Entry<String, Phase> phase : phases.entrySet()) {
+      json.append(separator)
+          .append("    \"")
+          .append(phase.getKey())
+          .append("\": {\"count\": ")
+          .append(phase.getValue().count())
+          .append(", \"millis\": ")
+          .append(String.format(Locale.ROOT, "%.3f", phase.getValue().elapsedNanos() / 1e6))
+          .append("}");
+      separator = ",\n";
+    }
+    json.append(phases.isEmpty() ? "}" : "\n  }");
+  }
+
+  @Override
+  public String toString() {
+    return toJson();
+  }
+
+  /**
+   * Times consecutive sections of generating the output statements. Each call to {@link #end}
+   * records the time since the previous call, and the number of statements added to the output.
+   */
+  final class SectionTimer {
+    private final List<String> output;
+    private long startNanos = System.nanoTime();
+    private int startSize;
+
+    private SectionTimer(List<String> output) {
+      this.output = output;
+      this.startSize = output.size();
+    }
+
+    void end(String section) {
+      record(GENERATE_PREFIX + section, startNanos, output.size() - startSize);
+      startNanos = System.nanoTime();
+      startSize = output.size();
+    }
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import com.google.common.base.Equivalence;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.MapDifference;
+import com.google.common.collect.Maps;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the differences computed for each kind of schema object between successive {@link DdlDiff}s
+ * of new versions of the same DDLs, so that only the objects which have changed are compared again.
+ *
+ * <p>If both maps of a kind are the same instances as in the previous diff, as {@link
+ * DatabaseDefinition#update} returns for kinds which no edited statement defines, the previous
+ * difference is returned as is. Otherwise the maps are compared again, but the result of comparing
+ * two objects is remembered by their identity, so only the pairs of objects which were not compared
+ * by the previous diff are compared with the kind's equivalence.
+ *
+ * <p>Instances are not thread-safe.
+ */
+final class DifferenceCache {
+
+  private final Map<String, CachedDifference<?>> differences = new HashMap<>();
+
+  /** Returns the difference between the maps of one kind of schema object. */
+  @SuppressWarnings("unchecked")
+  <V> MapDifference<String, V> difference(
+      String kind, Map<String, V> left, Map<String, V> right, Equivalence<? super V> equivalence) {
+    CachedDifference<V> previous = (CachedDifference<V>) differences.get(kind);
+    if (previous != null && previous.left == left && previous.right == right) {
+      return previous.difference;
+    }
+    MemoizingEquivalence<V> memoizing =
+        new MemoizingEquivalence<>(
+            equivalence, previous == null ? ImmutableMap.of() : previous.comparisons);
+    MapDifference<String, V> difference = Maps.difference(left, right, memoizing);
+    differences.put(
+        kind, new CachedDifference<>(left, right, difference, memoizing.currentComparisons));
+    return difference;
+  }
+
+  /** The difference between two maps, and the comparisons made to compute it. */
+  private static final class CachedDifference<V> {
+    final Map<String, V> left;
+    final Map<String, V> right;
+    final MapDifference<String, V> difference;
+    final Map<IdentityPair, Boolean> comparisons;
+
+    CachedDifference(
+        Map<String, V> left,
+        Map<String, V> right,
+        MapDifference<String, V> difference,
+        Map<IdentityPair, Boolean> comparisons) {
+      this.left = left;
+      this.right = right;
+      this.difference = difference;
+      this.comparisons = comparisons;
+    }
+  }
+
+  /**
+   * Looks up the result of comparing two objects in the previous comparisons before using the
+   * delegate equivalence, and records all comparisons made, so that they can be used by the next
+   * diff.
+   */
+  private static final class MemoizingEquivalence<V> extends Equivalence<V> {
+    private final Equivalence<? super V> delegate;
+    private final Map<IdentityPair, Boolean> previousComparisons;
+    final Map<IdentityPair, Boolean> currentComparisons = new HashMap<>();
+
+    MemoizingEquivalence(
+        Equivalence<? super V> delegate, Map<IdentityPair, Boolean> previousComparisons) {
+      this.delegate = delegate;
+      this.previousComparisons = previousComparisons;
+    }
+
+    @Override
+    protected boolean doEquivalent(V a, V b) {
+      IdentityPair pair = new IdentityPair(a, b);
+      Boolean equivalent = previousComparisons.get(pair);
+      if (equivalent == null) {
+        equivalent = delegate.equivalent(a, b);
+      }
+      currentComparisons.put(pair, equivalent);
+      return equivalent;
+    }
+
+    @Override
+    protected int doHash(V value) {
+      return delegate.hash(value);
+    }
+  }
+
+  /** A pair of objects, compared by identity. */
+  private static final class IdentityPair {
+    private final Object left;
+    private final Object right;
+
+    IdentityPair(Object left, Object right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof IdentityPair)) {
+        return false;
+      }
+      IdentityPair other = (IdentityPair) o;
+      return left == other.left && right == other.right;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(left) + System.identityHashCode(right);
+    }
+  }
+}
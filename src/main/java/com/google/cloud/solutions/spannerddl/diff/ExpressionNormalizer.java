@@ -0,0 +1,221 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import com.google.cloud.solutions.spannerddl.parser.DdlParserConstants;
+import com.google.cloud.solutions.spannerddl.parser.SimpleNode;
+import com.google.cloud.solutions.spannerddl.parser.Token;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableSet;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Converts the text of a CHECK constraint, generated column or DEFAULT expression, or the query of
+ * a view, to a canonical form, so that expressions which are only written differently compare as
+ * equal.
+ *
+ * <p>The canonical form is only used for comparison, never for output. It:
+ *
+ * <ul>
+ *   <li>upper-cases identifiers, keywords and function names, and removes backtick quoting, as
+ *       these are all case-insensitive.
+ *   <li>converts hexadecimal integer literals to decimal, and double-quoted string and bytes
+ *       literals to single quotes when they contain no quotes or escapes.
+ *   <li>replaces {@code <>} with {@code !=}, and adds the optional parentheses to {@code
+ *       CURRENT_DATE} and {@code CURRENT_TIMESTAMP}.
+ *   <li>removes parentheses around the whole expression, around a single token, around a whole
+ *       function argument, around other parentheses, and around operands of AND and OR which do not
+ *       contain AND, OR or NOT.
+ * </ul>
+ */
+public class ExpressionNormalizer {
+
+  /** Tokens after which an opening parenthesis groups an expression, rather than a call. */
+  private static final ImmutableSet<String> GROUPING_PREDECESSORS =
+      ImmutableSet.of(
+          "(", ",", "+", "-", "*", "/", "=", "!=", "<", "<=", ">", ">=", "~", "|", "||", "^", "&",
+          "AND", "OR", "NOT", "CASE", "WHEN", "THEN", "ELSE");
+
+  private static final ImmutableSet<String> LOGICAL_OPERATORS = ImmutableSet.of("AND", "OR", "NOT");
+
+  private static final ImmutableSet<String> LOGICAL_BOUNDARIES =
+      ImmutableSet.of("(", ",", ")", "AND", "OR");
+
+  private static final ImmutableSet<String> OPTIONAL_PARENTHESES_FUNCTIONS =
+      ImmutableSet.of("CURRENT_DATE", "CURRENT_TIMESTAMP");
+
+  private ExpressionNormalizer() {}
+
+  /** Returns the canonical form of the expression parsed into the given node. */
+  public static String normalize(SimpleNode expression) {
+    List<String> tokens = new ArrayList<>();
+    Token last = expression.jjtGetLastToken();
+    for (Token t = expression.jjtGetFirstToken(); t != null; t = t.next) {
+      String token = normalizeToken(t);
+      tokens.add(token);
+      if (OPTIONAL_PARENTHESES_FUNCTIONS.contains(token)
+          && (t == last || !t.next.image.equals("("))) {
+        tokens.add("(");
+        tokens.add(")");
+      }
+      if (t == last) {
+        break;
+      }
+    }
+    while (removeRedundantParentheses(tokens)) {
+      // repeat until no more parentheses can be removed.
+    }
+    return Joiner.on(" ").join(tokens);
+  }
+
+  private static String normalizeToken(Token token) {
+    switch (token.kind) {
+      case DdlParserConstants.INTEGER_LITERAL:
+        return normalizeInteger(token.image);
+      case DdlParserConstants.STRING_LITERAL:
+        return normalizeQuotes(token.image);
+      case DdlParserConstants.BYTES_LITERAL:
+        return "b" + normalizeQuotes(token.image.substring(1));
+      case DdlParserConstants.STRING_R_LITERAL:
+      case DdlParserConstants.BYTES_R_LITERAL:
+      case DdlParserConstants.STRING_S3_LITERAL:
+      case DdlParserConstants.STRING_D3_LITERAL:
+      case DdlParserConstants.STRING_SR3_LITERAL:
+      case DdlParserConstants.STRING_DR3_LITERAL:
+      case DdlParserConstants.BYTES_S3_LITERAL:
+      case DdlParserConstants.BYTES_D3_LITERAL:
+      case DdlParserConstants.BYTES_SR3_LITERAL:
+      case DdlParserConstants.BYTES_DR3_LITERAL:
+        return token.image;
+      case DdlParserConstants.QUOTED_ID:
+        return token.image.substring(1, token.image.length() - 1).toUpperCase(Locale.ROOT);
+      default:
+        return token.image.equals("<>") ? "!=" : token.image.toUpperCase(Locale.ROOT);
+    }
+  }
+
+  private static String normalizeInteger(String literal) {
+    boolean negative = literal.startsWith("-");
+    String digits = negative ? literal.substring(1) : literal;
+    BigInteger value =
+        digits.startsWith("0x") || digits.startsWith("0X")
+            ? new BigInteger(digits.substring(2), 16)
+            : new BigInteger(digits);
+    return (negative ? value.negate() : value).toString();
+  }
+
+  /** Converts a double-quoted literal to single quotes, when that does not need any escaping. */
+  private static String normalizeQuotes(String literal) {
+    String contents = literal.substring(1, literal.length() - 1);
+    if (literal.startsWith("\"")
+        && !contents.contains("'")
+        && !contents.contains("\"")
+        && !contents.contains("\\")) {
+      return "'" + contents + "'";
+    }
+    return literal;
+  }
+
+  /**
+   * Removes the first pair of parentheses which does not change the meaning of the expression.
+   *
+   * @return whether a pair was removed.
+   */
+  private static boolean removeRedundantParentheses(List<String> tokens) {
+    Deque<Integer> openParentheses = new ArrayDeque<>();
+    for (int close = 0; close < tokens.size(); close++) {
+      if (tokens.get(close).equals("(")) {
+        openParentheses.push(close);
+      } else if (tokens.get(close).equals(")") && !openParentheses.isEmpty()) {
+        int open = openParentheses.pop();
+        if (isRedundant(tokens, open, close)) {
+          tokens.remove(close);
+          tokens.remove(open);
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean isRedundant(List<String> tokens, int open, int close) {
+    if (close == open + 1 || (open > 0 && !GROUPING_PREDECESSORS.contains(tokens.get(open - 1)))) {
+      // Empty, or the parentheses of a function call, IN list, CAST, etc.
+      return false;
+    }
+    if (close == open + 2 || closingParenthesis(tokens, open + 1) == close - 1) {
+      // A single token, or doubled parentheses.
+      return true;
+    }
+    if (containsAtTopLevel(tokens, open, close, ImmutableSet.of(","))) {
+      // A struct or tuple.
+      return false;
+    }
+    String before = open > 0 ? tokens.get(open - 1) : null;
+    String after = close < tokens.size() - 1 ? tokens.get(close + 1) : null;
+    if ((before == null || before.equals("(") || before.equals(","))
+        && (after == null || after.equals(")") || after.equals(","))) {
+      // The whole expression, or a whole argument.
+      return true;
+    }
+    // An operand of AND or OR which only binds more tightly than them.
+    return (before == null || LOGICAL_BOUNDARIES.contains(before))
+        && (after == null || LOGICAL_BOUNDARIES.contains(after))
+        && !containsAtTopLevel(tokens, open, close, LOGICAL_OPERATORS);
+  }
+
+  /** Returns the index of the parenthesis closing the one at the given index, or -1. */
+  private static int closingParenthesis(List<String> tokens, int open) {
+    if (!tokens.get(open).equals("(")) {
+      return -1;
+    }
+    int depth = 0;
+    for (int i = open; i < tokens.size(); i++) {
+      if (tokens.get(i).equals("(")) {
+        depth++;
+      } else if (tokens.get(i).equals(")") && --depth == 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean containsAtTopLevel(
+      List<String> tokens, int open, int close, ImmutableSet<String> words) {
+    int depth = 0;
+    for (int i = open + 1; i < close; i++) {
+      String token = tokens.get(i);
+      if (token.equals("(") || token.equals("[") || token.equals("CASE")) {
+        depth++;
+      } else if (token.equals(")") || token.equals("]") || token.equals("END")) {
+        depth--;
+      } else if (depth == 0 && words.contains(token)) {
+        if (token.equals("NOT") && i > open + 1 && !LOGICAL_OPERATORS.contains(tokens.get(i - 1))) {
+          // Part of IS NOT, NOT IN, NOT LIKE or NOT BETWEEN, rather than a logical NOT.
+          continue;
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import java.util.Locale;
+
+/**
+ * Resolves Spanner identifiers the way Spanner does: names are case-insensitive, and may be quoted
+ * with backticks.
+ *
+ * <p>Schema objects are keyed and compared by their canonical name, while their original spelling
+ * is kept in the parsed statement and used when generating DDL.
+ */
+public class Identifiers {
+
+  private Identifiers() {}
+
+  /** Returns the canonical form of the identifier, used to compare and look up names. */
+  public static String canonical(String identifier) {
+    return identifier.replace("`", "").toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.cloud.solutions.spannerddl.diff.DatabaseDefinition.Entry;
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diffs successive versions of an original and a new DDL, such as while a user edits a schema,
+ * redoing only the work affected by the statements which changed since the previous version.
+ *
+ * <p>On each update:
+ *
+ * <ul>
+ *   <li>Only statements whose text was not in the previous versions are parsed. Parsed statements
+ *       are cached by their text, and the cache is shared between the original and the new DDL.
+ *   <li>The {@link DatabaseDefinition} of each DDL is patched with {@link
+ *       DatabaseDefinition#update}: only the maps of the kinds of objects defined by added, changed
+ *       or removed statements are rebuilt, from the entries cached for each statement.
+ *   <li>The {@link DdlDiff} reuses the differences of each kind of object whose maps did not
+ *       change, and for the others only compares the objects which were not compared by the
+ *       previous diff, using a {@link DifferenceCache}.
+ * </ul>
+ *
+ * <p>Splitting the DDL text into statements, and ordering the statements by their dependencies when
+ * {@code sortByDependencies} is set, are still done for the whole DDL on each update. If neither
+ * DDL has changed, the previous {@link DdlDiff} is returned.
+ *
+ * <p>eg:
+ *
+ * <pre>
+ * IncrementalDdlDiff incrementalDiff = new IncrementalDdlDiff(options);
+ * List&lt;String&gt; statements = incrementalDiff.update(originalDDL, newDDL)
+ *     .generateDifferenceStatements(options);
+ * // ... user edits new DDL
+ * statements = incrementalDiff.updateNewDdl(editedNewDDL).generateDifferenceStatements(options);
+ * </pre>
+ *
+ * <p>Instances are thread-safe, but updates are serialized.
+ */
+public class IncrementalDdlDiff {
+
+  private final ImmutableMap<String, Boolean> options;
+  private final boolean sortByDependencies;
+  private final DifferenceCache differenceCache = new DifferenceCache();
+
+  private Map<String, ParsedStatement> parsedStatementCache = new HashMap<>();
+  private ParsedDdl original;
+  private ParsedDdl updated;
+  private DdlDiff ddlDiff;
+  private int statementsParsedByLastUpdate = 0;
+
+  /**
+   * Creates an instance with no DDL.
+   *
+   * @param options options used when building the {@link DatabaseDefinition}s
+   */
+  public IncrementalDdlDiff(Map<String, Boolean> options) {
+    this(options, false);
+  }
+
+  /**
+   * Creates an instance with no DDL.
+   *
+   * @param options options used when building the {@link DatabaseDefinition}s
+   * @param sortByDependencies whether to order the statements by their dependencies before building
+   *     the {@link DatabaseDefinition}s, as used when the DDL is concatenated from multiple files
+   */
+  IncrementalDdlDiff(Map<String, Boolean> options, boolean sortByDependencies) {
+    this.options = ImmutableMap.copyOf(options);
+    this.sortByDependencies = sortByDependencies;
+    this.original = ParsedDdl.empty(this.options);
+    this.updated = original;
+  }
+
+  /**
+   * Updates both the original and the new DDL, re-parsing only statements not seen in the previous
+   * versions, and updating the {@link DdlDiff} if either DDL changed.
+   *
+   * @return DdlDiff instance for the updated DDLs
+   * @throws DdlDiffException if there is an error in parsing the DDL
+   */
+  public synchronized DdlDiff update(String originalDdl, String newDdl) throws DdlDiffException {
+    Map<String, ParsedStatement> newCache = new HashMap<>();
+    int[] parseCount = {0};
+
+    ParsedDdl newOriginal;
+    try {
+      newOriginal = parse(original, Strings.nullToEmpty(originalDdl), newCache, parseCount);
+    } catch (DdlDiffException e) {
+      throw new DdlDiffException("Failed parsing ORIGINAL DDL: " + e.getMessage(), e);
+    }
+    ParsedDdl newUpdated;
+    try {
+      newUpdated = parse(updated, Strings.nullToEmpty(newDdl), newCache, parseCount);
+    } catch (DdlDiffException e) {
+      throw new DdlDiffException("Failed parsing NEW DDL: " + e.getMessage(), e);
+    }
+
+    if (ddlDiff == null || newOriginal != original || newUpdated != updated) {
+      ddlDiff =
+          new DdlDiff(
+              newOriginal.databaseDefinition,
+              newUpdated.databaseDefinition,
+              DdlDiff.getDatabaseNameFromAlterDatabase(
+                  newOriginal.ddlStatements(), newUpdated.ddlStatements()),
+              new DiffStats(),
+              differenceCache);
+    }
+
+    // Only commit the new state once everything has succeeded.
+    original = newOriginal;
+    updated = newUpdated;
+    parsedStatementCache = newCache;
+    statementsParsedByLastUpdate = parseCount[0];
+    return ddlDiff;
+  }
+
+  /** Updates the original DDL, keeping the current new DDL. */
+  public synchronized DdlDiff updateOriginalDdl(String originalDdl) throws DdlDiffException {
+    return update(originalDdl, updated.ddl);
+  }
+
+  /** Updates the new DDL, keeping the current original DDL. */
+  public synchronized DdlDiff updateNewDdl(String newDdl) throws DdlDiffException {
+    return update(original.ddl, newDdl);
+  }
+
+  /** Returns the number of statements which had to be parsed by the last update. */
+  public synchronized int getStatementsParsedByLastUpdate() {
+    return statementsParsedByLastUpdate;
+  }
+
+  /**
+   * Splits and parses the DDL, reusing cached statements from the previous update, and adding all
+   * statements used to {@code newCache}. The database definition is patched from the previous one.
+   *
+   * <p>If the DDL text is unchanged, the previous instance is returned.
+   */
+  private ParsedDdl parse(
+      ParsedDdl previous, String ddl, Map<String, ParsedStatement> newCache, int[] parseCount)
+      throws DdlDiffException {
+    if (previous.ddl.equals(ddl) && ddlDiff != null) {
+      for (int i = 0; i < previous.statementTexts.size(); i++) {
+        newCache.put(previous.statementTexts.get(i), previous.statements.get(i));
+      }
+      return previous;
+    }
+
+    List<String> statementTexts = DdlDiff.splitStatements(ddl, false);
+    ImmutableList.Builder<ParsedStatement> statements = ImmutableList.builder();
+    for (String statementText : statementTexts) {
+      ParsedStatement statement = newCache.get(statementText);
+      if (statement == null) {
+        statement = parsedStatementCache.get(statementText);
+      }
+      if (statement == null) {
+        ASTddl_statement ddlStatement = DdlDiff.parseDdlStatement(statementText);
+        statement =
+            new ParsedStatement(ddlStatement, DatabaseDefinition.entriesOf(ddlStatement, options));
+        parseCount[0]++;
+      }
+      newCache.put(statementText, statement);
+      statements.add(statement);
+    }
+    ImmutableList<ParsedStatement> statementList = statements.build();
+
+    ImmutableList<ImmutableList<Entry>> entries;
+    if (sortByDependencies) {
+      IdentityHashMap<ASTddl_statement, ImmutableList<Entry>> entriesByStatement =
+          new IdentityHashMap<>();
+      for (ParsedStatement statement : statementList) {
+        entriesByStatement.put(statement.ddlStatement, statement.entries);
+      }
+      entries =
+          DdlStatementSorter.sortByDependencies(
+                  statementList.stream().map(s -> s.ddlStatement).collect(toImmutableList()))
+              .stream()
+              .map(entriesByStatement::get)
+              .collect(toImmutableList());
+    } else {
+      entries = statementList.stream().map(s -> s.entries).collect(toImmutableList());
+    }
+    return new ParsedDdl(
+        ddl,
+        ImmutableList.copyOf(statementTexts),
+        statementList,
+        entries,
+        DatabaseDefinition.update(previous.databaseDefinition, previous.entries, entries));
+  }
+
+  /** A parsed statement, and the entries which it adds to a {@link DatabaseDefinition}. */
+  private static class ParsedStatement {
+    final ASTddl_statement ddlStatement;
+    final ImmutableList<Entry> entries;
+
+    ParsedStatement(ASTddl_statement ddlStatement, ImmutableList<Entry> entries) {
+      this.ddlStatement = ddlStatement;
+      this.entries = entries;
+    }
+  }
+
+  /** Parsed state of one version of a DDL. */
+  private static class ParsedDdl {
+    final String ddl;
+    final ImmutableList<String> statementTexts;
+    final ImmutableList<ParsedStatement> statements;
+
+    /** The entries of each statement, in the order used to build the database definition. */
+    final ImmutableList<ImmutableList<Entry>> entries;
+
+    final DatabaseDefinition databaseDefinition;
+
+    ParsedDdl(
+        String ddl,
+        ImmutableList<String> statementTexts,
+        ImmutableList<ParsedStatement> statements,
+        ImmutableList<ImmutableList<Entry>> entries,
+        DatabaseDefinition databaseDefinition) {
+      this.ddl = ddl;
+      this.statementTexts = statementTexts;
+      this.statements = statements;
+      this.entries = entries;
+      this.databaseDefinition = databaseDefinition;
+    }
+
+    static ParsedDdl empty(Map<String, Boolean> options) {
+      return new ParsedDdl(
+          "",
+          ImmutableList.of(),
+          ImmutableList.of(),
+          ImmutableList.of(),
+          DatabaseDefinition.create(ImmutableList.of(), options));
+    }
+
+    ImmutableList<ASTddl_statement> ddlStatements() {
+      return statements.stream().map(s -> s.ddlStatement).collect(toImmutableList());
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import com.google.auto.value.AutoValue;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_index_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTkey_part;
+import com.google.cloud.solutions.spannerddl.parser.ASToption_key_val;
+import com.google.cloud.solutions.spannerddl.parser.ASToptions_clause;
+import com.google.common.base.Equivalence;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Optional;
+
+/**
+ * The parts of an index definition which affect the index that Spanner builds, normalized so that
+ * indexes which are only written differently compare as equal.
+ *
+ * <p>Identifiers are compared without backticks and ignoring case, key parts include their implicit
+ * ASC direction, options are compared as a map and stored columns as a set.
+ */
+@AutoValue
+abstract class IndexSemanticKey {
+
+  /** Compares indexes by their semantic key, rather than by their DDL text. */
+  static final Equivalence<ASTcreate_index_statement> EQUIVALENCE =
+      new Equivalence<ASTcreate_index_statement>() {
+        @Override
+        protected boolean doEquivalent(ASTcreate_index_statement a, ASTcreate_index_statement b) {
+          return of(a).equals(of(b));
+        }
+
+        @Override
+        protected int doHash(ASTcreate_index_statement index) {
+          return of(index).hashCode();
+        }
+      };
+
+  abstract String tableName();
+
+  /** The key columns, each followed by its sort direction. */
+  abstract ImmutableList<String> keyParts();
+
+  abstract boolean unique();
+
+  abstract boolean nullFiltered();
+
+  abstract Optional<String> interleavedIn();
+
+  abstract ImmutableMap<String, String> options();
+
+  abstract ImmutableSet<String> storedColumns();
+
+  static IndexSemanticKey of(ASTcreate_index_statement index) {
+    ImmutableList.Builder<String> keyParts = ImmutableList.builder();
+    for (ASTkey_part keyPart : index.getKeyParts()) {
+      keyParts.add(Identifiers.canonical(keyPart.getKeyPath()) + " " + keyPart.getDirection());
+    }
+    ImmutableMap.Builder<String, String> options = ImmutableMap.builder();
+    ASToptions_clause optionsClause = index.getOptions();
+    if (optionsClause != null) {
+      for (ASToption_key_val option :
+          AstTreeUtils.getChildrenAssertType(optionsClause, ASToption_key_val.class)) {
+        options.put(Identifiers.canonical(option.getKey()), option.getValue());
+      }
+    }
+    ImmutableSet.Builder<String> storedColumns = ImmutableSet.builder();
+    for (String storedColumn : index.getStoredColumnNames()) {
+      storedColumns.add(Identifiers.canonical(storedColumn));
+    }
+    return new AutoValue_IndexSemanticKey(
+        Identifiers.canonical(index.getTableName()),
+        keyParts.build(),
+        index.isUnique(),
+        index.isNullFiltered(),
+        index.getInterleavedInTableName().map(Identifiers::canonical),
+        options.buildKeepingLast(),
+        storedColumns.build());
+  }
+
+  /** Returns a copy of this key without stored columns, which can be changed without a rebuild. */
+  IndexSemanticKey withoutStoredColumns() {
+    return new AutoValue_IndexSemanticKey(
+        tableName(),
+        keyParts(),
+        unique(),
+        nullFiltered(),
+        interleavedIn(),
+        options(),
+        ImmutableSet.of());
+  }
+}
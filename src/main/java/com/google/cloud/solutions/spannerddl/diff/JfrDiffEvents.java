@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.cloud.solutions.spannerddl.parser.DdlParserTreeConstants;
+import com.google.common.collect.MapDifference;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder event types, only used through {@link DiffEvents} so that this class is
+ * not loaded when JFR is not available.
+ */
+final class JfrDiffEvents {
+
+  static final String CATEGORY = "Spanner DDL Diff";
+  static final String EVENT_PREFIX = "com.google.cloud.solutions.spannerddl.";
+
+  private JfrDiffEvents() {}
+
+  @Name(EVENT_PREFIX + "ParseStatement")
+  @Label("Parse DDL Statement")
+  @Category(CATEGORY)
+  static final class ParseStatementEvent extends Event {
+    @Label("Statement Type")
+    @Description("The type of the statement, or empty if it could not be parsed")
+    String statementType;
+
+    @Label("Length")
+    @Description("The length of the statement text in characters")
+    int length;
+  }
+
+  @Name(EVENT_PREFIX + "CreateDatabaseDefinition")
+  @Label("Create Database Definition")
+  @Category(CATEGORY)
+  static final class CreateDatabaseDefinitionEvent extends Event {
+    @Label("Statements")
+    int statements;
+
+    @Label("Tables")
+    int tables;
+
+    @Label("Indexes")
+    int indexes;
+  }
+
+  @Name(EVENT_PREFIX + "DiffObjects")
+  @Label("Diff Schema Objects")
+  @Description("Comparison of one kind of schema object in the original and new DDL")
+  @Category(CATEGORY)
+  static final class DiffObjectsEvent extends Event {
+    @Label("Kind")
+    String kind;
+
+    @Label("Added")
+    int added;
+
+    @Label("Removed")
+    int removed;
+
+    @Label("Changed")
+    int changed;
+  }
+
+  @Name(EVENT_PREFIX + "GenerateAlterTable")
+  @Label("Generate ALTER TABLE")
+  @Category(CATEGORY)
+  static final class GenerateAlterTableEvent extends Event {
+    @Label("Table Name")
+    String tableName;
+
+    @Label("Columns")
+    @Description("The number of columns in the new table definition")
+    int columns;
+
+    @Label("Generated Statements")
+    int generatedStatements;
+  }
+
+  /** Begins the event if it is enabled, returning null otherwise. */
+  private static <T extends Event> T begin(T event) {
+    if (!event.isEnabled()) {
+      return null;
+    }
+    event.begin();
+    return event;
+  }
+
+  static Object beginParse() {
+    return begin(new ParseStatementEvent());
+  }
+
+  static void endParse(Object event, String statementText, ASTddl_statement statement) {
+    ParseStatementEvent parseEvent = (ParseStatementEvent) event;
+    parseEvent.end();
+    if (parseEvent.shouldCommit()) {
+      parseEvent.statementType =
+          statement == null
+              ? ""
+              : DdlParserTreeConstants.jjtNodeName[statement.jjtGetChild(0).getId()];
+      parseEvent.length = statementText.length();
+      parseEvent.commit();
+    }
+  }
+
+  static Object beginCreateDatabaseDefinition() {
+    return begin(new CreateDatabaseDefinitionEvent());
+  }
+
+  static void endCreateDatabaseDefinition(Object event, int statements, DatabaseDefinition db) {
+    CreateDatabaseDefinitionEvent createEvent = (CreateDatabaseDefinitionEvent) event;
+    createEvent.end();
+    if (createEvent.shouldCommit()) {
+      createEvent.statements = statements;
+      createEvent.tables = db.tablesInCreationOrder().size();
+      createEvent.indexes = db.indexes().size();
+      createEvent.commit();
+    }
+  }
+
+  static Object beginDiffObjects() {
+    return begin(new DiffObjectsEvent());
+  }
+
+  static void endDiffObjects(Object event, String kind, MapDifference<String, ?> difference) {
+    DiffObjectsEvent diffEvent = (DiffObjectsEvent) event;
+    diffEvent.end();
+    if (diffEvent.shouldCommit()) {
+      diffEvent.kind = kind;
+      diffEvent.added = difference.entriesOnlyOnRight().size();
+      diffEvent.removed = difference.entriesOnlyOnLeft().size();
+      diffEvent.changed = difference.entriesDiffering().size();
+      diffEvent.commit();
+    }
+  }
+
+  static Object beginGenerateAlterTable() {
+    return begin(new GenerateAlterTableEvent());
+  }
+
+  static void endGenerateAlterTable(
+      Object event, String tableName, int columns, int generatedStatements) {
+    GenerateAlterTableEvent alterEvent = (GenerateAlterTableEvent) event;
+    alterEvent.end();
+    if (alterEvent.shouldCommit()) {
+      alterEvent.tableName = tableName;
+      alterEvent.columns = columns;
+      alterEvent.generatedStatements = generatedStatements;
+      alterEvent.commit();
+    }
+  }
+}
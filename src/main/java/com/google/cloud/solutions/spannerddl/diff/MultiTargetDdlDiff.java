@@ -0,0 +1,284 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares one original Cloud Spanner schema against many new schemas.
+ *
+ * <p>The original DDL is parsed and its {@link DatabaseDefinition} built once, then shared between
+ * the diffs of all the new DDLs, which are generated in parallel. This avoids re-parsing the
+ * original DDL for each new DDL when comparing a deployed baseline with many candidate schemas.
+ *
+ * <p>eg:
+ *
+ * <pre>
+ * MultiTargetDdlDiff baseline = MultiTargetDdlDiff.create(originalDDL, options);
+ * Map&lt;String, List&lt;String&gt;&gt; statementsByTarget =
+ *     baseline.generateDifferenceStatements(ImmutableMap.of("tenantA", ddlA, "tenantB", ddlB));
+ * </pre>
+ *
+ * <p>Instances are immutable and thread-safe.
+ */
+public class MultiTargetDdlDiff {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MultiTargetDdlDiff.class);
+
+  private final ImmutableList<ASTddl_statement> originalStatements;
+  private final DatabaseDefinition originalDb;
+  private final ImmutableMap<String, Boolean> options;
+
+  private MultiTargetDdlDiff(
+      List<ASTddl_statement> originalStatements, Map<String, Boolean> options) {
+    this.originalStatements = ImmutableList.copyOf(originalStatements);
+    this.options = ImmutableMap.copyOf(options);
+    this.originalDb = DatabaseDefinition.create(this.originalStatements, this.options);
+  }
+
+  /**
+   * Parses the original DDL, ready to be compared against new DDLs.
+   *
+   * @param originalDdl Original DDL
+   * @param options options used for parsing and generating the diffs
+   * @throws DdlDiffException if there is an error in parsing the DDL
+   */
+  public static MultiTargetDdlDiff create(String originalDdl, Map<String, Boolean> options)
+      throws DdlDiffException {
+    try {
+      return create(DdlDiff.parseDdl(Strings.nullToEmpty(originalDdl)), options);
+    } catch (DdlDiffException e) {
+      throw new DdlDiffException("Failed parsing ORIGINAL DDL: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Creates an instance from the parsed original DDL statements.
+   *
+   * @param originalStatements Original DDL statements, in creation order
+   * @param options options used for generating the diffs
+   */
+  public static MultiTargetDdlDiff create(
+      List<ASTddl_statement> originalStatements, Map<String, Boolean> options) {
+    return new MultiTargetDdlDiff(originalStatements, options);
+  }
+
+  /**
+   * Builds a DdlDiff comparing the shared original DDL with the new DDL.
+   *
+   * @throws DdlDiffException if there is an error in parsing the DDL
+   */
+  public DdlDiff diff(String newDdl) throws DdlDiffException {
+    try {
+      return diff(DdlDiff.parseDdl(Strings.nullToEmpty(newDdl)));
+    } catch (DdlDiffException e) {
+      throw new DdlDiffException("Failed parsing NEW DDL: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Builds a DdlDiff comparing the shared original DDL with the parsed new DDL statements.
+   *
+   * @throws DdlDiffException if the DDLs are inconsistent
+   */
+  public DdlDiff diff(List<ASTddl_statement> newStatements) throws DdlDiffException {
+    return diff(newStatements, new DiffStats());
+  }
+
+  /** Builds a DdlDiff with the parsed new DDL statements, recording the time taken in the stats. */
+  DdlDiff diff(List<ASTddl_statement> newStatements, DiffStats stats) throws DdlDiffException {
+    return new DdlDiff(
+        originalDb,
+        DdlDiff.createDatabaseDefinition(newStatements, options, stats),
+        DdlDiff.getDatabaseNameFromAlterDatabase(originalStatements, newStatements),
+        stats);
+  }
+
+  /**
+   * Validates each new DDL and generates the statements converting the original schema to it. The
+   * new DDLs are processed in parallel.
+   *
+   * @param newDdls map of target name to new DDL
+   * @return map of target name to the DDL statements for that target, in the order of {@code
+   *     newDdls}
+   * @throws DdlDiffException if any of the new DDLs cannot be diffed. Failures of other targets are
+   *     added as suppressed exceptions.
+   */
+  public ImmutableMap<String, List<String>> generateDifferenceStatements(
+      Map<String, String> newDdls) throws DdlDiffException {
+    List<String> targets = ImmutableList.copyOf(newDdls.keySet());
+    ExecutorService executor = newExecutor(targets.size());
+    try {
+      List<Future<List<String>>> futures = new ArrayList<>(targets.size());
+      for (String target : targets) {
+        String newDdl = newDdls.get(target);
+        futures.add(executor.submit(() -> validateAndGenerateStatements(diff(newDdl))));
+      }
+
+      ImmutableMap.Builder<String, List<String>> results = ImmutableMap.builder();
+      DdlDiffException failure = null;
+      for (int i = 0; i < targets.size(); i++) {
+        try {
+          results.put(targets.get(i), getResult(futures.get(i)));
+        } catch (DdlDiffException e) {
+          DdlDiffException targetFailure =
+              new DdlDiffException(
+                  "Failed diffing target " + targets.get(i) + ": " + e.getMessage(), e);
+          if (failure == null) {
+            failure = targetFailure;
+          } else {
+            failure.addSuppressed(targetFailure);
+          }
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      return results.build();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Diffs the original DDL file against each of the new DDL files from the command line options in
+   * parallel, writing each output DDL file. Failures are reported per new DDL file.
+   *
+   * @return true if all the output files were written
+   */
+  static boolean writeDifferenceStatements(DdlDiffOptions options) {
+    // The stats of all the targets are added together.
+    DiffStats stats = new DiffStats();
+    MultiTargetDdlDiff baseline;
+    try {
+      List<ASTddl_statement> originalStatements =
+          DdlFileReader.readStatements(options.originalDdlPath(), stats);
+      long start = System.nanoTime();
+      baseline = create(originalStatements, options.args());
+      stats.record(DiffStats.CREATE_DATABASE_DEFINITION, start, originalStatements.size());
+      Files.createDirectories(options.outputDdlPath());
+    } catch (IOException e) {
+      System.err.println("Cannot read DDL file: " + e);
+      return false;
+    } catch (DdlDiffException e) {
+      System.err.println(
+          "Failed to generate a diff: Failed parsing ORIGINAL DDL: " + e.getMessage());
+      return false;
+    }
+
+    List<Path> newDdlPaths = options.newDdlPaths();
+    ExecutorService executor = newExecutor(newDdlPaths.size());
+    try {
+      List<Future<List<String>>> futures = new ArrayList<>(newDdlPaths.size());
+      for (Path newDdlPath : newDdlPaths) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  List<ASTddl_statement> newStatements;
+                  try {
+                    newStatements = DdlFileReader.readStatements(newDdlPath, stats);
+                  } catch (DdlDiffException e) {
+                    throw new DdlDiffException("Failed parsing NEW DDL: " + e.getMessage(), e);
+                  }
+                  List<String> statements =
+                      baseline.validateAndGenerateStatements(baseline.diff(newStatements, stats));
+                  DdlDiff.writeStatements(options.outputDdlPath(newDdlPath), statements);
+                  return statements;
+                }));
+      }
+
+      boolean success = true;
+      for (int i = 0; i < newDdlPaths.size(); i++) {
+        Path newDdlPath = newDdlPaths.get(i);
+        try {
+          List<String> statements = getResult(futures.get(i));
+          LOG.info(
+              "Wrote {} statements for {} to {}",
+              statements.size(),
+              newDdlPath,
+              options.outputDdlPath(newDdlPath));
+        } catch (DdlDiffException e) {
+          System.err.println("Failed to generate a diff for " + newDdlPath + ": " + e.getMessage());
+          success = false;
+        } catch (RuntimeException e) {
+          // The parser and AST classes report unsupported statements with runtime exceptions.
+          System.err.println("Failed to generate a diff for " + newDdlPath + ": " + e);
+          success = false;
+        }
+      }
+      if (success) {
+        DdlDiff.writeStats(options, stats);
+      }
+      return success;
+    } catch (IOException e) {
+      System.err.println("Cannot write stats file: " + e);
+      return false;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private List<String> validateAndGenerateStatements(DdlDiff ddlDiff) throws DdlDiffException {
+    ddlDiff.validateNewDdl();
+    return ddlDiff.generateDifferenceStatements(options);
+  }
+
+  private static ExecutorService newExecutor(int tasks) {
+    return Executors.newFixedThreadPool(
+        Math.max(1, Math.min(tasks, Runtime.getRuntime().availableProcessors())));
+  }
+
+  /**
+   * Waits for the result of the future, unwrapping the exceptions of the task. Checked exceptions
+   * other than DdlDiffException, such as IOExceptions, are wrapped in a DdlDiffException.
+   */
+  private static <T> T getResult(Future<T> future) throws DdlDiffException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DdlDiffException("Interrupted", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof DdlDiffException) {
+        throw (DdlDiffException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new DdlDiffException(cause.toString(), cause);
+    }
+  }
+}
@@ -0,0 +1,416 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.auto.value.AutoValue;
+import com.google.cloud.solutions.spannerddl.parser.ASTcolumn_def;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_table_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTforeign_key;
+import com.google.cloud.solutions.spannerddl.parser.ASTtable_interleave_clause;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapDifference;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Detects tables and columns which were renamed between the original and new schemas, so that
+ * tables can be renamed rather than dropped and re-created.
+ *
+ * <p>A renamed object appears as a removed object in the original schema and an added object in the
+ * new schema. Each pair of a removed and an added object is given a confidence from 0 to 1, by
+ * comparing their structure while ignoring their names:
+ *
+ * <ul>
+ *   <li>Tables must have the same primary key and interleave parent. The confidence is the number
+ *       of identical column definitions divided by the number of distinct column definitions in
+ *       both tables.
+ *   <li>Columns must be in the same table and have the same type. The confidence is the fraction of
+ *       their other attributes (not null, generation clause, default value, hidden and options)
+ *       which are the same, counting the type as one matching attribute.
+ * </ul>
+ *
+ * <p>Pairs are accepted in order of confidence when the confidence is at least the threshold and
+ * neither object is part of an already accepted pair. A pair is rejected as ambiguous when another
+ * pair with the same confidence shares one of its objects. A pair is also rejected when the object
+ * is referenced by another schema object, such as an index or a foreign key, as that object would
+ * otherwise be dropped and re-created with the new name.
+ *
+ * <p>Column renames are also detected in each altered or renamed table. As Spanner DDL cannot
+ * rename a column, column candidates are only reported: a candidate which would otherwise be
+ * accepted is rejected with {@link #COLUMN_RENAME_UNSUPPORTED}, and the column is dropped and
+ * added.
+ */
+public final class RenameDetector {
+
+  /** The default minimum confidence of an accepted rename, which only accepts exact matches. */
+  public static final double DEFAULT_THRESHOLD = 1.0;
+
+  /** The reason reported for a column candidate which would otherwise be accepted. */
+  public static final String COLUMN_RENAME_UNSUPPORTED = "Spanner cannot rename columns";
+
+  /** The kind of object which is renamed. */
+  public enum Kind {
+    TABLE,
+    COLUMN
+  }
+
+  /** A possible rename of a table or column, and whether it was accepted. */
+  @AutoValue
+  public abstract static class RenameCandidate {
+
+    static RenameCandidate create(
+        Kind kind,
+        Optional<String> tableName,
+        String oldName,
+        String newName,
+        double confidence,
+        Optional<String> rejectedReason) {
+      return new AutoValue_RenameDetector_RenameCandidate(
+          kind, tableName, oldName, newName, confidence, rejectedReason);
+    }
+
+    public abstract Kind kind();
+
+    /** The table containing a renamed column, using its new name. Empty for a table rename. */
+    public abstract Optional<String> tableName();
+
+    public abstract String oldName();
+
+    public abstract String newName();
+
+    public abstract double confidence();
+
+    /** The reason why this candidate was not accepted, or empty if it was accepted. */
+    public abstract Optional<String> rejectedReason();
+
+    public boolean accepted() {
+      return !rejectedReason().isPresent();
+    }
+
+    RenameCandidate withRejectedReason(String reason) {
+      return create(kind(), tableName(), oldName(), newName(), confidence(), Optional.of(reason));
+    }
+
+    /** Returns the candidate as a line of the rename report. */
+    public String toReportLine() {
+      return String.format(
+          Locale.ROOT,
+          "%s %s%s -> %s, confidence %.2f: %s",
+          kind(),
+          tableName().map(t -> t + ".").orElse(""),
+          oldName(),
+          newName(),
+          confidence(),
+          rejectedReason().map(r -> "rejected, " + r).orElse("accepted"));
+    }
+  }
+
+  private final double threshold;
+
+  /**
+   * Creates a detector which accepts renames with at least the given confidence.
+   *
+   * @param threshold the minimum confidence, greater than 0 and at most 1
+   */
+  public RenameDetector(double threshold) {
+    Preconditions.checkArgument(
+        threshold > 0 && threshold <= 1, "Rename threshold must be greater than 0 and at most 1");
+    this.threshold = threshold;
+  }
+
+  /**
+   * Returns all candidate renames of tables and columns between the schemas, with the table renames
+   * first. Only candidates with a confidence above 0 are returned.
+   */
+  ImmutableList<RenameCandidate> detect(DatabaseDefinition originalDb, DatabaseDefinition newDb) {
+    MapDifference<String, ASTcreate_table_statement> tableDifferences =
+        Maps.difference(originalDb.tablesInCreationOrder(), newDb.tablesInCreationOrder());
+
+    List<RenameCandidate> tableCandidates = new ArrayList<>();
+    for (ASTcreate_table_statement oldTable : tableDifferences.entriesOnlyOnLeft().values()) {
+      for (ASTcreate_table_statement newTable : tableDifferences.entriesOnlyOnRight().values()) {
+        double confidence = tableConfidence(oldTable, newTable);
+        if (confidence > 0) {
+          RenameCandidate candidate =
+              RenameCandidate.create(
+                  Kind.TABLE,
+                  Optional.empty(),
+                  oldTable.getTableName(),
+                  newTable.getTableName(),
+                  confidence,
+                  Optional.empty());
+          if (!referencingTexts(originalDb, oldTable.getTableName()).isEmpty()
+              || !referencingTexts(newDb, newTable.getTableName()).isEmpty()) {
+            candidate = candidate.withRejectedReason("referenced by other schema objects");
+          }
+          tableCandidates.add(candidate);
+        }
+      }
+    }
+    ImmutableList<RenameCandidate> resolvedTables = resolve(tableCandidates);
+
+    ImmutableList.Builder<RenameCandidate> candidates = ImmutableList.builder();
+    candidates.addAll(resolvedTables);
+    for (MapDifference.ValueDifference<ASTcreate_table_statement> table :
+        tableDifferences.entriesDiffering().values()) {
+      candidates.addAll(detectColumns(originalDb, newDb, table.leftValue(), table.rightValue()));
+    }
+    for (RenameCandidate table : resolvedTables) {
+      if (table.accepted()) {
+        candidates.addAll(
+            detectColumns(
+                originalDb,
+                newDb,
+                originalDb.tablesInCreationOrder().get(Identifiers.canonical(table.oldName())),
+                newDb.tablesInCreationOrder().get(Identifiers.canonical(table.newName()))));
+      }
+    }
+    return candidates.build();
+  }
+
+  private ImmutableList<RenameCandidate> detectColumns(
+      DatabaseDefinition originalDb,
+      DatabaseDefinition newDb,
+      ASTcreate_table_statement oldTable,
+      ASTcreate_table_statement newTable) {
+    MapDifference<String, ASTcolumn_def> columnDifferences =
+        Maps.difference(
+            DdlDiff.columnsByCanonicalName(oldTable), DdlDiff.columnsByCanonicalName(newTable));
+    List<String> oldReferences = referencingTexts(originalDb, oldTable.getTableName());
+    addColumnReferences(originalDb, oldTable, oldReferences);
+    List<String> newReferences = referencingTexts(newDb, newTable.getTableName());
+    addColumnReferences(newDb, newTable, newReferences);
+
+    List<RenameCandidate> columnCandidates = new ArrayList<>();
+    for (ASTcolumn_def oldColumn : columnDifferences.entriesOnlyOnLeft().values()) {
+      for (ASTcolumn_def newColumn : columnDifferences.entriesOnlyOnRight().values()) {
+        double confidence = columnConfidence(oldColumn, newColumn);
+        if (confidence > 0) {
+          RenameCandidate candidate =
+              RenameCandidate.create(
+                  Kind.COLUMN,
+                  Optional.of(newTable.getTableName()),
+                  oldColumn.getColumnName(),
+                  newColumn.getColumnName(),
+                  confidence,
+                  Optional.empty());
+          if (mentions(oldReferences, oldColumn.getColumnName())
+              || mentions(newReferences, newColumn.getColumnName())) {
+            candidate = candidate.withRejectedReason("referenced by other schema objects");
+          }
+          columnCandidates.add(candidate);
+        }
+      }
+    }
+    return resolve(columnCandidates).stream()
+        .map(
+            candidate ->
+                candidate.accepted()
+                    ? candidate.withRejectedReason(COLUMN_RENAME_UNSUPPORTED)
+                    : candidate)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /** Accepts or rejects each candidate which was not already rejected. */
+  private ImmutableList<RenameCandidate> resolve(List<RenameCandidate> candidates) {
+    List<RenameCandidate> sorted = new ArrayList<>(candidates);
+    sorted.sort(Comparator.comparingDouble(RenameCandidate::confidence).reversed());
+
+    Set<String> usedOldNames = new HashSet<>();
+    Set<String> usedNewNames = new HashSet<>();
+    ImmutableList.Builder<RenameCandidate> resolved = ImmutableList.builder();
+    for (RenameCandidate candidate : sorted) {
+      if (!candidate.accepted()) {
+        resolved.add(candidate);
+      } else if (candidate.confidence() < threshold) {
+        resolved.add(
+            candidate.withRejectedReason(
+                String.format(Locale.ROOT, "below the threshold of %.2f", threshold)));
+      } else if (usedOldNames.contains(candidate.oldName())
+          || usedNewNames.contains(candidate.newName())) {
+        resolved.add(candidate.withRejectedReason("another match was accepted"));
+      } else if (sorted.stream().anyMatch(other -> isAmbiguousWith(candidate, other))) {
+        resolved.add(candidate.withRejectedReason("ambiguous"));
+      } else {
+        usedOldNames.add(candidate.oldName());
+        usedNewNames.add(candidate.newName());
+        resolved.add(candidate);
+      }
+    }
+    return resolved.build();
+  }
+
+  private static boolean isAmbiguousWith(RenameCandidate candidate, RenameCandidate other) {
+    return other != candidate
+        && other.accepted()
+        && other.confidence() == candidate.confidence()
+        && (other.oldName().equals(candidate.oldName())
+            || other.newName().equals(candidate.newName()));
+  }
+
+  private static double tableConfidence(
+      ASTcreate_table_statement oldTable, ASTcreate_table_statement newTable) {
+    if (!Identifiers.canonical(oldTable.getPrimaryKey().toString())
+            .equals(Identifiers.canonical(newTable.getPrimaryKey().toString()))
+        || !Objects.equals(parentTableName(oldTable), parentTableName(newTable))) {
+      return 0;
+    }
+    Set<String> oldColumns = columnDefinitions(oldTable);
+    Set<String> newColumns = columnDefinitions(newTable);
+    Set<String> allColumns = Sets.union(oldColumns, newColumns);
+    if (allColumns.isEmpty()) {
+      return 0;
+    }
+    return (double) Sets.intersection(oldColumns, newColumns).size() / allColumns.size();
+  }
+
+  private static Optional<String> parentTableName(ASTcreate_table_statement table) {
+    return table
+        .getInterleaveClause()
+        .map(ASTtable_interleave_clause::getParentTableName)
+        .map(Identifiers::canonical);
+  }
+
+  private static Set<String> columnDefinitions(ASTcreate_table_statement table) {
+    return table.getColumns().values().stream()
+        .map(ASTcolumn_def::toNormalizedString)
+        .collect(Collectors.toSet());
+  }
+
+  private static double columnConfidence(ASTcolumn_def oldColumn, ASTcolumn_def newColumn) {
+    if (!oldColumn.getColumnTypeString().equals(newColumn.getColumnTypeString())) {
+      return 0;
+    }
+    int matching = 1;
+    if (oldColumn.isNotNull() == newColumn.isNotNull()) {
+      matching++;
+    }
+    if (Objects.equals(oldColumn.getGenerationClause(), newColumn.getGenerationClause())) {
+      matching++;
+    }
+    if (Objects.equals(oldColumn.getColumnDefaultClause(), newColumn.getColumnDefaultClause())) {
+      matching++;
+    }
+    if (oldColumn.isHidden() == newColumn.isHidden()) {
+      matching++;
+    }
+    if (Objects.equals(
+        Objects.toString(oldColumn.getOptionsClause()),
+        Objects.toString(newColumn.getOptionsClause()))) {
+      matching++;
+    }
+    return matching / 6.0;
+  }
+
+  /**
+   * Returns the text of the schema objects which reference the table: its indexes, search indexes,
+   * vector indexes, constraints, change streams, views, interleaved child tables, and the foreign
+   * keys referencing it.
+   */
+  private static List<String> referencingTexts(DatabaseDefinition db, String name) {
+    String tableName = Identifiers.canonical(name);
+    List<String> texts = new ArrayList<>();
+    db.indexes().values().stream()
+        .filter(index -> Identifiers.canonical(index.getTableName()).equals(tableName))
+        .forEach(index -> texts.add(index.toString()));
+    db.searchIndexes().values().stream()
+        .filter(index -> Identifiers.canonical(index.getTableName()).equals(tableName))
+        .forEach(index -> texts.add(index.toString()));
+    db.vectorIndexes().values().stream()
+        .filter(index -> Identifiers.canonical(index.getTableName()).equals(tableName))
+        .forEach(index -> texts.add(index.toString()));
+    for (ConstraintWrapper constraint : db.constraints().values()) {
+      if (Identifiers.canonical(constraint.tableName()).equals(tableName)
+          || (constraint.constraint() instanceof ASTforeign_key
+              && Identifiers.canonical(
+                      ((ASTforeign_key) constraint.constraint()).getReferencedTableName())
+                  .equals(tableName))) {
+        texts.add(constraint.constraint().toString());
+      }
+    }
+    String tableKey = DdlStatementSorter.tableKey(tableName);
+    db.changeStreams().values().stream()
+        .filter(stream -> DdlStatementSorter.getDependencies(stream).contains(tableKey))
+        .forEach(stream -> texts.add(stream.toString()));
+    db.views().values().stream()
+        .filter(view -> DdlStatementSorter.getViewReferences(view).contains(tableName))
+        .forEach(view -> texts.add(view.toString()));
+    for (ASTcreate_table_statement table : db.tablesInCreationOrder().values()) {
+      if (parentTableName(table).filter(tableName::equals).isPresent()) {
+        texts.add(table.getInterleaveClause().get().toString());
+      }
+    }
+    return texts;
+  }
+
+  /**
+   * Adds the generation and default expressions of the table's columns, and its row deletion
+   * policy, to the texts.
+   */
+  private static void addColumnReferences(
+      DatabaseDefinition db, ASTcreate_table_statement table, List<String> texts) {
+    String tableName = Identifiers.canonical(table.getTableName());
+    if (db.ttls().containsKey(tableName)) {
+      texts.add(db.ttls().get(tableName).toString());
+    }
+    for (ASTcolumn_def column : table.getColumns().values()) {
+      if (column.getGenerationClause() != null) {
+        texts.add(column.getGenerationClause().toString());
+      }
+      if (column.getColumnDefaultClause() != null) {
+        texts.add(column.getColumnDefaultClause().toString());
+      }
+    }
+  }
+
+  private static boolean mentions(List<String> texts, String name) {
+    Pattern pattern =
+        Pattern.compile(
+            "(?<![\\w`])`?" + Pattern.quote(name) + "`?(?![\\w`])", Pattern.CASE_INSENSITIVE);
+    return texts.stream().anyMatch(text -> pattern.matcher(text).find());
+  }
+
+  /** Formats the candidates as a report, with one line for each candidate. */
+  public static String formatReport(List<RenameCandidate> candidates) {
+    StringBuilder report = new StringBuilder();
+    for (RenameCandidate candidate : candidates) {
+      report.append(candidate.toReportLine()).append('\n');
+    }
+    return report.toString();
+  }
+
+  /** Writes the candidates to the report file, formatted by {@link #formatReport}. */
+  static void writeReport(Path path, List<RenameCandidate> candidates) throws IOException {
+    Files.write(path, formatReport(candidates).getBytes(UTF_8));
+  }
+}
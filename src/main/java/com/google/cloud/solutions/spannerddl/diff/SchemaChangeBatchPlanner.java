@@ -0,0 +1,263 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Groups the statements generated by {@link DdlDiff#generateDifferenceStatements} into batches,
+ * where each batch can be submitted as a single {@code UpdateDatabaseDdl} long-running operation.
+ *
+ * <p>Spanner applies the statements of one operation in order, so splitting the ordered list into
+ * consecutive batches keeps every ordering dependency between the statements. Statements are never
+ * reordered. A new batch is started when adding the next statement to the current batch would:
+ *
+ * <ul>
+ *   <li>exceed the maximum number of statements in a batch,
+ *   <li>exceed the maximum number of index backfills in a batch, or
+ *   <li>re-create an index, search index, change stream, constraint or table which was dropped
+ *       earlier in the same batch.
+ * </ul>
+ *
+ * <p>Filling each batch as far as these limits allow gives the fewest batches for the ordered list.
+ *
+ * <p>A statement needs an index backfill when it creates an index, search index or foreign key
+ * (which has a backing index) on a table that already exists, or adds a stored column to an index
+ * or a column to a search index. Indexes and foreign keys on tables created earlier in the same
+ * plan do not need a backfill, as those tables are empty.
+ *
+ * <p>The statements are classified by their text, as generated by this tool, rather than by being
+ * parsed again.
+ */
+public final class SchemaChangeBatchPlanner {
+
+  public static final int DEFAULT_MAX_STATEMENTS_PER_BATCH = 100;
+  public static final int DEFAULT_MAX_BACKFILLS_PER_BATCH = 10;
+
+  private static final int FLAGS = Pattern.CASE_INSENSITIVE;
+  static final Pattern CREATE_TABLE =
+      Pattern.compile("^CREATE TABLE (?:IF NOT EXISTS )?([^\\s(]+)", FLAGS);
+  static final Pattern CREATE_INDEX =
+      Pattern.compile(
+          "^CREATE (?:UNIQUE )?(?:NULL_FILTERED )?INDEX (?:IF NOT EXISTS )?(\\S+) ON ([^\\s(]+)",
+          FLAGS);
+  static final Pattern CREATE_SEARCH_INDEX =
+      Pattern.compile("^CREATE SEARCH INDEX (\\S+) ON ([^\\s(]+)", FLAGS);
+  static final Pattern CREATE_VECTOR_INDEX =
+      Pattern.compile("^CREATE VECTOR INDEX (?:IF NOT EXISTS )?(\\S+) ON ([^\\s(]+)", FLAGS);
+  private static final Pattern CREATE_CHANGE_STREAM =
+      Pattern.compile("^CREATE CHANGE STREAM (\\S+)", FLAGS);
+  static final Pattern ADD_CONSTRAINT =
+      Pattern.compile("^ALTER TABLE (\\S+) ADD CONSTRAINT (\\S+) (FOREIGN KEY|CHECK)", FLAGS);
+  static final Pattern ALTER_INDEX_ADD_COLUMN =
+      Pattern.compile("^ALTER (SEARCH |VECTOR )?INDEX (\\S+) ADD (?:STORED )?COLUMN ", FLAGS);
+  private static final Pattern DROP_OBJECT =
+      Pattern.compile("^DROP (INDEX|SEARCH INDEX|VECTOR INDEX|CHANGE STREAM|TABLE) (\\S+)", FLAGS);
+  private static final Pattern DROP_CONSTRAINT =
+      Pattern.compile("^ALTER TABLE \\S+ DROP CONSTRAINT (\\S+)", FLAGS);
+
+  /** A batch of statements to submit in one {@code UpdateDatabaseDdl} operation. */
+  @AutoValue
+  public abstract static class Batch {
+
+    static Batch create(List<String> statements, int indexBackfills) {
+      return new AutoValue_SchemaChangeBatchPlanner_Batch(
+          ImmutableList.copyOf(statements), indexBackfills);
+    }
+
+    public abstract ImmutableList<String> statements();
+
+    /** The number of statements in this batch which need an index backfill. */
+    public abstract int indexBackfills();
+  }
+
+  private final int maxStatementsPerBatch;
+  private final int maxBackfillsPerBatch;
+
+  /** Creates a planner with the default limits. */
+  public SchemaChangeBatchPlanner() {
+    this(DEFAULT_MAX_STATEMENTS_PER_BATCH, DEFAULT_MAX_BACKFILLS_PER_BATCH);
+  }
+
+  /**
+   * Creates a planner with the given limits.
+   *
+   * @param maxStatementsPerBatch maximum number of statements in one batch
+   * @param maxBackfillsPerBatch maximum number of statements needing an index backfill in one batch
+   */
+  public SchemaChangeBatchPlanner(int maxStatementsPerBatch, int maxBackfillsPerBatch) {
+    Preconditions.checkArgument(
+        maxStatementsPerBatch > 0, "maxStatementsPerBatch must be positive");
+    Preconditions.checkArgument(maxBackfillsPerBatch > 0, "maxBackfillsPerBatch must be positive");
+    this.maxStatementsPerBatch = maxStatementsPerBatch;
+    this.maxBackfillsPerBatch = maxBackfillsPerBatch;
+  }
+
+  /** Splits the statements, in order, into the fewest batches within the limits. */
+  public ImmutableList<Batch> plan(List<String> statements) {
+    ImmutableList.Builder<Batch> batches = ImmutableList.builder();
+    Set<String> createdTables = new HashSet<>();
+    List<String> batch = new ArrayList<>();
+    Set<String> droppedInBatch = new HashSet<>();
+    int backfillsInBatch = 0;
+
+    for (String statement : statements) {
+      boolean backfill = needsIndexBackfill(statement, createdTables);
+      String created = getCreatedObject(statement);
+      if (!batch.isEmpty()
+          && (batch.size() == maxStatementsPerBatch
+              || (backfill && backfillsInBatch == maxBackfillsPerBatch)
+              || (created != null && droppedInBatch.contains(created)))) {
+        batches.add(Batch.create(batch, backfillsInBatch));
+        batch.clear();
+        droppedInBatch.clear();
+        backfillsInBatch = 0;
+      }
+      batch.add(statement);
+      if (backfill) {
+        backfillsInBatch++;
+      }
+      String dropped = getDroppedObject(statement);
+      if (dropped != null) {
+        droppedInBatch.add(dropped);
+      }
+      Matcher createTable = CREATE_TABLE.matcher(statement);
+      if (createTable.find()) {
+        createdTables.add(Identifiers.canonical(createTable.group(1)));
+      }
+    }
+    if (!batch.isEmpty()) {
+      batches.add(Batch.create(batch, backfillsInBatch));
+    }
+    return batches.build();
+  }
+
+  /**
+   * Returns true if the statement builds an index over the existing rows of a table which was not
+   * created earlier in the plan.
+   */
+  private static boolean needsIndexBackfill(String statement, Set<String> createdTables) {
+    Matcher matcher = CREATE_INDEX.matcher(statement);
+    if (matcher.find()) {
+      return !createdTables.contains(Identifiers.canonical(matcher.group(2)));
+    }
+    matcher = CREATE_SEARCH_INDEX.matcher(statement);
+    if (matcher.find()) {
+      return !createdTables.contains(Identifiers.canonical(matcher.group(2)));
+    }
+    matcher = CREATE_VECTOR_INDEX.matcher(statement);
+    if (matcher.find()) {
+      return !createdTables.contains(Identifiers.canonical(matcher.group(2)));
+    }
+    matcher = ADD_CONSTRAINT.matcher(statement);
+    if (matcher.find() && matcher.group(3).equalsIgnoreCase("FOREIGN KEY")) {
+      return !createdTables.contains(Identifiers.canonical(matcher.group(1)));
+    }
+    return ALTER_INDEX_ADD_COLUMN.matcher(statement).find();
+  }
+
+  /** Returns the kind and name of the object the statement creates, or null. */
+  private static String getCreatedObject(String statement) {
+    Matcher matcher = CREATE_TABLE.matcher(statement);
+    if (matcher.find()) {
+      return objectKey("TABLE", matcher.group(1));
+    }
+    matcher = CREATE_INDEX.matcher(statement);
+    if (matcher.find()) {
+      return objectKey("INDEX", matcher.group(1));
+    }
+    matcher = CREATE_SEARCH_INDEX.matcher(statement);
+    if (matcher.find()) {
+      return objectKey("SEARCH INDEX", matcher.group(1));
+    }
+    matcher = CREATE_VECTOR_INDEX.matcher(statement);
+    if (matcher.find()) {
+      return objectKey("VECTOR INDEX", matcher.group(1));
+    }
+    matcher = CREATE_CHANGE_STREAM.matcher(statement);
+    if (matcher.find()) {
+      return objectKey("CHANGE STREAM", matcher.group(1));
+    }
+    matcher = ADD_CONSTRAINT.matcher(statement);
+    if (matcher.find()) {
+      return objectKey("CONSTRAINT", matcher.group(2));
+    }
+    return null;
+  }
+
+  /** Returns the kind and name of the object the statement drops, or null. */
+  private static String getDroppedObject(String statement) {
+    Matcher matcher = DROP_OBJECT.matcher(statement);
+    if (matcher.find()) {
+      return objectKey(matcher.group(1), matcher.group(2));
+    }
+    matcher = DROP_CONSTRAINT.matcher(statement);
+    if (matcher.find()) {
+      return objectKey("CONSTRAINT", matcher.group(1));
+    }
+    return null;
+  }
+
+  private static String objectKey(String kind, String name) {
+    return kind.toUpperCase(Locale.ROOT) + " " + Identifiers.canonical(name);
+  }
+
+  /**
+   * Formats the batches as a DDL file, where each batch is preceded by a comment line giving its
+   * number, the number of statements and the number of index backfills. The file can be read as a
+   * single DDL file by this tool, as the comments are ignored.
+   */
+  public static String formatPlan(List<Batch> batches) {
+    StringBuilder output = new StringBuilder();
+    for (int i = 0; i < batches.size(); i++) {
+      Batch batch = batches.get(i);
+      output
+          .append("-- Batch ")
+          .append(i + 1)
+          .append(" of ")
+          .append(batches.size())
+          .append(": ")
+          .append(batch.statements().size())
+          .append(batch.statements().size() == 1 ? " statement, " : " statements, ")
+          .append(batch.indexBackfills())
+          .append(batch.indexBackfills() == 1 ? " index backfill\n\n" : " index backfills\n\n");
+      for (String statement : batch.statements()) {
+        output.append(statement).append(";\n\n");
+      }
+    }
+    return output.toString();
+  }
+
+  /** Writes the batches to the plan file, formatted by {@link #formatPlan}. */
+  static void writePlan(Path path, List<Batch> batches) throws IOException {
+    Files.write(path, formatPlan(batches).getBytes(UTF_8));
+  }
+}
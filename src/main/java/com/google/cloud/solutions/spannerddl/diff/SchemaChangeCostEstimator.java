@@ -0,0 +1,339 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.auto.value.AutoValue;
+import com.google.cloud.solutions.spannerddl.parser.ASTcolumn_def;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_table_statement;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Estimates the cost of applying each of the statements generated by {@link
+ * DdlDiff#generateDifferenceStatements}, using the number of rows in each table.
+ *
+ * <p>Each statement is given one of the {@link CostClass cost classes}:
+ *
+ * <ul>
+ *   <li>{@link CostClass#BACKFILL} when it creates an index, search index or foreign key (which has
+ *       a backing index) on an existing table, or adds a column to an existing index or search
+ *       index.
+ *   <li>{@link CostClass#VALIDATION} when it adds a check constraint to an existing table, makes an
+ *       existing column {@code NOT NULL}, or reduces the maximum length of an existing {@code
+ *       STRING} or {@code BYTES} column.
+ *   <li>{@link CostClass#METADATA} for all other statements, such as adding a nullable column,
+ *       changing options, or creating a table.
+ * </ul>
+ *
+ * <p>The estimated work of a backfill or validation is the number of rows in the table which has to
+ * be read. Tables created earlier in the same list of statements are empty, so statements on them
+ * are metadata changes.
+ *
+ * <p>As with {@link SchemaChangeBatchPlanner}, the statements are classified by their text rather
+ * than by being parsed again.
+ */
+public final class SchemaChangeCostEstimator {
+
+  private static final int FLAGS = Pattern.CASE_INSENSITIVE;
+  private static final Pattern ALTER_COLUMN_TYPE =
+      Pattern.compile(
+          "^ALTER TABLE (\\S+) ALTER COLUMN (\\S+) (?!SET |DROP )(\\S+)( NOT NULL)?$", FLAGS);
+  private static final Pattern TYPE_LENGTH = Pattern.compile("\\((\\d+|MAX)\\)", FLAGS);
+
+  /** The kind of work needed to apply a statement. */
+  public enum CostClass {
+    /** Only the schema is changed, without reading the existing rows. */
+    METADATA,
+    /** The existing rows are read to check that they are valid for the new schema. */
+    VALIDATION,
+    /** The existing rows are read to build or extend an index. */
+    BACKFILL
+  }
+
+  /** The estimated cost of a single statement. */
+  @AutoValue
+  public abstract static class Cost {
+
+    static Cost create(CostClass costClass, Optional<String> table, Optional<Long> estimatedRows) {
+      return new AutoValue_SchemaChangeCostEstimator_Cost(costClass, table, estimatedRows);
+    }
+
+    static Cost metadata() {
+      return create(CostClass.METADATA, Optional.empty(), Optional.of(0L));
+    }
+
+    public abstract CostClass costClass();
+
+    /** The table whose rows are read, unless this is a metadata change. */
+    public abstract Optional<String> table();
+
+    /**
+     * The estimated number of rows read, or empty if the table is not in the table sizes. Always 0
+     * for a metadata change.
+     */
+    public abstract Optional<Long> estimatedRows();
+
+    /** Returns the cost as a comment line, for annotating the statement in a DDL file. */
+    public String toComment() {
+      StringBuilder comment = new StringBuilder("-- Cost: ").append(costClass());
+      if (costClass() != CostClass.METADATA) {
+        comment.append(", table ").append(table().get()).append(", estimated rows: ");
+        comment.append(estimatedRows().map(String::valueOf).orElse("unknown"));
+      }
+      return comment.toString();
+    }
+  }
+
+  private final DatabaseDefinition originalDb;
+  private final DatabaseDefinition newDb;
+  private final ImmutableMap<String, Long> tableRows;
+
+  /**
+   * Creates an estimator for the statements generated by a diff.
+   *
+   * @param originalDb the original schema
+   * @param newDb the new schema
+   * @param tableRows the number of rows in each table, keyed by table name
+   */
+  SchemaChangeCostEstimator(
+      DatabaseDefinition originalDb, DatabaseDefinition newDb, Map<String, Long> tableRows) {
+    this.originalDb = originalDb;
+    this.newDb = newDb;
+    ImmutableMap.Builder<String, Long> normalizedRows = ImmutableMap.builder();
+    tableRows.forEach((table, rows) -> normalizedRows.put(Identifiers.canonical(table), rows));
+    this.tableRows = normalizedRows.buildKeepingLast();
+  }
+
+  /** Returns the estimated cost of each statement, in the same order as the statements. */
+  public ImmutableList<Cost> estimate(List<String> statements) {
+    Map<String, String> indexTables = new HashMap<>();
+    addIndexTables(originalDb, indexTables);
+    addIndexTables(newDb, indexTables);
+
+    ImmutableList.Builder<Cost> costs = ImmutableList.builder();
+    Set<String> createdTables = new HashSet<>();
+    for (String statement : statements) {
+      costs.add(estimate(statement, createdTables, indexTables));
+      Matcher createTable = SchemaChangeBatchPlanner.CREATE_TABLE.matcher(statement);
+      if (createTable.find()) {
+        createdTables.add(Identifiers.canonical(createTable.group(1)));
+      }
+    }
+    return costs.build();
+  }
+
+  private Cost estimate(
+      String statement, Set<String> createdTables, Map<String, String> indexTables) {
+    Matcher matcher = SchemaChangeBatchPlanner.CREATE_INDEX.matcher(statement);
+    if (matcher.find()) {
+      return tableCost(CostClass.BACKFILL, matcher.group(2), createdTables);
+    }
+    matcher = SchemaChangeBatchPlanner.CREATE_SEARCH_INDEX.matcher(statement);
+    if (matcher.find()) {
+      return tableCost(CostClass.BACKFILL, matcher.group(2), createdTables);
+    }
+    matcher = SchemaChangeBatchPlanner.CREATE_VECTOR_INDEX.matcher(statement);
+    if (matcher.find()) {
+      return tableCost(CostClass.BACKFILL, matcher.group(2), createdTables);
+    }
+    matcher = SchemaChangeBatchPlanner.ADD_CONSTRAINT.matcher(statement);
+    if (matcher.find()) {
+      return tableCost(
+          matcher.group(3).equalsIgnoreCase("CHECK") ? CostClass.VALIDATION : CostClass.BACKFILL,
+          matcher.group(1),
+          createdTables);
+    }
+    matcher = SchemaChangeBatchPlanner.ALTER_INDEX_ADD_COLUMN.matcher(statement);
+    if (matcher.find()) {
+      String table = indexTables.get(indexKey(matcher.group(1), matcher.group(2)));
+      return table == null
+          ? Cost.create(CostClass.BACKFILL, Optional.of(matcher.group(2)), Optional.empty())
+          : tableCost(CostClass.BACKFILL, table, createdTables);
+    }
+    matcher = ALTER_COLUMN_TYPE.matcher(statement);
+    if (matcher.find() && needsValidation(matcher)) {
+      return tableCost(CostClass.VALIDATION, matcher.group(1), createdTables);
+    }
+    return Cost.metadata();
+  }
+
+  /**
+   * Returns true if an {@code ALTER COLUMN} statement adds {@code NOT NULL} to the column, or
+   * reduces its maximum length.
+   */
+  private boolean needsValidation(Matcher alterColumn) {
+    ASTcolumn_def column = findOriginalColumn(alterColumn.group(1), alterColumn.group(2));
+    if (column == null) {
+      return false;
+    }
+    if (alterColumn.group(4) != null && !column.isNotNull()) {
+      return true;
+    }
+    return maxLength(alterColumn.group(3)) < maxLength(column.getColumnTypeString());
+  }
+
+  private ASTcolumn_def findOriginalColumn(String tableName, String columnName) {
+    ASTcreate_table_statement table =
+        originalDb.tablesInCreationOrder().get(Identifiers.canonical(tableName));
+    return table == null
+        ? null
+        : DdlDiff.columnsByCanonicalName(table).get(Identifiers.canonical(columnName));
+  }
+
+  /** Returns the maximum length of a {@code STRING} or {@code BYTES} type, or of its elements. */
+  private static long maxLength(String type) {
+    Matcher matcher = TYPE_LENGTH.matcher(type);
+    if (!matcher.find() || matcher.group(1).equalsIgnoreCase("MAX")) {
+      return Long.MAX_VALUE;
+    }
+    return Long.parseLong(matcher.group(1));
+  }
+
+  private Cost tableCost(CostClass costClass, String table, Set<String> createdTables) {
+    String normalizedTable = Identifiers.canonical(table);
+    if (createdTables.contains(normalizedTable)) {
+      return Cost.metadata();
+    }
+    return Cost.create(
+        costClass, Optional.of(table), Optional.ofNullable(tableRows.get(normalizedTable)));
+  }
+
+  private static void addIndexTables(DatabaseDefinition db, Map<String, String> indexTables) {
+    db.indexes()
+        .forEach((name, index) -> indexTables.put(indexKey(null, name), index.getTableName()));
+    db.searchIndexes()
+        .forEach((name, index) -> indexTables.put(indexKey("SEARCH ", name), index.getTableName()));
+    db.vectorIndexes()
+        .forEach((name, index) -> indexTables.put(indexKey("VECTOR ", name), index.getTableName()));
+  }
+
+  /**
+   * Returns the key of an index in the map of index tables.
+   *
+   * @param kind {@code SEARCH } or {@code VECTOR } for those kinds of index, or null
+   */
+  private static String indexKey(@Nullable String kind, String name) {
+    return (kind == null ? "" : kind.toUpperCase(Locale.ROOT))
+        + "INDEX "
+        + Identifiers.canonical(name);
+  }
+
+  /**
+   * Returns the total estimated number of rows read by the statements which are not metadata
+   * changes.
+   *
+   * @throws DdlDiffException if the number of rows in a table which needs to be read is not known
+   */
+  public static long totalEstimatedRows(List<Cost> costs) throws DdlDiffException {
+    long total = 0;
+    for (Cost cost : costs) {
+      if (!cost.estimatedRows().isPresent()) {
+        throw new DdlDiffException(
+            "No table size given for table "
+                + cost.table().get()
+                + ", which needs a "
+                + cost.costClass()
+                + " of its rows");
+      }
+      total += cost.estimatedRows().get();
+    }
+    return total;
+  }
+
+  /**
+   * Checks that the total estimated number of rows read by backfills and validations is within the
+   * budget.
+   *
+   * @throws DdlDiffException if the total exceeds the budget, or is not known
+   */
+  public static void checkBudget(List<Cost> costs, long maxEstimatedRows) throws DdlDiffException {
+    long total = totalEstimatedRows(costs);
+    if (total > maxEstimatedRows) {
+      throw new DdlDiffException(
+          "Estimated backfill and validation of "
+              + total
+              + " rows exceeds the budget of "
+              + maxEstimatedRows
+              + " rows");
+    }
+  }
+
+  /**
+   * Reads the number of rows in each table from a file. Each line has a table name and a number of
+   * rows, separated by a comma. Empty lines and lines starting with {@code #} are ignored.
+   *
+   * @throws DdlDiffException if a line is not valid
+   */
+  public static ImmutableMap<String, Long> readTableSizes(Path path)
+      throws IOException, DdlDiffException {
+    ImmutableMap.Builder<String, Long> tableRows = ImmutableMap.builder();
+    List<String> lines = Files.readAllLines(path, UTF_8);
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i).trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] fields = line.split(",", -1);
+      try {
+        Preconditions.checkArgument(fields.length == 2 && !fields[0].trim().isEmpty());
+        long rows = Long.parseLong(fields[1].trim());
+        Preconditions.checkArgument(rows >= 0);
+        tableRows.put(fields[0].trim(), rows);
+      } catch (IllegalArgumentException e) {
+        throw new DdlDiffException(
+            "Invalid line "
+                + (i + 1)
+                + " in table sizes file "
+                + path
+                + ", expected <table>,<rows>: "
+                + line,
+            e);
+      }
+    }
+    return tableRows.buildKeepingLast();
+  }
+
+  /**
+   * Formats the statements as a DDL file, where each statement is preceded by a comment line with
+   * its cost. The file can be read as a DDL file by this tool, as the comments are ignored.
+   */
+  public static String formatAnnotated(List<String> statements, List<Cost> costs) {
+    Preconditions.checkArgument(statements.size() == costs.size());
+    StringBuilder output = new StringBuilder();
+    for (int i = 0; i < statements.size(); i++) {
+      output.append(costs.get(i).toComment()).append('\n');
+      output.append(statements.get(i)).append(";\n\n");
+    }
+    return output.toString();
+  }
+}
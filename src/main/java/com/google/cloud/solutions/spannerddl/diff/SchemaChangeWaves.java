@@ -0,0 +1,302 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.cloud.solutions.spannerddl.parser.ASTforeign_key;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sorts the statements generated by {@link DdlDiff#generateDifferenceStatements} into waves, where
+ * the statements in each wave only depend on statements in earlier waves, so the statements of one
+ * wave can be applied in any order, or concurrently.
+ *
+ * <p>Each statement changes one schema object: a table, index, search index, change stream,
+ * constraint, locality group, named schema, sequence, view, or the database options. Renaming a
+ * table changes the table under both its old and its new name. Each object depends on other
+ * objects, in either the original or the new schema:
+ *
+ * <ul>
+ *   <li>Tables depend on their interleave parent, the tables referenced by their foreign keys,
+ *       their named schema, their locality group and the sequences used by their column defaults.
+ *   <li>Indexes and search indexes depend on their table and any table they are interleaved in.
+ *   <li>Constraints depend on their table and, for foreign keys, the referenced table.
+ *   <li>Change streams depend on the tables they track.
+ *   <li>Sequences depend on their named schema.
+ *   <li>Views depend on the tables and views named in their query.
+ * </ul>
+ *
+ * <p>Two statements conflict when they change the same object, or when one changes an object which
+ * the other's object depends on. The generated statements are already in a valid order, so each
+ * statement is placed in the wave after the last earlier statement it conflicts with. Statements
+ * which do not conflict, such as changes to unrelated tables, end up in the same wave. A statement
+ * whose object cannot be determined conflicts with every other statement.
+ */
+final class SchemaChangeWaves {
+
+  private static final String DATABASE_KEY = "DATABASE";
+
+  private static final int FLAGS = Pattern.CASE_INSENSITIVE;
+  private static final Pattern ALTER_DATABASE = Pattern.compile("^ALTER DATABASE ", FLAGS);
+  private static final Pattern RENAME_TABLE =
+      Pattern.compile("^ALTER TABLE (\\S+) RENAME TO (\\S+)$", FLAGS);
+  private static final Pattern CONSTRAINT =
+      Pattern.compile("^ALTER TABLE \\S+ (?:ADD|DROP) CONSTRAINT (\\S+)", FLAGS);
+  private static final Pattern SCHEMA_OBJECT =
+      Pattern.compile(
+          "^(?:CREATE (?:OR REPLACE )?(?:UNIQUE )?(?:NULL_FILTERED )?|DROP |ALTER )"
+              + "(TABLE|INDEX|SEARCH INDEX|VECTOR INDEX|CHANGE STREAM|LOCALITY GROUP|SCHEMA"
+              + "|SEQUENCE|VIEW) "
+              + "(?:IF (?:NOT )?EXISTS )?([^\\s(]+)",
+          FLAGS);
+
+  private SchemaChangeWaves() {}
+
+  /**
+   * Returns the statements sorted into waves, keeping the relative order of the statements within
+   * each wave.
+   *
+   * @param statements the difference statements, in an order in which they can be applied
+   * @param originalDb the original schema
+   * @param newDb the new schema
+   */
+  static ImmutableList<ImmutableList<String>> sortIntoWaves(
+      List<String> statements, DatabaseDefinition originalDb, DatabaseDefinition newDb) {
+    Map<String, Set<String>> dependencies = new HashMap<>();
+    addDependencies(originalDb, dependencies);
+    addDependencies(newDb, dependencies);
+
+    // The last wave containing a statement changing each object, or depending on each object.
+    Map<String, Integer> lastChanged = new HashMap<>();
+    Map<String, Integer> lastDependedOn = new HashMap<>();
+    // Every statement must come after the last statement whose object is not known.
+    int lastUnknown = -1;
+    List<List<String>> waves = new ArrayList<>();
+
+    for (String statement : statements) {
+      List<String> objects = getChangedObjects(statement);
+      int wave;
+      if (objects.isEmpty()) {
+        wave = waves.size();
+        lastUnknown = wave;
+      } else {
+        wave = lastUnknown + 1;
+        for (String object : objects) {
+          wave = Math.max(wave, lastChanged.getOrDefault(object, -1) + 1);
+          wave = Math.max(wave, lastDependedOn.getOrDefault(object, -1) + 1);
+          for (String dependency : dependencies.getOrDefault(object, Collections.emptySet())) {
+            wave = Math.max(wave, lastChanged.getOrDefault(dependency, -1) + 1);
+          }
+        }
+        for (String object : objects) {
+          lastChanged.merge(object, wave, Math::max);
+          for (String dependency : dependencies.getOrDefault(object, Collections.emptySet())) {
+            lastDependedOn.merge(dependency, wave, Math::max);
+          }
+        }
+      }
+      if (wave == waves.size()) {
+        waves.add(new ArrayList<>());
+      }
+      waves.get(wave).add(statement);
+    }
+
+    ImmutableList.Builder<ImmutableList<String>> result = ImmutableList.builder();
+    for (List<String> wave : waves) {
+      result.add(ImmutableList.copyOf(wave));
+    }
+    return result.build();
+  }
+
+  /** Adds the dependencies of each object in the schema to the map. */
+  private static void addDependencies(
+      DatabaseDefinition db, Map<String, Set<String>> dependencies) {
+    db.tablesInCreationOrder()
+        .forEach(
+            (name, table) -> {
+              Set<String> tableDependencies = DdlStatementSorter.getDependencies(table);
+              tableDependencies.remove(DdlStatementSorter.tableKey(name));
+              add(dependencies, DdlStatementSorter.tableKey(name), tableDependencies);
+            });
+    db.indexes()
+        .forEach(
+            (name, index) ->
+                add(dependencies, indexKey(name), DdlStatementSorter.getDependencies(index)));
+    db.searchIndexes()
+        .forEach(
+            (name, index) ->
+                add(dependencies, searchIndexKey(name), DdlStatementSorter.getDependencies(index)));
+    db.vectorIndexes()
+        .forEach(
+            (name, index) ->
+                add(dependencies, vectorIndexKey(name), DdlStatementSorter.getDependencies(index)));
+    db.changeStreams()
+        .forEach(
+            (name, changeStream) ->
+                add(
+                    dependencies,
+                    changeStreamKey(name),
+                    DdlStatementSorter.getDependencies(changeStream)));
+    db.sequences()
+        .forEach(
+            (name, sequence) ->
+                add(
+                    dependencies,
+                    DdlStatementSorter.sequenceKey(name),
+                    DdlStatementSorter.getDependencies(sequence)));
+    db.views()
+        .forEach(
+            (name, view) ->
+                add(
+                    dependencies,
+                    DdlStatementSorter.viewKey(name),
+                    DdlStatementSorter.getDependencies(view)));
+    db.constraints()
+        .forEach(
+            (name, constraint) -> {
+              Set<String> constraintDependencies = new LinkedHashSet<>();
+              DdlStatementSorter.addTableDependency(constraintDependencies, constraint.tableName());
+              if (constraint.constraint() instanceof ASTforeign_key) {
+                DdlStatementSorter.addTableDependency(
+                    constraintDependencies,
+                    ((ASTforeign_key) constraint.constraint()).getReferencedTableName());
+              }
+              add(dependencies, constraintKey(name), constraintDependencies);
+            });
+  }
+
+  private static void add(
+      Map<String, Set<String>> dependencies, String object, Set<String> objectDependencies) {
+    dependencies.computeIfAbsent(object, k -> new LinkedHashSet<>()).addAll(objectDependencies);
+  }
+
+  /**
+   * Returns the keys of the objects changed by the statement, which are the old and new names of a
+   * renamed table, or empty if they are not known.
+   */
+  static ImmutableList<String> getChangedObjects(String statement) {
+    Matcher matcher = RENAME_TABLE.matcher(statement);
+    if (matcher.find()) {
+      return ImmutableList.of(
+          DdlStatementSorter.tableKey(matcher.group(1)),
+          DdlStatementSorter.tableKey(matcher.group(2)));
+    }
+    String object = getChangedObject(statement);
+    return object == null ? ImmutableList.of() : ImmutableList.of(object);
+  }
+
+  /** Returns the key of the one object changed by the statement, or null if it is not known. */
+  private static String getChangedObject(String statement) {
+    if (ALTER_DATABASE.matcher(statement).find()) {
+      return DATABASE_KEY;
+    }
+    Matcher matcher = CONSTRAINT.matcher(statement);
+    if (matcher.find()) {
+      return constraintKey(matcher.group(1));
+    }
+    matcher = SCHEMA_OBJECT.matcher(statement);
+    if (!matcher.find()) {
+      return null;
+    }
+    String name = matcher.group(2);
+    switch (matcher.group(1).toUpperCase(Locale.ROOT)) {
+      case "TABLE":
+        return DdlStatementSorter.tableKey(name);
+      case "INDEX":
+        return indexKey(name);
+      case "SEARCH INDEX":
+        return searchIndexKey(name);
+      case "VECTOR INDEX":
+        return vectorIndexKey(name);
+      case "CHANGE STREAM":
+        return changeStreamKey(name);
+      case "LOCALITY GROUP":
+        return DdlStatementSorter.localityGroupKey(name);
+      case "SCHEMA":
+        return DdlStatementSorter.schemaKey(name);
+      case "SEQUENCE":
+        return DdlStatementSorter.sequenceKey(name);
+      case "VIEW":
+        return DdlStatementSorter.viewKey(name);
+      default:
+        return null;
+    }
+  }
+
+  private static String indexKey(String name) {
+    return "INDEX:" + Identifiers.canonical(name);
+  }
+
+  private static String searchIndexKey(String name) {
+    return "SEARCH_INDEX:" + Identifiers.canonical(name);
+  }
+
+  private static String vectorIndexKey(String name) {
+    return "VECTOR_INDEX:" + Identifiers.canonical(name);
+  }
+
+  private static String changeStreamKey(String name) {
+    return "CHANGE_STREAM:" + Identifiers.canonical(name);
+  }
+
+  private static String constraintKey(String name) {
+    return "CONSTRAINT:" + Identifiers.canonical(name);
+  }
+
+  /**
+   * Formats the waves as a DDL file, where each wave is preceded by a comment line giving its
+   * number and the number of statements. The file can be read as a single DDL file by this tool, as
+   * the comments are ignored.
+   */
+  static String formatWaves(List<? extends List<String>> waves) {
+    StringBuilder output = new StringBuilder();
+    for (int i = 0; i < waves.size(); i++) {
+      List<String> wave = waves.get(i);
+      output
+          .append("-- Wave ")
+          .append(i + 1)
+          .append(" of ")
+          .append(waves.size())
+          .append(": ")
+          .append(wave.size())
+          .append(wave.size() == 1 ? " statement\n\n" : " statements\n\n");
+      for (String statement : wave) {
+        output.append(statement).append(";\n\n");
+      }
+    }
+    return output.toString();
+  }
+
+  /** Writes the waves to the file, formatted by {@link #formatWaves}. */
+  static void writeWaves(Path path, List<? extends List<String>> waves) throws IOException {
+    Files.write(path, formatWaves(waves).getBytes(UTF_8));
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import com.google.auto.value.AutoValue;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_vector_index_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTkey_part;
+import com.google.cloud.solutions.spannerddl.parser.ASToption_key_val;
+import com.google.cloud.solutions.spannerddl.parser.ASToptions_clause;
+import com.google.common.base.Equivalence;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * The parts of a vector index definition which affect the index that Spanner builds, normalized so
+ * that vector indexes which are only written differently compare as equal.
+ *
+ * <p>The parts are split into those which need the index to be rebuilt when they change - the
+ * table, key, partitioning, filter, distance type and tree structure - and those which can be
+ * changed in place with {@code ALTER VECTOR INDEX}: the stored columns and the other options.
+ */
+@AutoValue
+abstract class VectorIndexSemanticKey {
+
+  /** Options which define the distance type and the tree structure of the index. */
+  static final ImmutableSet<String> REBUILD_OPTIONS =
+      ImmutableSet.of("distance_type", "tree_depth", "num_leaves", "num_branches");
+
+  /** Compares vector indexes by their semantic key, rather than by their DDL text. */
+  static final Equivalence<ASTcreate_vector_index_statement> EQUIVALENCE =
+      new Equivalence<ASTcreate_vector_index_statement>() {
+        @Override
+        protected boolean doEquivalent(
+            ASTcreate_vector_index_statement a, ASTcreate_vector_index_statement b) {
+          return of(a).equals(of(b));
+        }
+
+        @Override
+        protected int doHash(ASTcreate_vector_index_statement index) {
+          return of(index).hashCode();
+        }
+      };
+
+  abstract String tableName();
+
+  /** The key column, followed by its sort direction. */
+  abstract String keyPart();
+
+  abstract ImmutableList<String> partitionKeyParts();
+
+  /** The columns which the index filters out NULL values of. */
+  abstract ImmutableSet<String> notNullColumns();
+
+  abstract ImmutableMap<String, String> rebuildOptions();
+
+  abstract ImmutableMap<String, String> alterableOptions();
+
+  abstract ImmutableSet<String> storedColumns();
+
+  static VectorIndexSemanticKey of(ASTcreate_vector_index_statement index) {
+    ImmutableList.Builder<String> partitionKeyParts = ImmutableList.builder();
+    for (ASTkey_part keyPart : index.getPartitionKeyParts()) {
+      partitionKeyParts.add(canonical(keyPart));
+    }
+    ImmutableSet.Builder<String> notNullColumns = ImmutableSet.builder();
+    for (String column : index.getNotNullColumnNames()) {
+      notNullColumns.add(Identifiers.canonical(column));
+    }
+    ImmutableMap.Builder<String, String> rebuildOptions = ImmutableMap.builder();
+    ImmutableMap.Builder<String, String> alterableOptions = ImmutableMap.builder();
+    ASToptions_clause optionsClause = index.getOptions();
+    if (optionsClause != null) {
+      for (ASToption_key_val option :
+          AstTreeUtils.getChildrenAssertType(optionsClause, ASToption_key_val.class)) {
+        String key = Identifiers.canonical(option.getKey());
+        if (REBUILD_OPTIONS.contains(key)) {
+          rebuildOptions.put(key, option.getValue());
+        } else {
+          alterableOptions.put(key, option.getValue());
+        }
+      }
+    }
+    ImmutableSet.Builder<String> storedColumns = ImmutableSet.builder();
+    for (String storedColumn : index.getStoredColumnNames()) {
+      storedColumns.add(Identifiers.canonical(storedColumn));
+    }
+    return new AutoValue_VectorIndexSemanticKey(
+        Identifiers.canonical(index.getTableName()),
+        canonical(index.getKeyPart()),
+        partitionKeyParts.build(),
+        notNullColumns.build(),
+        rebuildOptions.buildKeepingLast(),
+        alterableOptions.buildKeepingLast(),
+        storedColumns.build());
+  }
+
+  /** Returns true if changing from this index to the other needs the index to be rebuilt. */
+  boolean requiresRebuild(VectorIndexSemanticKey other) {
+    return !tableName().equals(other.tableName())
+        || !keyPart().equals(other.keyPart())
+        || !partitionKeyParts().equals(other.partitionKeyParts())
+        || !notNullColumns().equals(other.notNullColumns())
+        || !rebuildOptions().equals(other.rebuildOptions());
+  }
+
+  private static String canonical(ASTkey_part keyPart) {
+    return Identifiers.canonical(keyPart.getKeyPath()) + " " + keyPart.getDirection();
+  }
+}
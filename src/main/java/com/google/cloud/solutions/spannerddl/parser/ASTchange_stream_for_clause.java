@@ -16,6 +16,8 @@
 package com.google.cloud.solutions.spannerddl.parser;
 
 import com.google.cloud.solutions.spannerddl.diff.AstTreeUtils;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ASTchange_stream_for_clause extends SimpleNode {
   public ASTchange_stream_for_clause(int id) {
@@ -26,6 +28,20 @@ public class ASTchange_stream_for_clause extends SimpleNode {
     super(p, id);
   }
 
+  /** Returns the names of the explicitly tracked tables, or an empty list for FOR ALL. */
+  public List<String> getTrackedTableNames() {
+    List<String> tableNames = new ArrayList<>();
+    ASTchange_stream_tracked_tables tables =
+        AstTreeUtils.getOptionalChildByType(children, ASTchange_stream_tracked_tables.class);
+    if (tables != null) {
+      for (Node entry : tables.children) {
+        tableNames.add(
+            AstTreeUtils.tokensToString(AstTreeUtils.getChildByType(entry, ASTtable.class), false));
+      }
+    }
+    return tableNames;
+  }
+
   @Override
   public String toString() {
     ASTchange_stream_tracked_tables tables =
@@ -16,6 +16,8 @@
 package com.google.cloud.solutions.spannerddl.parser;
 
 import com.google.cloud.solutions.spannerddl.diff.AstTreeUtils;
+import com.google.cloud.solutions.spannerddl.diff.ExpressionNormalizer;
+import com.google.cloud.solutions.spannerddl.diff.Identifiers;
 
 public class ASTcheck_constraint extends SimpleNode {
 
@@ -37,11 +39,24 @@ public class ASTcheck_constraint extends SimpleNode {
   }
 
   public String getExpression() {
+    return AstTreeUtils.tokensToString(getExpressionNode(), false);
+  }
+
+  private ASTcheck_constraint_expression getExpressionNode() {
     int child = 0;
     if (children[0] instanceof ASTconstraint_name) {
       child++;
     }
-    return AstTreeUtils.tokensToString((ASTcheck_constraint_expression) children[child], false);
+    return (ASTcheck_constraint_expression) children[child];
+  }
+
+  /** Returns the constraint with its name and expression in canonical form, for comparison. */
+  public String toNormalizedString() {
+    return "CONSTRAINT "
+        + Identifiers.canonical(getName())
+        + " CHECK ("
+        + ExpressionNormalizer.normalize(getExpressionNode())
+        + ")";
   }
 
   @Override
@@ -52,13 +67,13 @@ public class ASTcheck_constraint extends SimpleNode {
   @Override
   public boolean equals(Object other) {
     if (other instanceof ASTcheck_constraint) {
-      return this.toString().equals(other.toString());
+      return toNormalizedString().equals(((ASTcheck_constraint) other).toNormalizedString());
     }
     return false;
   }
 
   @Override
   public int hashCode() {
-    return toString().hashCode();
+    return toNormalizedString().hashCode();
   }
 }
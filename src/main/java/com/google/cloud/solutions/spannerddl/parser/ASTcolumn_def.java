@@ -17,6 +17,7 @@
 package com.google.cloud.solutions.spannerddl.parser;
 
 import com.google.cloud.solutions.spannerddl.diff.AstTreeUtils;
+import com.google.cloud.solutions.spannerddl.diff.Identifiers;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableSet;
 import org.jspecify.annotations.Nullable;
@@ -69,17 +70,34 @@ public class ASTcolumn_def extends SimpleNode {
 
   @Override
   public String toString() {
+    return toString(false);
+  }
+
+  /**
+   * Returns the column definition with its name and expressions in canonical form, for comparison.
+   */
+  public String toNormalizedString() {
+    return toString(true);
+  }
+
+  private String toString(boolean normalizeExpressions) {
     // check for unknown/unsupported children
     validate();
+    ASTgeneration_clause generationClause = getGenerationClause();
+    ASTcolumn_default_clause defaultClause = getColumnDefaultClause();
 
     return Joiner.on(" ")
         .skipNulls()
         .join(
-            getColumnName(),
+            normalizeExpressions ? Identifiers.canonical(getColumnName()) : getColumnName(),
             getColumnTypeString(),
             (isNotNull() ? "NOT NULL" : null),
-            getGenerationClause(),
-            getColumnDefaultClause(),
+            (normalizeExpressions && generationClause != null
+                ? generationClause.toNormalizedString()
+                : generationClause),
+            (normalizeExpressions && defaultClause != null
+                ? defaultClause.toNormalizedString()
+                : defaultClause),
             (isHidden() ? "HIDDEN" : null),
             AstTreeUtils.getOptionalChildByType(children, ASTprimary_key.class) == null
                 ? null
@@ -108,13 +126,13 @@ public class ASTcolumn_def extends SimpleNode {
   @Override
   public boolean equals(Object other) {
     if (other instanceof ASTcolumn_def) {
-      return this.toString().equals(other.toString());
+      return toNormalizedString().equals(((ASTcolumn_def) other).toNormalizedString());
     }
     return false;
   }
 
   @Override
   public int hashCode() {
-    return toString().hashCode();
+    return toNormalizedString().hashCode();
   }
 }
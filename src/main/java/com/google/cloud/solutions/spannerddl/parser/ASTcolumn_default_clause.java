@@ -16,6 +16,7 @@
 package com.google.cloud.solutions.spannerddl.parser;
 
 import com.google.cloud.solutions.spannerddl.diff.AstTreeUtils;
+import com.google.cloud.solutions.spannerddl.diff.ExpressionNormalizer;
 
 public class ASTcolumn_default_clause extends SimpleNode {
   public ASTcolumn_default_clause(int id) {
@@ -28,7 +29,8 @@ public class ASTcolumn_default_clause extends SimpleNode {
 
   @Override
   public boolean equals(Object other) {
-    return other instanceof ASTcolumn_default_clause && this.toString().equals(other.toString());
+    return other instanceof ASTcolumn_default_clause
+        && toNormalizedString().equals(((ASTcolumn_default_clause) other).toNormalizedString());
   }
 
   @Override
@@ -38,8 +40,15 @@ public class ASTcolumn_default_clause extends SimpleNode {
         + ")";
   }
 
+  /** Returns the clause with its expression in canonical form, for comparison. */
+  public String toNormalizedString() {
+    return "DEFAULT ("
+        + ExpressionNormalizer.normalize((ASTcolumn_default_expression) jjtGetChild(0))
+        + ")";
+  }
+
   @Override
   public int hashCode() {
-    return toString().hashCode();
+    return toNormalizedString().hashCode();
   }
 }
@@ -24,6 +24,7 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class ASTcreate_index_statement extends SimpleNode
@@ -41,6 +42,16 @@ public class ASTcreate_index_statement extends SimpleNode
     return AstTreeUtils.tokensToString(AstTreeUtils.getChildByType(children, ASTname.class), false);
   }
 
+  public String getTableName() {
+    return AstTreeUtils.tokensToString(getChildByType(children, ASTtable.class), false);
+  }
+
+  /** Returns the name of the table this index is interleaved in, if any. */
+  public Optional<String> getInterleavedInTableName() {
+    return Optional.ofNullable(getOptionalChildByType(children, ASTindex_interleave_clause.class))
+        .map(ASTindex_interleave_clause::getInterleavedInTableName);
+  }
+
   @Override
   public String toString() {
     return toStringOptionalExistClause(true);
@@ -96,6 +107,19 @@ public class ASTcreate_index_statement extends SimpleNode
             getOptions());
   }
 
+  public boolean isUnique() {
+    return getOptionalChildByType(children, ASTunique_index.class) != null;
+  }
+
+  public boolean isNullFiltered() {
+    return getOptionalChildByType(children, ASTnull_filtered.class) != null;
+  }
+
+  public List<ASTkey_part> getKeyParts() {
+    return AstTreeUtils.getChildrenAssertType(
+        getChildByType(children, ASTcolumns.class), ASTkey_part.class);
+  }
+
   public ASToptions_clause getOptions() {
     return getOptionalChildByType(children, ASToptions_clause.class);
   }
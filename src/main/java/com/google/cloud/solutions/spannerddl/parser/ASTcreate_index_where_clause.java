@@ -48,6 +48,14 @@ public class ASTcreate_index_where_clause extends SimpleNode {
     return "WHERE " + Joiner.on(" AND ").join(paths);
   }
 
+  /** Returns the names of the columns which must not be null. */
+  public List<String> getColumnNames() {
+    validateChildrenClass(children, ASTpath.class);
+    return AstTreeUtils.getChildrenAssertType(children, ASTpath.class).stream()
+        .map(ASTpath::toString)
+        .collect(Collectors.toList());
+  }
+
   @Override
   public int hashCode() {
     return toString().hashCode();
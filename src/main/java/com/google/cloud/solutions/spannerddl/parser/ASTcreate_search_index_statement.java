@@ -20,6 +20,7 @@ import static com.google.cloud.solutions.spannerddl.diff.AstTreeUtils.getOptiona
 
 import com.google.cloud.solutions.spannerddl.diff.AstTreeUtils;
 import com.google.cloud.solutions.spannerddl.diff.DdlDiffException;
+import com.google.cloud.solutions.spannerddl.diff.Identifiers;
 import com.google.cloud.solutions.spannerddl.diff.SchemaUpdateStatements;
 import com.google.common.base.Joiner;
 import com.google.common.base.Objects;
@@ -31,6 +32,7 @@ import com.google.common.collect.Maps;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -53,6 +55,16 @@ public class ASTcreate_search_index_statement extends SimpleNode
     return AstTreeUtils.tokensToString(AstTreeUtils.getChildByType(children, ASTname.class), false);
   }
 
+  public String getTableName() {
+    return AstTreeUtils.tokensToString(getChildByType(children, ASTtable.class), false);
+  }
+
+  /** Returns the name of the table this index is interleaved in, if any. */
+  public Optional<String> getInterleavedInTableName() {
+    return Optional.ofNullable(getOptionalChildByType(children, ASTindex_interleave_clause.class))
+        .map(ASTindex_interleave_clause::getInterleavedInTableName);
+  }
+
   private void validateChildren() {
     AstTreeUtils.validateChildrenClasses(
         children,
@@ -136,7 +148,7 @@ public class ASTcreate_search_index_statement extends SimpleNode
     final ASTcreate_search_index_statement original = this;
 
     // Validate possible diffs
-    if (!original.getName().equals(other.getName())) {
+    if (!Identifiers.canonical(original.getName()).equals(Identifiers.canonical(other.getName()))) {
       throw new DdlDiffException(
           "CREATE SEARCH INDEX name mismatch: " + original.getName() + " != " + other.getName());
     }
@@ -188,23 +200,29 @@ public class ASTcreate_search_index_statement extends SimpleNode
 
     // Look for differences in tokenKeyList
     // Easiest is to use Maps.difference, but first we need some maps, and we need to preserve order
-    // so convert the keyParts to String, and then add to a LinkedHashMap.
+    // so convert the keyParts to their canonical String, and then add to a LinkedHashMap.
     Map<String, ASTkey_part> originalKeyParts =
         getChildByType(original.children, ASTtoken_key_list.class).getKeyParts().stream()
             .collect(
                 Collectors.toMap(
-                    ASTkey_part::toString, Function.identity(), (x, y) -> y, LinkedHashMap::new));
+                    keyPart -> Identifiers.canonical(keyPart.toString()),
+                    Function.identity(),
+                    (x, y) -> y,
+                    LinkedHashMap::new));
     Map<String, ASTkey_part> newKeyParts =
         getChildByType(other.children, ASTtoken_key_list.class).getKeyParts().stream()
             .collect(
                 Collectors.toMap(
-                    ASTkey_part::toString, Function.identity(), (x, y) -> y, LinkedHashMap::new));
+                    keyPart -> Identifiers.canonical(keyPart.toString()),
+                    Function.identity(),
+                    (x, y) -> y,
+                    LinkedHashMap::new));
     MapDifference<String, ASTkey_part> keyPartsDiff =
         Maps.difference(originalKeyParts, newKeyParts);
 
     // Look for differences in storedColumnList
     // Easiest is to use Maps.difference, but first we need some maps, and we need to preserve order
-    // so convert the keyParts to String, and then add to a LinkedHashMap.
+    // so convert the stored columns to their canonical String, and then add to a LinkedHashMap.
     ASTstored_column_list origStoredColList =
         getOptionalChildByType(original.children, ASTstored_column_list.class);
     Map<String, ASTstored_column> originalStoredColumns =
@@ -213,7 +231,7 @@ public class ASTcreate_search_index_statement extends SimpleNode
             : origStoredColList.getStoredColumns().stream()
                 .collect(
                     Collectors.toMap(
-                        ASTstored_column::toString,
+                        column -> Identifiers.canonical(column.toString()),
                         Function.identity(),
                         (x, y) -> y,
                         LinkedHashMap::new));
@@ -226,7 +244,7 @@ public class ASTcreate_search_index_statement extends SimpleNode
             : newStoredColList.getStoredColumns().stream()
                 .collect(
                     Collectors.toMap(
-                        ASTstored_column::toString,
+                        column -> Identifiers.canonical(column.toString()),
                         Function.identity(),
                         (x, y) -> y,
                         LinkedHashMap::new));
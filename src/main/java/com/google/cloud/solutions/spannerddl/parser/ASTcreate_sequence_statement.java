@@ -15,15 +15,108 @@
  */
 package com.google.cloud.solutions.spannerddl.parser;
 
-// TODO
+import com.google.cloud.solutions.spannerddl.diff.AstTreeUtils;
+import com.google.cloud.solutions.spannerddl.diff.Identifiers;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class ASTcreate_sequence_statement extends SimpleNode {
   public ASTcreate_sequence_statement(int id) {
     super(id);
-    throw new UnsupportedOperationException("Not Implemented");
   }
 
   public ASTcreate_sequence_statement(DdlParser p, int id) {
     super(p, id);
-    throw new UnsupportedOperationException("Not Implemented");
+  }
+
+  private void validateChildren() {
+    AstTreeUtils.validateChildrenClasses(
+        children,
+        ImmutableSet.of(
+            ASTif_not_exists.class,
+            ASTname.class,
+            ASTsequence_param_list.class,
+            ASToptions_clause.class));
+  }
+
+  public String getName() {
+    return AstTreeUtils.tokensToString(AstTreeUtils.getChildByType(children, ASTname.class), false);
+  }
+
+  public ASToptions_clause getOptionsClause() {
+    return AstTreeUtils.getOptionalChildByType(children, ASToptions_clause.class);
+  }
+
+  /**
+   * Returns the options of the sequence, keyed by their lower case names.
+   *
+   * <p>The {@code BIT_REVERSED_POSITIVE}, {@code SKIP RANGE} and {@code START COUNTER WITH} clauses
+   * are returned as the equivalent {@code sequence_kind}, {@code skip_range_min}, {@code
+   * skip_range_max} and {@code start_with_counter} options, so that sequences written with either
+   * syntax can be compared.
+   */
+  public Map<String, String> getOptions() {
+    Map<String, String> options = new LinkedHashMap<>();
+    ASTsequence_param_list params =
+        AstTreeUtils.getOptionalChildByType(children, ASTsequence_param_list.class);
+    if (params != null) {
+      for (ASTsequence_param param :
+          AstTreeUtils.getChildrenAssertType(params, ASTsequence_param.class)) {
+        for (Node node : param.children) {
+          if (node instanceof ASTbit_reversed_positive) {
+            options.put("sequence_kind", "'bit_reversed_positive'");
+          } else {
+            options.put(
+                DdlParserTreeConstants.jjtNodeName[node.getId()],
+                AstTreeUtils.tokensToString((SimpleNode) node));
+          }
+        }
+      }
+    }
+    ASToptions_clause optionsClause = getOptionsClause();
+    if (optionsClause != null) {
+      for (ASToption_key_val option :
+          AstTreeUtils.getChildrenAssertType(optionsClause, ASToption_key_val.class)) {
+        options.put(Identifiers.canonical(option.getKey()), option.getValue());
+      }
+    }
+    return ImmutableMap.copyOf(options);
+  }
+
+  @Override
+  public String toString() {
+    return toStringOptionalExistClause(true);
+  }
+
+  /** Create string version, optionally including the IF NOT EXISTS clause */
+  public String toStringOptionalExistClause(boolean includeExists) {
+    validateChildren();
+    ASTsequence_param_list params =
+        AstTreeUtils.getOptionalChildByType(children, ASTsequence_param_list.class);
+    return Joiner.on(" ")
+        .skipNulls()
+        .join(
+            "CREATE SEQUENCE",
+            (includeExists
+                ? AstTreeUtils.getOptionalChildByType(children, ASTif_not_exists.class)
+                : null),
+            getName(),
+            (params == null ? null : AstTreeUtils.tokensToString(params)),
+            getOptionsClause());
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return (other instanceof ASTcreate_sequence_statement)
+        && toStringOptionalExistClause(false)
+            .equals(((ASTcreate_sequence_statement) other).toStringOptionalExistClause(false));
+  }
+
+  @Override
+  public int hashCode() {
+    return toStringOptionalExistClause(false).hashCode();
   }
 }
@@ -19,6 +19,7 @@ package com.google.cloud.solutions.spannerddl.parser;
 import static com.google.cloud.solutions.spannerddl.diff.AstTreeUtils.getOptionalChildByType;
 
 import com.google.cloud.solutions.spannerddl.diff.AstTreeUtils;
+import com.google.cloud.solutions.spannerddl.diff.Identifiers;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
@@ -104,14 +105,34 @@ public class ASTcreate_table_statement extends SimpleNode {
 
   /** Create string version, optionally including the IF NOT EXISTS clause */
   public String toStringOptionalExistClause(boolean includeExists) {
+    return toString(includeExists, false);
+  }
+
+  /**
+   * Create string version without the IF NOT EXISTS clause, and with identifiers and expressions in
+   * canonical form, for comparison.
+   */
+  private String toNormalizedString() {
+    return toString(false, true);
+  }
+
+  private String toString(boolean includeExists, boolean normalizeExpressions) {
     validateChildren();
 
     List<String> tabledef = new ArrayList<>();
     tabledef.addAll(
-        getColumns().values().stream().map(Object::toString).collect(Collectors.toList()));
+        getColumns().values().stream()
+            .map(column -> normalizeExpressions ? column.toNormalizedString() : column.toString())
+            .collect(Collectors.toList()));
     if (this.withConstraints) {
       tabledef.addAll(
-          getConstraints().values().stream().map(Object::toString).collect(Collectors.toList()));
+          getConstraints().values().stream()
+              .map(
+                  constraint ->
+                      normalizeExpressions && constraint instanceof ASTcheck_constraint
+                          ? ((ASTcheck_constraint) constraint).toNormalizedString()
+                          : constraint.toString())
+              .collect(Collectors.toList()));
     }
 
     return Joiner.on(" ")
@@ -121,15 +142,21 @@ public class ASTcreate_table_statement extends SimpleNode {
             (includeExists
                 ? Objects.toString(getOptionalChildByType(children, ASTif_not_exists.class), null)
                 : null),
-            getTableName(),
+            normalizeExpressions ? Identifiers.canonical(getTableName()) : getTableName(),
             // add cols and constraints
             "( " + Joiner.on(", ").skipNulls().join(tabledef) + " )",
             // add table suffixes, separated by ","
             Joiner.on(", ")
                 .skipNulls()
                 .join(
-                    getPrimaryKey(),
-                    getOptionalChildByType(children, ASTtable_interleave_clause.class),
+                    normalizeExpressions
+                        ? Identifiers.canonical(getPrimaryKey().toString())
+                        : getPrimaryKey(),
+                    normalizeExpressions
+                        ? getInterleaveClause()
+                            .map(i -> Identifiers.canonical(i.toString()))
+                            .orElse(null)
+                        : getOptionalChildByType(children, ASTtable_interleave_clause.class),
                     (withConstraints
                         ? getOptionalChildByType(children, ASTrow_deletion_policy_clause.class)
                         : null),
@@ -161,15 +188,15 @@ public class ASTcreate_table_statement extends SimpleNode {
   @Override
   public boolean equals(Object other) {
     if (other instanceof ASTcreate_table_statement) {
-      // lazy: compare text rendering, but don't take into account IF NOT EXISTS statements
-      return this.toStringOptionalExistClause(false)
-          .equals(((ASTcreate_table_statement) other).toStringOptionalExistClause(false));
+      // lazy: compare text rendering, but don't take into account IF NOT EXISTS statements or
+      // differences in how expressions are written
+      return toNormalizedString().equals(((ASTcreate_table_statement) other).toNormalizedString());
     }
     return false;
   }
 
   @Override
   public int hashCode() {
-    return toStringOptionalExistClause(false).hashCode();
+    return toNormalizedString().hashCode();
   }
 }
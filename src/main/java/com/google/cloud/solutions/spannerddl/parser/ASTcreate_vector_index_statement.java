@@ -15,14 +15,111 @@
  */
 package com.google.cloud.solutions.spannerddl.parser;
 
+import static com.google.cloud.solutions.spannerddl.diff.AstTreeUtils.getChildByType;
+import static com.google.cloud.solutions.spannerddl.diff.AstTreeUtils.getOptionalChildByType;
+
+import com.google.cloud.solutions.spannerddl.diff.AstTreeUtils;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class ASTcreate_vector_index_statement extends SimpleNode {
+
   public ASTcreate_vector_index_statement(int id) {
     super(id);
-    throw new UnsupportedOperationException("Not Implemented");
   }
 
   public ASTcreate_vector_index_statement(DdlParser p, int id) {
     super(p, id);
-    throw new UnsupportedOperationException("Not Implemented");
+  }
+
+  public String getName() {
+    return AstTreeUtils.tokensToString(getChildByType(children, ASTname.class), false);
+  }
+
+  public String getTableName() {
+    return AstTreeUtils.tokensToString(getChildByType(children, ASTindex_base.class), false);
+  }
+
+  public ASTkey_part getKeyPart() {
+    return getChildByType(children, ASTindex_key.class).getKeyPart();
+  }
+
+  public List<ASTkey_part> getPartitionKeyParts() {
+    ASTpartition_key partitionKey = getOptionalChildByType(children, ASTpartition_key.class);
+    return partitionKey == null ? Collections.emptyList() : partitionKey.getKeyParts();
+  }
+
+  /** Returns the names of the columns in the WHERE ... IS NOT NULL clause. */
+  public List<String> getNotNullColumnNames() {
+    ASTcreate_index_where_clause where =
+        getOptionalChildByType(children, ASTcreate_index_where_clause.class);
+    return where == null ? Collections.emptyList() : where.getColumnNames();
+  }
+
+  public List<String> getStoredColumnNames() {
+    ASTstored_column_list cols = getOptionalChildByType(children, ASTstored_column_list.class);
+    if (cols == null) {
+      return Collections.emptyList();
+    }
+    return cols.getStoredColumns().stream().map(Object::toString).collect(Collectors.toList());
+  }
+
+  public ASToptions_clause getOptions() {
+    return getOptionalChildByType(children, ASToptions_clause.class);
+  }
+
+  private void validateChildren() {
+    AstTreeUtils.validateChildrenClasses(
+        children,
+        ImmutableSet.of(
+            ASTif_not_exists.class,
+            ASTname.class,
+            ASTindex_base.class,
+            ASTindex_key.class,
+            ASTstored_column_list.class,
+            ASTpartition_key.class,
+            ASTcreate_index_where_clause.class,
+            ASToptions_clause.class));
+  }
+
+  @Override
+  public String toString() {
+    return toStringOptionalExistClause(true);
+  }
+
+  /** Create string version, optionally including the IF NOT EXISTS clause */
+  public String toStringOptionalExistClause(boolean includeExists) {
+    validateChildren();
+    return Joiner.on(" ")
+        .skipNulls()
+        .join(
+            "CREATE VECTOR INDEX",
+            (includeExists ? getOptionalChildByType(children, ASTif_not_exists.class) : null),
+            getName(),
+            "ON",
+            getChildByType(children, ASTindex_base.class),
+            getChildByType(children, ASTindex_key.class),
+            getOptionalChildByType(children, ASTstored_column_list.class),
+            getOptionalChildByType(children, ASTpartition_key.class),
+            getOptionalChildByType(children, ASTcreate_index_where_clause.class),
+            getOptions());
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other instanceof ASTcreate_vector_index_statement) {
+      // lazy: compare text rendering, but don't take into account IF NOT EXISTS statements
+      return this.toStringOptionalExistClause(false)
+          .equals(((ASTcreate_vector_index_statement) other).toStringOptionalExistClause(false));
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return toStringOptionalExistClause(false).hashCode();
   }
 }
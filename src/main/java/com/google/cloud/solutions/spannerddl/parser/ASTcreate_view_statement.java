@@ -15,15 +15,89 @@
  */
 package com.google.cloud.solutions.spannerddl.parser;
 
-// TODO
+import com.google.cloud.solutions.spannerddl.diff.AstTreeUtils;
+import com.google.cloud.solutions.spannerddl.diff.ExpressionNormalizer;
+import com.google.cloud.solutions.spannerddl.diff.Identifiers;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableSet;
+
 public class ASTcreate_view_statement extends SimpleNode {
   public ASTcreate_view_statement(int id) {
     super(id);
-    throw new UnsupportedOperationException("Not Implemented");
   }
 
   public ASTcreate_view_statement(DdlParser p, int id) {
     super(p, id);
-    throw new UnsupportedOperationException("Not Implemented");
+  }
+
+  private void validateChildren() {
+    AstTreeUtils.validateChildrenClasses(
+        children, ImmutableSet.of(ASTname.class, ASTsql_security.class, ASTview_definition.class));
+  }
+
+  public String getName() {
+    return AstTreeUtils.tokensToString(AstTreeUtils.getChildByType(children, ASTname.class), false);
+  }
+
+  /** Returns INVOKER or DEFINER, or null if there is no SQL SECURITY clause. */
+  public String getSqlSecurity() {
+    ASTsql_security sqlSecurity =
+        AstTreeUtils.getOptionalChildByType(children, ASTsql_security.class);
+    return sqlSecurity == null ? null : AstTreeUtils.tokensToString(sqlSecurity);
+  }
+
+  public ASTview_definition getDefinition() {
+    return AstTreeUtils.getChildByType(children, ASTview_definition.class);
+  }
+
+  /** Returns true if the view was created with CREATE OR REPLACE. */
+  private boolean isOrReplace() {
+    return jjtGetParent() != null
+        && AstTreeUtils.getOptionalChildByType(jjtGetParent(), ASTor_replace.class) != null;
+  }
+
+  @Override
+  public String toString() {
+    return toStringOptionalOrReplace(isOrReplace());
+  }
+
+  /** Create string version, optionally as a CREATE OR REPLACE VIEW statement. */
+  public String toStringOptionalOrReplace(boolean orReplace) {
+    validateChildren();
+    String sqlSecurity = getSqlSecurity();
+    return Joiner.on(" ")
+        .skipNulls()
+        .join(
+            orReplace ? "CREATE OR REPLACE VIEW" : "CREATE VIEW",
+            getName(),
+            (sqlSecurity == null ? null : "SQL SECURITY " + sqlSecurity),
+            "AS",
+            AstTreeUtils.tokensToString(getDefinition()));
+  }
+
+  /**
+   * Returns the view in a canonical form, used to compare views which are only written differently.
+   */
+  public String toNormalizedString() {
+    String sqlSecurity = getSqlSecurity();
+    return Joiner.on(" ")
+        .skipNulls()
+        .join(
+            "CREATE VIEW",
+            Identifiers.canonical(getName()),
+            (sqlSecurity == null ? null : "SQL SECURITY " + sqlSecurity),
+            "AS",
+            ExpressionNormalizer.normalize(getDefinition()));
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return (other instanceof ASTcreate_view_statement)
+        && toNormalizedString().equals(((ASTcreate_view_statement) other).toNormalizedString());
+  }
+
+  @Override
+  public int hashCode() {
+    return toNormalizedString().hashCode();
   }
 }
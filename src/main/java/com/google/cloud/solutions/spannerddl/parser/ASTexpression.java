@@ -16,6 +16,7 @@
 package com.google.cloud.solutions.spannerddl.parser;
 
 import com.google.cloud.solutions.spannerddl.diff.AstTreeUtils;
+import com.google.cloud.solutions.spannerddl.diff.ExpressionNormalizer;
 
 public class ASTexpression extends SimpleNode {
 
@@ -32,6 +33,11 @@ public class ASTexpression extends SimpleNode {
     return AstTreeUtils.tokensToString(this, false);
   }
 
+  /** Returns the expression in the canonical form used to compare it with other expressions. */
+  public String toNormalizedString() {
+    return ExpressionNormalizer.normalize(this);
+  }
+
   @Override
   public int hashCode() {
     return toString().hashCode();
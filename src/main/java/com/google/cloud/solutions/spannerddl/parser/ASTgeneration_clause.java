@@ -36,8 +36,21 @@ public class ASTgeneration_clause extends SimpleNode {
     return "AS ( " + exp.toString() + " )" + storedOpt;
   }
 
+  /** Returns the clause with its expression in canonical form, for comparison. */
+  public String toNormalizedString() {
+    final ASTexpression exp = (ASTexpression) children[0];
+    final String storedOpt = isStored() ? " STORED" : "";
+    return "AS ( " + exp.toNormalizedString() + " )" + storedOpt;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof ASTgeneration_clause
+        && toNormalizedString().equals(((ASTgeneration_clause) other).toNormalizedString());
+  }
+
   @Override
   public int hashCode() {
-    return this.toString().hashCode();
+    return toNormalizedString().hashCode();
   }
 }
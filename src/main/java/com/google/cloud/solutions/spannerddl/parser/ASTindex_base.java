@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.parser;
+
+import com.google.cloud.solutions.spannerddl.diff.AstTreeUtils;
+
+/** Abstract Syntax Tree parser object for the table of a vector index. */
+public class ASTindex_base extends SimpleNode {
+
+  public ASTindex_base(int id) {
+    super(id);
+  }
+
+  public ASTindex_base(DdlParser p, int id) {
+    super(p, id);
+  }
+
+  @Override
+  public String toString() {
+    return AstTreeUtils.tokensToString(this);
+  }
+}
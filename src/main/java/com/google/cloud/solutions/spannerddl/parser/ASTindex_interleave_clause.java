@@ -29,6 +29,11 @@ public class ASTindex_interleave_clause extends SimpleNode {
     super(p, id);
   }
 
+  /** Returns the name of the table this index is interleaved in. */
+  public String getInterleavedInTableName() {
+    return AstTreeUtils.tokensToString((ASTinterleave_in) children[0], false);
+  }
+
   @Override
   public String toString() {
     return "INTERLEAVE IN " + AstTreeUtils.tokensToString((ASTinterleave_in) children[0]);
@@ -36,6 +36,14 @@ public class ASTkey_part extends SimpleNode {
     return ((ASTpath) children[0]).toString();
   }
 
+  /** Returns the sort direction of this key part, ASC when none was given. */
+  public String getDirection() {
+    if (children == null || children.length == 1) {
+      return "ASC";
+    }
+    return children[1].toString().toUpperCase(Locale.ROOT);
+  }
+
   @Override
   public String toString() {
     if (children == null) {
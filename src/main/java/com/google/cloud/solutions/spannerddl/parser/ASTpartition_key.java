@@ -17,6 +17,7 @@ package com.google.cloud.solutions.spannerddl.parser;
 
 import com.google.cloud.solutions.spannerddl.diff.AstTreeUtils;
 import com.google.common.base.Joiner;
+import java.util.List;
 
 public class ASTpartition_key extends SimpleNode {
   public ASTpartition_key(int id) {
@@ -31,6 +32,11 @@ public class ASTpartition_key extends SimpleNode {
     AstTreeUtils.validateChildrenClass(children, ASTkey_part.class);
   }
 
+  public List<ASTkey_part> getKeyParts() {
+    validateChildren();
+    return AstTreeUtils.getChildrenAssertType(children, ASTkey_part.class);
+  }
+
   @Override
   public String toString() {
     validateChildren();
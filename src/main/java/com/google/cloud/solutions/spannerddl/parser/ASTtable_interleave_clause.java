@@ -35,6 +35,12 @@ public class ASTtable_interleave_clause extends SimpleNode {
             AstTreeUtils.getChildByType(children, ASTinterleave_in.class));
   }
 
+  /** Returns the name of the table this table is interleaved in, without any PARENT keyword. */
+  public String getInterleavedInTableName() {
+    return AstTreeUtils.tokensToString(
+        AstTreeUtils.getChildByType(children, ASTinterleave_in.class), false);
+  }
+
   public String getOnDelete() {
     ASTon_delete_clause ondelete =
         AstTreeUtils.getOptionalChildByType(children, ASTon_delete_clause.class);
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.cloud.solutions.spannerddl.diff.DatabaseDefinition.Entry;
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class DatabaseDefinitionTest {
+
+  private static final Map<String, Boolean> OPTIONS =
+      ImmutableMap.of(DdlDiff.IGNORE_PROTO_BUNDLES_OPT, false);
+
+  private static final String DDL =
+      "create table test1 (col1 int64, col2 int64) primary key (col1);\n"
+          + "create index index1 on test1 (col2);\n"
+          + "create table test2 (col1 int64) primary key (col1);\n"
+          + "alter table test2 add constraint fk_test2 foreign key (col1) references test1 (col1);\n"
+          + "create index index2 on test2 (col1);";
+
+  @Test
+  public void update_onlyRebuildsMapsOfChangedKinds() throws DdlDiffException {
+    List<ASTddl_statement> statements = new ArrayList<>(DdlDiff.parseDdl(DDL));
+    DatabaseDefinition previous = DatabaseDefinition.create(statements, OPTIONS);
+    List<ImmutableList<Entry>> previousEntries = entriesOf(statements);
+
+    statements.set(1, DdlDiff.parseDdlStatement("create index index1 on test1 (col2 desc)"));
+    List<ImmutableList<Entry>> entries = new ArrayList<>(previousEntries);
+    entries.set(1, DatabaseDefinition.entriesOf(statements.get(1), OPTIONS));
+    DatabaseDefinition updated = DatabaseDefinition.update(previous, previousEntries, entries);
+
+    assertSameMaps(updated, DatabaseDefinition.create(statements, OPTIONS));
+    assertThat(updated.indexes()).isNotSameInstanceAs(previous.indexes());
+    assertThat(updated.tablesInCreationOrder()).isSameInstanceAs(previous.tablesInCreationOrder());
+    assertThat(updated.constraints()).isSameInstanceAs(previous.constraints());
+
+    // Nothing changed
+    assertThat(DatabaseDefinition.update(updated, entries, entries)).isSameInstanceAs(updated);
+  }
+
+  @Test
+  public void update_keepsCreationOrderOfInsertedStatements() throws DdlDiffException {
+    List<ASTddl_statement> statements = new ArrayList<>(DdlDiff.parseDdl(DDL));
+    DatabaseDefinition previous = DatabaseDefinition.create(statements, OPTIONS);
+    List<ImmutableList<Entry>> previousEntries = entriesOf(statements);
+
+    statements.add(1, DdlDiff.parseDdlStatement("create index index0 on test1 (col1)"));
+    List<ImmutableList<Entry>> entries = new ArrayList<>(previousEntries);
+    entries.add(1, DatabaseDefinition.entriesOf(statements.get(1), OPTIONS));
+    DatabaseDefinition updated = DatabaseDefinition.update(previous, previousEntries, entries);
+
+    assertSameMaps(updated, DatabaseDefinition.create(statements, OPTIONS));
+    assertThat(updated.indexes().keySet()).containsExactly("index0", "index1", "index2").inOrder();
+  }
+
+  @Test
+  public void update_rebuildsAllMapsWhenStatementsAreReordered() throws DdlDiffException {
+    List<ASTddl_statement> statements = new ArrayList<>(DdlDiff.parseDdl(DDL));
+    DatabaseDefinition previous = DatabaseDefinition.create(statements, OPTIONS);
+    List<ImmutableList<Entry>> previousEntries = entriesOf(statements);
+
+    List<ImmutableList<Entry>> entries = new ArrayList<>(previousEntries);
+    statements.add(0, statements.remove(2));
+    entries.add(0, entries.remove(2));
+    DatabaseDefinition updated = DatabaseDefinition.update(previous, previousEntries, entries);
+
+    assertSameMaps(updated, DatabaseDefinition.create(statements, OPTIONS));
+    assertThat(updated.tablesInCreationOrder().keySet())
+        .containsExactly("test2", "test1")
+        .inOrder();
+  }
+
+  private static List<ImmutableList<Entry>> entriesOf(List<ASTddl_statement> statements) {
+    return statements.stream()
+        .map(s -> DatabaseDefinition.entriesOf(s, OPTIONS))
+        .collect(toImmutableList());
+  }
+
+  private static void assertSameMaps(DatabaseDefinition actual, DatabaseDefinition expected) {
+    assertThat(actual.tablesInCreationOrder().keySet())
+        .containsExactlyElementsIn(expected.tablesInCreationOrder().keySet())
+        .inOrder();
+    assertThat(actual.indexes().keySet())
+        .containsExactlyElementsIn(expected.indexes().keySet())
+        .inOrder();
+    assertThat(actual.constraints().keySet())
+        .containsExactlyElementsIn(expected.constraints().keySet())
+        .inOrder();
+    assertThat(actual.indexes().values().toString())
+        .isEqualTo(expected.indexes().values().toString());
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STATEMENTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.IGNORE_PROTO_BUNDLES_OPT;
+import static com.google.common.truth.Truth.assertWithMessage;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assume.assumeTrue;
+
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.cloud.solutions.spannerddl.testUtils.AllocationMeter;
+import com.google.cloud.solutions.spannerddl.testUtils.SchemaGenerator;
+import com.google.common.collect.ImmutableMap;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks the bytes allocated by each phase of generating a diff of a fixed generated schema against
+ * the budgets in {@code src/test/resources/allocationBudgets.properties}, so that changes which
+ * multiply the allocation, and so the garbage collection, are noticed.
+ */
+public class DdlDiffAllocationTest {
+
+  private static final String BUDGETS_FILE = "src/test/resources/allocationBudgets.properties";
+
+  private static final int RUNS = 3;
+
+  private static final Map<String, Boolean> OPTIONS =
+      ImmutableMap.of(
+          ALLOW_DROP_STATEMENTS_OPT, true,
+          ALLOW_RECREATE_INDEXES_OPT, true,
+          ALLOW_RECREATE_CONSTRAINTS_OPT, true,
+          IGNORE_PROTO_BUNDLES_OPT, false);
+
+  private static Properties budgets;
+  private static String originalDdl;
+  private static String newDdl;
+  private static List<ASTddl_statement> originalStatements;
+  private static List<ASTddl_statement> newStatements;
+  private static DatabaseDefinition originalDb;
+  private static DatabaseDefinition newDb;
+
+  /** Uses the rendered statements, so that rendering cannot be optimized away. */
+  private static long renderedLength;
+
+  @BeforeClass
+  public static void setUp() throws IOException, DdlDiffException {
+    budgets = new Properties();
+    try (Reader in = Files.newBufferedReader(new File(BUDGETS_FILE).toPath(), UTF_8)) {
+      budgets.load(in);
+    }
+
+    SchemaGenerator generator =
+        new SchemaGenerator()
+            .seed(1)
+            .tables(200)
+            .columnsPerTable(10)
+            .interleaveDepth(3)
+            .indexes(200)
+            .searchIndexes(20)
+            .foreignKeys(100)
+            .checkConstraints(100)
+            .changeStreams(10)
+            .localityGroups(4)
+            .databaseOptions(2)
+            .changePercent(10);
+    originalDdl = generator.generateOriginalDdl();
+    newDdl = generator.generateNewDdl();
+    originalStatements = DdlDiff.parseDdl(originalDdl);
+    newStatements = DdlDiff.parseDdl(newDdl);
+    originalDb = DatabaseDefinition.create(originalStatements, OPTIONS);
+    newDb = DatabaseDefinition.create(newStatements, OPTIONS);
+  }
+
+  @Test
+  public void parse_withinBudget() throws Exception {
+    long bytes =
+        measure(
+            () -> {
+              DdlDiff.parseDdl(originalDdl);
+              DdlDiff.parseDdl(newDdl);
+            });
+
+    assertWithinBudget(
+        "parse.bytesPerStatement", bytes, originalStatements.size() + newStatements.size());
+  }
+
+  @Test
+  public void render_withinBudget() throws Exception {
+    long bytes =
+        measure(
+            () -> {
+              for (ASTddl_statement statement : originalStatements) {
+                renderedLength += statement.toString().length();
+              }
+              for (ASTddl_statement statement : newStatements) {
+                renderedLength += statement.toString().length();
+              }
+            });
+
+    assertWithinBudget(
+        "render.bytesPerStatement", bytes, originalStatements.size() + newStatements.size());
+  }
+
+  @Test
+  public void createDatabaseDefinition_withinBudget() throws Exception {
+    long bytes =
+        measure(
+            () -> {
+              DatabaseDefinition.create(originalStatements, OPTIONS);
+              DatabaseDefinition.create(newStatements, OPTIONS);
+            });
+
+    assertWithinBudget(
+        "createDatabaseDefinition.bytesPerObject",
+        bytes,
+        objectCount(originalDb) + objectCount(newDb));
+  }
+
+  @Test
+  public void generateDifferenceStatements_withinBudget() throws Exception {
+    int statements =
+        new DdlDiff(originalDb, newDb, "db").generateDifferenceStatements(OPTIONS).size();
+    long bytes =
+        measure(() -> new DdlDiff(originalDb, newDb, "db").generateDifferenceStatements(OPTIONS));
+
+    assertWithinBudget("generateDifferenceStatements.bytesPerStatement", bytes, statements);
+  }
+
+  private static long measure(AllocationMeter.Action action) throws Exception {
+    assumeTrue("JVM cannot measure allocations", AllocationMeter.isSupported());
+    return AllocationMeter.measure(RUNS, action);
+  }
+
+  private static int objectCount(DatabaseDefinition db) {
+    return db.tablesInCreationOrder().size()
+        + db.indexes().size()
+        + db.searchIndexes().size()
+        + db.constraints().size()
+        + db.ttls().size()
+        + db.changeStreams().size()
+        + db.alterDatabaseOptions().size()
+        + db.schemas().size()
+        + db.localityGroups().size();
+  }
+
+  private static void assertWithinBudget(String budgetName, long bytes, int units) {
+    String budget = budgets.getProperty(budgetName);
+    assertWithMessage("%s missing from %s", budgetName, BUDGETS_FILE).that(budget).isNotNull();
+    assertWithMessage(
+            "%s allocated %s bytes per unit (%s bytes for %s units), over the budget in %s",
+            budgetName, bytes / units, bytes, units, BUDGETS_FILE)
+        .that(bytes / units)
+        .isAtMost(Long.parseLong(budget));
+  }
+}
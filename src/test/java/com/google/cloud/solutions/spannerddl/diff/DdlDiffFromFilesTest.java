@@ -127,15 +127,16 @@ public class DdlDiffFromFilesTest {
             .filter(
                 statement ->
                     !statement.matches(
-                        ".*DROP (SCHEMA|TABLE|COLUMN|CHANGE STREAM|SEARCH INDEX|LOCALITY GROUP).*"))
+                        ".*DROP (SCHEMA|TABLE|COLUMN|CHANGE STREAM|SEARCH INDEX|LOCALITY GROUP"
+                            + "|SEQUENCE|VIEW).*"))
             .collect(Collectors.toList());
 
     // remove any drop indexes from the expectedResults if they do not have an equivalent
     // CREATE statement. This is because we are allowing recreation of indexes, but not allowing
     // dropping of removed indexes.
     for (String statement : expectedDiff) {
-      if (statement.startsWith("DROP INDEX ")) {
-        String indexName = Iterables.get(Splitter.on(' ').split(statement), 2);
+      if (statement.startsWith("DROP INDEX ") || statement.startsWith("DROP VECTOR INDEX ")) {
+        String indexName = Iterables.getLast(Splitter.on(' ').split(statement));
         // see if there is a matching create statement
         Pattern p = Pattern.compile("CREATE .*INDEX " + indexName + " ");
         if (expectedDiffNoDrops.stream().noneMatch(s -> p.matcher(s).find())) {
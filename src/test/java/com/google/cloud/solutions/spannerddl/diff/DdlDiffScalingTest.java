@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STATEMENTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.IGNORE_PROTO_BUNDLES_OPT;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import com.google.cloud.solutions.spannerddl.testUtils.AllocationMeter;
+import com.google.cloud.solutions.spannerddl.testUtils.SchemaGenerator;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks that the time and memory allocated to parse, diff and validate a schema grow roughly
+ * linearly with the size of the schema, by running the whole pipeline on generated schemas of N,
+ * 2N, 4N and 8N objects.
+ *
+ * <p>Allocation is deterministic, so each doubling of the schema size must allocate at most {@link
+ * #MAX_ALLOCATION_RATIO} times as much. Timings are noisy and depend on the machine, so by default
+ * they are only logged. When the {@value #CHECK_TIME_PROPERTY} system property is true, as it is in
+ * the {@code benchmark} Maven profile, the growth from N to 8N is also checked against a limit
+ * which allows for noise but not quadratic growth, which is a ratio of 64:
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Dtest=DdlDiffScalingTest
+ * </pre>
+ */
+public class DdlDiffScalingTest {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DdlDiffScalingTest.class);
+
+  /** The system property which enables the check of the time growth. */
+  static final String CHECK_TIME_PROPERTY = "checkScalingTime";
+
+  private static final int[] SCALES = {1, 2, 4, 8};
+
+  /** Maximum allocation growth for each doubling of the schema size; quadratic growth is 4. */
+  private static final double MAX_ALLOCATION_RATIO = 2.4;
+
+  /** Maximum time growth from N to 8N, an exponent of 1.6; linear growth is 8. */
+  private static final double MAX_TIME_RATIO = 28;
+
+  private static final int RUNS = 5;
+
+  private static final Map<String, Boolean> OPTIONS =
+      ImmutableMap.of(
+          ALLOW_DROP_STATEMENTS_OPT, true,
+          ALLOW_RECREATE_INDEXES_OPT, true,
+          ALLOW_RECREATE_CONSTRAINTS_OPT, true,
+          IGNORE_PROTO_BUNDLES_OPT, false);
+
+  @Test
+  public void pipeline_scalesLinearlyWithTables() throws DdlDiffException {
+    assertLinear(
+        "tables",
+        n ->
+            new SchemaGenerator()
+                .tables(n)
+                .columnsPerTable(10)
+                .interleaveDepth(3)
+                .indexes(n)
+                .searchIndexes(n / 10)
+                .foreignKeys(n / 2)
+                .checkConstraints(n / 2)
+                .changeStreams(n / 20)
+                .localityGroups(2)
+                .changePercent(10),
+        100);
+  }
+
+  @Test
+  public void pipeline_scalesLinearlyWithColumnsPerTable() throws DdlDiffException {
+    assertLinear(
+        "columns per table",
+        n ->
+            new SchemaGenerator()
+                .tables(5)
+                .columnsPerTable(n)
+                .indexes(n)
+                .searchIndexes(1)
+                .foreignKeys(n / 2)
+                .checkConstraints(n / 2)
+                .changeStreams(1)
+                .localityGroups(1)
+                .changePercent(10),
+        200);
+  }
+
+  private static void assertLinear(
+      String dimension, IntFunction<SchemaGenerator> generator, int baseSize)
+      throws DdlDiffException {
+    String[][] schemas = new String[SCALES.length][];
+    for (int i = 0; i < SCALES.length; i++) {
+      SchemaGenerator schema = generator.apply(baseSize * SCALES[i]);
+      schemas[i] = new String[] {schema.generateOriginalDdl(), schema.generateNewDdl()};
+    }
+
+    // Warm up the JIT on the largest schema.
+    runPipeline(schemas[SCALES.length - 1]);
+
+    long[] nanos = new long[SCALES.length];
+    long[] bytes = new long[SCALES.length];
+    for (int i = 0; i < SCALES.length; i++) {
+      nanos[i] = Long.MAX_VALUE;
+      for (int run = 0; run < RUNS; run++) {
+        long startBytes = AllocationMeter.allocatedBytes();
+        long start = System.nanoTime();
+        runPipeline(schemas[i]);
+        nanos[i] = Math.min(nanos[i], System.nanoTime() - start);
+        bytes[i] = AllocationMeter.allocatedBytes() - startBytes;
+      }
+    }
+
+    StringBuilder measurements = new StringBuilder();
+    for (int i = 0; i < SCALES.length; i++) {
+      measurements.append(
+          String.format(
+              "%n  %s=%d: %d ms, %d KiB",
+              dimension, baseSize * SCALES[i], nanos[i] / 1_000_000, bytes[i] / 1024));
+    }
+
+    if (AllocationMeter.isSupported()) {
+      for (int i = 1; i < SCALES.length; i++) {
+        assertWithMessage(
+                "Allocation growth from %s to %s%s", SCALES[i - 1], SCALES[i], measurements)
+            .that((double) bytes[i] / bytes[i - 1])
+            .isAtMost(MAX_ALLOCATION_RATIO);
+      }
+    }
+    double timeRatio = (double) nanos[SCALES.length - 1] / nanos[0];
+    if (Boolean.getBoolean(CHECK_TIME_PROPERTY)) {
+      assertWithMessage("Time growth from 1 to %s%s", SCALES[SCALES.length - 1], measurements)
+          .that(timeRatio)
+          .isAtMost(MAX_TIME_RATIO);
+    } else {
+      LOG.info(
+          "Time growth from 1 to {} is {}, not checked without -D{}=true:{}",
+          SCALES[SCALES.length - 1],
+          String.format("%.1f", timeRatio),
+          CHECK_TIME_PROPERTY,
+          measurements);
+    }
+  }
+
+  private static void runPipeline(String[] schema) throws DdlDiffException {
+    DdlDiff diff = DdlDiff.build(schema[0], schema[1], OPTIONS);
+    diff.generateDifferenceStatements(OPTIONS);
+    diff.validateNewDdl();
+  }
+}
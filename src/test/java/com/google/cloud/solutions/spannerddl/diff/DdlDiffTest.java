@@ -20,6 +20,7 @@ import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STAT
 import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
 import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
 import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.fail;
 
 import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
@@ -70,6 +71,25 @@ public class DdlDiffTest {
     assertThat(result.get(3).toString()).isEqualTo("CREATE INDEX index1 ON table1 ( col1 )");
   }
 
+  @Test
+  public void parseDdl_syntaxError_reportsExpectedTokens() {
+    try {
+      DdlDiff.parseDdl("Create index index1 on test1");
+      fail("Expected exception not thrown");
+    } catch (DdlDiffException e) {
+      assertThat(e.getMessage()).startsWith("Unable to parse statement");
+      // The message comes from the diagnostic parser, not the fast-path parser.
+      assertThat(e.getMessage()).contains("Was expecting one of:\n\n\"(\" ...");
+    }
+  }
+
+  @Test
+  public void parseDdl_unexpectedCharacter_reportsTokenType() {
+    DdlDiffException e =
+        assertThrows(DdlDiffException.class, () -> DdlDiff.parseDdl("create table t1 (c1 int64 #"));
+    assertThat(e.getMessage()).contains("Encountered \" <UNEXPECTED_CHARACTER> \"#\"\" at line 1");
+  }
+
   @Test
   public void parseCreateTable_anonForeignKey() {
     try {
@@ -512,6 +532,50 @@ public class DdlDiffTest {
         "At least one Index differs, and allowRecreateIndexes is not set");
   }
 
+  @Test
+  public void diffVectorIndexStoringAndOptionsAltersInPlace() throws DdlDiffException {
+    assertThat(
+            getDiff(
+                "CREATE VECTOR INDEX vi ON Docs ( Embedding ) STORING (col1, col2)"
+                    + " OPTIONS (distance_type='COSINE', tree_depth=2, leaf_scatter_factor=4);",
+                "CREATE VECTOR INDEX vi ON docs ( `embedding` ) STORING (col2, col3)"
+                    + " OPTIONS (tree_depth=2, distance_type='COSINE', min_branch_splits=2);",
+                false))
+        .containsExactly(
+            "ALTER VECTOR INDEX vi DROP STORED COLUMN col1",
+            "ALTER VECTOR INDEX vi ADD STORED COLUMN col3",
+            "ALTER VECTOR INDEX vi SET OPTIONS (leaf_scatter_factor=NULL,min_branch_splits=2)")
+        .inOrder();
+  }
+
+  @Test
+  public void diffVectorIndexDistanceTypeThrows() {
+    getDiffCheckDdlDiffException(
+        "CREATE VECTOR INDEX vi ON Docs ( Embedding ) OPTIONS (distance_type='COSINE');",
+        "CREATE VECTOR INDEX vi ON Docs ( Embedding ) OPTIONS (distance_type='EUCLIDEAN');",
+        false,
+        "At least one Vector Index needs to be rebuilt, and allowRecreateIndexes is not set");
+  }
+
+  @Test
+  public void diffSequenceClausesAlteredWithSetOptions() throws DdlDiffException {
+    assertThat(
+            getDiff(
+                "CREATE SEQUENCE seq BIT_REVERSED_POSITIVE SKIP RANGE 1, 1000;",
+                "CREATE SEQUENCE seq BIT_REVERSED_POSITIVE START COUNTER WITH 500;",
+                false))
+        .containsExactly(
+            "ALTER SEQUENCE seq SET OPTIONS"
+                + " (skip_range_max=NULL,skip_range_min=NULL,start_with_counter=500)");
+  }
+
+  @Test
+  public void diffSequenceDroppedOnlyWithAllowDrops() throws DdlDiffException {
+    String originalDdl = "CREATE SEQUENCE seq OPTIONS (sequence_kind='bit_reversed_positive');";
+    assertThat(getDiff(originalDdl, "", false)).isEmpty();
+    assertThat(getDiff(originalDdl, "", true)).containsExactly("DROP SEQUENCE seq");
+  }
+
   private static void getDiffCheckDdlDiffException(
       String originalDdl, String newDdl, boolean allowDropStatements, String exceptionContains) {
     try {
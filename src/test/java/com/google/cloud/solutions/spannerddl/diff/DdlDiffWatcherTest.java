@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DdlDiffWatcherTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void regenerate_onlyWritesOutputWhenDiffChanges() throws IOException {
+    Path originalDdl =
+        writeFile("original.ddl", "create table test1 (col1 int64) primary key (col1)");
+    Path newDdl = writeFile("new.ddl", "create table test1 (col1 int64) primary key (col1)");
+    File outputDdl = new File(tempFolder.getRoot(), "output.ddl");
+
+    DdlDiffWatcher watcher =
+        new DdlDiffWatcher(
+            DdlDiffOptions.parseCommandLine(
+                new String[] {
+                  "--watch",
+                  "--originalDdlFile",
+                  originalDdl.toString(),
+                  "--newDdlFile",
+                  newDdl.toString(),
+                  "--outputDdlFile",
+                  outputDdl.toString()
+                }));
+
+    assertThat(watcher.regenerate()).isTrue();
+    assertThat(readFile(outputDdl)).isEmpty();
+    assertThat(watcher.regenerate()).isFalse();
+
+    writeFile("new.ddl", "create table test1 (col1 int64, col2 int64) primary key (col1)");
+    assertThat(watcher.regenerate()).isTrue();
+    assertThat(readFile(outputDdl)).isEqualTo("ALTER TABLE test1 ADD COLUMN col2 INT64;\n\n");
+
+    // Parse failures are reported and leave the output unchanged.
+    writeFile("new.ddl", "create tabel test1");
+    assertThat(watcher.regenerate()).isFalse();
+    assertThat(readFile(outputDdl)).isEqualTo("ALTER TABLE test1 ADD COLUMN col2 INT64;\n\n");
+  }
+
+  @Test
+  public void watch_regeneratesWhenFileInSubdirectoryChanges() throws Exception {
+    tempFolder.newFolder("original", "tables");
+    tempFolder.newFolder("new", "tables");
+    writeFile("original/tables/test1.sql", "create table test1 (col1 int64) primary key (col1)");
+    writeFile("new/tables/test1.sql", "create table test1 (col1 int64) primary key (col1)");
+    File outputDdl = new File(tempFolder.getRoot(), "output.ddl");
+
+    DdlDiffWatcher watcher =
+        new DdlDiffWatcher(
+            DdlDiffOptions.parseCommandLine(
+                new String[] {
+                  "--watch",
+                  "--originalDdlFile",
+                  new File(tempFolder.getRoot(), "original").toString(),
+                  "--newDdlFile",
+                  new File(tempFolder.getRoot(), "new").toString(),
+                  "--outputDdlFile",
+                  outputDdl.toString()
+                }));
+    Thread watchThread =
+        new Thread(
+            () -> {
+              try {
+                watcher.watch();
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              } catch (InterruptedException e) {
+                // Stopped by the test.
+              }
+            });
+    watchThread.start();
+    try {
+      // The output is first written after the directories are registered.
+      waitForOutput(outputDdl, "");
+
+      writeFile(
+          "new/tables/test1.sql", "create table test1 (col1 int64, col2 int64) primary key (col1)");
+      waitForOutput(outputDdl, "ALTER TABLE test1 ADD COLUMN col2 INT64;\n\n");
+
+      // Files in a directory created after watching started are also watched.
+      tempFolder.newFolder("new", "tables", "more");
+      writeFile("new/tables/more/test2.sql", "create table test2 (col1 int64) primary key (col1)");
+      waitForOutput(
+          outputDdl,
+          "ALTER TABLE test1 ADD COLUMN col2 INT64;\n\n"
+              + "CREATE TABLE test2 ( col1 INT64 ) PRIMARY KEY (col1);\n\n");
+    } finally {
+      watchThread.interrupt();
+      watchThread.join();
+    }
+  }
+
+  /** Waits for the output file to have the expected contents, failing after a timeout. */
+  private static void waitForOutput(File file, String expected) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!(file.exists() && readFile(file).equals(expected)) && System.nanoTime() < deadline) {
+      Thread.sleep(50);
+    }
+    assertThat(file.exists()).isTrue();
+    assertThat(readFile(file)).isEqualTo(expected);
+  }
+
+  private Path writeFile(String name, String contents) throws IOException {
+    return Files.write(new File(tempFolder.getRoot(), name).toPath(), contents.getBytes(UTF_8));
+  }
+
+  private static String readFile(File file) throws IOException {
+    return new String(Files.readAllBytes(file.toPath()), UTF_8);
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.common.collect.ImmutableMap;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DdlFileReaderTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Path root;
+
+  @Before
+  public void setUp() {
+    root = tempFolder.getRoot().toPath();
+  }
+
+  @Test
+  public void resolveFiles_singleFile() throws IOException {
+    Path file = writeFile("schema.txt", "create table a (col1 int64) primary key (col1)");
+    assertThat(DdlFileReader.resolveFiles(file)).containsExactly(file);
+    assertThat(DdlFileReader.isMultiFileInput(file)).isFalse();
+  }
+
+  @Test
+  public void resolveFiles_directoryOnlyIncludesDdlFilesRecursively() throws IOException {
+    Path b = writeFile("b.sql", "");
+    Path a = writeFile("sub/a.ddl", "");
+    writeFile("readme.txt", "");
+
+    assertThat(DdlFileReader.isMultiFileInput(root)).isTrue();
+    assertThat(DdlFileReader.resolveFiles(root)).containsExactly(b, a).inOrder();
+  }
+
+  @Test
+  public void resolveFiles_glob() throws IOException {
+    Path a = writeFile("a.txt", "");
+    writeFile("b.sql", "");
+    Path c = writeFile("c.txt", "");
+
+    Path glob = root.resolve("*.txt");
+    assertThat(DdlFileReader.isMultiFileInput(glob)).isTrue();
+    assertThat(DdlFileReader.resolveFiles(glob)).containsExactly(a, c).inOrder();
+    assertThat(DdlFileReader.isInputFile(glob, c)).isTrue();
+    assertThat(DdlFileReader.isInputFile(glob, root.resolve("b.sql"))).isFalse();
+  }
+
+  @Test
+  public void resolveFiles_noMatchingFiles() {
+    IOException e =
+        assertThrows(IOException.class, () -> DdlFileReader.resolveFiles(root.resolve("*.ddl")));
+    assertThat(e).hasMessageThat().startsWith("No DDL files found in: ");
+  }
+
+  @Test
+  public void readStatements_ordersStatementsByDependencies() throws Exception {
+    // Files are read in name order, which is the reverse of the creation order.
+    writeFile(
+        "1_indexes.ddl",
+        "create index child_idx on child (col3);\n"
+            + "create change stream stream for parent, child;");
+    writeFile(
+        "2_child.ddl",
+        "create table child (col1 int64, col3 int64, "
+            + "constraint fk foreign key (col3) references other (col1)) "
+            + "primary key (col1, col3), interleave in parent parent");
+    writeFile(
+        "3_parent.ddl",
+        "create table other (col1 int64) primary key (col1);\n"
+            + "create table parent (col1 int64) primary key (col1)");
+
+    List<ASTddl_statement> statements = DdlFileReader.readStatements(root);
+
+    assertThat(
+            statements.stream()
+                .map(s -> s.toString().replaceAll(" \\(.*", ""))
+                .collect(Collectors.toList()))
+        .containsExactly(
+            "CREATE TABLE other",
+            "CREATE TABLE parent",
+            "CREATE TABLE child",
+            "CREATE INDEX child_idx ON child",
+            "CREATE CHANGE STREAM stream FOR parent, child")
+        .inOrder();
+
+    // And the sorted statements give a valid database definition.
+    DdlDiff.validateDdl(statements, ImmutableMap.of(DdlDiff.ALLOW_DROP_STATEMENTS_OPT, false));
+  }
+
+  @Test
+  public void readStatements_reportsFileOfParseError() throws IOException {
+    writeFile("a.ddl", "create table a (col1 int64) primary key (col1)");
+    Path bad = writeFile("b.ddl", "create tabel b");
+
+    DdlDiffException e =
+        assertThrows(DdlDiffException.class, () -> DdlFileReader.readStatements(root));
+    assertThat(e).hasMessageThat().startsWith("In file " + bad + ": Unable to parse statement");
+  }
+
+  @Test
+  public void readDdl_concatenatesFiles() throws IOException {
+    writeFile("a.ddl", "create table a (col1 int64) primary key (col1)");
+    writeFile("b.ddl", "create table b (col1 int64) primary key (col1);");
+
+    assertThat(DdlFileReader.readDdl(root))
+        .isEqualTo(
+            "create table a (col1 int64) primary key (col1)\n;\n"
+                + "create table b (col1 int64) primary key (col1);\n;\n");
+  }
+
+  private Path writeFile(String name, String contents) throws IOException {
+    Path path = new File(tempFolder.getRoot(), name).toPath();
+    Files.createDirectories(path.getParent());
+    return Files.write(path, contents.getBytes(UTF_8));
+  }
+}
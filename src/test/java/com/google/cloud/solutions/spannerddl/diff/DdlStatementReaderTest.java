@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DdlStatementReaderTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void nextStatement_matchesSplitStatementsForTestResources() throws IOException {
+    for (String resource :
+        new String[] {"originalDdl.txt", "newDdl.txt", "expectedDdlDiff.txt", "annotations.txt"}) {
+      Path file = Paths.get("src/test/resources/" + resource);
+      String ddl = new String(Files.readAllBytes(file), UTF_8);
+
+      assertThat(readStatements(file, 1024 * 1024))
+          .containsExactlyElementsIn(DdlDiff.splitStatements(ddl, false))
+          .inOrder();
+    }
+  }
+
+  @Test
+  public void nextStatement_matchesSplitStatementsForCommentEdgeCases() throws IOException {
+    String[] ddls = {
+      "",
+      ";;;",
+      "create table a -- comment; not a statement\n(col1 int64);",
+      "create table a (col1 int64) -- no trailing newline",
+      "--- three dashes\ncreate table a;--",
+      // Comments ending in \r are kept, unless the \r ends the input.
+      "create table a -- kept; comment\r\ncreate table b -- removed\r\n",
+      "create table a -- kept\rcreate table b; -- removed\r",
+      "create table a -- kept b -- also kept c;",
+      "create table a -- removed ",
+      "a - b; a -\n- b; 'string -- with comment'; c",
+    };
+    for (String ddl : ddls) {
+      Path file = tempFolder.newFile().toPath();
+      Files.write(file, ddl.getBytes(UTF_8));
+      assertThat(readStatements(file, 1024))
+          .containsExactlyElementsIn(DdlDiff.splitStatements(ddl, false))
+          .inOrder();
+    }
+  }
+
+  @Test
+  public void nextStatement_decodesMultiByteCharactersAcrossWindows() throws IOException {
+    StringBuilder ddl = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      ddl.append("create table t")
+          .append(i)
+          .append(" (col int64) options (description='é€😀 ")
+          .append(i)
+          .append("') -- comment é\n;\n");
+    }
+    Path file = tempFolder.newFile().toPath();
+    Files.write(file, ddl.toString().getBytes(UTF_8));
+
+    List<String> expected = DdlDiff.splitStatements(ddl.toString(), false);
+    // Window sizes which split the 2, 3 and 4 byte sequences at every possible offset.
+    for (int windowSize = 4; windowSize <= 11; windowSize++) {
+      assertThat(readStatements(file, windowSize)).containsExactlyElementsIn(expected).inOrder();
+    }
+  }
+
+  @Test
+  public void parseDdl_parsesStatements() throws Exception {
+    String ddl =
+        "create table a (col1 int64) primary key (col1);\n"
+            + "-- comment\n"
+            + "create index idx on a (col1)";
+    Path file = tempFolder.newFile().toPath();
+    Files.write(file, ddl.getBytes(UTF_8));
+
+    assertThat(DdlStatementReader.parseDdl(file)).isEqualTo(DdlDiff.parseDdl(ddl));
+  }
+
+  private static List<String> readStatements(Path file, int windowSize) throws IOException {
+    List<String> statements = new ArrayList<>();
+    try (DdlStatementReader reader = new DdlStatementReader(file, windowSize)) {
+      String statement;
+      while ((statement = reader.nextStatement()) != null) {
+        statements.add(statement);
+      }
+    }
+    return statements;
+  }
+}
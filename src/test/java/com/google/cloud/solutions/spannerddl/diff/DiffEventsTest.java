@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STATEMENTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.IGNORE_PROTO_BUNDLES_OPT;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DiffEventsTest {
+
+  private static final Map<String, Boolean> OPTIONS =
+      ImmutableMap.of(
+          ALLOW_DROP_STATEMENTS_OPT, true,
+          ALLOW_RECREATE_INDEXES_OPT, false,
+          ALLOW_RECREATE_CONSTRAINTS_OPT, false,
+          IGNORE_PROTO_BUNDLES_OPT, false);
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void generateDifferenceStatements_emitsEvents() throws Exception {
+    List<RecordedEvent> events =
+        record(
+            () ->
+                DdlDiff.build(
+                        "create table test1 (col1 int64) primary key (col1)",
+                        "create table test1 (col1 int64, col2 int64) primary key (col1);"
+                            + "create index test1_idx on test1 (col2)",
+                        OPTIONS)
+                    .generateDifferenceStatements(OPTIONS));
+
+    List<RecordedEvent> parseEvents = eventsOfType(events, "ParseStatement");
+    assertThat(parseEvents.stream().map(e -> e.getString("statementType")).sorted())
+        .containsExactly(
+            "create_index_statement", "create_table_statement", "create_table_statement")
+        .inOrder();
+    assertThat(parseEvents.get(0).getInt("length"))
+        .isEqualTo("create table test1 (col1 int64) primary key (col1)".length());
+
+    List<RecordedEvent> createEvents = eventsOfType(events, "CreateDatabaseDefinition");
+    assertThat(createEvents).hasSize(2);
+    assertThat(createEvents.get(1).getInt("statements")).isEqualTo(2);
+    assertThat(createEvents.get(1).getInt("indexes")).isEqualTo(1);
+
+    List<RecordedEvent> diffEvents =
+        eventsOfType(events, "DiffObjects").stream()
+            .filter(e -> e.getString("kind").equals("indexes"))
+            .collect(Collectors.toList());
+    assertThat(diffEvents).hasSize(1);
+    assertThat(diffEvents.get(0).getInt("added")).isEqualTo(1);
+
+    List<RecordedEvent> alterEvents = eventsOfType(events, "GenerateAlterTable");
+    assertThat(alterEvents).hasSize(1);
+    assertThat(alterEvents.get(0).getString("tableName")).isEqualTo("test1");
+    assertThat(alterEvents.get(0).getInt("columns")).isEqualTo(2);
+    assertThat(alterEvents.get(0).getInt("generatedStatements")).isEqualTo(1);
+  }
+
+  @Test
+  public void parseDdlStatement_emitsEventOnFailure() throws Exception {
+    List<RecordedEvent> events =
+        record(
+            () -> {
+              try {
+                DdlDiff.parseDdlStatement("create tabel test1");
+              } catch (DdlDiffException e) {
+                // expected
+              }
+              return null;
+            });
+
+    List<RecordedEvent> parseEvents = eventsOfType(events, "ParseStatement");
+    assertThat(parseEvents).hasSize(1);
+    assertThat(parseEvents.get(0).getString("statementType")).isEmpty();
+  }
+
+  private interface Action {
+    Object run() throws Exception;
+  }
+
+  private List<RecordedEvent> record(Action action) throws Exception {
+    Path file = new File(tempFolder.getRoot(), "recording.jfr").toPath();
+    try (Recording recording = new Recording()) {
+      for (String name :
+          new String[] {
+            "ParseStatement", "CreateDatabaseDefinition", "DiffObjects", "GenerateAlterTable"
+          }) {
+        recording.enable(JfrDiffEvents.EVENT_PREFIX + name).withoutThreshold();
+      }
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+    }
+    return readEvents(file);
+  }
+
+  private static List<RecordedEvent> readEvents(Path file) throws IOException {
+    return RecordingFile.readAllEvents(file).stream()
+        .filter(e -> e.getEventType().getName().startsWith(JfrDiffEvents.EVENT_PREFIX))
+        .filter(e -> e.getThread() != null && e.getThread().getJavaThreadId() == threadId())
+        .collect(Collectors.toList());
+  }
+
+  @SuppressWarnings("deprecation") // Thread.threadId() requires Java 19.
+  private static long threadId() {
+    return Thread.currentThread().getId();
+  }
+
+  private static List<RecordedEvent> eventsOfType(List<RecordedEvent> events, String name) {
+    return events.stream()
+        .filter(e -> e.getEventType().getName().equals(JfrDiffEvents.EVENT_PREFIX + name))
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STATEMENTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.IGNORE_PROTO_BUNDLES_OPT;
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DiffMetricsTest {
+
+  private static final String ORIGINAL_DDL =
+      "create table test1 (col1 int64) primary key (col1);\n"
+          + "create index test1_idx on test1 (col1)";
+
+  private static final String NEW_DDL =
+      "create table test1 (col1 int64) primary key (col1);\n"
+          + "create table test2 (col1 int64) primary key (col1)";
+
+  private static final Map<String, Boolean> OPTIONS =
+      ImmutableMap.of(
+          ALLOW_DROP_STATEMENTS_OPT, true,
+          ALLOW_RECREATE_INDEXES_OPT, false,
+          ALLOW_RECREATE_CONSTRAINTS_OPT, false,
+          IGNORE_PROTO_BUNDLES_OPT, false);
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  /** Records the sum of the values of each metric and label. */
+  public static class RecordingMetrics implements DiffMetrics {
+    final Map<String, Long> counters = new ConcurrentHashMap<>();
+    final Map<String, Long> timers = new ConcurrentHashMap<>();
+    final Map<String, Long> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public void incrementCounter(String name, String label, long amount) {
+      counters.merge(name + "/" + label, amount, Long::sum);
+    }
+
+    @Override
+    public void recordTimer(String name, String label, long elapsedNanos) {
+      timers.merge(name + "/" + label, 1L, Long::sum);
+    }
+
+    @Override
+    public void recordHistogram(String name, String label, long value) {
+      histograms.merge(name + "/" + label, value, Long::sum);
+    }
+  }
+
+  @Test
+  public void build_reportsMetrics() throws DdlDiffException {
+    RecordingMetrics metrics = new RecordingMetrics();
+
+    DdlDiff.build(ORIGINAL_DDL, NEW_DDL, OPTIONS, metrics).generateDifferenceStatements(OPTIONS);
+
+    assertThat(metrics.counters)
+        .containsExactly(
+            "statementsParsed/create_table_statement", 3L,
+            "statementsParsed/create_index_statement", 1L,
+            "bytesProcessed/", (long) (ORIGINAL_DDL.length() + NEW_DDL.length()),
+            "statementsEmitted/DROP INDEX", 1L,
+            "statementsEmitted/CREATE TABLE", 1L);
+    assertThat(metrics.timers).containsEntry("parseLatency/create_table_statement", 3L);
+    assertThat(metrics.timers).containsEntry("phaseLatency/split", 2L);
+    assertThat(metrics.timers).containsEntry("phaseLatency/createDatabaseDefinition", 2L);
+    assertThat(metrics.timers).containsEntry("phaseLatency/difference.tables", 1L);
+    assertThat(metrics.timers).containsEntry("phaseLatency/generate.createTables", 1L);
+    assertThat(metrics.histograms)
+        .containsEntry(
+            "statementLength/create_index_statement",
+            (long) "create index test1_idx on test1 (col1)".length());
+  }
+
+  @Test
+  public void build_reportsParseFailures() {
+    RecordingMetrics metrics = new RecordingMetrics();
+
+    assertThrows(
+        DdlDiffException.class,
+        () -> DdlDiff.build(ORIGINAL_DDL, "create unique index (col1)", OPTIONS, metrics));
+
+    assertThat(metrics.counters).containsEntry("parseFailures/CREATE INDEX", 1L);
+  }
+
+  @Test
+  public void leadingKeywords_skipsModifiers() {
+    assertThat(DiffStats.leadingKeywords("CREATE TABLE test1 (col1 INT64)"))
+        .isEqualTo("CREATE TABLE");
+    assertThat(DiffStats.leadingKeywords("create unique null_filtered index idx on t (c)"))
+        .isEqualTo("CREATE INDEX");
+    assertThat(DiffStats.leadingKeywords("CREATE OR REPLACE VIEW v AS SELECT 1"))
+        .isEqualTo("CREATE VIEW");
+    assertThat(DiffStats.leadingKeywords("ALTER TABLE t ADD COLUMN c INT64"))
+        .isEqualTo("ALTER TABLE");
+    assertThat(DiffStats.leadingKeywords("\n  DROP\tINDEX idx")).isEqualTo("DROP INDEX");
+  }
+
+  @Test
+  public void loadMetrics_usesServiceLoader() throws IOException {
+    assertThat(DiffStats.loadMetrics(DiffMetricsTest.class.getClassLoader()))
+        .isSameInstanceAs(DiffMetrics.NO_OP);
+
+    Path services = tempFolder.newFolder("META-INF", "services").toPath();
+    Files.write(
+        services.resolve(DiffMetrics.class.getName()),
+        RecordingMetrics.class.getName().getBytes(UTF_8));
+    try (URLClassLoader classLoader =
+        new URLClassLoader(
+            new URL[] {tempFolder.getRoot().toURI().toURL()},
+            DiffMetricsTest.class.getClassLoader())) {
+      assertThat(DiffStats.loadMetrics(classLoader)).isInstanceOf(RecordingMetrics.class);
+    }
+  }
+
+  @Test
+  public void readStatements_reportsFileBytes() throws IOException, DdlDiffException {
+    RecordingMetrics metrics = new RecordingMetrics();
+    Path file = new File(tempFolder.getRoot(), "schema.ddl").toPath();
+    Files.write(
+        file,
+        "create table test1 (col1 string(max) default ('é')) primary key (col1)".getBytes(UTF_8));
+
+    DdlFileReader.readStatements(file, new DiffStats(metrics));
+
+    assertThat(metrics.counters).containsEntry("bytesProcessed/", Files.size(file));
+  }
+}
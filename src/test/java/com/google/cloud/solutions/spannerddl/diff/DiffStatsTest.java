@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STATEMENTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.IGNORE_PROTO_BUNDLES_OPT;
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DiffStatsTest {
+
+  private static final String ORIGINAL_DDL =
+      "create table test1 (col1 int64) primary key (col1);\n"
+          + "create index test1_idx on test1 (col1)";
+
+  private static final String NEW_DDL =
+      "create table test1 (col1 int64) primary key (col1);\n"
+          + "create table test2 (col1 int64) primary key (col1);\n"
+          + "create table test3 (col1 int64) primary key (col1)";
+
+  private static final Map<String, Boolean> OPTIONS =
+      ImmutableMap.of(
+          ALLOW_DROP_STATEMENTS_OPT, true,
+          ALLOW_RECREATE_INDEXES_OPT, false,
+          ALLOW_RECREATE_CONSTRAINTS_OPT, false,
+          IGNORE_PROTO_BUNDLES_OPT, false);
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void getStats_recordsEachPhase() throws DdlDiffException {
+    DdlDiff ddlDiff = DdlDiff.build(ORIGINAL_DDL, NEW_DDL, OPTIONS);
+    ddlDiff.generateDifferenceStatements(OPTIONS);
+    ImmutableMap<String, DiffStats.Phase> phases = ddlDiff.getStats().phases();
+
+    assertThat(phases.keySet())
+        .containsAtLeast(
+            DiffStats.SPLIT,
+            DiffStats.PARSE,
+            DiffStats.CREATE_DATABASE_DEFINITION,
+            "difference.tables",
+            "difference.indexes",
+            "generate.dropIndexes",
+            "generate.createTables")
+        .inOrder();
+    assertThat(phases.get(DiffStats.SPLIT).count()).isEqualTo(5);
+    assertThat(phases.get(DiffStats.PARSE).count()).isEqualTo(5);
+    assertThat(phases.get(DiffStats.CREATE_DATABASE_DEFINITION).count()).isEqualTo(5);
+    assertThat(phases.get("difference.tables").count()).isEqualTo(2);
+    assertThat(phases.get("difference.indexes").count()).isEqualTo(1);
+    assertThat(phases.get("generate.dropIndexes").count()).isEqualTo(1);
+    assertThat(phases.get("generate.createTables").count()).isEqualTo(2);
+    assertThat(phases.get("generate.alterTables").count()).isEqualTo(0);
+
+    assertThat(ddlDiff.getStats().statementTypes().keySet())
+        .containsExactly("create_index_statement", "create_table_statement")
+        .inOrder();
+    assertThat(ddlDiff.getStats().statementTypes().get("create_table_statement").count())
+        .isEqualTo(4);
+  }
+
+  @Test
+  public void toJson_includesPhasesAndStatementTypes() {
+    DiffStats stats = new DiffStats();
+    stats.recordElapsed(DiffStats.READ, 1_500_000, 2);
+    stats.recordElapsed(DiffStats.READ, 500_000, 1);
+    stats.recordElapsed(DiffStats.SPLIT, 250_000, 10);
+
+    assertThat(stats.toJson())
+        .isEqualTo(
+            "{\n"
+                + "  \"phases\": {\n"
+                + "    \"read\": {\"count\": 3, \"millis\": 2.000},\n"
+                + "    \"split\": {\"count\": 10, \"millis\": 0.250}\n"
+                + "  },\n"
+                + "  \"statementTypes\": {}\n"
+                + "}\n");
+  }
+
+  @Test
+  public void writeDifferenceStatements_writesStatsFile() throws IOException {
+    Path originalDdl = writeFile("original.ddl", ORIGINAL_DDL);
+    Path newDdlA = writeFile("a.ddl", NEW_DDL);
+    Path newDdlB = writeFile("b.ddl", ORIGINAL_DDL);
+    Path statsFile = new File(tempFolder.getRoot(), "stats.json").toPath();
+
+    DdlDiffOptions options =
+        DdlDiffOptions.parseCommandLine(
+            new String[] {
+              "--originalDdlFile", originalDdl.toString(),
+              "--newDdlFile", newDdlA.toString(),
+              "--newDdlFile", newDdlB.toString(),
+              "--outputDdlFile", new File(tempFolder.getRoot(), "output").toString(),
+              "--stats", statsFile.toString()
+            });
+
+    assertThat(options.statsPath()).hasValue(statsFile);
+    assertThat(MultiTargetDdlDiff.writeDifferenceStatements(options)).isTrue();
+    String json = new String(Files.readAllBytes(statsFile), UTF_8);
+    // The original and both new DDL files are read, and both targets are diffed.
+    assertThat(json).contains("\"read\": {\"count\": 3,");
+    assertThat(json).contains("\"generate.createTables\": {\"count\": 2,");
+    assertThat(json).contains("\"create_table_statement\": {\"count\": 5,");
+  }
+
+  private Path writeFile(String name, String contents) throws IOException {
+    return Files.write(new File(tempFolder.getRoot(), name).toPath(), contents.getBytes(UTF_8));
+  }
+}
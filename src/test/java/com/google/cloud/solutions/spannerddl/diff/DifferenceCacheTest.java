@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.base.Ascii;
+import com.google.common.base.Equivalence;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.MapDifference;
+import java.util.Map;
+import org.junit.Test;
+
+public class DifferenceCacheTest {
+
+  /** Compares strings case-insensitively, counting the comparisons. */
+  private static final class CountingEquivalence extends Equivalence<StringBuilder> {
+    int comparisons = 0;
+
+    @Override
+    protected boolean doEquivalent(StringBuilder a, StringBuilder b) {
+      comparisons++;
+      return a.toString().equalsIgnoreCase(b.toString());
+    }
+
+    @Override
+    protected int doHash(StringBuilder value) {
+      return Ascii.toLowerCase(value.toString()).hashCode();
+    }
+  }
+
+  private final StringBuilder table1 = new StringBuilder("table1");
+  private final StringBuilder table2 = new StringBuilder("table2");
+  private final Map<String, StringBuilder> left = ImmutableMap.of("t1", table1, "t2", table2);
+
+  @Test
+  public void difference_unchangedMapsReturnPreviousDifference() {
+    DifferenceCache cache = new DifferenceCache();
+    CountingEquivalence equivalence = new CountingEquivalence();
+    Map<String, StringBuilder> right = ImmutableMap.of("t1", new StringBuilder("TABLE1"));
+
+    MapDifference<String, StringBuilder> first =
+        cache.difference("tables", left, right, equivalence);
+
+    assertThat(cache.difference("tables", left, right, equivalence)).isSameInstanceAs(first);
+    assertThat(equivalence.comparisons).isEqualTo(1);
+  }
+
+  @Test
+  public void difference_onlyComparesNewPairs() {
+    DifferenceCache cache = new DifferenceCache();
+    CountingEquivalence equivalence = new CountingEquivalence();
+    StringBuilder rightTable1 = new StringBuilder("TABLE1");
+
+    MapDifference<String, StringBuilder> first =
+        cache.difference(
+            "tables",
+            left,
+            ImmutableMap.of("t1", rightTable1, "t2", new StringBuilder("table2 changed")),
+            equivalence);
+    assertThat(first.entriesDiffering().keySet()).containsExactly("t2");
+    assertThat(equivalence.comparisons).isEqualTo(2);
+
+    // Revert the change to t2: only t2 needs to be compared again.
+    MapDifference<String, StringBuilder> second =
+        cache.difference(
+            "tables",
+            left,
+            ImmutableMap.of("t1", rightTable1, "t2", new StringBuilder("TABLE2")),
+            equivalence);
+    assertThat(second.areEqual()).isTrue();
+    assertThat(equivalence.comparisons).isEqualTo(3);
+
+    // Other kinds are cached separately.
+    cache.difference("indexes", left, ImmutableMap.of("t1", rightTable1), equivalence);
+    assertThat(equivalence.comparisons).isEqualTo(4);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STATEMENTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.cloud.solutions.spannerddl.parser.ASTcheck_constraint;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_table_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class ExpressionNormalizerTest {
+
+  private static final Map<String, Boolean> OPTIONS =
+      ImmutableMap.of(
+          ALLOW_RECREATE_CONSTRAINTS_OPT,
+          true,
+          ALLOW_DROP_STATEMENTS_OPT,
+          true,
+          ALLOW_RECREATE_INDEXES_OPT,
+          true);
+
+  @Test
+  public void normalize_casingAndQuoting() throws DdlDiffException {
+    assertThat(normalize("`Col1` is not null and lower(col2) <> \"abc\""))
+        .isEqualTo("COL1 IS NOT NULL AND LOWER ( COL2 ) != 'abc'");
+    // Literals with quotes or escapes keep their quoting, and string contents keep their case.
+    assertThat(normalize("col2 = \"it's\" or col2 = 'It\\'s'"))
+        .isEqualTo("COL2 = \"it's\" OR COL2 = 'It\\'s'");
+  }
+
+  @Test
+  public void normalize_literals() throws DdlDiffException {
+    assertThat(normalize("col1 > 0x1F and col3 = b\"x\"")).isEqualTo("COL1 > 31 AND COL3 = b'x'");
+    assertThat(normalize("col4 < current_timestamp")).isEqualTo("COL4 < CURRENT_TIMESTAMP ( )");
+  }
+
+  @Test
+  public void normalize_redundantParentheses() throws DdlDiffException {
+    assertThat(normalize("((col1 > 0))")).isEqualTo("COL1 > 0");
+    assertThat(normalize("(col1) > (0) and (col2 is not null) or (col1 not in (1, 2))"))
+        .isEqualTo("COL1 > 0 AND COL2 IS NOT NULL OR COL1 NOT IN ( 1 , 2 )");
+    assertThat(normalize("length((col2)) > 0 and concat((col2), (col2 || 'x')) != ''"))
+        .isEqualTo("LENGTH ( COL2 ) > 0 AND CONCAT ( COL2 , COL2 || 'x' ) != ''");
+  }
+
+  @Test
+  public void normalize_keepsMeaningfulParentheses() throws DdlDiffException {
+    assertThat(normalize("(col1 + 1) * 2 > 0")).isEqualTo("( COL1 + 1 ) * 2 > 0");
+    assertThat(normalize("not (col1 > 0 or col1 < -5)")).isEqualTo("NOT ( COL1 > 0 OR COL1 < -5 )");
+    assertThat(normalize("col1 in (1)")).isEqualTo("COL1 IN ( 1 )");
+    assertThat(normalize("(col1 > 0 or col1 < -5) and (not col2 is null)"))
+        .isEqualTo("( COL1 > 0 OR COL1 < -5 ) AND ( NOT COL2 IS NULL )");
+    assertThat(normalize("struct_col = ((1, 2))")).isEqualTo("STRUCT_COL = ( 1 , 2 )");
+  }
+
+  @Test
+  public void diff_equivalentExpressionsAreUnchanged() throws DdlDiffException {
+    String original =
+        "CREATE TABLE t1 ("
+            + " col1 INT64 DEFAULT (0x10),"
+            + " col2 STRING(MAX),"
+            + " col3 STRING(MAX) AS (UPPER(col2)) STORED,"
+            + " col4 TIMESTAMP DEFAULT (current_timestamp()),"
+            + " CONSTRAINT ck1 CHECK ((col1 > 0) AND (col2 <> 'x'))"
+            + ") PRIMARY KEY (col1)";
+    String updated =
+        "CREATE TABLE t1 ("
+            + " col1 INT64 DEFAULT (16),"
+            + " col2 STRING(MAX),"
+            + " col3 STRING(MAX) AS (upper(`col2`)) STORED,"
+            + " col4 TIMESTAMP DEFAULT (CURRENT_TIMESTAMP),"
+            + " CONSTRAINT ck1 CHECK (col1 > 0 and Col2 != \"x\")"
+            + ") PRIMARY KEY (col1)";
+
+    DdlDiff diff = DdlDiff.build(original, updated, OPTIONS);
+    assertThat(diff.generateDifferenceStatements(OPTIONS)).isEmpty();
+  }
+
+  @Test
+  public void diff_changedExpressionIsRecreated() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            "CREATE TABLE t1 (col1 INT64, CONSTRAINT ck1 CHECK ((col1 > 0))) PRIMARY KEY (col1)",
+            "CREATE TABLE t1 (col1 INT64, CONSTRAINT ck1 CHECK (col1 >= 0)) PRIMARY KEY (col1)",
+            OPTIONS);
+    assertThat(diff.generateDifferenceStatements(OPTIONS))
+        .containsExactly(
+            "ALTER TABLE t1 DROP CONSTRAINT ck1",
+            "ALTER TABLE t1 ADD CONSTRAINT ck1 CHECK (col1 >= 0)")
+        .inOrder();
+  }
+
+  private static String normalize(String expression) throws DdlDiffException {
+    ASTddl_statement statement =
+        DdlDiff.parseDdlStatement(
+            "CREATE TABLE t (col1 INT64, CONSTRAINT ck CHECK ("
+                + expression
+                + ")) PRIMARY KEY (col1)");
+    ASTcheck_constraint constraint =
+        (ASTcheck_constraint)
+            ((ASTcreate_table_statement) statement.jjtGetChild(0)).getConstraints().get("ck");
+    String normalized = constraint.toNormalizedString();
+    return normalized.substring("CONSTRAINT ck CHECK (".length(), normalized.length() - 1);
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STATEMENTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class IncrementalDdlDiffTest {
+
+  private static final Map<String, Boolean> OPTIONS =
+      ImmutableMap.of(
+          ALLOW_RECREATE_CONSTRAINTS_OPT,
+          true,
+          ALLOW_DROP_STATEMENTS_OPT,
+          true,
+          ALLOW_RECREATE_INDEXES_OPT,
+          true,
+          DdlDiff.IGNORE_PROTO_BUNDLES_OPT,
+          false);
+
+  private static final String ORIGINAL_DDL =
+      "create table test1 (col1 int64, col2 int64) primary key (col1);\n"
+          + "create index index1 on test1 (col2);\n"
+          + "create table test2 (col1 int64) primary key (col1);\n"
+          + "alter table test2 add constraint fk_test2 foreign key (col1) references test1 (col1);";
+
+  @Test
+  public void update_generatesSameStatementsAsBuild() throws DdlDiffException {
+    String newDdl =
+        "create table test1 (col1 int64, col2 int64, col3 string(max)) primary key (col1);\n"
+            + "create index index1 on test1 (col2) storing (col3);\n"
+            + "create table test3 (col1 int64) primary key (col1);\n";
+
+    IncrementalDdlDiff incrementalDiff = new IncrementalDdlDiff(OPTIONS);
+
+    assertThat(incrementalDiff.update(ORIGINAL_DDL, newDdl).generateDifferenceStatements(OPTIONS))
+        .containsExactlyElementsIn(
+            DdlDiff.build(ORIGINAL_DDL, newDdl, OPTIONS).generateDifferenceStatements(OPTIONS))
+        .inOrder();
+    // Statements common to both DDLs are only parsed once.
+    assertThat(incrementalDiff.getStatementsParsedByLastUpdate()).isEqualTo(7);
+  }
+
+  @Test
+  public void update_seriesOfEditsGeneratesSameStatementsAsBuild() throws DdlDiffException {
+    String original =
+        ORIGINAL_DDL + "\nalter database db set options (version_retention_period='1d');";
+    String editedColumn = original.replace("col2 int64)", "col2 int64 not null)");
+    String addedIndexInMiddle =
+        editedColumn.replace(
+            "create table test2", "create index index2 on test1 (col1);\ncreate table test2");
+    String reorderedTables =
+        "create table test2 (col1 int64) primary key (col1);\n"
+            + addedIndexInMiddle.replace(
+                "create table test2 (col1 int64) primary key (col1);\n", "");
+    String removedIndex = reorderedTables.replace("create index index1 on test1 (col2);\n", "");
+    String changedDatabaseOption = removedIndex.replace("'1d'", "'2d'");
+    String addedTableWithTtl =
+        changedDatabaseOption
+            + "\ncreate table test3 (col1 int64, ts timestamp) primary key (col1),"
+            + " row deletion policy (older_than(ts, interval 1 day));";
+
+    IncrementalDdlDiff incrementalDiff = new IncrementalDdlDiff(OPTIONS);
+    for (String newDdl :
+        ImmutableList.of(
+            original,
+            editedColumn,
+            addedIndexInMiddle,
+            reorderedTables,
+            removedIndex,
+            changedDatabaseOption,
+            addedTableWithTtl,
+            original)) {
+      assertThat(incrementalDiff.update(original, newDdl).generateDifferenceStatements(OPTIONS))
+          .containsExactlyElementsIn(
+              DdlDiff.build(original, newDdl, OPTIONS).generateDifferenceStatements(OPTIONS))
+          .inOrder();
+    }
+
+    // Editing the original DDL patches the other side of the diff.
+    assertThat(
+            incrementalDiff.updateOriginalDdl(removedIndex).generateDifferenceStatements(OPTIONS))
+        .containsExactlyElementsIn(
+            DdlDiff.build(removedIndex, original, OPTIONS).generateDifferenceStatements(OPTIONS))
+        .inOrder();
+  }
+
+  @Test
+  public void updateNewDdl_onlyParsesChangedStatements() throws DdlDiffException {
+    IncrementalDdlDiff incrementalDiff = new IncrementalDdlDiff(OPTIONS);
+    assertThat(
+            incrementalDiff
+                .update(ORIGINAL_DDL, ORIGINAL_DDL)
+                .generateDifferenceStatements(OPTIONS))
+        .isEmpty();
+    assertThat(incrementalDiff.getStatementsParsedByLastUpdate()).isEqualTo(4);
+
+    String editedDdl = ORIGINAL_DDL.replace("col2 int64)", "col2 int64 not null)");
+    assertThat(incrementalDiff.updateNewDdl(editedDdl).generateDifferenceStatements(OPTIONS))
+        .containsExactly("ALTER TABLE test1 ALTER COLUMN col2 INT64 NOT NULL");
+    assertThat(incrementalDiff.getStatementsParsedByLastUpdate()).isEqualTo(1);
+
+    // Reverting the edit reuses the statement still used by the original DDL.
+    assertThat(incrementalDiff.updateNewDdl(ORIGINAL_DDL).generateDifferenceStatements(OPTIONS))
+        .isEmpty();
+    assertThat(incrementalDiff.getStatementsParsedByLastUpdate()).isEqualTo(0);
+  }
+
+  @Test
+  public void update_unchangedDdlReturnsPreviousDiff() throws DdlDiffException {
+    IncrementalDdlDiff incrementalDiff = new IncrementalDdlDiff(OPTIONS);
+    DdlDiff first = incrementalDiff.update(ORIGINAL_DDL, ORIGINAL_DDL);
+
+    assertThat(incrementalDiff.update(ORIGINAL_DDL, ORIGINAL_DDL)).isSameInstanceAs(first);
+    assertThat(incrementalDiff.getStatementsParsedByLastUpdate()).isEqualTo(0);
+  }
+
+  @Test
+  public void update_parseFailureKeepsPreviousState() throws DdlDiffException {
+    IncrementalDdlDiff incrementalDiff = new IncrementalDdlDiff(OPTIONS);
+    DdlDiff first = incrementalDiff.update(ORIGINAL_DDL, ORIGINAL_DDL);
+
+    DdlDiffException e =
+        assertThrows(
+            DdlDiffException.class,
+            () -> incrementalDiff.updateNewDdl(ORIGINAL_DDL + "\ncreate tabel test4;"));
+    assertThat(e.getMessage()).startsWith("Failed parsing NEW DDL: Unable to parse statement");
+
+    assertThat(incrementalDiff.updateNewDdl(ORIGINAL_DDL)).isSameInstanceAs(first);
+  }
+}
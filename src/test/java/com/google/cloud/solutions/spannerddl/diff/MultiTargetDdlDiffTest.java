@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STATEMENTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.IGNORE_PROTO_BUNDLES_OPT;
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MultiTargetDdlDiffTest {
+
+  private static final String ORIGINAL_DDL =
+      "create table test1 (col1 int64) primary key (col1);\n"
+          + "create index test1_idx on test1 (col1)";
+
+  private static final Map<String, Boolean> OPTIONS =
+      ImmutableMap.of(
+          ALLOW_DROP_STATEMENTS_OPT, true,
+          ALLOW_RECREATE_INDEXES_OPT, false,
+          ALLOW_RECREATE_CONSTRAINTS_OPT, false,
+          IGNORE_PROTO_BUNDLES_OPT, false);
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void generateDifferenceStatements_matchesIndividualDiffs() throws DdlDiffException {
+    ImmutableMap<String, String> newDdls =
+        ImmutableMap.of(
+            "unchanged",
+            ORIGINAL_DDL,
+            "addColumn",
+            "create table test1 (col1 int64, col2 int64) primary key (col1);\n"
+                + "create index test1_idx on test1 (col1)",
+            "dropIndex",
+            "create table test1 (col1 int64) primary key (col1)",
+            "newTable",
+            ORIGINAL_DDL + ";\ncreate table test2 (col1 int64) primary key (col1)");
+
+    ImmutableMap<String, List<String>> results =
+        MultiTargetDdlDiff.create(ORIGINAL_DDL, OPTIONS).generateDifferenceStatements(newDdls);
+
+    assertThat(results.keySet()).containsExactlyElementsIn(newDdls.keySet()).inOrder();
+    for (Map.Entry<String, String> newDdl : newDdls.entrySet()) {
+      assertThat(results.get(newDdl.getKey()))
+          .isEqualTo(
+              DdlDiff.build(ORIGINAL_DDL, newDdl.getValue(), OPTIONS)
+                  .generateDifferenceStatements(OPTIONS));
+    }
+    assertThat(results.get("unchanged")).isEmpty();
+    assertThat(results.get("dropIndex")).containsExactly("DROP INDEX test1_idx");
+  }
+
+  @Test
+  public void generateDifferenceStatements_reportsAllFailedTargets() throws DdlDiffException {
+    MultiTargetDdlDiff baseline = MultiTargetDdlDiff.create(ORIGINAL_DDL, OPTIONS);
+
+    DdlDiffException e =
+        assertThrows(
+            DdlDiffException.class,
+            () ->
+                baseline.generateDifferenceStatements(
+                    ImmutableMap.of(
+                        "ok", ORIGINAL_DDL,
+                        "badParse", "create tabel test1",
+                        "badReference", "create index idx on missing (col1)")));
+
+    assertThat(e)
+        .hasMessageThat()
+        .startsWith("Failed diffing target badParse: Failed parsing NEW DDL: ");
+    assertThat(e.getSuppressed()).hasLength(1);
+    assertThat(e.getSuppressed()[0])
+        .hasMessageThat()
+        .startsWith("Failed diffing target badReference: ");
+  }
+
+  @Test
+  public void writeDifferenceStatements_writesOutputForEachNewDdl() throws IOException {
+    Path originalDdl = writeFile("original.ddl", ORIGINAL_DDL);
+    Path newDdlA =
+        writeFile("a.ddl", ORIGINAL_DDL + ";create table test2 (col1 int64) primary key (col1)");
+    Path newDdlB = writeFile("b.ddl", "create tabel test1");
+    Path outputDir = new File(tempFolder.getRoot(), "output").toPath();
+
+    DdlDiffOptions options =
+        DdlDiffOptions.parseCommandLine(
+            new String[] {
+              "--originalDdlFile", originalDdl.toString(),
+              "--newDdlFile", newDdlA.toString(),
+              "--newDdlFile", newDdlB.toString(),
+              "--outputDdlFile", outputDir.toString()
+            });
+
+    assertThat(options.isMultiTarget()).isTrue();
+    // b.ddl fails to parse, but a.ddl is still written.
+    assertThat(MultiTargetDdlDiff.writeDifferenceStatements(options)).isFalse();
+    assertThat(new String(Files.readAllBytes(outputDir.resolve("a.ddl")), UTF_8))
+        .isEqualTo("CREATE TABLE test2 ( col1 INT64 ) PRIMARY KEY (col1);\n\n");
+    assertThat(Files.exists(outputDir.resolve("b.ddl"))).isFalse();
+  }
+
+  private Path writeFile(String name, String contents) throws IOException {
+    return Files.write(new File(tempFolder.getRoot(), name).toPath(), contents.getBytes(UTF_8));
+  }
+}
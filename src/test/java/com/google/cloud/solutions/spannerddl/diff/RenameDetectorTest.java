@@ -0,0 +1,267 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STATEMENTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.cloud.solutions.spannerddl.diff.RenameDetector.RenameCandidate;
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class RenameDetectorTest {
+
+  private static final Map<String, Boolean> OPTIONS =
+      ImmutableMap.of(
+          ALLOW_RECREATE_CONSTRAINTS_OPT,
+          true,
+          ALLOW_DROP_STATEMENTS_OPT,
+          true,
+          ALLOW_RECREATE_INDEXES_OPT,
+          true);
+
+  @Test
+  public void detectRenames_renamesTable() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            "CREATE TABLE Albums (Id INT64, Title STRING(MAX)) PRIMARY KEY (Id),"
+                + " ROW DELETION POLICY (OLDER_THAN(Title, INTERVAL 1 DAY));",
+            "CREATE TABLE Records (Id INT64, Title STRING(MAX)) PRIMARY KEY (Id),"
+                + " ROW DELETION POLICY (OLDER_THAN(Title, INTERVAL 1 DAY));",
+            OPTIONS);
+    List<RenameCandidate> renames = diff.detectRenames(RenameDetector.DEFAULT_THRESHOLD);
+
+    assertThat(report(renames))
+        .containsExactly("TABLE Albums -> Records, confidence 1.00: accepted");
+    assertThat(diff.generateDifferenceStatements(OPTIONS, renames))
+        .containsExactly("ALTER TABLE Albums RENAME TO Records");
+    // Without rename detection, the table and its row deletion policy are dropped and re-created.
+    assertThat(diff.generateDifferenceStatements(OPTIONS)).hasSize(4);
+  }
+
+  @Test
+  public void detectRenames_renamesTableAndAltersIt() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            "CREATE TABLE Albums (Id INT64, Title STRING(MAX), Year INT64) PRIMARY KEY (Id);",
+            "CREATE TABLE Records (Id INT64, Name STRING(MAX), Year INT64, Label INT64)"
+                + " PRIMARY KEY (Id);",
+            OPTIONS);
+    List<RenameCandidate> renames = diff.detectRenames(0.4);
+
+    assertThat(report(renames))
+        .containsExactly(
+            "TABLE Albums -> Records, confidence 0.40: accepted",
+            "COLUMN Records.Title -> Name, confidence 1.00: rejected, Spanner cannot rename"
+                + " columns")
+        .inOrder();
+    assertThat(diff.generateDifferenceStatements(OPTIONS, renames))
+        .containsExactly(
+            "ALTER TABLE Albums RENAME TO Records",
+            "ALTER TABLE Records DROP COLUMN Title",
+            "ALTER TABLE Records ADD COLUMN Name STRING(MAX)",
+            "ALTER TABLE Records ADD COLUMN Label INT64")
+        .inOrder();
+  }
+
+  @Test
+  public void detectRenames_belowThreshold() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            "CREATE TABLE Albums (Id INT64, Title STRING(MAX)) PRIMARY KEY (Id);",
+            "CREATE TABLE Records (Id INT64, Title STRING(MAX), Year INT64) PRIMARY KEY (Id);",
+            OPTIONS);
+    List<RenameCandidate> renames = diff.detectRenames(RenameDetector.DEFAULT_THRESHOLD);
+
+    assertThat(report(renames))
+        .containsExactly(
+            "TABLE Albums -> Records, confidence 0.67: rejected, below the threshold of 1.00");
+    assertThat(diff.generateDifferenceStatements(OPTIONS, renames))
+        .containsExactly(
+            "DROP TABLE Albums",
+            "CREATE TABLE Records ( Id INT64, Title STRING(MAX), Year INT64 ) PRIMARY KEY (Id)")
+        .inOrder();
+  }
+
+  @Test
+  public void detectRenames_ambiguousColumns() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            "CREATE TABLE t (Id INT64, Title STRING(MAX)) PRIMARY KEY (Id);",
+            "CREATE TABLE t (Id INT64, Name STRING(MAX), Label STRING(MAX)) PRIMARY KEY (Id);",
+            OPTIONS);
+    List<RenameCandidate> renames = diff.detectRenames(RenameDetector.DEFAULT_THRESHOLD);
+
+    assertThat(report(renames))
+        .containsExactly(
+            "COLUMN t.Title -> Name, confidence 1.00: rejected, ambiguous",
+            "COLUMN t.Title -> Label, confidence 1.00: rejected, ambiguous");
+    assertThat(diff.generateDifferenceStatements(OPTIONS, renames))
+        .containsExactly(
+            "ALTER TABLE t DROP COLUMN Title",
+            "ALTER TABLE t ADD COLUMN Name STRING(MAX)",
+            "ALTER TABLE t ADD COLUMN Label STRING(MAX)")
+        .inOrder();
+  }
+
+  @Test
+  public void detectRenames_differentPrimaryKeyIsNotACandidate() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            "CREATE TABLE Albums (Id INT64, Title STRING(MAX)) PRIMARY KEY (Id);",
+            "CREATE TABLE Records (Id INT64, Title STRING(MAX)) PRIMARY KEY (Id, Title);",
+            OPTIONS);
+
+    assertThat(diff.detectRenames(0.1)).isEmpty();
+  }
+
+  @Test
+  public void detectRenames_ambiguousTables() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            "CREATE TABLE A (Id INT64) PRIMARY KEY (Id);",
+            "CREATE TABLE B (Id INT64) PRIMARY KEY (Id);"
+                + "CREATE TABLE C (Id INT64) PRIMARY KEY (Id);",
+            OPTIONS);
+
+    assertThat(report(diff.detectRenames(RenameDetector.DEFAULT_THRESHOLD)))
+        .containsExactly(
+            "TABLE A -> B, confidence 1.00: rejected, ambiguous",
+            "TABLE A -> C, confidence 1.00: rejected, ambiguous");
+  }
+
+  @Test
+  public void detectRenames_referencedTableIsNotRenamed() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            "CREATE TABLE Albums (Id INT64, Title STRING(MAX)) PRIMARY KEY (Id);"
+                + "CREATE INDEX AlbumsByTitle ON Albums (Title);",
+            "CREATE TABLE Records (Id INT64, Title STRING(MAX)) PRIMARY KEY (Id);"
+                + "CREATE INDEX AlbumsByTitle ON Records (Title);",
+            OPTIONS);
+
+    assertThat(report(diff.detectRenames(RenameDetector.DEFAULT_THRESHOLD)))
+        .containsExactly(
+            "TABLE Albums -> Records, confidence 1.00: rejected, referenced by other schema"
+                + " objects");
+  }
+
+  @Test
+  public void detectRenames_tableWithVectorIndexIsNotRenamed() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            "CREATE TABLE Docs (Id INT64, Embedding ARRAY<FLOAT32>(vector_length=>128))"
+                + " PRIMARY KEY (Id);"
+                + "CREATE VECTOR INDEX DocsByEmbedding ON Docs (Embedding)"
+                + " WHERE Embedding IS NOT NULL OPTIONS (distance_type='COSINE');",
+            "CREATE TABLE Documents (Id INT64, Embedding ARRAY<FLOAT32>(vector_length=>128))"
+                + " PRIMARY KEY (Id);"
+                + "CREATE VECTOR INDEX DocsByEmbedding ON Documents (Embedding)"
+                + " WHERE Embedding IS NOT NULL OPTIONS (distance_type='COSINE');",
+            OPTIONS);
+
+    assertThat(report(diff.detectRenames(RenameDetector.DEFAULT_THRESHOLD)))
+        .containsExactly(
+            "TABLE Docs -> Documents, confidence 1.00: rejected, referenced by other schema"
+                + " objects");
+  }
+
+  @Test
+  public void detectRenames_tableUsedByViewIsNotRenamed() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            "CREATE TABLE Albums (Id INT64, Title STRING(MAX)) PRIMARY KEY (Id);"
+                + "CREATE VIEW AlbumTitles SQL SECURITY INVOKER AS SELECT Title FROM Albums;",
+            "CREATE TABLE Records (Id INT64, Title STRING(MAX)) PRIMARY KEY (Id);"
+                + "CREATE VIEW AlbumTitles SQL SECURITY INVOKER AS SELECT Title FROM Records;",
+            OPTIONS);
+
+    assertThat(report(diff.detectRenames(RenameDetector.DEFAULT_THRESHOLD)))
+        .containsExactly(
+            "TABLE Albums -> Records, confidence 1.00: rejected, referenced by other schema"
+                + " objects");
+  }
+
+  @Test
+  public void detectRenames_reportsColumnButDropsAndAddsIt() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            "CREATE TABLE Singers (Id INT64, FirstName STRING(100), Age INT64) PRIMARY KEY (Id);"
+                + "CREATE INDEX SingersByAge ON Singers (Age);",
+            "CREATE TABLE Singers (Id INT64, GivenName STRING(100) NOT NULL, Years INT64)"
+                + " PRIMARY KEY (Id);"
+                + "CREATE INDEX SingersByAge ON Singers (Years);",
+            OPTIONS);
+    List<RenameCandidate> renames = diff.detectRenames(0.8);
+
+    assertThat(report(renames))
+        .containsExactly(
+            "COLUMN Singers.Age -> Years, confidence 1.00: rejected, referenced by other schema"
+                + " objects",
+            "COLUMN Singers.FirstName -> GivenName, confidence 0.83: rejected, Spanner cannot"
+                + " rename columns")
+        .inOrder();
+    assertThat(diff.generateDifferenceStatements(OPTIONS, renames))
+        .containsExactly(
+            "DROP INDEX SingersByAge",
+            "ALTER TABLE Singers DROP COLUMN FirstName",
+            "ALTER TABLE Singers DROP COLUMN Age",
+            "ALTER TABLE Singers ADD COLUMN GivenName STRING(100) NOT NULL",
+            "ALTER TABLE Singers ADD COLUMN Years INT64",
+            "CREATE INDEX SingersByAge ON Singers ( Years )")
+        .inOrder();
+  }
+
+  @Test
+  public void detectRenames_rejectsInvalidThreshold() throws DdlDiffException {
+    DdlDiff diff = DdlDiff.build("", "", OPTIONS);
+    assertThrows(IllegalArgumentException.class, () -> diff.detectRenames(0));
+    assertThrows(IllegalArgumentException.class, () -> diff.detectRenames(1.5));
+  }
+
+  @Test
+  public void parseCommandLine_renameOptions() {
+    DdlDiffOptions options =
+        DdlDiffOptions.parseCommandLine(
+            new String[] {
+              "--originalDdlFile",
+              "original.ddl",
+              "--newDdlFile",
+              "new.ddl",
+              "--outputDdlFile",
+              "output.ddl",
+              "--detectRenames",
+              "--renameThreshold",
+              "0.75",
+              "--renameReportFile",
+              "renames.txt"
+            });
+    assertThat(options.args().get(DdlDiff.DETECT_RENAMES_OPT)).isTrue();
+    assertThat(options.renameThreshold()).isEqualTo(0.75);
+    assertThat(options.renameReportPath()).isPresent();
+  }
+
+  private static List<String> report(List<RenameCandidate> renames) {
+    return renames.stream().map(RenameCandidate::toReportLine).collect(Collectors.toList());
+  }
+}
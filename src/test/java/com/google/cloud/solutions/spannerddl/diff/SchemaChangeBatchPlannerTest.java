@@ -0,0 +1,208 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+
+import com.google.cloud.solutions.spannerddl.diff.SchemaChangeBatchPlanner.Batch;
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.common.collect.ImmutableList;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SchemaChangeBatchPlannerTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void plan_keepsAllStatementsInOneBatchWithinLimits() {
+    List<String> statements =
+        ImmutableList.of(
+            "ALTER TABLE t1 ADD COLUMN c2 INT64",
+            "CREATE TABLE t2 ( c1 INT64 ) PRIMARY KEY (c1)",
+            "CREATE INDEX i1 ON t1 ( c2 )");
+
+    ImmutableList<Batch> batches = new SchemaChangeBatchPlanner().plan(statements);
+
+    assertThat(batches).containsExactly(Batch.create(statements, 1));
+  }
+
+  @Test
+  public void plan_emptyStatements() {
+    assertThat(new SchemaChangeBatchPlanner().plan(ImmutableList.of())).isEmpty();
+  }
+
+  @Test
+  public void plan_splitsAtMaxStatements() {
+    List<String> statements = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      statements.add("ALTER TABLE t1 ADD COLUMN c" + i + " INT64");
+    }
+
+    ImmutableList<Batch> batches = new SchemaChangeBatchPlanner(3, 10).plan(statements);
+
+    assertThat(sizes(batches)).containsExactly(3, 3, 1).inOrder();
+    // Statements are never reordered.
+    assertThat(flatten(batches)).containsExactlyElementsIn(statements).inOrder();
+  }
+
+  @Test
+  public void plan_splitsAtMaxBackfills() {
+    List<String> statements =
+        ImmutableList.of(
+            "CREATE INDEX i1 ON t1 ( c1 )",
+            "ALTER TABLE t1 ADD COLUMN c5 INT64",
+            "CREATE UNIQUE NULL_FILTERED INDEX i2 ON t1 ( c2 )",
+            "CREATE SEARCH INDEX s1 ON t1(c3_tokens)",
+            "ALTER TABLE t2 ADD CONSTRAINT fk1 FOREIGN KEY ( c1 ) REFERENCES t1 ( c1 )",
+            "ALTER INDEX i3 ADD STORED COLUMN c4",
+            "ALTER SEARCH INDEX s2 ADD COLUMN c5_tokens");
+
+    ImmutableList<Batch> batches = new SchemaChangeBatchPlanner(100, 2).plan(statements);
+
+    assertThat(sizes(batches)).containsExactly(3, 2, 2).inOrder();
+    assertThat(batches.stream().map(Batch::indexBackfills).collect(Collectors.toList()))
+        .containsExactly(2, 2, 2)
+        .inOrder();
+  }
+
+  @Test
+  public void plan_indexOnNewTableDoesNotNeedBackfill() {
+    List<String> statements =
+        ImmutableList.of(
+            "CREATE TABLE t2 ( c1 INT64 ) PRIMARY KEY (c1)",
+            "CREATE INDEX i1 ON t2 ( c1 )",
+            "CREATE SEARCH INDEX s1 ON `T2`(c1)",
+            "ALTER TABLE t2 ADD CONSTRAINT fk1 FOREIGN KEY ( c1 ) REFERENCES t1 ( c1 )",
+            "ALTER TABLE t2 ADD CONSTRAINT ck1 CHECK (c1 > 0)");
+
+    ImmutableList<Batch> batches = new SchemaChangeBatchPlanner(100, 1).plan(statements);
+
+    assertThat(batches).containsExactly(Batch.create(statements, 0));
+  }
+
+  @Test
+  public void plan_splitsBeforeRecreatingObjectDroppedInSameBatch() {
+    List<String> statements =
+        ImmutableList.of(
+            "DROP INDEX i1",
+            "ALTER TABLE t1 DROP CONSTRAINT fk1",
+            "ALTER TABLE t1 ADD COLUMN c3 INT64",
+            "ALTER TABLE t1 ADD CONSTRAINT FK1 FOREIGN KEY ( c3 ) REFERENCES t2 ( c1 )",
+            "CREATE INDEX i1 ON t1 ( c2 )");
+
+    ImmutableList<Batch> batches = new SchemaChangeBatchPlanner().plan(statements);
+
+    // The constraint is re-created in a second batch. The index was dropped in the first batch,
+    // so it is re-created in the second batch too.
+    assertThat(sizes(batches)).containsExactly(3, 2).inOrder();
+  }
+
+  @Test
+  public void plan_rejectsNonPositiveLimits() {
+    assertThrows(IllegalArgumentException.class, () -> new SchemaChangeBatchPlanner(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new SchemaChangeBatchPlanner(1, 0));
+  }
+
+  @Test
+  public void formatPlan() {
+    ImmutableList<Batch> batches =
+        ImmutableList.of(
+            Batch.create(ImmutableList.of("DROP INDEX i1", "CREATE INDEX i2 ON t1 ( c1 )"), 1),
+            Batch.create(ImmutableList.of("CREATE INDEX i1 ON t1 ( c2 )"), 1));
+
+    assertThat(SchemaChangeBatchPlanner.formatPlan(batches))
+        .isEqualTo(
+            "-- Batch 1 of 2: 2 statements, 1 index backfill\n\n"
+                + "DROP INDEX i1;\n\n"
+                + "CREATE INDEX i2 ON t1 ( c1 );\n\n"
+                + "-- Batch 2 of 2: 1 statement, 1 index backfill\n\n"
+                + "CREATE INDEX i1 ON t1 ( c2 );\n\n");
+  }
+
+  @Test
+  public void writeBatchPlan_usesCommandLineLimits() throws IOException, DdlDiffException {
+    Path planFile = new File(tempFolder.getRoot(), "plan.ddl").toPath();
+    DdlDiffOptions options =
+        DdlDiffOptions.parseCommandLine(
+            new String[] {
+              "--originalDdlFile", "original.ddl",
+              "--newDdlFile", "new.ddl",
+              "--outputDdlFile", "output.ddl",
+              "--batchPlanFile", planFile.toString(),
+              "--maxStatementsPerBatch", "2",
+              "--maxBackfillsPerBatch", "1"
+            });
+    assertThat(options.batchPlanPath()).hasValue(planFile);
+    assertThat(options.maxStatementsPerBatch()).isEqualTo(2);
+    assertThat(options.maxBackfillsPerBatch()).isEqualTo(1);
+
+    List<String> statements =
+        ImmutableList.of(
+            "CREATE TABLE t2 ( c1 INT64 ) PRIMARY KEY (c1)",
+            "CREATE INDEX i1 ON t1 ( c2 )",
+            "CREATE INDEX i2 ON t1 ( c1, c2 )");
+    DdlDiff.writeBatchPlan(options, statements);
+
+    String plan = new String(Files.readAllBytes(planFile), UTF_8);
+    assertThat(plan).startsWith("-- Batch 1 of 2: 2 statements, 1 index backfill\n");
+    assertThat(plan).contains("-- Batch 2 of 2: 1 statement, 1 index backfill\n");
+    // The plan can still be read as a single DDL file.
+    assertThat(
+            DdlDiff.parseDdl(plan).stream()
+                .map(ASTddl_statement::toString)
+                .collect(Collectors.toList()))
+        .containsExactlyElementsIn(statements)
+        .inOrder();
+  }
+
+  @Test
+  public void parseCommandLine_defaultLimits() {
+    DdlDiffOptions options =
+        DdlDiffOptions.parseCommandLine(
+            new String[] {
+              "--originalDdlFile", "original.ddl",
+              "--newDdlFile", "new.ddl",
+              "--outputDdlFile", "output.ddl"
+            });
+    assertThat(options.batchPlanPath()).isEmpty();
+    assertThat(options.maxStatementsPerBatch())
+        .isEqualTo(SchemaChangeBatchPlanner.DEFAULT_MAX_STATEMENTS_PER_BATCH);
+    assertThat(options.maxBackfillsPerBatch())
+        .isEqualTo(SchemaChangeBatchPlanner.DEFAULT_MAX_BACKFILLS_PER_BATCH);
+  }
+
+  private static List<Integer> sizes(List<Batch> batches) {
+    return batches.stream().map(batch -> batch.statements().size()).collect(Collectors.toList());
+  }
+
+  private static List<String> flatten(List<Batch> batches) {
+    return batches.stream()
+        .flatMap(batch -> batch.statements().stream())
+        .collect(Collectors.toList());
+  }
+}
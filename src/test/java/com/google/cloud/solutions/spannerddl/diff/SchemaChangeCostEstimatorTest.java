@@ -0,0 +1,239 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STATEMENTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+
+import com.google.cloud.solutions.spannerddl.diff.SchemaChangeCostEstimator.Cost;
+import com.google.cloud.solutions.spannerddl.diff.SchemaChangeCostEstimator.CostClass;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SchemaChangeCostEstimatorTest {
+
+  private static final Map<String, Boolean> OPTIONS =
+      ImmutableMap.of(
+          ALLOW_RECREATE_CONSTRAINTS_OPT,
+          true,
+          ALLOW_DROP_STATEMENTS_OPT,
+          true,
+          ALLOW_RECREATE_INDEXES_OPT,
+          true);
+
+  private static final String ORIGINAL_DDL =
+      "CREATE TABLE t1 (c1 INT64, c2 STRING(100), c3 BYTES(MAX)) PRIMARY KEY (c1);"
+          + "CREATE TABLE t2 (c1 INT64, c2 STRING(MAX)) PRIMARY KEY (c1);"
+          + "CREATE INDEX i1 ON t1 (c2);";
+
+  private static final ImmutableMap<String, Long> TABLE_ROWS =
+      ImmutableMap.of("T1", 1000L, "t2", 50L);
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void estimate_metadataChanges() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            ORIGINAL_DDL,
+            "CREATE TABLE t1 (c1 INT64, c2 STRING(200), c3 BYTES(MAX), c4 INT64) PRIMARY KEY (c1);"
+                + "CREATE TABLE t2 (c1 INT64, c2 STRING(MAX)) PRIMARY KEY (c1);"
+                + "CREATE TABLE t3 (c1 INT64) PRIMARY KEY (c1);"
+                + "CREATE INDEX i1 ON t1 (c2);"
+                + "CREATE INDEX i3 ON t3 (c1);",
+            OPTIONS);
+    List<String> statements = diff.generateDifferenceStatements(OPTIONS);
+
+    assertThat(statements).hasSize(4);
+    assertThat(diff.estimateCosts(statements, TABLE_ROWS))
+        .containsExactlyElementsIn(Collections.nCopies(statements.size(), Cost.metadata()));
+  }
+
+  @Test
+  public void estimate_backfills() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            ORIGINAL_DDL,
+            ORIGINAL_DDL
+                + "CREATE INDEX i2 ON t2 (c2);"
+                + "ALTER TABLE t1 ADD CONSTRAINT fk1 FOREIGN KEY (c1) REFERENCES t2 (c1);",
+            OPTIONS);
+    List<String> statements = diff.generateDifferenceStatements(OPTIONS);
+
+    assertThat(statements)
+        .containsExactly(
+            "CREATE INDEX i2 ON t2 ( c2 )",
+            "ALTER TABLE t1 ADD CONSTRAINT fk1 FOREIGN KEY ( c1 ) REFERENCES t2 ( c1 ) ON DELETE NO ACTION")
+        .inOrder();
+    assertThat(diff.estimateCosts(statements, TABLE_ROWS))
+        .containsExactly(
+            Cost.create(CostClass.BACKFILL, Optional.of("t2"), Optional.of(50L)),
+            Cost.create(CostClass.BACKFILL, Optional.of("t1"), Optional.of(1000L)))
+        .inOrder();
+  }
+
+  @Test
+  public void estimate_alterIndexUsesIndexTable() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            ORIGINAL_DDL,
+            ORIGINAL_DDL.replace("ON t1 (c2)", "ON t1 (c2) STORING (c3)"),
+            ImmutableMap.of(
+                ALLOW_RECREATE_CONSTRAINTS_OPT, true,
+                ALLOW_DROP_STATEMENTS_OPT, true,
+                ALLOW_RECREATE_INDEXES_OPT, false));
+    List<String> statements =
+        diff.generateDifferenceStatements(
+            ImmutableMap.of(
+                ALLOW_RECREATE_CONSTRAINTS_OPT, true,
+                ALLOW_DROP_STATEMENTS_OPT, true,
+                ALLOW_RECREATE_INDEXES_OPT, false));
+
+    assertThat(statements).containsExactly("ALTER INDEX i1 ADD STORED COLUMN c3");
+    assertThat(diff.estimateCosts(statements, TABLE_ROWS))
+        .containsExactly(Cost.create(CostClass.BACKFILL, Optional.of("t1"), Optional.of(1000L)));
+  }
+
+  @Test
+  public void estimate_validations() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            ORIGINAL_DDL,
+            "CREATE TABLE t1 (c1 INT64, c2 STRING(50), c3 BYTES(10) NOT NULL) PRIMARY KEY (c1);"
+                + "CREATE TABLE t2 (c1 INT64, c2 STRING(MAX), CONSTRAINT ck1 CHECK (c1 > 0))"
+                + " PRIMARY KEY (c1);"
+                + "CREATE INDEX i1 ON t1 (c2);",
+            OPTIONS);
+    List<String> statements = diff.generateDifferenceStatements(OPTIONS);
+
+    assertThat(statements)
+        .containsExactly(
+            "ALTER TABLE t1 ALTER COLUMN c2 STRING(50)",
+            "ALTER TABLE t1 ALTER COLUMN c3 BYTES(10) NOT NULL",
+            "ALTER TABLE t2 ADD CONSTRAINT ck1 CHECK (c1 > 0)")
+        .inOrder();
+    assertThat(diff.estimateCosts(statements, ImmutableMap.of("t1", 1000L)))
+        .containsExactly(
+            Cost.create(CostClass.VALIDATION, Optional.of("t1"), Optional.of(1000L)),
+            Cost.create(CostClass.VALIDATION, Optional.of("t1"), Optional.of(1000L)),
+            Cost.create(CostClass.VALIDATION, Optional.of("t2"), Optional.empty()))
+        .inOrder();
+  }
+
+  @Test
+  public void checkBudget() {
+    ImmutableList<Cost> costs =
+        ImmutableList.of(
+            Cost.metadata(),
+            Cost.create(CostClass.BACKFILL, Optional.of("t1"), Optional.of(1000L)),
+            Cost.create(CostClass.VALIDATION, Optional.of("t2"), Optional.of(50L)));
+
+    DdlDiffException e =
+        assertThrows(
+            DdlDiffException.class, () -> SchemaChangeCostEstimator.checkBudget(costs, 1049));
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo(
+            "Estimated backfill and validation of 1050 rows exceeds the budget of 1049 rows");
+  }
+
+  @Test
+  public void checkBudget_withinBudget() throws DdlDiffException {
+    SchemaChangeCostEstimator.checkBudget(
+        ImmutableList.of(
+            Cost.metadata(), Cost.create(CostClass.BACKFILL, Optional.of("t1"), Optional.of(10L))),
+        10);
+  }
+
+  @Test
+  public void checkBudget_unknownTableSize() {
+    ImmutableList<Cost> costs =
+        ImmutableList.of(Cost.create(CostClass.BACKFILL, Optional.of("t3"), Optional.empty()));
+
+    DdlDiffException e =
+        assertThrows(
+            DdlDiffException.class, () -> SchemaChangeCostEstimator.checkBudget(costs, 1000000));
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo("No table size given for table t3, which needs a BACKFILL of its rows");
+  }
+
+  @Test
+  public void readTableSizes() throws IOException, DdlDiffException {
+    Path file = new File(tempFolder.getRoot(), "sizes.csv").toPath();
+    Files.write(file, "# table,rows\n\nt1,1000\n t2 , 50 \n".getBytes(UTF_8));
+
+    assertThat(SchemaChangeCostEstimator.readTableSizes(file))
+        .containsExactly("t1", 1000L, "t2", 50L);
+
+    Files.write(file, "t1,1000\nt2,many\n".getBytes(UTF_8));
+    DdlDiffException e =
+        assertThrows(DdlDiffException.class, () -> SchemaChangeCostEstimator.readTableSizes(file));
+    assertThat(e).hasMessageThat().contains("Invalid line 2");
+  }
+
+  @Test
+  public void formatAnnotated() {
+    assertThat(
+            SchemaChangeCostEstimator.formatAnnotated(
+                ImmutableList.of(
+                    "ALTER TABLE t1 ADD COLUMN c4 INT64",
+                    "CREATE INDEX i2 ON t1 ( c4 )",
+                    "CREATE INDEX i3 ON t3 ( c1 )"),
+                ImmutableList.of(
+                    Cost.metadata(),
+                    Cost.create(CostClass.BACKFILL, Optional.of("t1"), Optional.of(1000L)),
+                    Cost.create(CostClass.BACKFILL, Optional.of("t3"), Optional.empty()))))
+        .isEqualTo(
+            "-- Cost: METADATA\n"
+                + "ALTER TABLE t1 ADD COLUMN c4 INT64;\n\n"
+                + "-- Cost: BACKFILL, table t1, estimated rows: 1000\n"
+                + "CREATE INDEX i2 ON t1 ( c4 );\n\n"
+                + "-- Cost: BACKFILL, table t3, estimated rows: unknown\n"
+                + "CREATE INDEX i3 ON t3 ( c1 );\n\n");
+  }
+
+  @Test
+  public void parseCommandLine_maxBackfillRows() {
+    DdlDiffOptions options =
+        DdlDiffOptions.parseCommandLine(
+            new String[] {
+              "--originalDdlFile", "original.ddl",
+              "--newDdlFile", "new.ddl",
+              "--outputDdlFile", "output.ddl",
+              "--tableSizesFile", "sizes.csv",
+              "--maxBackfillRows", "5000000000"
+            });
+    assertThat(options.tableSizesPath()).hasValue(new File("sizes.csv").toPath());
+    assertThat(options.maxBackfillRows()).hasValue(5000000000L);
+  }
+}
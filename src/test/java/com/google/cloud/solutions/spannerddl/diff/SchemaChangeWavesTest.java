@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.diff;
+
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STATEMENTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class SchemaChangeWavesTest {
+
+  private static final Map<String, Boolean> OPTIONS =
+      ImmutableMap.of(
+          ALLOW_RECREATE_CONSTRAINTS_OPT,
+          true,
+          ALLOW_DROP_STATEMENTS_OPT,
+          true,
+          ALLOW_RECREATE_INDEXES_OPT,
+          true);
+
+  @Test
+  public void sortIntoWaves_unrelatedChangesShareAWave() throws DdlDiffException {
+    ImmutableList<ImmutableList<String>> waves =
+        sortIntoWaves(
+            "CREATE TABLE t1 (c1 INT64) PRIMARY KEY (c1);"
+                + "CREATE TABLE t2 (c1 INT64) PRIMARY KEY (c1);",
+            "CREATE TABLE t1 (c1 INT64, c2 INT64) PRIMARY KEY (c1);"
+                + "CREATE TABLE t2 (c1 INT64, c2 STRING(MAX)) PRIMARY KEY (c1);"
+                + "CREATE TABLE t3 (c1 INT64) PRIMARY KEY (c1);");
+
+    assertThat(waves)
+        .containsExactly(
+            ImmutableList.of(
+                "ALTER TABLE t1 ADD COLUMN c2 INT64",
+                "ALTER TABLE t2 ADD COLUMN c2 STRING(MAX)",
+                "CREATE TABLE t3 ( c1 INT64 ) PRIMARY KEY (c1)"));
+  }
+
+  @Test
+  public void sortIntoWaves_dependentCreatesAreSequential() throws DdlDiffException {
+    ImmutableList<ImmutableList<String>> waves =
+        sortIntoWaves(
+            "CREATE TABLE unrelated (c1 INT64) PRIMARY KEY (c1);",
+            "CREATE TABLE unrelated (c1 INT64, c2 INT64) PRIMARY KEY (c1);"
+                + "CREATE TABLE parent (c1 INT64) PRIMARY KEY (c1);"
+                + "CREATE TABLE child (c1 INT64, c2 INT64) PRIMARY KEY (c1, c2),"
+                + " INTERLEAVE IN PARENT parent;"
+                + "CREATE INDEX child_by_c2 ON child (c2);");
+
+    assertThat(firstWords(waves))
+        .containsExactly(
+            ImmutableList.of("ALTER TABLE unrelated", "CREATE TABLE parent"),
+            ImmutableList.of("CREATE TABLE child"),
+            ImmutableList.of("CREATE INDEX child_by_c2"))
+        .inOrder();
+  }
+
+  @Test
+  public void sortIntoWaves_tableCreatedAfterItsSequence() throws DdlDiffException {
+    ImmutableList<ImmutableList<String>> waves =
+        sortIntoWaves(
+            "CREATE TABLE unrelated (c1 INT64) PRIMARY KEY (c1);",
+            "CREATE TABLE unrelated (c1 INT64, c2 INT64) PRIMARY KEY (c1);"
+                + "CREATE SEQUENCE seq OPTIONS (sequence_kind='bit_reversed_positive');"
+                + "CREATE TABLE t1 (c1 INT64 DEFAULT (GET_NEXT_SEQUENCE_VALUE(SEQUENCE seq)))"
+                + " PRIMARY KEY (c1);");
+
+    assertThat(firstWords(waves))
+        .containsExactly(
+            ImmutableList.of("CREATE SEQUENCE seq", "ALTER TABLE unrelated"),
+            ImmutableList.of("CREATE TABLE t1"))
+        .inOrder();
+  }
+
+  @Test
+  public void sortIntoWaves_viewReplacedBeforeColumnDropped() throws DdlDiffException {
+    ImmutableList<ImmutableList<String>> waves =
+        sortIntoWaves(
+            "CREATE TABLE t1 (c1 INT64, c2 INT64) PRIMARY KEY (c1);"
+                + "CREATE TABLE t2 (c1 INT64) PRIMARY KEY (c1);"
+                + "CREATE VIEW v1 SQL SECURITY INVOKER AS SELECT c1, c2 FROM t1;",
+            "CREATE TABLE t1 (c1 INT64) PRIMARY KEY (c1);"
+                + "CREATE TABLE t2 (c1 INT64, c2 INT64) PRIMARY KEY (c1);"
+                + "CREATE VIEW v1 SQL SECURITY INVOKER AS SELECT c1 FROM t1;");
+
+    assertThat(firstWords(waves))
+        .containsExactly(
+            ImmutableList.of("CREATE OR REPLACE", "ALTER TABLE t2"),
+            ImmutableList.of("ALTER TABLE t1"))
+        .inOrder();
+  }
+
+  @Test
+  public void sortIntoWaves_foreignKeyDroppedBeforeReferencedTable() throws DdlDiffException {
+    ImmutableList<ImmutableList<String>> waves =
+        sortIntoWaves(
+            "CREATE TABLE t1 (c1 INT64) PRIMARY KEY (c1);"
+                + "CREATE TABLE t2 (c1 INT64, c2 INT64,"
+                + " CONSTRAINT fk1 FOREIGN KEY (c2) REFERENCES t1 (c1)) PRIMARY KEY (c1);"
+                + "CREATE INDEX i1 ON t1 (c1);",
+            "CREATE TABLE t2 (c1 INT64, c2 INT64) PRIMARY KEY (c1);");
+
+    assertThat(firstWords(waves))
+        .containsExactly(
+            ImmutableList.of("DROP INDEX i1", "ALTER TABLE t2"), ImmutableList.of("DROP TABLE t1"))
+        .inOrder();
+  }
+
+  @Test
+  public void sortIntoWaves_renamedTableAlteredAfterRename() throws DdlDiffException {
+    DdlDiff diff =
+        DdlDiff.build(
+            "CREATE TABLE Albums (Id INT64, Title STRING(MAX), Year INT64) PRIMARY KEY (Id);"
+                + "CREATE TABLE t3 (c1 INT64) PRIMARY KEY (c1);",
+            "CREATE TABLE Records (Id INT64, Title STRING(MAX), Year INT64, Label INT64)"
+                + " PRIMARY KEY (Id);"
+                + "CREATE TABLE t3 (c1 INT64, c2 INT64) PRIMARY KEY (c1);",
+            OPTIONS);
+    List<String> statements = diff.generateDifferenceStatements(OPTIONS, diff.detectRenames(0.7));
+
+    assertThat(diff.sortIntoWaves(statements))
+        .containsExactly(
+            ImmutableList.of(
+                "ALTER TABLE Albums RENAME TO Records", "ALTER TABLE t3 ADD COLUMN c2 INT64"),
+            ImmutableList.of("ALTER TABLE Records ADD COLUMN Label INT64"))
+        .inOrder();
+  }
+
+  @Test
+  public void sortIntoWaves_unknownStatementIsABarrier() {
+    List<String> statements =
+        ImmutableList.of(
+            "ALTER TABLE t1 ADD COLUMN c2 INT64",
+            "ALTER TABLE t2 ADD COLUMN c2 INT64",
+            "GRANT SELECT ON TABLE t1 TO ROLE r1",
+            "ALTER TABLE t3 ADD COLUMN c2 INT64");
+
+    DatabaseDefinition empty = DatabaseDefinition.create(ImmutableList.of(), OPTIONS);
+    assertThat(SchemaChangeWaves.sortIntoWaves(statements, empty, empty))
+        .containsExactly(
+            statements.subList(0, 2),
+            ImmutableList.of(statements.get(2)),
+            ImmutableList.of(statements.get(3)))
+        .inOrder();
+  }
+
+  @Test
+  public void getChangedObjects() {
+    assertThat(SchemaChangeWaves.getChangedObjects("ALTER DATABASE db SET OPTIONS (x=1)"))
+        .containsExactly("DATABASE");
+    assertThat(SchemaChangeWaves.getChangedObjects("ALTER TABLE t1 DROP CONSTRAINT fk1"))
+        .containsExactly("CONSTRAINT:fk1");
+    assertThat(
+            SchemaChangeWaves.getChangedObjects("CREATE UNIQUE NULL_FILTERED INDEX i1 ON t1 (c1)"))
+        .containsExactly("INDEX:i1");
+    assertThat(SchemaChangeWaves.getChangedObjects("ALTER SEARCH INDEX s1 ADD COLUMN c1"))
+        .containsExactly("SEARCH_INDEX:s1");
+    assertThat(SchemaChangeWaves.getChangedObjects("CREATE TABLE t1 (c1 INT64) PRIMARY KEY (c1)"))
+        .containsExactly("TABLE:t1");
+    assertThat(SchemaChangeWaves.getChangedObjects("ALTER TABLE T1 RENAME TO T2"))
+        .containsExactly("TABLE:t1", "TABLE:t2")
+        .inOrder();
+    assertThat(SchemaChangeWaves.getChangedObjects("GRANT SELECT ON TABLE t1 TO ROLE r1"))
+        .isEmpty();
+  }
+
+  @Test
+  public void formatWaves() {
+    assertThat(
+            SchemaChangeWaves.formatWaves(
+                ImmutableList.of(
+                    ImmutableList.of("DROP INDEX i1", "DROP INDEX i2"),
+                    ImmutableList.of("DROP TABLE t1"))))
+        .isEqualTo(
+            "-- Wave 1 of 2: 2 statements\n\n"
+                + "DROP INDEX i1;\n\n"
+                + "DROP INDEX i2;\n\n"
+                + "-- Wave 2 of 2: 1 statement\n\n"
+                + "DROP TABLE t1;\n\n");
+  }
+
+  private static ImmutableList<ImmutableList<String>> sortIntoWaves(
+      String originalDdl, String newDdl) throws DdlDiffException {
+    DdlDiff diff = DdlDiff.build(originalDdl, newDdl, OPTIONS);
+    return diff.sortIntoWaves(diff.generateDifferenceStatements(OPTIONS));
+  }
+
+  /** Returns the first three words of each statement, to identify it. */
+  private static List<List<String>> firstWords(List<ImmutableList<String>> waves) {
+    return waves.stream()
+        .map(
+            wave ->
+                wave.stream()
+                    .map(s -> String.join(" ", ImmutableList.copyOf(s.split(" ")).subList(0, 3)))
+                    .collect(Collectors.toList()))
+        .collect(Collectors.toList());
+  }
+}
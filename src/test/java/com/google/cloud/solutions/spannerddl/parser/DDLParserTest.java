@@ -180,6 +180,27 @@ public class DDLParserTest {
     assertThat(statement.toString()).isEqualTo("CREATE SCHEMA schema_name");
   }
 
+  @Test
+  public void fastParserConstantsMatchDiagnosticParser() {
+    assertThat(DdlFastParserTreeConstants.jjtNodeName)
+        .asList()
+        .containsExactlyElementsIn(DdlParserTreeConstants.jjtNodeName)
+        .inOrder();
+    assertThat(DdlFastParserConstants.tokenImage)
+        .asList()
+        .containsExactlyElementsIn(DdlParserConstants.tokenImage)
+        .inOrder();
+  }
+
+  @Test
+  public void fastParserReportsErrorWithoutExpectedTokens() {
+    ParseException e =
+        assertThrows(
+            ParseException.class,
+            () -> DdlFastParser.parseDdlStatement("Create index index1 on test1"));
+    assertThat(e.getMessage()).isEqualTo("Parse error at line 1, column 28.  Encountered: <EOF>");
+  }
+
   private static void parseCheckingParseException(String ddlStatement, String exceptionContains) {
     ParseException e =
         assertThrows(ParseException.class, () -> parseAndVerifyToString(ddlStatement));
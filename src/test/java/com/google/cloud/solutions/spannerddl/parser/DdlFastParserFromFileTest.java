@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.parser;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import com.google.cloud.solutions.spannerddl.testUtils.ReadTestDatafile;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Verifies that the fast-path parser, generated from the same grammar without error reporting,
+ * builds the same tree as the diagnostic parser for every statement of the parser validation file.
+ */
+@RunWith(Parameterized.class)
+public class DdlFastParserFromFileTest {
+
+  @Parameter(0)
+  public String segmentName;
+
+  @Parameter(1)
+  public String ddlStatement;
+
+  @Parameters(name = "{index}: {0}")
+  public static Collection<Object[]> data() throws IOException {
+    Map<String, String> tests = ReadTestDatafile.readDdlSegmentsFromFile("ddlParserValidation.txt");
+    return tests.entrySet().stream()
+        .map(
+            entry ->
+                new Object[] {
+                  entry.getKey(),
+                  // remove newlines, indentation and shrink all whitespace to a single space.
+                  entry.getValue().replaceAll("\\s+", " ").trim()
+                })
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void fastParserBuildsSameTree() throws ParseException {
+    ASTddl_statement expected = DdlParser.parseDdlStatement(ddlStatement);
+    ASTddl_statement actual = DdlFastParser.parseDdlStatement(ddlStatement);
+
+    assertWithMessage("Tree mismatch for section %s:", segmentName)
+        .that(dumpTree(actual))
+        .isEqualTo(dumpTree(expected));
+    assertWithMessage("Mismatch for section %s:", segmentName)
+        .that(actual.toString())
+        .isEqualTo(expected.toString());
+  }
+
+  /** Lists each node's type and the images of its first and last tokens, depth first. */
+  private static String dumpTree(Node node) {
+    StringBuilder sb = new StringBuilder();
+    dumpTree(node, 0, sb);
+    return sb.toString();
+  }
+
+  private static void dumpTree(Node node, int depth, StringBuilder sb) {
+    SimpleNode simpleNode = (SimpleNode) node;
+    sb.append(depth)
+        .append(' ')
+        .append(node.getClass().getSimpleName())
+        .append(' ')
+        .append(DdlParserTreeConstants.jjtNodeName[node.getId()])
+        .append(' ')
+        .append(simpleNode.jjtGetFirstToken().image)
+        .append(' ')
+        .append(simpleNode.jjtGetLastToken().image)
+        .append('\n');
+    for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+      dumpTree(node.jjtGetChild(i), depth + 1, sb);
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.testUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the bytes allocated by the current thread, using the HotSpot extension of {@link
+ * ThreadMXBean}.
+ */
+public final class AllocationMeter {
+
+  /** An action whose allocations are measured. */
+  public interface Action {
+    void run() throws Exception;
+  }
+
+  private AllocationMeter() {}
+
+  private static com.sun.management.ThreadMXBean threads() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+      if (sunThreads.isThreadAllocatedMemorySupported()
+          && sunThreads.isThreadAllocatedMemoryEnabled()) {
+        return sunThreads;
+      }
+    }
+    return null;
+  }
+
+  /** Returns whether this JVM can measure allocations. */
+  public static boolean isSupported() {
+    return threads() != null;
+  }
+
+  /** Returns the bytes allocated by this thread so far, or 0 if the JVM cannot measure it. */
+  @SuppressWarnings("deprecation") // Thread.threadId() requires Java 19.
+  public static long allocatedBytes() {
+    com.sun.management.ThreadMXBean threads = threads();
+    return threads == null ? 0 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Runs the action once to load classes and initialize caches, then returns the fewest bytes it
+   * allocated over the given number of runs.
+   */
+  public static long measure(int runs, Action action) throws Exception {
+    action.run();
+    long bytes = Long.MAX_VALUE;
+    for (int run = 0; run < runs; run++) {
+      long start = allocatedBytes();
+      action.run();
+      bytes = Math.min(bytes, allocatedBytes() - start);
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,768 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.testUtils;
+
+import com.google.common.base.Joiner;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Generates large, valid DDL schemas for benchmarks and scale tests.
+ *
+ * <p>The generated schema is determined entirely by the configuration and the seed. {@link
+ * #generateOriginalDdl()} returns the schema, and {@link #generateNewDdl()} returns the same schema
+ * with {@link #changePercent} percent of the objects of each kind modified, dropped, or added.
+ *
+ * <p>The new DDL can always be diffed with the original DDL when all the {@code allow*} options are
+ * enabled, as some changes require indexes or constraints to be recreated.
+ *
+ * <p>eg:
+ *
+ * <pre>
+ * SchemaGenerator generator = new SchemaGenerator().seed(42).tables(1000).changePercent(5);
+ * String originalDdl = generator.generateOriginalDdl();
+ * String newDdl = generator.generateNewDdl();
+ * </pre>
+ */
+public class SchemaGenerator {
+
+  /** Column types used for data columns, in order. */
+  private static final String[] COLUMN_TYPES = {
+    "STRING(100)",
+    "INT64",
+    "FLOAT64",
+    "BOOL",
+    "TIMESTAMP",
+    "BYTES(256)",
+    "DATE",
+    "ARRAY<STRING(MAX)>",
+    "JSON",
+    "NUMERIC"
+  };
+
+  private static final long MUTATION_SEED_SALT = 0x5DEECE66DL;
+
+  private long seed = 1;
+  private int tables = 10;
+  private int columnsPerTable = 5;
+  private int interleaveDepth = 1;
+  private int indexes = 10;
+  private int searchIndexes = 2;
+  private int foreignKeys = 5;
+  private int checkConstraints = 5;
+  private int changeStreams = 2;
+  private int localityGroups = 2;
+  private int databaseOptions = 2;
+  private int changePercent = 10;
+
+  /** Seed for the random choices made when generating and mutating the schema. */
+  public SchemaGenerator seed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  public SchemaGenerator tables(int tables) {
+    this.tables = tables;
+    return this;
+  }
+
+  /** Number of data columns per table, in addition to key and reference columns. */
+  public SchemaGenerator columnsPerTable(int columnsPerTable) {
+    this.columnsPerTable = columnsPerTable;
+    return this;
+  }
+
+  /** Maximum depth of interleaved table hierarchies. 1 means no interleaved tables. */
+  public SchemaGenerator interleaveDepth(int interleaveDepth) {
+    this.interleaveDepth = interleaveDepth;
+    return this;
+  }
+
+  public SchemaGenerator indexes(int indexes) {
+    this.indexes = indexes;
+    return this;
+  }
+
+  /** Number of search indexes. At most one search index is created per table. */
+  public SchemaGenerator searchIndexes(int searchIndexes) {
+    this.searchIndexes = searchIndexes;
+    return this;
+  }
+
+  public SchemaGenerator foreignKeys(int foreignKeys) {
+    this.foreignKeys = foreignKeys;
+    return this;
+  }
+
+  public SchemaGenerator checkConstraints(int checkConstraints) {
+    this.checkConstraints = checkConstraints;
+    return this;
+  }
+
+  public SchemaGenerator changeStreams(int changeStreams) {
+    this.changeStreams = changeStreams;
+    return this;
+  }
+
+  public SchemaGenerator localityGroups(int localityGroups) {
+    this.localityGroups = localityGroups;
+    return this;
+  }
+
+  /** Number of options set by ALTER DATABASE statements. */
+  public SchemaGenerator databaseOptions(int databaseOptions) {
+    this.databaseOptions = databaseOptions;
+    return this;
+  }
+
+  /** Percentage of the objects of each kind which are changed in the new DDL. */
+  public SchemaGenerator changePercent(int changePercent) {
+    if (changePercent < 0 || changePercent > 100) {
+      throw new IllegalArgumentException("changePercent must be between 0 and 100");
+    }
+    this.changePercent = changePercent;
+    return this;
+  }
+
+  /** Generates the original schema DDL. */
+  public String generateOriginalDdl() {
+    return generateSchema().render();
+  }
+
+  /** Generates the original schema DDL with changes applied. */
+  public String generateNewDdl() {
+    Schema schema = generateSchema();
+    new Mutator(schema, new Random(seed ^ MUTATION_SEED_SALT)).mutate();
+    return schema.render();
+  }
+
+  private Schema generateSchema() {
+    Random random = new Random(seed);
+    Schema schema = new Schema();
+    for (int i = 0; i < localityGroups; i++) {
+      schema.addLocalityGroup("lg" + i);
+    }
+    for (int i = 0; i < tables; i++) {
+      schema.addTable("t" + i, random);
+    }
+    for (int i = 0; i < indexes; i++) {
+      schema.addIndex("idx" + i, random);
+    }
+    for (int i = 0; i < searchIndexes; i++) {
+      schema.addSearchIndex("sidx" + i, random);
+    }
+    for (int i = 0; i < foreignKeys; i++) {
+      schema.addForeignKey("fk" + i, random);
+    }
+    for (int i = 0; i < checkConstraints; i++) {
+      schema.addCheck("chk" + i, random);
+    }
+    for (int i = 0; i < changeStreams; i++) {
+      schema.addChangeStream("cs" + i, random);
+    }
+    for (int i = 0; i < databaseOptions; i++) {
+      schema.databaseOptions.put("option" + i, "'value" + i + "'");
+    }
+    return schema;
+  }
+
+  private static <T> T pick(List<T> list, Random random) {
+    return list.isEmpty() ? null : list.get(random.nextInt(list.size()));
+  }
+
+  /** The kinds of change applied to each object chosen for mutation, in rotation. */
+  private enum Change {
+    MODIFY,
+    DROP,
+    ADD
+  }
+
+  /** Applies the changes of {@link #changePercent} to the schema. */
+  private class Mutator {
+    private final Schema schema;
+    private final Random random;
+    private int added = 0;
+
+    Mutator(Schema schema, Random random) {
+      this.schema = schema;
+      this.random = random;
+    }
+
+    void mutate() {
+      int columnCount = schema.tables.values().stream().mapToInt(t -> t.dataColumns.size()).sum();
+      for (Change change : changes(schema.tables.size())) {
+        mutateTable(change);
+      }
+      List<Column> droppableColumns = schema.unindexedColumns();
+      for (Change change : changes(columnCount)) {
+        mutateColumn(change, droppableColumns);
+      }
+      for (Change change : changes(schema.indexes.size())) {
+        mutateIndex(change);
+      }
+      for (Change change : changes(schema.searchIndexes.size())) {
+        mutateSearchIndex(change);
+      }
+      for (Change change : changes(schema.foreignKeys.size())) {
+        mutateForeignKey(change);
+      }
+      for (Change change : changes(schema.checks.size())) {
+        mutateCheck(change);
+      }
+      for (Change change : changes(schema.changeStreams.size())) {
+        mutateChangeStream(change);
+      }
+      for (Change change : changes(schema.localityGroups.size())) {
+        mutateLocalityGroup(change);
+      }
+      for (Change change : changes(schema.databaseOptions.size())) {
+        mutateDatabaseOption(change);
+      }
+    }
+
+    /** Returns the list of changes to make to a kind of object with count instances. */
+    private List<Change> changes(int count) {
+      int changeCount = (int) Math.round(count * changePercent / 100.0);
+      List<Change> changes = new ArrayList<>(changeCount);
+      while (changes.size() < changeCount) {
+        for (Change change : Change.values()) {
+          if (changes.size() < changeCount) {
+            changes.add(change);
+          }
+        }
+      }
+      return changes;
+    }
+
+    private String newName(String prefix) {
+      added++;
+      return prefix + "_new" + added;
+    }
+
+    private void mutateTable(Change change) {
+      if (change == Change.MODIFY) {
+        Table table = pick(filter(schema.tables.values(), t -> t.parent != null), random);
+        if (table != null) {
+          table.onDeleteCascade = !table.onDeleteCascade;
+          return;
+        }
+      } else if (change == Change.DROP) {
+        Set<Table> referenced = schema.referencedTables();
+        Table table = pick(filter(schema.tables.values(), t -> !referenced.contains(t)), random);
+        if (table != null) {
+          schema.dropTable(table);
+          return;
+        }
+      }
+      schema.addTable(newName("t"), random);
+    }
+
+    private void mutateColumn(Change change, List<Column> droppableColumns) {
+      if (change == Change.MODIFY) {
+        Table table = pick(filter(schema.tables.values(), t -> !t.dataColumns.isEmpty()), random);
+        if (table != null) {
+          Column column = pick(new ArrayList<>(table.dataColumns.values()), random);
+          if (column.type.startsWith("STRING(") || column.type.startsWith("BYTES(")) {
+            column.type = column.type.substring(0, column.type.indexOf('(')) + "(MAX)";
+          } else {
+            column.notNull = !column.notNull;
+          }
+          return;
+        }
+      } else if (change == Change.DROP && !droppableColumns.isEmpty()) {
+        Column column = droppableColumns.remove(random.nextInt(droppableColumns.size()));
+        column.table.dataColumns.remove(column.name);
+        return;
+      }
+      Table table = pick(new ArrayList<>(schema.tables.values()), random);
+      String name = newName("c");
+      table.dataColumns.put(
+          name, new Column(table, name, COLUMN_TYPES[random.nextInt(COLUMN_TYPES.length)]));
+    }
+
+    private void mutateIndex(Change change) {
+      Index index = pick(new ArrayList<>(schema.indexes.values()), random);
+      if (index != null && change == Change.MODIFY) {
+        String stored =
+            index.table.dataColumns.keySet().stream()
+                .filter(c -> !c.equals(index.column))
+                .findFirst()
+                .orElse(null);
+        if (random.nextBoolean() || stored == null) {
+          index.descending = !index.descending;
+        } else if (index.storing.isEmpty()) {
+          index.storing.add(stored);
+        } else {
+          index.storing.clear();
+        }
+      } else if (index != null && change == Change.DROP) {
+        schema.indexes.remove(index.name);
+      } else {
+        schema.addIndex(newName("idx"), random);
+      }
+    }
+
+    private void mutateSearchIndex(Change change) {
+      SearchIndex index = pick(new ArrayList<>(schema.searchIndexes.values()), random);
+      if (index != null && change == Change.MODIFY) {
+        index.substringTokens = !index.substringTokens;
+      } else if (index != null && change == Change.DROP) {
+        schema.searchIndexes.remove(index.name);
+      } else {
+        schema.addSearchIndex(newName("sidx"), random);
+      }
+    }
+
+    private void mutateForeignKey(Change change) {
+      ForeignKey foreignKey = pick(new ArrayList<>(schema.foreignKeys.values()), random);
+      if (foreignKey != null && change == Change.MODIFY) {
+        foreignKey.onDeleteCascade = !foreignKey.onDeleteCascade;
+      } else if (foreignKey != null && change == Change.DROP) {
+        schema.foreignKeys.remove(foreignKey.name);
+      } else {
+        schema.addForeignKey(newName("fk"), random);
+      }
+    }
+
+    private void mutateCheck(Change change) {
+      Check check = pick(new ArrayList<>(schema.checks.values()), random);
+      if (check != null && change == Change.MODIFY) {
+        check.minimum++;
+      } else if (check != null && change == Change.DROP) {
+        schema.checks.remove(check.name);
+      } else {
+        schema.addCheck(newName("chk"), random);
+      }
+    }
+
+    private void mutateChangeStream(Change change) {
+      ChangeStream changeStream = pick(new ArrayList<>(schema.changeStreams.values()), random);
+      if (changeStream != null && change == Change.MODIFY) {
+        if (random.nextBoolean()) {
+          changeStream.retentionDays++;
+        } else {
+          Table table = pick(new ArrayList<>(schema.tables.values()), random);
+          if (!changeStream.tables.remove(table) || changeStream.tables.isEmpty()) {
+            changeStream.tables.add(table);
+          }
+        }
+      } else if (changeStream != null && change == Change.DROP) {
+        schema.changeStreams.remove(changeStream.name);
+      } else {
+        schema.addChangeStream(newName("cs"), random);
+      }
+    }
+
+    private void mutateLocalityGroup(Change change) {
+      LocalityGroup group = pick(new ArrayList<>(schema.localityGroups.values()), random);
+      if (group != null && change == Change.MODIFY) {
+        group.ssd = !group.ssd;
+      } else if (group != null && change == Change.DROP) {
+        schema.localityGroups.remove(group.name);
+        for (Table table : schema.tables.values()) {
+          if (group.equals(table.localityGroup)) {
+            table.localityGroup = null;
+          }
+        }
+      } else {
+        LocalityGroup newGroup = schema.addLocalityGroup(newName("lg"));
+        pick(new ArrayList<>(schema.tables.values()), random).localityGroup = newGroup;
+      }
+    }
+
+    private void mutateDatabaseOption(Change change) {
+      String option = pick(new ArrayList<>(schema.databaseOptions.keySet()), random);
+      if (option != null && change == Change.MODIFY) {
+        schema.databaseOptions.put(option, "'changed'");
+      } else if (option != null && change == Change.DROP) {
+        schema.databaseOptions.remove(option);
+      } else {
+        schema.databaseOptions.put(newName("option"), "'new'");
+      }
+    }
+  }
+
+  private static <T> List<T> filter(Iterable<T> items, Predicate<T> predicate) {
+    List<T> result = new ArrayList<>();
+    for (T item : items) {
+      if (predicate.test(item)) {
+        result.add(item);
+      }
+    }
+    return result;
+  }
+
+  /** Model of the generated schema. */
+  private class Schema {
+    final Map<String, LocalityGroup> localityGroups = new LinkedHashMap<>();
+    final Map<String, Table> tables = new LinkedHashMap<>();
+    final Map<String, Index> indexes = new LinkedHashMap<>();
+    final Map<String, SearchIndex> searchIndexes = new LinkedHashMap<>();
+    final Map<String, ForeignKey> foreignKeys = new LinkedHashMap<>();
+    final Map<String, Check> checks = new LinkedHashMap<>();
+    final Map<String, ChangeStream> changeStreams = new LinkedHashMap<>();
+    final Map<String, String> databaseOptions = new LinkedHashMap<>();
+
+    LocalityGroup addLocalityGroup(String name) {
+      LocalityGroup group = new LocalityGroup(name);
+      localityGroups.put(name, group);
+      return group;
+    }
+
+    void addTable(String name, Random random) {
+      Table parent = null;
+      if (interleaveDepth > 1 && random.nextBoolean()) {
+        parent = pick(filter(tables.values(), t -> t.depth < interleaveDepth), random);
+      }
+      Table table = new Table(name, parent);
+      for (int i = 0; i < columnsPerTable; i++) {
+        String columnName = "c" + i;
+        table.dataColumns.put(
+            columnName, new Column(table, columnName, COLUMN_TYPES[i % COLUMN_TYPES.length]));
+      }
+      if (!localityGroups.isEmpty() && random.nextInt(3) == 0) {
+        table.localityGroup = pick(new ArrayList<>(localityGroups.values()), random);
+      }
+      tables.put(name, table);
+    }
+
+    void addIndex(String name, Random random) {
+      Table table = pick(new ArrayList<>(tables.values()), random);
+      // Index on a data column, or on the table's own key column if it has no indexable columns.
+      List<String> indexable =
+          table.dataColumns.values().stream()
+              .filter(c -> !c.type.startsWith("ARRAY") && !c.type.equals("JSON"))
+              .map(c -> c.name)
+              .collect(Collectors.toList());
+      String column = indexable.isEmpty() ? table.ownKeyColumn() : pick(indexable, random);
+      indexes.put(name, new Index(name, table, column));
+    }
+
+    void addSearchIndex(String name, Random random) {
+      Table table =
+          pick(
+              filter(
+                  tables.values(),
+                  t -> searchIndexes.values().stream().noneMatch(i -> i.table == t)),
+              random);
+      if (table != null) {
+        table.hasTokens = true;
+        searchIndexes.put(name, new SearchIndex(name, table));
+      }
+    }
+
+    void addForeignKey(String name, Random random) {
+      Table table = pick(new ArrayList<>(tables.values()), random);
+      Table referenced = pick(filter(tables.values(), t -> t.parent == null && t != table), random);
+      if (referenced != null) {
+        if (!table.referenceColumns.contains(referenced.ownKeyColumn())) {
+          table.referenceColumns.add(referenced.ownKeyColumn());
+        }
+        foreignKeys.put(name, new ForeignKey(name, table, referenced));
+      }
+    }
+
+    void addCheck(String name, Random random) {
+      Table table = pick(new ArrayList<>(tables.values()), random);
+      checks.put(name, new Check(name, table));
+    }
+
+    void addChangeStream(String name, Random random) {
+      ChangeStream changeStream = new ChangeStream(name);
+      int trackedTables = 1 + random.nextInt(3);
+      for (int i = 0; i < trackedTables; i++) {
+        Table table = pick(new ArrayList<>(tables.values()), random);
+        if (!changeStream.tables.contains(table)) {
+          changeStream.tables.add(table);
+        }
+      }
+      changeStreams.put(name, changeStream);
+    }
+
+    /** Returns the tables referred to by other objects, which cannot be dropped. */
+    Set<Table> referencedTables() {
+      Set<Table> referenced = new HashSet<>();
+      for (Table table : tables.values()) {
+        if (table.parent != null) {
+          referenced.add(table.parent);
+        }
+      }
+      for (ForeignKey foreignKey : foreignKeys.values()) {
+        referenced.add(foreignKey.referenced);
+      }
+      for (ChangeStream changeStream : changeStreams.values()) {
+        referenced.addAll(changeStream.tables);
+      }
+      return referenced;
+    }
+
+    void dropTable(Table table) {
+      tables.remove(table.name);
+      indexes.values().removeIf(i -> i.table == table);
+      searchIndexes.values().removeIf(i -> i.table == table);
+      foreignKeys.values().removeIf(fk -> fk.table == table);
+      checks.values().removeIf(c -> c.table == table);
+    }
+
+    /** Returns the data columns which are not used by any index, which can be dropped. */
+    List<Column> unindexedColumns() {
+      Set<String> indexed = new HashSet<>();
+      for (Index index : indexes.values()) {
+        indexed.add(index.table.name + "." + index.column);
+        for (String stored : index.storing) {
+          indexed.add(index.table.name + "." + stored);
+        }
+      }
+      List<Column> columns = new ArrayList<>();
+      for (Table table : tables.values()) {
+        for (Column column : table.dataColumns.values()) {
+          if (!indexed.contains(table.name + "." + column.name)) {
+            columns.add(column);
+          }
+        }
+      }
+      return columns;
+    }
+
+    String render() {
+      StringBuilder ddl = new StringBuilder();
+      for (LocalityGroup group : localityGroups.values()) {
+        ddl.append("CREATE LOCALITY GROUP ")
+            .append(group.name)
+            .append(" OPTIONS (storage='")
+            .append(group.ssd ? "ssd" : "hdd")
+            .append("');\n\n");
+      }
+      for (Table table : tables.values()) {
+        renderTable(table, ddl);
+      }
+      for (Index index : indexes.values()) {
+        ddl.append("CREATE INDEX ")
+            .append(index.name)
+            .append(" ON ")
+            .append(index.table.name)
+            .append(" (")
+            .append(index.column)
+            .append(index.descending ? " DESC" : "")
+            .append(")");
+        if (!index.storing.isEmpty()) {
+          ddl.append(" STORING (").append(Joiner.on(", ").join(index.storing)).append(")");
+        }
+        ddl.append(";\n\n");
+      }
+      for (SearchIndex index : searchIndexes.values()) {
+        ddl.append("CREATE SEARCH INDEX ")
+            .append(index.name)
+            .append(" ON ")
+            .append(index.table.name)
+            .append(" (text_tokens")
+            .append(index.substringTokens ? ", text_substring_tokens" : "")
+            .append(");\n\n");
+      }
+      for (ForeignKey foreignKey : foreignKeys.values()) {
+        String column = foreignKey.referenced.ownKeyColumn();
+        ddl.append("ALTER TABLE ")
+            .append(foreignKey.table.name)
+            .append(" ADD CONSTRAINT ")
+            .append(foreignKey.name)
+            .append(" FOREIGN KEY (ref_")
+            .append(column)
+            .append(") REFERENCES ")
+            .append(foreignKey.referenced.name)
+            .append(" (")
+            .append(column)
+            .append(")")
+            .append(foreignKey.onDeleteCascade ? " ON DELETE CASCADE" : "")
+            .append(";\n\n");
+      }
+      for (Check check : checks.values()) {
+        ddl.append("ALTER TABLE ")
+            .append(check.table.name)
+            .append(" ADD CONSTRAINT ")
+            .append(check.name)
+            .append(" CHECK (")
+            .append(check.table.ownKeyColumn())
+            .append(" >= ")
+            .append(check.minimum)
+            .append(");\n\n");
+      }
+      for (ChangeStream changeStream : changeStreams.values()) {
+        ddl.append("CREATE CHANGE STREAM ")
+            .append(changeStream.name)
+            .append(" FOR ")
+            .append(changeStream.tables.stream().map(t -> t.name).collect(Collectors.joining(", ")))
+            .append(" OPTIONS (retention_period='")
+            .append(changeStream.retentionDays)
+            .append("d');\n\n");
+      }
+      if (!databaseOptions.isEmpty()) {
+        ddl.append("ALTER DATABASE db SET OPTIONS (")
+            .append(Joiner.on(", ").withKeyValueSeparator("=").join(databaseOptions))
+            .append(");\n\n");
+      }
+      return ddl.toString();
+    }
+
+    private void renderTable(Table table, StringBuilder ddl) {
+      List<String> elements = new ArrayList<>();
+      for (String keyColumn : table.keyColumns) {
+        elements.add(keyColumn + " INT64 NOT NULL");
+      }
+      for (Column column : table.dataColumns.values()) {
+        elements.add(column.name + " " + column.type + (column.notNull ? " NOT NULL" : ""));
+      }
+      for (String referenceColumn : table.referenceColumns) {
+        elements.add("ref_" + referenceColumn + " INT64");
+      }
+      if (table.hasTokens) {
+        elements.add("text STRING(MAX)");
+        elements.add("text_tokens TOKENLIST AS (TOKENIZE_FULLTEXT(text)) HIDDEN");
+        elements.add("text_substring_tokens TOKENLIST AS (TOKENIZE_SUBSTRING(text)) HIDDEN");
+      }
+      ddl.append("CREATE TABLE ")
+          .append(table.name)
+          .append(" (\n  ")
+          .append(Joiner.on(",\n  ").join(elements))
+          .append("\n) PRIMARY KEY (")
+          .append(Joiner.on(", ").join(table.keyColumns))
+          .append(")");
+      if (table.parent != null) {
+        ddl.append(",\n  INTERLEAVE IN PARENT ")
+            .append(table.parent.name)
+            .append(table.onDeleteCascade ? " ON DELETE CASCADE" : " ON DELETE NO ACTION");
+      }
+      if (table.localityGroup != null) {
+        ddl.append(",\n  OPTIONS (locality_group='").append(table.localityGroup.name).append("')");
+      }
+      ddl.append(";\n\n");
+    }
+  }
+
+  private static class LocalityGroup {
+    final String name;
+    boolean ssd = true;
+
+    LocalityGroup(String name) {
+      this.name = name;
+    }
+  }
+
+  private static class Table {
+    final String name;
+    final Table parent;
+    final int depth;
+    final List<String> keyColumns = new ArrayList<>();
+    final Map<String, Column> dataColumns = new LinkedHashMap<>();
+    final List<String> referenceColumns = new ArrayList<>();
+    boolean onDeleteCascade = true;
+    boolean hasTokens = false;
+    LocalityGroup localityGroup;
+
+    Table(String name, Table parent) {
+      this.name = name;
+      this.parent = parent;
+      this.depth = parent == null ? 1 : parent.depth + 1;
+      if (parent != null) {
+        keyColumns.addAll(parent.keyColumns);
+      }
+      keyColumns.add(name + "_id");
+    }
+
+    String ownKeyColumn() {
+      return keyColumns.get(keyColumns.size() - 1);
+    }
+  }
+
+  private static class Column {
+    final Table table;
+    final String name;
+    String type;
+    boolean notNull = false;
+
+    Column(Table table, String name, String type) {
+      this.table = table;
+      this.name = name;
+      this.type = type;
+    }
+  }
+
+  private static class Index {
+    final String name;
+    final Table table;
+    final String column;
+    final List<String> storing = new ArrayList<>();
+    boolean descending = false;
+
+    Index(String name, Table table, String column) {
+      this.name = name;
+      this.table = table;
+      this.column = column;
+    }
+  }
+
+  private static class SearchIndex {
+    final String name;
+    final Table table;
+    boolean substringTokens = false;
+
+    SearchIndex(String name, Table table) {
+      this.name = name;
+      this.table = table;
+    }
+  }
+
+  private static class ForeignKey {
+    final String name;
+    final Table table;
+    final Table referenced;
+    boolean onDeleteCascade = false;
+
+    ForeignKey(String name, Table table, Table referenced) {
+      this.name = name;
+      this.table = table;
+      this.referenced = referenced;
+    }
+  }
+
+  private static class Check {
+    final String name;
+    final Table table;
+    int minimum = 0;
+
+    Check(String name, Table table) {
+      this.name = name;
+      this.table = table;
+    }
+  }
+
+  private static class ChangeStream {
+    final String name;
+    final List<Table> tables = new ArrayList<>();
+    int retentionDays = 1;
+
+    ChangeStream(String name) {
+      this.name = name;
+    }
+  }
+}
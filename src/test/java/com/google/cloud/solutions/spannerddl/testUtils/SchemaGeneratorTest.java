@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.solutions.spannerddl.testUtils;
+
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_DROP_STATEMENTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_CONSTRAINTS_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.ALLOW_RECREATE_INDEXES_OPT;
+import static com.google.cloud.solutions.spannerddl.diff.DdlDiff.IGNORE_PROTO_BUNDLES_OPT;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.cloud.solutions.spannerddl.diff.DdlDiff;
+import com.google.cloud.solutions.spannerddl.diff.DdlDiffException;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_index_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTcreate_table_statement;
+import com.google.cloud.solutions.spannerddl.parser.ASTddl_statement;
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class SchemaGeneratorTest {
+
+  private static final Map<String, Boolean> OPTIONS =
+      ImmutableMap.of(
+          ALLOW_DROP_STATEMENTS_OPT, true,
+          ALLOW_RECREATE_INDEXES_OPT, true,
+          ALLOW_RECREATE_CONSTRAINTS_OPT, true,
+          IGNORE_PROTO_BUNDLES_OPT, false);
+
+  @Test
+  public void generate_isDeterministic() {
+    SchemaGenerator generator = new SchemaGenerator().seed(7).tables(50).interleaveDepth(3);
+    SchemaGenerator sameGenerator = new SchemaGenerator().seed(7).tables(50).interleaveDepth(3);
+
+    assertThat(generator.generateOriginalDdl()).isEqualTo(sameGenerator.generateOriginalDdl());
+    assertThat(generator.generateNewDdl()).isEqualTo(sameGenerator.generateNewDdl());
+    assertThat(generator.generateOriginalDdl())
+        .isNotEqualTo(
+            new SchemaGenerator().seed(8).tables(50).interleaveDepth(3).generateOriginalDdl());
+  }
+
+  @Test
+  public void generateOriginalDdl_hasConfiguredObjectCounts() throws DdlDiffException {
+    List<ASTddl_statement> statements =
+        DdlDiff.parseDdl(new SchemaGenerator().tables(20).indexes(15).generateOriginalDdl());
+
+    assertThat(
+            statements.stream()
+                .filter(s -> s.jjtGetChild(0) instanceof ASTcreate_table_statement)
+                .count())
+        .isEqualTo(20);
+    assertThat(
+            statements.stream()
+                .filter(s -> s.jjtGetChild(0) instanceof ASTcreate_index_statement)
+                .count())
+        .isEqualTo(15);
+  }
+
+  @Test
+  public void generateNewDdl_withoutChanges_isIdentical() {
+    SchemaGenerator generator = new SchemaGenerator().tables(20).changePercent(0);
+
+    assertThat(generator.generateNewDdl()).isEqualTo(generator.generateOriginalDdl());
+  }
+
+  @Test
+  public void generateNewDdl_canBeDiffed() throws DdlDiffException {
+    for (int seed = 0; seed < 20; seed++) {
+      SchemaGenerator generator =
+          new SchemaGenerator()
+              .seed(seed)
+              .tables(40)
+              .interleaveDepth(3)
+              .indexes(30)
+              .searchIndexes(5)
+              .foreignKeys(20)
+              .checkConstraints(10)
+              .changeStreams(5)
+              .localityGroups(3)
+              .databaseOptions(3)
+              .changePercent(30);
+      String originalDdl = generator.generateOriginalDdl();
+      String newDdl = generator.generateNewDdl();
+
+      List<String> statements =
+          DdlDiff.build(originalDdl, newDdl, OPTIONS).generateDifferenceStatements(OPTIONS);
+
+      assertThat(statements).isNotEmpty();
+      DdlDiff.validateDdl(DdlDiff.parseDdl(newDdl), OPTIONS);
+      assertThat(DdlDiff.build(newDdl, newDdl, OPTIONS).generateDifferenceStatements(OPTIONS))
+          .isEmpty();
+    }
+  }
+}